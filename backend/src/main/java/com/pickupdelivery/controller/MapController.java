@@ -2,14 +2,21 @@ package com.pickupdelivery.controller;
 
 import com.pickupdelivery.dto.ApiResponse;
 import com.pickupdelivery.dto.MapUploadResponse;
+import com.pickupdelivery.dto.MapViewportResponse;
+import com.pickupdelivery.dto.NearestNodeResponse;
 import com.pickupdelivery.model.CityMap;
 import com.pickupdelivery.service.MapService;
+import com.pickupdelivery.service.spatial.NodeSpatialIndex;
+import com.pickupdelivery.service.spatial.SegmentGridIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Contrôleur REST pour gérer les opérations liées aux cartes
  * Expose les endpoints API pour le frontend React
@@ -19,6 +26,9 @@ import org.springframework.web.multipart.MultipartFile;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:3000"})
 public class MapController {
 
+    /** Nombre maximal de voisins retournés par /nearest */
+    private static final int MAX_NEAREST_NODES = 50;
+
     @Autowired
     private MapService mapService;
 
@@ -72,6 +82,90 @@ public class MapController {
         return ResponseEntity.ok(ApiResponse.success(mapService.getCurrentMap()));
     }
 
+    /**
+     * Retrouve les nœuds les plus proches d'une coordonnée (clic sur la carte)
+     * GET /api/maps/nearest?lat=45.75&lon=4.85&k=3
+     * @param lat Latitude du point
+     * @param lon Longitude du point
+     * @param k Nombre de nœuds souhaités (1 par défaut, 50 au maximum)
+     * @return Les nœuds les plus proches, triés par distance croissante
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<ApiResponse<List<NearestNodeResponse>>> findNearestNodes(
+            @RequestParam("lat") double lat,
+            @RequestParam("lon") double lon,
+            @RequestParam(value = "k", defaultValue = "1") int k) {
+        if (!mapService.hasMap()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Aucune carte n'est chargée"));
+        }
+
+        if (k < 1 || k > MAX_NEAREST_NODES) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Le paramètre k doit être compris entre 1 et " + MAX_NEAREST_NODES));
+        }
+
+        List<NearestNodeResponse> nearest = mapService.findNearestNodes(lat, lon, k).stream()
+                .map(this::toNearestNodeResponse)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(ApiResponse.success(nearest));
+    }
+
+    /**
+     * Récupère uniquement la portion de carte visible (au lieu de la carte complète)
+     * GET /api/maps/viewport?minLat=45.74&minLon=4.85&maxLat=45.76&maxLon=4.88&zoom=14
+     * @param minLat Latitude minimale de la zone
+     * @param minLon Longitude minimale de la zone
+     * @param maxLat Latitude maximale de la zone
+     * @param maxLon Longitude maximale de la zone
+     * @param zoom Niveau de zoom (les rues secondaires sont masquées aux zooms faibles)
+     * @return Les tronçons de la zone et leurs extrémités
+     */
+    @GetMapping("/viewport")
+    public ResponseEntity<ApiResponse<MapViewportResponse>> getViewport(
+            @RequestParam("minLat") double minLat,
+            @RequestParam("minLon") double minLon,
+            @RequestParam("maxLat") double maxLat,
+            @RequestParam("maxLon") double maxLon,
+            @RequestParam(value = "zoom", defaultValue = "" + SegmentGridIndex.FULL_DETAIL_ZOOM) int zoom) {
+        if (!mapService.hasMap()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Aucune carte n'est chargée"));
+        }
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success(mapService.getViewport(minLat, minLon, maxLat, maxLon, zoom)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Récupère une tuile de la carte (schéma slippy map z/x/y), mise en cache côté serveur
+     * GET /api/maps/tiles/14/8423/5861
+     * @param z Niveau de zoom
+     * @param x Colonne de la tuile
+     * @param y Ligne de la tuile
+     * @return Les tronçons de la tuile et leurs extrémités
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<ApiResponse<MapViewportResponse>> getTile(
+            @PathVariable("z") int z,
+            @PathVariable("x") int x,
+            @PathVariable("y") int y) {
+        if (!mapService.hasMap()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Aucune carte n'est chargée"));
+        }
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success(mapService.getTile(z, x, y)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Vérifie si une carte est chargée
      * GET /api/maps/status
@@ -92,4 +186,13 @@ public class MapController {
         mapService.clearMap();
         return ResponseEntity.ok(ApiResponse.success("Carte supprimée avec succès", null));
     }
+
+    private NearestNodeResponse toNearestNodeResponse(NodeSpatialIndex.Neighbor neighbor) {
+        return new NearestNodeResponse(
+                neighbor.node().getId(),
+                neighbor.node().getLatitude(),
+                neighbor.node().getLongitude(),
+                neighbor.distanceMeters()
+        );
+    }
 }
@@ -13,15 +13,21 @@ import com.pickupdelivery.model.Demand;
 import com.pickupdelivery.service.DeliveryService;
 import com.pickupdelivery.service.MapService;
 import com.pickupdelivery.service.ServiceAlgo;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.spi.AlgorithmSelection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -47,36 +53,130 @@ public class TourController {
     @Autowired
     private TourService tourService;
 
+    /**
+     * Calculs en cours, par identifiant, avec leur échéance (annulable)
+     */
+    private final Map<String, Deadline> runningCalculations = new ConcurrentHashMap<>();
+
+    /**
+     * Calcule une tournée avec le profil d'effort par défaut, sans limite de temps
+     */
+    public ResponseEntity<ApiResponse<TourCalculationResponse>> calculateTour(int courierCount) {
+        return computeTour(courierCount, null, null, null);
+    }
+
     /**
      * Calcule une tournée optimisée pour un nombre donné de livreurs
      * 
-     * Endpoint: POST /api/tours/calculate?courierCount=1
+     * Endpoint: POST /api/tours/calculate?courierCount=1&profile=balanced&maxTimeMs=500&calculationId=abc
+     *           &algorithms=route-improver=parallel-2-opt,fleet-distributor=fifo
+     * 
+     * Le calcul s'exécute en asynchrone sous une échéance de maxTimeMs : à l'échéance, la
+     * meilleure solution valide est renvoyée avec timeLimited = true. Le calcul est annulé
+     * si le client se déconnecte ou via POST /api/tours/calculate/{calculationId}/cancel.
      * 
      * Prérequis:
      * - Une carte doit avoir été chargée via /api/maps/upload
      * - Des demandes de livraison doivent avoir été chargées via /api/deliveries/upload
      * - Un entrepôt doit avoir été défini
      * 
-     * @param courierCount Nombre de livreurs (uniquement 1 supporté actuellement)
-     * @return Liste des tournées calculées (1 seule pour l'instant)
+     * @param courierCount Nombre de livreurs (au moins 1)
+     * @param profile      Profil d'effort (fast, balanced, quality) ; défaut: algo.profile.default
+     * @param maxTimeMs    Échéance globale du calcul (ms) ; défaut: aucune
+     * @param algorithms   Composants remplaçant ceux de la configuration ("clé=nom,...", voir
+     *                     GET /api/tours/algorithms) ; défaut: algo.spi.*
+     * @param calculationId Identifiant choisi par le client pour pouvoir annuler le calcul
+     * @return Les tournées calculées (au plus une par livreur)
      */
     @PostMapping("/calculate")
-    public ResponseEntity<ApiResponse<TourCalculationResponse>> calculateTour(
-            @RequestParam(value = "courierCount", defaultValue = "1") int courierCount) {
+    public WebAsyncTask<ResponseEntity<ApiResponse<TourCalculationResponse>>> calculateTour(
+            @RequestParam(value = "courierCount", defaultValue = "1") int courierCount,
+            @RequestParam(value = "profile", required = false) String profile,
+            @RequestParam(value = "maxTimeMs", required = false) Long maxTimeMs,
+            @RequestParam(value = "calculationId", required = false) String calculationId,
+            @RequestParam(value = "algorithms", required = false) String algorithms) {
+        
+        if (maxTimeMs != null && maxTimeMs < 0) {
+            return new WebAsyncTask<>(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Le budget de temps doit être positif (reçu: " + maxTimeMs + " ms)")));
+        }
+
+        String id = calculationId != null && !calculationId.isBlank() ? calculationId : UUID.randomUUID().toString();
+        Deadline deadline = maxTimeMs != null ? Deadline.in(maxTimeMs) : Deadline.none();
+        if (runningCalculations.putIfAbsent(id, deadline) != null) {
+            return new WebAsyncTask<>(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Un calcul est déjà en cours avec l'identifiant " + id)));
+        }
+
+        WebAsyncTask<ResponseEntity<ApiResponse<TourCalculationResponse>>> task = new WebAsyncTask<>(() -> {
+            try {
+                return computeTour(courierCount, profile, algorithms, deadline);
+            } finally {
+                runningCalculations.remove(id, deadline);
+            }
+        });
+        // Client déconnecté ou requête terminée : le calcul éventuellement en cours s'arrête
+        task.onError(() -> {
+            System.out.println("⚠️ Client déconnecté, annulation du calcul " + id);
+            deadline.cancel();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Calcul annulé (client déconnecté)"));
+        });
+        task.onCompletion(() -> {
+            deadline.cancel();
+            runningCalculations.remove(id, deadline);
+        });
+        return task;
+    }
+
+    /**
+     * Annule un calcul en cours : il renvoie sa meilleure solution trouvée, marquée timeLimited
+     * 
+     * Endpoint: POST /api/tours/calculate/{calculationId}/cancel
+     */
+    @PostMapping("/calculate/{calculationId}/cancel")
+    public ResponseEntity<ApiResponse<String>> cancelCalculation(@PathVariable String calculationId) {
+        Deadline deadline = runningCalculations.get(calculationId);
+        if (deadline == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Aucun calcul en cours avec l'identifiant " + calculationId));
+        }
+        deadline.cancel();
+        System.out.println("🛑 Calcul " + calculationId + " annulé à la demande du client");
+        return ResponseEntity.ok(ApiResponse.success("Calcul annulé", calculationId));
+    }
+
+    /**
+     * Calcul synchrone d'une tournée
+     *
+     * @param algorithmsSpec Composants demandés ("clé=nom,..."), ou null pour ceux de la configuration
+     * @param deadline       Échéance annulable, ou null pour un calcul sans limite avec le profil par défaut
+     */
+    private ResponseEntity<ApiResponse<TourCalculationResponse>> computeTour(
+            int courierCount, String profile, String algorithmsSpec, Deadline deadline) {
         
         try {
             System.out.println("\n🚀 === DÉBUT DU CALCUL DE TOURNÉE ===");
             System.out.println("   Nombre de livreurs demandés: " + courierCount);
+            if (profile != null) {
+                System.out.println("   Profil: " + profile);
+            }
+            AlgorithmSelection algorithms = algorithmsSpec != null && !algorithmsSpec.isBlank()
+                    ? serviceAlgo.resolveAlgorithms(algorithmsSpec)
+                    : null;
+            if (algorithms != null) {
+                System.out.println("   Algorithmes: " + algorithms);
+            }
             
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             // 0️⃣ VALIDATION: Nombre de coursiers
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             
-            if (courierCount < 1 || courierCount > 10) {
+            if (courierCount < 1) {
                 System.out.println("❌ Erreur: Nombre de coursiers invalide: " + courierCount);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(ApiResponse.error(
-                            "Le nombre de coursiers doit être entre 1 et 10 (reçu: " + courierCount + ")"));
+                            "Le nombre de coursiers doit être au moins 1 (reçu: " + courierCount + ")"));
             }
             
             // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -139,48 +239,13 @@ public class TourController {
                 List<Tour> tours = new ArrayList<>();
                 List<String> warnings = new ArrayList<>();
 
-                for (Map.Entry<String, List<Demand>> entry : demandsByCourier.entrySet()) {
-                    String courierIdStr = entry.getKey();
-                    List<Demand> demandsForCourier = entry.getValue();
-                    if (demandsForCourier.isEmpty()) continue;
-
-                    DemandeSet subset = new DemandeSet();
-                    subset.setWarehouse(DemandeSet.getWarehouse());
-                    subset.setDemands(demandsForCourier);
-
-                    StopSet stopSet = serviceAlgo.getStopSet(subset);
-                    Graph graph = serviceAlgo.buildGraph(stopSet, cityMap);
-
-                    Map<String, Demand> demandMap = new HashMap<>();
-                    for (Demand d : demandsForCourier) {
-                        demandMap.put(d.getId(), d);
-                        if (d.getId() != null && d.getId().length() > 1) {
-                            demandMap.put(d.getId().substring(1), d);
-                        }
-                    }
-                    graph.setDemandMap(demandMap);
-
-                    TourDistributionResult dist = serviceAlgo.calculateOptimalTours(graph, 1);
-                    List<Tour> computed = dist.getTours();
-                    if (computed != null) {
-                        for (Tour t : computed) {
-                            try {
-                                t.setCourierId(Integer.valueOf(courierIdStr));
-                            } catch (NumberFormatException nfe) {
-                                // conserver si non numérique
-                            }
-                            if (t.getTotalDurationSec() > 4 * 3600) {
-                                warnings.add("Tournée coursier " + courierIdStr + " dépasse 4h, demandes remises en non assignées");
-                                unassigned.addAll(demandsForCourier);
-                            } else {
-                                tours.add(t);
-                            }
-                        }
-                    }
-                    if (dist.getWarnings() != null && dist.getWarnings().getMessages() != null) {
-                        warnings.addAll(dist.getWarnings().getMessages());
-                    }
-                }
+                // Une seule matrice sur tous les stops, découpée ensuite pour chaque coursier
+                Graph globalGraph = demandsByCourier.isEmpty()
+                        ? null
+                        : buildGraph(serviceAlgo.getStopSet(DemandeSet), cityMap, algorithms);
+
+                tours.addAll(optimizeCourierTours(demandsByCourier, globalGraph,
+                        graph -> runAlgorithm(graph, 1, profile, algorithms, deadline), unassigned, warnings));
 
                 // Mettre à jour les courierId dans le DemandeSet pour persister l'état
                 // Sans effacer les affectations non numériques (ex: "extra")
@@ -193,6 +258,7 @@ public class TourController {
                 }
 
                 TourCalculationResponse resp = new TourCalculationResponse(tours, unassigned, warnings);
+                resp.setTimeLimited(deadline != null && deadline.isExpired());
                 if (tourService != null) {
                     tourService.setAlgoTours(tours);
                 }
@@ -204,44 +270,62 @@ public class TourController {
                 return ResponseEntity.ok(ApiResponse.success(msg, resp));
             }
 
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // 2️⃣ CONSTRUCTION DU STOPSET
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            TourDistributionResult distributionResult;
+            long graphStartTime = System.currentTimeMillis();
+            long graphElapsedTime = 0;
+            long tourStartTime = graphStartTime;
+
+            if (serviceAlgo.shouldDecomposeGeographically(DemandeSet.getDemands().size())) {
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // 2️⃣ TRÈS GRANDE INSTANCE: SECTEURS GÉOGRAPHIQUES (un graphe par secteur)
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                
+                System.out.println("\n🗺️  Très grande instance: décomposition géographique...");
+                Deadline decompositionDeadline = deadline != null ? deadline : Deadline.none();
+                distributionResult = algorithms != null
+                    ? serviceAlgo.calculateDecomposedTours(
+                        DemandeSet, cityMap, courierCount, profile, decompositionDeadline, algorithms)
+                    : serviceAlgo.calculateDecomposedTours(
+                        DemandeSet, cityMap, courierCount, profile, decompositionDeadline);
+            } else {
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // 2️⃣ CONSTRUCTION DU STOPSET
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             
-            System.out.println("\n📊 Construction du StopSet...");
-            StopSet stopSet = serviceAlgo.getStopSet(DemandeSet);
-            System.out.println("   ✓ StopSet créé avec " + stopSet.getStops().size() + " stops");
+                System.out.println("\n📊 Construction du StopSet...");
+                StopSet stopSet = serviceAlgo.getStopSet(DemandeSet);
+                System.out.println("   ✓ StopSet créé avec " + stopSet.getStops().size() + " stops");
             
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // 3️⃣ CONSTRUCTION DU GRAPH (matrice de distances)
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // 3️⃣ CONSTRUCTION DU GRAPH (matrice de distances)
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             
-            System.out.println("\n🔗 Construction du Graph (calcul des distances)...");
-            long graphStartTime = System.currentTimeMillis();
+                System.out.println("\n🔗 Construction du Graph (calcul des distances)...");
             
-            Graph graph = serviceAlgo.buildGraph(stopSet, cityMap);
+                Graph graph = buildGraph(stopSet, cityMap, algorithms);
             
-            // PHASE 1: Ajouter les demandes au graph pour le calcul de temps
-            java.util.Map<String, com.pickupdelivery.model.Demand> demandMap = new java.util.HashMap<>();
-            if (DemandeSet.getDemands() != null) {
-                for (com.pickupdelivery.model.Demand demand : DemandeSet.getDemands()) {
-                    demandMap.put(demand.getId(), demand);
+                // PHASE 1: Ajouter les demandes au graph pour le calcul de temps
+                java.util.Map<String, com.pickupdelivery.model.Demand> demandMap = new java.util.HashMap<>();
+                if (DemandeSet.getDemands() != null) {
+                    for (com.pickupdelivery.model.Demand demand : DemandeSet.getDemands()) {
+                        demandMap.put(demand.getId(), demand);
+                    }
                 }
-            }
-            graph.setDemandMap(demandMap);
+                graph.setDemandMap(demandMap);
             
-            long graphElapsedTime = System.currentTimeMillis() - graphStartTime;
-            System.out.println("   ✓ Graph construit en " + graphElapsedTime + " ms");
-            System.out.println("   ✓ Matrice d'adjacence: " + graph.getDistancesMatrix().size() + " stops");
+                graphElapsedTime = System.currentTimeMillis() - graphStartTime;
+                System.out.println("   ✓ Graph construit en " + graphElapsedTime + " ms");
+                System.out.println("   ✓ Matrice d'adjacence: " + graph.getDistancesMatrix().size() + " stops");
             
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-            // 4️⃣ CALCUL DE LA TOURNÉE OPTIMALE (Algorithme glouton)
-            // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // 4️⃣ CALCUL DE LA TOURNÉE OPTIMALE (Algorithme glouton)
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
             
-            System.out.println("\n🎯 Calcul de la tournée optimale...");
-            long tourStartTime = System.currentTimeMillis();
+                System.out.println("\n🎯 Calcul de la tournée optimale...");
+                tourStartTime = System.currentTimeMillis();
             
-            TourDistributionResult distributionResult = serviceAlgo.calculateOptimalTours(graph, courierCount);
+                distributionResult = runAlgorithm(graph, courierCount, profile, algorithms, deadline);
+            }
             List<Tour> tours = distributionResult.getTours();
             
             long tourElapsedTime = System.currentTimeMillis() - tourStartTime;
@@ -317,6 +401,10 @@ public class TourController {
                 ? "Tournée calculée avec succès en " + totalTime + " ms"
                 : tours.size() + " tournées calculées avec succès en " + totalTime + " ms";
             
+            if (distributionResult.isTimeLimited()) {
+                message += " (⏱️ limite de temps atteinte, meilleure solution trouvée)";
+            }
+            
             // Ajouter warning si des demandes n'ont pas été assignées
             int totalDemandsLoaded = DemandeSet.getDemands().size();
             if (totalDemands < totalDemandsLoaded) {
@@ -330,6 +418,12 @@ public class TourController {
                 distributionResult.getUnassignedDemands(),
                 distributionResult.getWarnings().getMessages()
             );
+            response.setLowerBound(distributionResult.getLowerBound());
+            response.setGapPercent(distributionResult.getGapPercent());
+            response.setStrategy(distributionResult.getStrategy());
+            response.setProfile(distributionResult.getProfile());
+            response.setAlgorithms(distributionResult.getAlgorithms());
+            response.setTimeLimited(distributionResult.isTimeLimited());
 
             // Stocker les tournées calculées pour les réassignations ultérieures (si service présent)
             if (tourService != null) {
@@ -364,6 +458,127 @@ public class TourController {
         }
     }
     
+    /**
+     * Lance l'algorithme sous l'échéance et le profil demandés (profil par défaut sans limite sinon),
+     * avec les composants demandés (ceux de la configuration si null)
+     */
+    private TourDistributionResult runAlgorithm(
+            Graph graph, int courierCount, String profile, AlgorithmSelection algorithms, Deadline deadline) {
+        if (algorithms != null) {
+            return serviceAlgo.calculateOptimalTours(
+                graph, courierCount, profile, deadline != null ? deadline : Deadline.none(), algorithms);
+        }
+        if (profile == null && deadline == null) {
+            return serviceAlgo.calculateOptimalTours(graph, courierCount);
+        }
+        return serviceAlgo.calculateOptimalTours(graph, courierCount, profile, deadline != null ? deadline : Deadline.none());
+    }
+
+    /**
+     * Optimise la tournée de chaque coursier sur sa tranche de la matrice globale, en parallèle
+     *
+     * Les calculs sont indépendants (voir ServiceAlgo.calculateIndependentTours) ; tournées,
+     * avertissements et demandes remises en non assignées sont fusionnés ensuite par le thread
+     * appelant, dans l'ordre des coursiers : le résultat ne dépend pas de l'ordre de fin des calculs.
+     *
+     * @param globalGraph Le graphe de tous les stops du DemandeSet
+     * @param solver      Le calcul d'une tournée à 1 coursier
+     * @param unassigned  Reçoit les demandes des tournées de plus de 4h
+     * @param warnings    Reçoit les avertissements des calculs
+     * @return Les tournées valides, dans l'ordre des coursiers
+     */
+    private List<Tour> optimizeCourierTours(Map<String, List<Demand>> demandsByCourier, Graph globalGraph,
+            Function<Graph, TourDistributionResult> solver, List<Demand> unassigned, List<String> warnings) {
+        List<String> courierIds = new ArrayList<>();
+        List<Graph> graphs = new ArrayList<>();
+        for (String courierIdStr : demandsByCourier.keySet().stream().sorted(TourController::compareCourierIds).toList()) {
+            List<Demand> demandsForCourier = demandsByCourier.get(courierIdStr);
+            if (demandsForCourier.isEmpty()) continue;
+
+            Graph graph = serviceAlgo.sliceGraph(globalGraph, demandsForCourier);
+            // Injecter le demandMap attendu par l'algo (sinon warnings "demande introuvable")
+            Map<String, Demand> demandMap = new HashMap<>();
+            for (Demand d : demandsForCourier) {
+                demandMap.put(d.getId(), d);
+                // Ajout d'une clé alternative sans le premier caractère si besoin (robuste aux divergences d'ID)
+                if (d.getId() != null && d.getId().length() > 1) {
+                    demandMap.put(d.getId().substring(1), d);
+                }
+            }
+            graph.setDemandMap(demandMap);
+            courierIds.add(courierIdStr);
+            graphs.add(graph);
+        }
+
+        List<TourDistributionResult> results = serviceAlgo.calculateIndependentTours(graphs, solver);
+
+        List<Tour> tours = new ArrayList<>();
+        for (int i = 0; i < courierIds.size(); i++) {
+            String courierIdStr = courierIds.get(i);
+            TourDistributionResult dist = results.get(i);
+            List<Tour> computed = dist.getTours();
+            if (computed != null) {
+                for (Tour t : computed) {
+                    try {
+                        t.setCourierId(Integer.valueOf(courierIdStr));
+                    } catch (NumberFormatException nfe) {
+                        // conserver si non numérique
+                    }
+                    // Contrainte 4h
+                    if (t.getTotalDurationSec() > 4 * 3600) {
+                        warnings.add("Tournée coursier " + courierIdStr + " dépasse 4h, demandes remises en non assignées");
+                        unassigned.addAll(demandsByCourier.get(courierIdStr));
+                    } else {
+                        tours.add(t);
+                    }
+                }
+            }
+            if (dist.getWarnings() != null && dist.getWarnings().getMessages() != null) {
+                warnings.addAll(dist.getWarnings().getMessages());
+            }
+        }
+        return tours;
+    }
+
+    /**
+     * Ordre de fusion des coursiers : identifiants numériques croissants, puis les autres (ex: "extra")
+     */
+    private static int compareCourierIds(String a, String b) {
+        boolean numericA = !a.isEmpty() && a.chars().allMatch(Character::isDigit);
+        boolean numericB = !b.isEmpty() && b.chars().allMatch(Character::isDigit);
+        if (numericA != numericB) {
+            return numericA ? -1 : 1;
+        }
+        if (numericA) {
+            int byValue = new java.math.BigInteger(a).compareTo(new java.math.BigInteger(b));
+            if (byValue != 0) {
+                return byValue;
+            }
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Construit le graphe avec les composants demandés (ceux de la configuration si null)
+     */
+    private Graph buildGraph(StopSet stopSet, CityMap cityMap, AlgorithmSelection algorithms) {
+        return algorithms != null
+            ? serviceAlgo.buildGraph(stopSet, cityMap, algorithms)
+            : serviceAlgo.buildGraph(stopSet, cityMap);
+    }
+
+    /**
+     * Liste les composants interchangeables de la chaîne de calcul et ceux de la configuration
+     * GET /api/tours/algorithms
+     */
+    @GetMapping("/algorithms")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAlgorithms() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("available", serviceAlgo.getAvailableAlgorithms());
+        body.put("default", String.valueOf(serviceAlgo.resolveAlgorithms(null)));
+        return ResponseEntity.ok(ApiResponse.success("Composants disponibles", body));
+    }
+
     /**
      * Endpoint de test pour vérifier que le contrôleur est accessible
      * GET /api/tours/status
@@ -555,50 +770,13 @@ public class TourController {
             List<Tour> tours = new ArrayList<>();
             List<String> warnings = new ArrayList<>();
 
-            for (Map.Entry<String, List<Demand>> entry : demandsByCourier.entrySet()) {
-                String courierIdStr = entry.getKey();
-                List<Demand> demandsForCourier = entry.getValue();
-                if (demandsForCourier.isEmpty()) continue;
-
-                DemandeSet subset = new DemandeSet();
-                subset.setWarehouse(DemandeSet.getWarehouse());
-                subset.setDemands(demandsForCourier);
-
-                StopSet stopSet = serviceAlgo.getStopSet(subset);
-                Graph graph = serviceAlgo.buildGraph(stopSet, cityMap);
-                // Injecter le demandMap attendu par l'algo (sinon warnings "demande introuvable")
-                Map<String, Demand> demandMap = new HashMap<>();
-                for (Demand d : demandsForCourier) {
-                    demandMap.put(d.getId(), d);
-                    // Ajout d'une clé alternative sans le premier caractère si besoin (robuste aux divergences d'ID)
-                    if (d.getId() != null && d.getId().length() > 1) {
-                        demandMap.put(d.getId().substring(1), d);
-                    }
-                }
-                graph.setDemandMap(demandMap);
+            // Une seule matrice sur tous les stops, découpée ensuite pour chaque coursier
+            Graph globalGraph = demandsByCourier.isEmpty()
+                    ? null
+                    : serviceAlgo.buildGraph(serviceAlgo.getStopSet(DemandeSet), cityMap);
 
-                com.pickupdelivery.dto.TourDistributionResult dist = serviceAlgo.calculateOptimalTours(graph, 1);
-                List<Tour> computed = dist.getTours();
-                if (computed != null) {
-                    for (Tour t : computed) {
-                        try {
-                            t.setCourierId(Integer.valueOf(courierIdStr));
-                        } catch (NumberFormatException nfe) {
-                            // laisser tel quel si non numérique
-                        }
-                        // Contrainte 4h
-                        if (t.getTotalDurationSec() > 4 * 3600) {
-                            warnings.add("Tournée coursier " + courierIdStr + " dépasse 4h, demandes remises en non assignées");
-                            unassigned.addAll(demandsForCourier);
-                        } else {
-                            tours.add(t);
-                        }
-                    }
-                }
-                if (dist.getWarnings() != null && dist.getWarnings().getMessages() != null) {
-                    warnings.addAll(dist.getWarnings().getMessages());
-                }
-            }
+            tours.addAll(optimizeCourierTours(demandsByCourier, globalGraph,
+                    graph -> serviceAlgo.calculateOptimalTours(graph, 1), unassigned, warnings));
 
             TourCalculationResponse resp = new TourCalculationResponse(tours, unassigned, warnings);
 
@@ -0,0 +1,23 @@
+package com.pickupdelivery.dto;
+
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.model.Segment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour une portion de carte (viewport ou tuile)
+ * Ne contient que les tronçons visibles dans la zone et leurs extrémités
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapViewportResponse {
+    private List<Node> nodes;
+    private List<Segment> segments;
+    private int zoom;
+    private boolean simplified; // true si des rues secondaires ont été masquées à ce zoom
+}
@@ -0,0 +1,18 @@
+package com.pickupdelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour un nœud trouvé par la recherche du plus proche voisin
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearestNodeResponse {
+    private String nodeId;
+    private double latitude;
+    private double longitude;
+    private double distanceMeters;
+}
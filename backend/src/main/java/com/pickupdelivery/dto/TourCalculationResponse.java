@@ -15,6 +15,12 @@ public class TourCalculationResponse {
     private List<Tour> tours;
     private List<Demand> unassignedDemands;
     private List<String> warnings;
+    private Double lowerBound;
+    private Double gapPercent;
+    private String strategy;
+    private String profile;
+    private String algorithms;
+    private boolean timeLimited;
 
     public TourCalculationResponse() {
         this.tours = new ArrayList<>();
@@ -58,6 +64,28 @@ public class TourCalculationResponse {
         this.warnings = warnings;
     }
 
+    /**
+     * Borne inférieure de la distance cumulée (m), null si non calculée
+     */
+    public Double getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(Double lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    /**
+     * Écart (%) entre la distance cumulée des tournées et la borne inférieure, null si non calculé
+     */
+    public Double getGapPercent() {
+        return gapPercent;
+    }
+
+    public void setGapPercent(Double gapPercent) {
+        this.gapPercent = gapPercent;
+    }
+
     public void addWarning(String warning) {
         this.warnings.add(warning);
     }
@@ -73,4 +101,48 @@ public class TourCalculationResponse {
     public int getUnassignedCount() {
         return unassignedDemands.size();
     }
+
+    /**
+     * Stratégie de résolution retenue par le sélecteur (EXACT, LOCAL_SEARCH, METAHEURISTIC, DECOMPOSITION)
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Profil d'effort utilisé (fast, balanced, quality)
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Composants de la chaîne de calcul utilisés ("clé=nom,...")
+     */
+    public String getAlgorithms() {
+        return algorithms;
+    }
+
+    public void setAlgorithms(String algorithms) {
+        this.algorithms = algorithms;
+    }
+
+    /**
+     * true si le calcul a atteint sa limite de temps (ou a été annulé) avant de converger
+     */
+    public boolean isTimeLimited() {
+        return timeLimited;
+    }
+
+    public void setTimeLimited(boolean timeLimited) {
+        this.timeLimited = timeLimited;
+    }
 }
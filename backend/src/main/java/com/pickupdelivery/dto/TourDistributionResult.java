@@ -48,6 +48,49 @@ public class TourDistributionResult {
      */
     private DistributionWarnings warnings = new DistributionWarnings();
     
+    /**
+     * Borne inférieure de la distance cumulée nécessaire pour servir les demandes assignées
+     * (null si non calculée)
+     */
+    private Double lowerBound;
+    
+    /**
+     * Écart relatif (%) entre la distance cumulée et la borne inférieure
+     * 0 = optimalité prouvée (null si non calculé)
+     */
+    private Double gapPercent;
+    
+    /**
+     * Stratégie de résolution retenue (EXACT, LOCAL_SEARCH, METAHEURISTIC, DECOMPOSITION)
+     */
+    private String strategy;
+    
+    /**
+     * Profil d'effort utilisé (fast, balanced, quality)
+     */
+    private String profile;
+    
+    /**
+     * Composants de la chaîne de calcul (moteur de plus courts chemins, matrice, construction,
+     * amélioration, répartition), au format "clé=nom,..."
+     */
+    private String algorithms;
+    
+    /**
+     * true si le calcul a été interrompu par son échéance ou annulé :
+     * les tournées sont la meilleure solution valide trouvée jusque-là
+     */
+    private boolean timeLimited;
+    
+    public TourDistributionResult(
+            List<Tour> tours,
+            List<String> unassignedDemandIds,
+            List<Demand> unassignedDemands,
+            Map<Integer, TourMetrics> metricsByCourier,
+            DistributionWarnings warnings) {
+        this(tours, unassignedDemandIds, unassignedDemands, metricsByCourier, warnings, null, null, null, null, null, false);
+    }
+    
     /**
      * Retourne le nombre total de coursiers utilisés
      */
@@ -16,6 +16,12 @@ public class AlgorithmException extends RuntimeException {
         /** Contraintes de précédence non respectées */
         PRECEDENCE_VIOLATION,
         
+        /** Fenêtre horaire manquée par une tournée */
+        TIME_WINDOW_VIOLATION,
+        
+        /** Charge à bord supérieure à la capacité du coursier */
+        CAPACITY_EXCEEDED,
+        
         /** Aucun stop faisable trouvé (bug logique) */
         NO_FEASIBLE_STOP,
         
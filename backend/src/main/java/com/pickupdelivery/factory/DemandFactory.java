@@ -38,6 +38,47 @@ public class DemandFactory {
                          courierId);
     }
     
+    /**
+     * Ajoute des fenêtres horaires à une demande après validation
+     * 
+     * @param demand La demande à compléter
+     * @param pickupEarliestSec Début de la fenêtre du pickup (secondes après le départ, nullable)
+     * @param pickupLatestSec Fin de la fenêtre du pickup (nullable)
+     * @param deliveryEarliestSec Début de la fenêtre de la delivery (nullable)
+     * @param deliveryLatestSec Fin de la fenêtre de la delivery (nullable)
+     * @return La demande complétée
+     * @throws IllegalArgumentException Si une fenêtre se termine avant de commencer
+     */
+    public static Demand withTimeWindows(Demand demand,
+                                         Integer pickupEarliestSec, Integer pickupLatestSec,
+                                         Integer deliveryEarliestSec, Integer deliveryLatestSec) {
+        validateTimeWindow("pickup", pickupEarliestSec, pickupLatestSec);
+        validateTimeWindow("delivery", deliveryEarliestSec, deliveryLatestSec);
+        demand.setPickupEarliestSec(pickupEarliestSec);
+        demand.setPickupLatestSec(pickupLatestSec);
+        demand.setDeliveryEarliestSec(deliveryEarliestSec);
+        demand.setDeliveryLatestSec(deliveryLatestSec);
+        return demand;
+    }
+    
+    /**
+     * Ajoute une charge (encombrement du colis) à une demande après validation
+     * 
+     * @param demand La demande à compléter
+     * @param load La charge en unités de capacité (nullable = 0)
+     * @return La demande complétée
+     * @throws IllegalArgumentException Si la charge est négative
+     */
+    public static Demand withLoad(Demand demand, Integer load) {
+        if (load != null && load < 0) {
+            throw new IllegalArgumentException(
+                String.format("La charge de la demande ne peut pas être négative (reçu: %d)", load)
+            );
+        }
+        demand.setLoad(load);
+        return demand;
+    }
+    
     /**
      * Valide l'identifiant de la demande
      * 
@@ -122,4 +163,21 @@ public class DemandFactory {
             );
         }
     }
+    
+    /**
+     * Valide une fenêtre horaire
+     * 
+     * @param stopType Le type de stop (pour le message d'erreur)
+     * @param earliestSec Le début de la fenêtre (nullable)
+     * @param latestSec La fin de la fenêtre (nullable)
+     * @throws IllegalArgumentException Si la fenêtre se termine avant de commencer
+     */
+    private static void validateTimeWindow(String stopType, Integer earliestSec, Integer latestSec) {
+        if (earliestSec != null && latestSec != null && latestSec < earliestSec) {
+            throw new IllegalArgumentException(
+                String.format("La fenêtre horaire du %s se termine avant de commencer (%d s > %d s)",
+                    stopType, earliestSec, latestSec)
+            );
+        }
+    }
 }
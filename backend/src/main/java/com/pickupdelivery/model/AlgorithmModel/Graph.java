@@ -1,9 +1,12 @@
 package com.pickupdelivery.model.AlgorithmModel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.pickupdelivery.model.Demand;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,4 +28,18 @@ public class Graph {
      * Clé: ID de la demande, Valeur: objet Demand
      */
     private Map<String, Demand> demandMap;
+
+    /**
+     * Capacité de chaque coursier (unités de charge des demandes), null = illimitée
+     */
+    private Integer courierCapacity;
+
+    /**
+     * Matrice des plus courts chemins entre nœuds distincts (source de distancesMatrix)
+     * Null pour les graphes construits à la main (tests)
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private NodeMatrix nodeMatrix;
 }
@@ -0,0 +1,106 @@
+package com.pickupdelivery.model.AlgorithmModel;
+
+import com.pickupdelivery.model.Segment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matrice dense des plus courts chemins entre les nœuds DISTINCTS d'un ensemble de stops
+ *
+ * Plusieurs stops peuvent partager le même nœud (deux demandes au même commerce,
+ * un pickup à l'entrepôt...) : chaque distance nœud → nœud n'est calculée et stockée
+ * qu'une seule fois, puis les stops sont projetés dessus via leur idNode.
+ * Les trajets entre stops co-localisés valent 0 m, sans segment.
+ */
+public class NodeMatrix {
+
+    private static final List<Segment> NO_SEGMENTS = List.of();
+
+    private final String[] nodeIds;
+    private final Map<String, Integer> indexById;
+    private final double[] distances;
+    private final List<Segment>[] paths;
+
+    /**
+     * Crée une matrice vide (diagonale à 0, reste à +∞) sur les nœuds donnés
+     *
+     * @param nodeIds Les IDs de nœuds (les doublons sont ignorés, l'ordre est conservé)
+     */
+    @SuppressWarnings("unchecked")
+    public NodeMatrix(Collection<String> nodeIds) {
+        this.nodeIds = new LinkedHashSet<>(nodeIds).toArray(new String[0]);
+        int n = this.nodeIds.length;
+        this.indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexById.put(this.nodeIds[i], i);
+        }
+        this.distances = new double[n * n];
+        this.paths = new List[n * n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            distances[i * n + i] = 0.0;
+            paths[i * n + i] = NO_SEGMENTS;
+        }
+    }
+
+    /**
+     * Extrait les nœuds distincts d'une liste de stops, dans l'ordre d'apparition
+     */
+    public static List<String> distinctNodeIds(List<Stop> stops) {
+        LinkedHashSet<String> ids = new LinkedHashSet<>();
+        for (Stop stop : stops) {
+            ids.add(stop.getIdNode());
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Enregistre le plus court chemin d'un nœud vers un autre
+     * Chaque case n'est écrite que par le thread qui traite sa ligne (source)
+     */
+    public void set(int from, int to, double distance, List<Segment> segments) {
+        int cell = from * nodeIds.length + to;
+        distances[cell] = distance;
+        paths[cell] = segments != null ? segments : NO_SEGMENTS;
+    }
+
+    public int size() {
+        return nodeIds.length;
+    }
+
+    /**
+     * @return L'indice du nœud dans la matrice, ou -1 s'il n'en fait pas partie
+     */
+    public int indexOf(String nodeId) {
+        Integer index = indexById.get(nodeId);
+        return index != null ? index : -1;
+    }
+
+    public String nodeId(int index) {
+        return nodeIds[index];
+    }
+
+    public double distance(int from, int to) {
+        return distances[from * nodeIds.length + to];
+    }
+
+    /**
+     * @return La distance entre deux nœuds, ou +∞ si l'un d'eux est hors matrice
+     */
+    public double distance(String fromNodeId, String toNodeId) {
+        int from = indexOf(fromNodeId);
+        int to = indexOf(toNodeId);
+        return from < 0 || to < 0 ? Double.POSITIVE_INFINITY : distance(from, to);
+    }
+
+    public List<Segment> path(int from, int to) {
+        List<Segment> path = paths[from * nodeIds.length + to];
+        return path != null ? path : NO_SEGMENTS;
+    }
+}
@@ -0,0 +1,158 @@
+package com.pickupdelivery.model.AlgorithmModel;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Vue en lecture seule d'une matrice de trajets restreinte à un sous-ensemble de stops
+ *
+ * Les recalculs par coursier découpent la matrice globale (tous les stops du DemandeSet,
+ * construite une seule fois) au lieu de relancer les plus courts chemins pour chaque
+ * coursier : les lignes et les trajets ne sont pas copiés, seuls les stops du sous-ensemble
+ * sont visibles. Construire la vue coûte O(taille du sous-ensemble).
+ */
+public final class SlicedDistances extends AbstractMap<Stop, Map<Stop, Trajet>> {
+
+    private final Map<Stop, Map<Stop, Trajet>> source;
+    private final Stop[] members;
+    private final Set<Stop> memberSet;
+
+    /**
+     * @param source  La matrice globale (non modifiée, doit contenir tous les stops)
+     * @param members Les stops visibles (les doublons sont ignorés, l'ordre est conservé)
+     * @throws IllegalArgumentException Si un stop est absent de la matrice globale
+     */
+    public SlicedDistances(Map<Stop, Map<Stop, Trajet>> source, Collection<Stop> members) {
+        this.source = source;
+        this.memberSet = new LinkedHashSet<>(members);
+        for (Stop stop : memberSet) {
+            if (!source.containsKey(stop)) {
+                throw new IllegalArgumentException("Stop absent de la matrice globale: " + stop.getIdNode()
+                        + " (" + stop.getTypeStop() + ", demande " + stop.getIdDemande() + ")");
+            }
+        }
+        this.members = memberSet.toArray(new Stop[0]);
+    }
+
+    @Override
+    public Map<Stop, Trajet> get(Object key) {
+        return memberSet.contains(key) ? new Row((Stop) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return memberSet.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return members.length;
+    }
+
+    @Override
+    public Set<Entry<Stop, Map<Stop, Trajet>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Stop, Map<Stop, Trajet>>> iterator() {
+                return new MemberIterator<>(null, stop -> new SimpleImmutableEntry<>(stop, new Row(stop)));
+            }
+
+            @Override
+            public int size() {
+                return members.length;
+            }
+        };
+    }
+
+    /**
+     * Trajets depuis un stop vers les autres stops du sous-ensemble (ligne de la matrice globale)
+     */
+    private final class Row extends AbstractMap<Stop, Trajet> {
+
+        private final Stop from;
+        private final Map<Stop, Trajet> trajets;
+
+        Row(Stop from) {
+            this.from = from;
+            this.trajets = source.get(from);
+        }
+
+        @Override
+        public Trajet get(Object key) {
+            return containsKey(key) ? trajets.get(key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return !from.equals(key) && memberSet.contains(key) && trajets.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<Stop, Trajet>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Stop, Trajet>> iterator() {
+                    return new MemberIterator<>(from, stop -> new SimpleImmutableEntry<>(stop, trajets.get(stop)));
+                }
+
+                @Override
+                public int size() {
+                    int count = 0;
+                    for (Stop stop : members) {
+                        if (!stop.equals(from) && trajets.containsKey(stop)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }
+            };
+        }
+    }
+
+    /**
+     * Parcourt les stops du sous-ensemble dans l'ordre, en sautant la source de la ligne
+     * (null pour la matrice) et les stops sans trajet depuis celle-ci
+     */
+    private final class MemberIterator<E> implements Iterator<E> {
+
+        private final Stop from;
+        private final Function<Stop, E> entry;
+        private int next;
+
+        MemberIterator(Stop from, Function<Stop, E> entry) {
+            this.from = from;
+            this.entry = entry;
+            advance();
+        }
+
+        private void advance() {
+            Map<Stop, Trajet> trajets = from != null ? source.get(from) : null;
+            while (next < members.length && from != null
+                    && (members[next].equals(from) || !trajets.containsKey(members[next]))) {
+                next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < members.length;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E result = entry.apply(members[next++]);
+            advance();
+            return result;
+        }
+    }
+}
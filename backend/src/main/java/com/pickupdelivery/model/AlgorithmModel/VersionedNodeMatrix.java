@@ -0,0 +1,258 @@
+package com.pickupdelivery.model.AlgorithmModel;
+
+import com.pickupdelivery.model.Segment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matrice des plus courts chemins entre nœuds, maintenue au fil des ajouts et suppressions
+ * de demandes (contrairement à {@link NodeMatrix}, de taille fixe)
+ *
+ * Chaque nœud occupe un emplacement (ligne et colonne) et compte ses références : un nœud
+ * partagé par plusieurs stops (entrepôt, commerce commun) n'est retiré qu'avec son dernier
+ * stop. Un retrait vide la ligne et la colonne en O(capacité) et libère l'emplacement pour
+ * le prochain nœud ; la capacité double lorsque tous les emplacements sont pris.
+ * Le numéro de version augmente à chaque changement de l'ensemble des nœuds.
+ *
+ * Les méthodes sont synchronisées sur l'instance : l'appelant qui enchaîne acquisition et
+ * remplissage des nouvelles cases se synchronise lui aussi sur l'instance.
+ */
+public final class VersionedNodeMatrix {
+
+    private static final List<Segment> NO_SEGMENTS = List.of();
+    private static final int MIN_CAPACITY = 8;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private String[] nodeIds;
+    private int[] references;
+    private double[] distances;
+    private List<Segment>[] paths;
+    private int capacity;
+    private int used;
+    private long version;
+
+    /**
+     * Crée une matrice vide
+     */
+    public VersionedNodeMatrix() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Reprend une matrice déjà calculée (aucune recherche)
+     *
+     * @param matrix     La matrice complète des nœuds
+     * @param references Un nœud par stop (les répétitions comptent comme autant de références),
+     *                   tous présents dans la matrice
+     * @throws IllegalArgumentException Si un nœud référencé est absent de la matrice
+     */
+    public static VersionedNodeMatrix of(NodeMatrix matrix, Collection<String> references) {
+        VersionedNodeMatrix live = new VersionedNodeMatrix();
+        live.allocate(Math.max(MIN_CAPACITY, matrix.size()));
+        for (String nodeId : references) {
+            if (matrix.indexOf(nodeId) < 0) {
+                throw new IllegalArgumentException("Nœud absent de la matrice: " + nodeId);
+            }
+            live.acquire(List.of(nodeId));
+        }
+        for (int i = 0; i < live.capacity; i++) {
+            if (live.nodeIds[i] == null) {
+                continue;
+            }
+            int from = matrix.indexOf(live.nodeIds[i]);
+            for (int j = 0; j < live.capacity; j++) {
+                if (live.nodeIds[j] != null && i != j) {
+                    int to = matrix.indexOf(live.nodeIds[j]);
+                    live.setCell(i, j, matrix.distance(from, to), matrix.path(from, to));
+                }
+            }
+        }
+        live.version = 0;
+        return live;
+    }
+
+    /**
+     * Ajoute une référence à chaque nœud ; les nœuds nouveaux reçoivent un emplacement
+     * dont les cases valent +∞ (0 sur la diagonale) jusqu'à {@link #set}
+     *
+     * @return Les nœuds nouvellement ajoutés, dans l'ordre (sans doublon)
+     */
+    public synchronized List<String> acquire(Collection<String> ids) {
+        List<String> added = new ArrayList<>();
+        for (String nodeId : ids) {
+            Integer slot = slotById.get(nodeId);
+            if (slot != null) {
+                references[slot]++;
+                continue;
+            }
+            if (freeSlots.isEmpty()) {
+                grow();
+            }
+            int free = freeSlots.pollFirst();
+            slotById.put(nodeId, free);
+            nodeIds[free] = nodeId;
+            references[free] = 1;
+            distances[free * capacity + free] = 0.0;
+            paths[free * capacity + free] = NO_SEGMENTS;
+            used++;
+            added.add(nodeId);
+        }
+        if (!added.isEmpty()) {
+            version++;
+        }
+        return added;
+    }
+
+    /**
+     * Retire une référence à chaque nœud ; un nœud sans référence perd sa ligne et sa colonne
+     *
+     * @return Les nœuds retirés de la matrice, dans l'ordre (les nœuds inconnus sont ignorés)
+     */
+    public synchronized List<String> release(Collection<String> ids) {
+        List<String> removed = new ArrayList<>();
+        for (String nodeId : ids) {
+            Integer slot = slotById.get(nodeId);
+            if (slot == null || --references[slot] > 0) {
+                continue;
+            }
+            slotById.remove(nodeId);
+            nodeIds[slot] = null;
+            for (int other = 0; other < capacity; other++) {
+                setCell(slot, other, Double.POSITIVE_INFINITY, null);
+                setCell(other, slot, Double.POSITIVE_INFINITY, null);
+            }
+            freeSlots.addFirst(slot);
+            used--;
+            removed.add(nodeId);
+        }
+        if (!removed.isEmpty()) {
+            version++;
+        }
+        return removed;
+    }
+
+    /**
+     * Enregistre le plus court chemin entre deux nœuds de la matrice
+     *
+     * @throws IllegalArgumentException Si l'un des nœuds est absent
+     */
+    public synchronized void set(String fromNodeId, String toNodeId, double distance, List<Segment> segments) {
+        setCell(slotOf(fromNodeId), slotOf(toNodeId), distance, segments != null ? segments : NO_SEGMENTS);
+    }
+
+    /**
+     * @return true si tous les nœuds sont dans la matrice
+     */
+    public synchronized boolean containsAll(Collection<String> ids) {
+        return slotById.keySet().containsAll(ids);
+    }
+
+    /**
+     * @return La distance entre deux nœuds, +∞ si l'un d'eux est absent ou sans chemin
+     */
+    public synchronized double distance(String fromNodeId, String toNodeId) {
+        Integer from = slotById.get(fromNodeId);
+        Integer to = slotById.get(toNodeId);
+        return from == null || to == null ? Double.POSITIVE_INFINITY : distances[from * capacity + to];
+    }
+
+    /**
+     * Copie les cases des nœuds demandés dans une {@link NodeMatrix} (aucune recherche)
+     *
+     * @throws IllegalArgumentException Si l'un des nœuds est absent
+     */
+    public synchronized NodeMatrix snapshot(List<String> ids) {
+        NodeMatrix matrix = new NodeMatrix(ids);
+        int n = matrix.size();
+        int[] slots = new int[n];
+        for (int i = 0; i < n; i++) {
+            slots[i] = slotOf(matrix.nodeId(i));
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    int cell = slots[i] * capacity + slots[j];
+                    matrix.set(i, j, distances[cell], paths[cell]);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return Les nœuds de la matrice (ordre des emplacements)
+     */
+    public synchronized List<String> nodeIds() {
+        List<String> ids = new ArrayList<>(used);
+        for (String nodeId : nodeIds) {
+            if (nodeId != null) {
+                ids.add(nodeId);
+            }
+        }
+        return ids;
+    }
+
+    public synchronized int size() {
+        return used;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    private int slotOf(String nodeId) {
+        Integer slot = slotById.get(nodeId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Nœud absent de la matrice: " + nodeId);
+        }
+        return slot;
+    }
+
+    private void setCell(int from, int to, double distance, List<Segment> segments) {
+        distances[from * capacity + to] = distance;
+        paths[from * capacity + to] = segments;
+    }
+
+    /**
+     * Double la capacité en recopiant les lignes existantes
+     */
+    private void grow() {
+        int oldCapacity = capacity;
+        String[] oldIds = nodeIds;
+        int[] oldReferences = references;
+        double[] oldDistances = distances;
+        List<Segment>[] oldPaths = paths;
+
+        allocate(oldCapacity * 2);
+        System.arraycopy(oldIds, 0, nodeIds, 0, oldCapacity);
+        System.arraycopy(oldReferences, 0, references, 0, oldCapacity);
+        for (int row = 0; row < oldCapacity; row++) {
+            System.arraycopy(oldDistances, row * oldCapacity, distances, row * capacity, oldCapacity);
+            System.arraycopy(oldPaths, row * oldCapacity, paths, row * capacity, oldCapacity);
+        }
+    }
+
+    /**
+     * Alloue des tableaux vides ; les emplacements au-delà des nœuds existants sont libres
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate(int newCapacity) {
+        int firstNew = nodeIds != null ? capacity : 0;
+        capacity = newCapacity;
+        nodeIds = new String[newCapacity];
+        references = new int[newCapacity];
+        distances = new double[newCapacity * newCapacity];
+        paths = new List[newCapacity * newCapacity];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        for (int slot = firstNew; slot < newCapacity; slot++) {
+            freeSlots.addLast(slot);
+        }
+    }
+}
@@ -7,6 +7,13 @@ import lombok.NoArgsConstructor;
 /**
  * Représente une demande de livraison (pickup + delivery)
  * Correspond à l'entité "Demande" du diagramme de classe
+ *
+ * Fenêtres horaires optionnelles : début de service au plus tôt / au plus tard, en secondes
+ * après le départ de l'entrepôt (null = pas de contrainte). Un coursier en avance attend.
+ * Elles sont recalées lorsque l'heure de départ change (voir DeliveryService.setWarehouse).
+ *
+ * Charge optionnelle : encombrement du colis (unités de la capacité des coursiers), embarqué
+ * au pickup et déposé à la delivery (null = 0).
  */
 @Data
 @NoArgsConstructor
@@ -18,4 +25,15 @@ public class Demand {
     private int pickupDurationSec;    // dureePickupSec : int
     private int deliveryDurationSec;  // dureeDeliverySec : int
     private String courierId;         // idCourier : FK→Courier (nullable)
+    private Integer pickupEarliestSec;    // debutEnlevement (nullable)
+    private Integer pickupLatestSec;      // finEnlevement (nullable)
+    private Integer deliveryEarliestSec;  // debutLivraison (nullable)
+    private Integer deliveryLatestSec;    // finLivraison (nullable)
+    private Integer load;                 // charge (nullable)
+
+    public Demand(String id, String pickupNodeId, String deliveryNodeId,
+                  int pickupDurationSec, int deliveryDurationSec, String courierId) {
+        this(id, pickupNodeId, deliveryNodeId, pickupDurationSec, deliveryDurationSec, courierId,
+            null, null, null, null, null);
+    }
 }
@@ -1,5 +1,7 @@
 package com.pickupdelivery.service;
 
+import com.pickupdelivery.exception.ValidationException;
+import com.pickupdelivery.model.CityMap;
 import com.pickupdelivery.model.DeliveryRequest;
 import com.pickupdelivery.model.DemandeSet;
 import com.pickupdelivery.model.Demand;
@@ -8,8 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service pour gérer les demandes de livraison
@@ -18,6 +24,9 @@ import java.util.List;
 @Service
 public class DeliveryService {
 
+    private static final String DEFAULT_DEPARTURE_TIME = "08:00";
+    private static final DateTimeFormatter DEPARTURE_TIME_FORMATTER = DateTimeFormatter.ofPattern("H:m[:s]");
+
     private List<DeliveryRequest> currentRequests = new ArrayList<>();
     private DemandeSet currentRequestSet;
     
@@ -29,6 +38,9 @@ public class DeliveryService {
     
     @Autowired
     private MapService mapService;
+    
+    @Autowired
+    private ServiceAlgo serviceAlgo;
 
     /**
      * Parse un fichier XML contenant les demandes de livraison
@@ -56,6 +68,14 @@ public class DeliveryService {
      * @param request La demande à ajouter
      */
     public void addDeliveryRequest(DeliveryRequest request) {
+        // Générer un id UUID si absent
+        if (request.getId() == null || request.getId().isEmpty()) {
+            request.setId(java.util.UUID.randomUUID().toString());
+        }
+        
+        // Rejeter immédiatement une demande impossible même seule (avant tout ajout)
+        validateDemandFeasibility(request);
+        
         // Ajout à la liste simple
         currentRequests.add(request);
         
@@ -64,32 +84,33 @@ public class DeliveryService {
             currentRequestSet = new DemandeSet();
             currentRequestSet.setDemands(new ArrayList<>());
             System.out.println("[ADD] Création de currentRequestSet");
-        }
-        
-        // Générer un id UUID si absent
-        if (request.getId() == null || request.getId().isEmpty()) {
-            request.setId(java.util.UUID.randomUUID().toString());
+            if (serviceAlgo != null) {
+                serviceAlgo.trackDemandeSet(currentRequestSet);
+            }
         }
         
         System.out.println("[ADD] Ajout demande: id=" + request.getId() + ", pickup=" + request.getPickupAddress() + ", delivery=" + request.getDeliveryAddress());
         
         // Convertir en Demand et ajouter à currentRequestSet
-        com.pickupdelivery.model.Demand demand = new com.pickupdelivery.model.Demand();
-        demand.setId(request.getId());
-        demand.setPickupNodeId(request.getPickupAddress());
-        demand.setDeliveryNodeId(request.getDeliveryAddress());
-        demand.setPickupDurationSec(request.getPickupDuration());
-        demand.setDeliveryDurationSec(request.getDeliveryDuration());
-        demand.setCourierId(null);
+        Demand demand = toDemand(request);
         currentRequestSet.getDemands().add(demand);
+
+        // Matrice des distances : seules les lignes/colonnes des nouveaux nœuds sont calculées
+        if (serviceAlgo != null) {
+            serviceAlgo.onDemandAdded(demand);
+        }
         
         System.out.println("[ADD] Total demandes dans currentRequestSet: " + currentRequestSet.getDemands().size());
     }
 
     /**
      * Définit/Met à jour l'entrepôt (warehouse) courant
+     *
+     * Les fenêtres horaires des demandes sont exprimées en secondes après le départ : si l'heure
+     * de départ change, elles sont recalées pour garder les mêmes heures de la journée.
+     *
      * @param nodeId id du nœud entrepôt
-     * @param departureTime heure de départ (optionnelle)
+     * @param departureTime heure de départ (optionnelle : celle de l'entrepôt précédent, sinon 08:00)
      */
     public void setWarehouse(String nodeId, String departureTime) {
         if (nodeId == null || nodeId.isBlank()) {
@@ -101,12 +122,26 @@ public class DeliveryService {
             currentRequestSet.setDemands(new ArrayList<>());
         }
 
+        com.pickupdelivery.model.Warehouse previous = currentRequestSet.getWarehouse();
+        String previousDeparture = previous != null ? previous.getDepartureTime() : null;
+
         com.pickupdelivery.model.Warehouse warehouse = new com.pickupdelivery.model.Warehouse();
         warehouse.setNodeId(nodeId);
-        warehouse.setDepartureTime(departureTime != null ? departureTime : "08:00");
+        warehouse.setDepartureTime(departureTime != null ? departureTime
+            : previousDeparture != null ? previousDeparture : DEFAULT_DEPARTURE_TIME);
+        rebaseTimeWindows(previousDeparture, warehouse.getDepartureTime());
         currentRequestSet.setWarehouse(warehouse);
+        if (serviceAlgo != null) {
+            serviceAlgo.trackDemandeSet(currentRequestSet); // Nouvel entrepôt : matrice reprise au prochain calcul
+        }
 
         System.out.println("[WAREHOUSE] Entrepôt défini: nodeId=" + nodeId + ", departureTime=" + warehouse.getDepartureTime());
+
+        // Pré-calculer les arbres de l'entrepôt pour le filtrage instantané des demandes
+        CityMap cityMap = mapService != null ? mapService.getCurrentMap() : null;
+        if (serviceAlgo != null && cityMap != null && isMapNode(cityMap, nodeId)) {
+            serviceAlgo.prepareWarehouseTrees(nodeId, cityMap);
+        }
     }
 
     /**
@@ -115,6 +150,9 @@ public class DeliveryService {
     public void clearRequests() {
         this.currentRequests.clear();
         this.currentRequestSet = null;
+        if (serviceAlgo != null) {
+            serviceAlgo.trackDemandeSet(null);
+        }
     }
 
     /**
@@ -131,8 +169,14 @@ public class DeliveryService {
         // Valider que tous les nœuds existent dans la carte chargée
         validationService.validateDeliveryRequests(requestSet, mapService.getCurrentMap());
         
+        // Rejeter les demandes impossibles même seules (limite de 4h)
+        rejectDemandsExceedingTimeLimit(requestSet);
+        
         // Si validation OK, sauvegarder
         this.currentRequestSet = requestSet;
+        if (serviceAlgo != null) {
+            serviceAlgo.trackDemandeSet(requestSet);
+        }
         return requestSet;
     }
 
@@ -167,12 +211,20 @@ public class DeliveryService {
         System.out.println("  - " + d.getId());
     }
 
+    List<Demand> removedDemands = currentRequestSet.getDemands().stream()
+            .filter(d -> d.getId().equals(deliveryId))
+            .toList();
     boolean removed = currentRequestSet.getDemands().removeIf(d -> d.getId().equals(deliveryId));
 
     if (!removed) {
         throw new IllegalStateException("Livraison introuvable : " + deliveryId);
     }
 
+    // Matrice des distances : lignes/colonnes des nœuds inutilisés retirées, sans recalcul
+    if (serviceAlgo != null) {
+        removedDemands.forEach(serviceAlgo::onDemandRemoved);
+    }
+
     // Garder currentRequests synchronisé avec currentRequestSet
     currentRequests.removeIf(r -> deliveryId.equals(r.getId()));
 
@@ -182,4 +234,110 @@ public class DeliveryService {
     return currentRequestSet;
 }
 
+    /**
+     * Vérifie qu'une nouvelle demande peut être servie seule dans la limite de 4h
+     * depuis l'entrepôt courant (contrôle en O(1) grâce aux arbres de l'entrepôt)
+     * @param request La demande à contrôler
+     * @throws ValidationException Si la demande est impossible même seule
+     */
+    public void validateDemandFeasibility(DeliveryRequest request) {
+        if (currentRequestSet != null) {
+            rejectDemandsExceedingTimeLimit(new DemandeSet(currentRequestSet.getWarehouse(), List.of(toDemand(request))));
+        }
+    }
+
+    /**
+     * Recale les fenêtres horaires des demandes courantes sur une nouvelle heure de départ
+     * (sans effet si l'une des deux heures est absente ou illisible)
+     */
+    private void rebaseTimeWindows(String previousDeparture, String departure) {
+        Integer previousSec = secondOfDay(previousDeparture);
+        Integer departureSec = secondOfDay(departure);
+        if (previousSec == null || departureSec == null || previousSec.equals(departureSec)
+                || currentRequestSet.getDemands() == null) {
+            return;
+        }
+
+        int offset = previousSec - departureSec;
+        for (Demand demand : currentRequestSet.getDemands()) {
+            demand.setPickupEarliestSec(shift(demand.getPickupEarliestSec(), offset));
+            demand.setPickupLatestSec(shift(demand.getPickupLatestSec(), offset));
+            demand.setDeliveryEarliestSec(shift(demand.getDeliveryEarliestSec(), offset));
+            demand.setDeliveryLatestSec(shift(demand.getDeliveryLatestSec(), offset));
+        }
+        System.out.println("[WAREHOUSE] Fenêtres horaires recalées de " + offset + " s (départ " + previousDeparture
+            + " → " + departure + ")");
+    }
+
+    private static Integer shift(Integer windowBound, int offset) {
+        return windowBound != null ? windowBound + offset : null;
+    }
+
+    /**
+     * @return Les secondes depuis minuit d'une heure "H:m:s" ou "H:m", ou null si illisible
+     */
+    private static Integer secondOfDay(String time) {
+        if (time == null) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(time.trim(), DEPARTURE_TIME_FORMATTER).toSecondOfDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Convertit une DeliveryRequest en Demand (sans coursier assigné)
+     */
+    private Demand toDemand(DeliveryRequest request) {
+        Demand demand = new Demand();
+        demand.setId(request.getId());
+        demand.setPickupNodeId(request.getPickupAddress());
+        demand.setDeliveryNodeId(request.getDeliveryAddress());
+        demand.setPickupDurationSec(request.getPickupDuration());
+        demand.setDeliveryDurationSec(request.getDeliveryDuration());
+        demand.setCourierId(null);
+        return demand;
+    }
+
+    /**
+     * Rejette les demandes dont la tournée minimale (entrepôt → pickup → delivery → entrepôt)
+     * dépasse déjà la limite de 4h, grâce aux arbres de plus courts chemins de l'entrepôt
+     * @param requestSet Les demandes à contrôler, avec l'entrepôt
+     * @throws ValidationException Si au moins une demande est impossible
+     */
+    private void rejectDemandsExceedingTimeLimit(DemandeSet requestSet) {
+        CityMap cityMap = mapService != null ? mapService.getCurrentMap() : null;
+        if (serviceAlgo == null || cityMap == null || requestSet == null || requestSet.getWarehouse() == null
+                || !isMapNode(cityMap, requestSet.getWarehouse().getNodeId())) {
+            return; // Pas de carte ou d'entrepôt : rien à contrôler
+        }
+
+        Map<Demand, Double> infeasible = serviceAlgo.findDemandsExceedingTimeLimit(requestSet, cityMap);
+        if (infeasible.isEmpty()) {
+            return;
+        }
+
+        List<String> details = new ArrayList<>();
+        for (Map.Entry<Demand, Double> entry : infeasible.entrySet()) {
+            Demand demand = entry.getKey();
+            String duration = Double.isInfinite(entry.getValue())
+                ? "aucun chemin depuis l'entrepôt"
+                : String.format("%.2fh minimum", entry.getValue() / 3600);
+            details.add("Demande " + demand.getId() + " (pickup: " + demand.getPickupNodeId()
+                + ", delivery: " + demand.getDeliveryNodeId() + ") - " + duration);
+        }
+
+        throw new ValidationException(String.format(
+            "❌ %d demande(s) impossible(s) : la tournée entrepôt → pickup → delivery → entrepôt dépasse 4h même seule.\n\n%s",
+            infeasible.size(), String.join("\n", details)));
+    }
+
+    /**
+     * Vérifie qu'un nœud appartient à la carte (index du graphe compilé, sans parcourir les nœuds)
+     */
+    private boolean isMapNode(CityMap cityMap, String nodeId) {
+        return serviceAlgo.isMapNode(nodeId, cityMap);
+    }
 }
@@ -1,11 +1,25 @@
 package com.pickupdelivery.service;
 
+import com.pickupdelivery.dto.MapViewportResponse;
 import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.service.spatial.NodeSpatialIndex;
+import com.pickupdelivery.service.spatial.SegmentGridIndex;
 import com.pickupdelivery.xmlparser.MapXmlParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Service pour gérer les cartes de la ville
  * Contient la logique métier pour le traitement des cartes
@@ -13,8 +27,47 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 public class MapService {
 
+    /** Zoom maximal accepté pour les tuiles */
+    private static final int MAX_TILE_ZOOM = 22;
+
+    /** Zoom des tuiles pré-générées au chargement de la carte */
+    private static final int PREGENERATED_TILE_ZOOM = 14;
+
+    /** Taille maximale du cache LRU des tuiles */
+    private static final int TILE_CACHE_SIZE = 512;
+
     private CityMap currentMap;
     
+    /** Index spatial des nœuds de la carte courante (construit au chargement) */
+    private NodeSpatialIndex nodeIndex;
+    
+    /** Index spatial des tronçons de la carte courante (construit au chargement) */
+    private SegmentGridIndex segmentIndex;
+    
+    /** Nœuds de la carte courante par ID (pour compléter les tronçons renvoyés) */
+    private Map<String, Node> nodesById = Collections.emptyMap();
+    
+    /** Empreinte de la carte courante (clé du cache de tuiles) */
+    private String mapFingerprint;
+    
+    /**
+     * Cache LRU des tuiles, indexé par (empreinte de carte, z, x, y)
+     * Recharger la même carte réutilise donc les tuiles déjà générées
+     */
+    private final Map<TileKey, MapViewportResponse> tileCache = Collections.synchronizedMap(
+        new LinkedHashMap<TileKey, MapViewportResponse>(TILE_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, MapViewportResponse> eldest) {
+                return size() > TILE_CACHE_SIZE;
+            }
+        }
+    );
+    
+    /**
+     * Clé du cache de tuiles
+     */
+    private record TileKey(String fingerprint, int z, int x, int y) {}
+    
     @Autowired
     private MapXmlParser mapXmlParser;
 
@@ -32,6 +85,7 @@ public class MapService {
         // Déléguer le parsing au MapXmlParser
         CityMap map = mapXmlParser.parseMapFromXML(file);
         this.currentMap = map;
+        buildSpatialIndexes(map);
         return map;
     }
 
@@ -56,5 +110,178 @@ public class MapService {
      */
     public void clearMap() {
         this.currentMap = null;
+        this.nodeIndex = null;
+        this.segmentIndex = null;
+        this.nodesById = Collections.emptyMap();
+        this.mapFingerprint = null;
+    }
+
+    /**
+     * Récupère la portion de carte visible dans une zone
+     * Aux zooms faibles, les rues secondaires sont omises
+     * @param south Latitude minimale
+     * @param west Longitude minimale
+     * @param north Latitude maximale
+     * @param east Longitude maximale
+     * @param zoom Niveau de zoom de l'affichage
+     * @return Les tronçons visibles et leurs extrémités
+     * @throws IllegalStateException Si aucune carte n'est chargée
+     * @throws IllegalArgumentException Si la zone est invalide
+     */
+    public MapViewportResponse getViewport(double south, double west, double north, double east, int zoom) {
+        if (segmentIndex == null) {
+            throw new IllegalStateException("Aucune carte n'est chargée");
+        }
+        if (south > north || west > east) {
+            throw new IllegalArgumentException("Zone invalide : south <= north et west <= east sont requis");
+        }
+
+        List<Segment> segments = segmentIndex.query(south, west, north, east, zoom);
+
+        // Extrémités des tronçons retenus (sans doublons, ordre stable)
+        Set<String> nodeIds = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            nodeIds.add(segment.getOrigin());
+            nodeIds.add(segment.getDestination());
+        }
+        List<Node> nodes = new ArrayList<>(nodeIds.size());
+        for (String nodeId : nodeIds) {
+            nodes.add(nodesById.get(nodeId));
+        }
+
+        return new MapViewportResponse(nodes, segments, zoom, zoom < SegmentGridIndex.FULL_DETAIL_ZOOM);
+    }
+
+    /**
+     * Récupère une tuile de la carte au format slippy map (z/x/y, projection Web Mercator)
+     * Les tuiles sont mises en cache par (empreinte de carte, z, x, y)
+     * @param z Niveau de zoom
+     * @param x Colonne de la tuile
+     * @param y Ligne de la tuile
+     * @return Les tronçons de la tuile
+     * @throws IllegalStateException Si aucune carte n'est chargée
+     * @throws IllegalArgumentException Si les coordonnées de tuile sont invalides
+     */
+    public MapViewportResponse getTile(int z, int x, int y) {
+        if (segmentIndex == null) {
+            throw new IllegalStateException("Aucune carte n'est chargée");
+        }
+        if (z < 0 || z > MAX_TILE_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Tuile invalide: " + z + "/" + x + "/" + y);
+        }
+
+        return tileCache.computeIfAbsent(new TileKey(mapFingerprint, z, x, y), key ->
+            getViewport(tileLatitude(y + 1, z), tileLongitude(x, z), tileLatitude(y, z), tileLongitude(x + 1, z), z));
+    }
+
+    /**
+     * @return L'empreinte de la carte courante, ou null si aucune carte n'est chargée
+     */
+    public String getMapFingerprint() {
+        return mapFingerprint;
+    }
+
+    /**
+     * Recherche les k nœuds de la carte courante les plus proches d'une coordonnée
+     * @param latitude Latitude du point
+     * @param longitude Longitude du point
+     * @param k Nombre de nœuds souhaités
+     * @return Les nœuds les plus proches, triés par distance croissante
+     * @throws IllegalStateException Si aucune carte n'est chargée
+     */
+    public List<NodeSpatialIndex.Neighbor> findNearestNodes(double latitude, double longitude, int k) {
+        if (nodeIndex == null) {
+            throw new IllegalStateException("Aucune carte n'est chargée");
+        }
+        return nodeIndex.nearest(latitude, longitude, k);
+    }
+
+    /**
+     * Construit les index spatiaux de la carte chargée
+     * @param map La carte chargée
+     */
+    private void buildSpatialIndexes(CityMap map) {
+        long startTime = System.currentTimeMillis();
+        this.nodeIndex = NodeSpatialIndex.build(map);
+        this.segmentIndex = SegmentGridIndex.build(map);
+        this.nodesById = new HashMap<>();
+        if (map != null && map.getNodes() != null) {
+            for (Node node : map.getNodes()) {
+                nodesById.put(node.getId(), node);
+            }
+        }
+        this.mapFingerprint = computeFingerprint(map);
+        int tiles = pregenerateTiles(PREGENERATED_TILE_ZOOM);
+        System.out.println("🗺️  Index spatiaux construits: " + nodeIndex.size() + " nœuds, "
+                + segmentIndex.size() + " tronçons, " + tiles + " tuiles z" + PREGENERATED_TILE_ZOOM
+                + " en " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    /**
+     * Pré-génère les tuiles couvrant l'emprise de la carte à un zoom donné
+     * @return Le nombre de tuiles générées
+     */
+    private int pregenerateTiles(int z) {
+        if (segmentIndex.size() == 0) {
+            return 0;
+        }
+        double[] bounds = segmentIndex.getBounds(); // {south, west, north, east}
+        int xMin = tileX(bounds[1], z);
+        int xMax = tileX(bounds[3], z);
+        int yMin = tileY(bounds[2], z);
+        int yMax = tileY(bounds[0], z);
+
+        int count = 0;
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                getTile(z, x, y);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Empreinte de la carte calculée sur ses nœuds et ses tronçons
+     */
+    private static String computeFingerprint(CityMap map) {
+        long hash = 1125899906842597L;
+        if (map != null && map.getNodes() != null) {
+            for (Node node : map.getNodes()) {
+                hash = 31 * hash + String.valueOf(node.getId()).hashCode();
+                hash = 31 * hash + Double.hashCode(node.getLatitude());
+                hash = 31 * hash + Double.hashCode(node.getLongitude());
+            }
+        }
+        if (map != null && map.getSegments() != null) {
+            for (Segment segment : map.getSegments()) {
+                hash = 31 * hash + String.valueOf(segment.getOrigin()).hashCode();
+                hash = 31 * hash + String.valueOf(segment.getDestination()).hashCode();
+                hash = 31 * hash + Double.hashCode(segment.getLength());
+            }
+        }
+        return Long.toHexString(hash);
+    }
+
+    // Conversions tuile ↔ coordonnées (Web Mercator, schéma slippy map)
+
+    private static double tileLongitude(int x, int z) {
+        return x / (double) (1 << z) * 360.0 - 180.0;
+    }
+
+    private static double tileLatitude(int y, int z) {
+        double n = Math.PI * (1 - 2.0 * y / (1 << z));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    private static int tileX(double longitude, int z) {
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * (1 << z));
+        return Math.max(0, Math.min((1 << z) - 1, x));
+    }
+
+    private static int tileY(double latitude, int z) {
+        double rad = Math.toRadians(latitude);
+        int y = (int) Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << z));
+        return Math.max(0, Math.min((1 << z) - 1, y));
     }
 }
@@ -7,12 +7,55 @@ import com.pickupdelivery.dto.TourMetrics;
 import com.pickupdelivery.exception.AlgorithmException;
 import com.pickupdelivery.model.*;
 import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.NodeMatrix;
+import com.pickupdelivery.model.AlgorithmModel.SlicedDistances;
 import com.pickupdelivery.model.AlgorithmModel.Stop;
 import com.pickupdelivery.model.AlgorithmModel.StopSet;
 import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.AlgorithmModel.VersionedNodeMatrix;
+import com.pickupdelivery.service.algo.CompiledGraph;
+import com.pickupdelivery.service.algo.BranchAndBoundSolver;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.ExactPdpSolver;
+import com.pickupdelivery.service.algo.IslandSearch;
+import com.pickupdelivery.service.algo.LnsOptimizer;
+import com.pickupdelivery.service.algo.InterRouteSearch;
+import com.pickupdelivery.service.algo.LowerBounds;
+import com.pickupdelivery.service.algo.NeighbourLists;
+import com.pickupdelivery.service.algo.RouteDecomposition;
+import com.pickupdelivery.service.algo.Solution;
+import com.pickupdelivery.service.algo.SolverProfile;
+import com.pickupdelivery.service.algo.SolverStrategy;
+import com.pickupdelivery.service.algo.StopMatrix;
+import com.pickupdelivery.service.algo.StrategySelector;
+import com.pickupdelivery.service.algo.WarehouseTrees;
+import com.pickupdelivery.service.algo.spi.AlgorithmRegistry;
+import com.pickupdelivery.service.algo.spi.AlgorithmSelection;
+import com.pickupdelivery.service.algo.spi.DijkstraEngine;
+import com.pickupdelivery.service.algo.spi.FifoDistributor;
+import com.pickupdelivery.service.algo.spi.FleetDistributor;
+import com.pickupdelivery.service.algo.spi.FullTwoOptImprover;
+import com.pickupdelivery.service.algo.spi.MatrixBuilder;
+import com.pickupdelivery.service.algo.spi.MultiCourierDistributor;
+import com.pickupdelivery.service.algo.spi.NearestNeighbourConstructor;
+import com.pickupdelivery.service.algo.spi.OneToManyMatrixBuilder;
+import com.pickupdelivery.service.algo.spi.PairwiseMatrixBuilder;
+import com.pickupdelivery.service.algo.spi.ParallelTwoOptImprover;
+import com.pickupdelivery.service.algo.spi.RouteConstructor;
+import com.pickupdelivery.service.algo.spi.RouteImprover;
+import com.pickupdelivery.service.algo.spi.RoutingProblem;
+import com.pickupdelivery.service.algo.spi.ShortestPathEngine;
+import com.pickupdelivery.service.algo.spi.StopRoutes;
+import com.pickupdelivery.service.algo.spi.TourResults;
+import com.pickupdelivery.service.algo.spi.TwoOptImprover;
+import com.pickupdelivery.service.spatial.SweepClustering;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Service implémentant les algorithmes de calcul de chemin et d'optimisation
@@ -27,30 +70,24 @@ public class ServiceAlgo {
     /** Distance représentant l'absence de chemin entre deux points */
     private static final double NO_PATH_DISTANCE = Double.POSITIVE_INFINITY;
     
-    /** Distance initiale pour les nœuds non encore explorés dans Dijkstra */
-    private static final double UNVISITED_DISTANCE = Double.POSITIVE_INFINITY;
-    
     /** ID du premier livreur (pour l'instant seul supporté) */
     private static final int DEFAULT_COURIER_ID = 1;
     
-    /** Seuil de warning pour le temps de calcul de Dijkstra (en ms) */
-    private static final long DIJKSTRA_SLOW_THRESHOLD_MS = 100;
-    
-    /** Seuil de warning pour le nombre d'itérations dans la file de priorité */
-    private static final int DIJKSTRA_ITERATIONS_WARNING_THRESHOLD = 1000;
-    
     /** Taille maximale du cache LRU pour les résultats de Dijkstra */
     private static final int DIJKSTRA_CACHE_SIZE = 500;
+
+    /** Répartition de repli lorsque la répartition choisie ne s'applique pas à l'instance */
+    private static final String FIFO_DISTRIBUTOR = "fifo";
     
     // =========================================================================
     // CONSTANTES POUR CALCUL DE TEMPS (PHASE 1)
     // =========================================================================
     
     /** Vitesse du coursier en m/s (15 km/h = 4.17 m/s) */
-    private static final double COURIER_SPEED_MS = 15.0 / 3.6; // 4.166666... m/s
+    private static final double COURIER_SPEED_MS = StopRoutes.COURIER_SPEED_MS; // 4.166666... m/s
     
     /** Limite de temps pour une tournée en secondes (4 heures) */
-    private static final double TIME_LIMIT_SEC = 4 * 3600; // 14400 secondes
+    private static final double TIME_LIMIT_SEC = StopRoutes.TIME_LIMIT_SEC; // 14400 secondes
 
     // =========================================================================
     // CACHE POUR DIJKSTRA
@@ -70,12 +107,232 @@ public class ServiceAlgo {
         }
     );
     
+    /**
+     * Graphe compilé de la dernière carte utilisée (tableaux CSR, nœuds renumérotés)
+     * Reconstruit uniquement lorsque la carte change
+     */
+    private volatile CompiledGraph compiledGraph;
+
+    /**
+     * Arbres des plus courts chemins du dernier entrepôt utilisé (pré-filtrage des demandes)
+     */
+    private volatile WarehouseTrees warehouseTrees;
+
+    /**
+     * Matrice des nœuds du DemandeSet courant, tenue à jour à chaque ajout/suppression de demande
+     * Null tant que le premier graphe complet de ce DemandeSet n'a pas été construit avec le moteur
+     * et la construction de matrice par défaut (seuls utilisés pour la tenir à jour)
+     * (liveMatrix, liveMatrixGraph et trackedDemandeSet sont gardés par liveMatrixLock)
+     */
+    private final Object liveMatrixLock = new Object();
+    private DemandeSet trackedDemandeSet;
+    private VersionedNodeMatrix liveMatrix;
+    private CompiledGraph liveMatrixGraph;
+
+    // =========================================================================
+    // PARAMÈTRES DE LA RECHERCHE À GRAND VOISINAGE (LNS)
+    // =========================================================================
+
+    /** Active l'amélioration LNS après la distribution FIFO */
+    @Value("${algo.lns.enabled:true}")
+    private boolean lnsEnabled = true;
+
+    /** Graine du générateur aléatoire de la LNS */
+    @Value("${algo.lns.seed:42}")
+    private long lnsSeed = 42;
+
+    /** Nombre d'îles de recherche parallèles (0 = une par cœur disponible) */
+    @Value("${algo.lns.islands:0}")
+    private int lnsIslands = 0;
+
+    /** Nombre d'itérations par île entre deux échanges de solutions */
+    @Value("${algo.lns.migration-interval:250}")
+    private int lnsMigrationInterval = 250;
+
+    /** Écart (%) à la borne inférieure en dessous duquel l'optimisation s'arrête */
+    @Value("${algo.gap.tolerance-percent:1.0}")
+    private double gapTolerancePercent = 1.0;
+
+    /** Active la séparation et évaluation pour prouver l'optimalité des instances moyennes */
+    @Value("${algo.bnb.enabled:true}")
+    private boolean bnbEnabled = true;
+
+    /** Taille maximale (en demandes) des instances soumises à la séparation et évaluation */
+    @Value("${algo.bnb.max-requests:12}")
+    private int bnbMaxRequests = 12;
+
+    /** Budget horloge murale de la séparation et évaluation (ms) */
+    @Value("${algo.bnb.time-budget-ms:300}")
+    private long bnbTimeBudgetMs = 300;
+
+    /** Active la recherche locale entre tournées (relocalisation, échange, échange de queues) */
+    @Value("${algo.inter-route.enabled:true}")
+    private boolean interRouteEnabled = true;
+
+    /** Poids de l'équilibrage des durées entre coursiers (mètres par heure²) */
+    @Value("${algo.inter-route.balance-weight:100}")
+    private double interRouteBalanceWeight = 100;
+
+    /** Nombre maximal de passages de la recherche locale entre tournées */
+    @Value("${algo.inter-route.max-rounds:50}")
+    private int interRouteMaxRounds = 50;
+
+    /** Nombre de demandes à partir duquel les demandes sont découpées en secteurs géographiques */
+    @Value("${algo.geo-decomposition.min-requests:300}")
+    private int geoDecompositionMinRequests = 300;
+
+    /** Taille visée (en demandes) d'un secteur géographique */
+    @Value("${algo.geo-decomposition.cluster-size:120}")
+    private int geoDecompositionClusterSize = 120;
+
+    /** Passages de la recherche locale entre coursiers de deux secteurs voisins */
+    @Value("${algo.geo-decomposition.repair-rounds:5}")
+    private int geoDecompositionRepairRounds = 5;
+
+    /** Nombre de voisins candidats par stop (construction, 2-opt, insertion LNS), 0 = toutes les paires */
+    @Value("${algo.granular.neighbours:20}")
+    private int granularNeighbours = 20;
+
+    /**
+     * Nombre de stops à partir duquel le 2-opt complet évalue ses mouvements en parallèle
+     * (chemin sans listes de voisins uniquement, algo.granular.neighbours=0)
+     */
+    @Value("${algo.parallel.two-opt-min-stops:150}")
+    private int parallelTwoOptMinStops = 150;
+
+    /** Nombre de positions de départ évaluées par tranche séquentielle du 2-opt parallèle */
+    @Value("${algo.parallel.two-opt-chunk:8}")
+    private int parallelTwoOptChunk = 8;
+
+    /** Nombre de coursiers optimisés simultanément lors des recalculs par coursier, 0 = nombre de cœurs */
+    @Value("${algo.parallel.courier-threads:0}")
+    private int courierThreads = 0;
+
+    /** Capacité de chaque coursier en unités de charge des demandes, 0 = illimitée */
+    @Value("${algo.courier.capacity:0}")
+    private int courierCapacity = 0;
+
+    // =========================================================================
+    // COMPOSANTS INTERCHANGEABLES (voir AlgorithmRegistry)
+    // =========================================================================
+
+    /** Moteur de plus courts chemins par défaut */
+    @Value("${algo.spi.shortest-path:dijkstra}")
+    private String defaultShortestPath = "dijkstra";
+
+    /** Construction de la matrice des distances par défaut */
+    @Value("${algo.spi.matrix-builder:one-to-many}")
+    private String defaultMatrixBuilder = "one-to-many";
+
+    /** Construction de la tournée globale par défaut */
+    @Value("${algo.spi.route-constructor:nearest-neighbour}")
+    private String defaultRouteConstructor = "nearest-neighbour";
+
+    /** Amélioration des tournées par défaut */
+    @Value("${algo.spi.route-improver:2-opt}")
+    private String defaultRouteImprover = "2-opt";
+
+    /** Répartition entre coursiers par défaut */
+    @Value("${algo.spi.fleet-distributor:split-savings}")
+    private String defaultFleetDistributor = "split-savings";
+
+    // Implémentations supplémentaires fournies par des beans (enregistrées sous leur nom de bean)
+    @Autowired(required = false)
+    private Map<String, ShortestPathEngine> customShortestPathEngines;
+
+    @Autowired(required = false)
+    private Map<String, MatrixBuilder> customMatrixBuilders;
+
+    @Autowired(required = false)
+    private Map<String, RouteConstructor> customRouteConstructors;
+
+    @Autowired(required = false)
+    private Map<String, RouteImprover> customRouteImprovers;
+
+    @Autowired(required = false)
+    private Map<String, FleetDistributor> customFleetDistributors;
+
+    /**
+     * Registre des composants (créé à la première utilisation)
+     */
+    private volatile AlgorithmRegistry algorithmRegistry;
+
+    // =========================================================================
+    // PROFILS D'EFFORT ET SÉLECTION DE STRATÉGIE
+    // =========================================================================
+
+    /** Profil utilisé lorsque la requête n'en précise pas */
+    @Value("${algo.profile.default:balanced}")
+    private String defaultProfile = SolverProfile.BALANCED;
+
+    /** Nombre de demandes à partir duquel la recherche est décomposée par coursier */
+    @Value("${algo.decomposition.min-requests:40}")
+    private int decompositionMinRequests = 40;
+
+    @Value("${algo.profile.fast.time-budget-ms:30}")
+    private long fastTimeBudgetMs = 30;
+
+    @Value("${algo.profile.fast.max-iterations:500}")
+    private int fastMaxIterations = 500;
+
+    @Value("${algo.profile.fast.exact-max-requests:6}")
+    private int fastExactMaxRequests = 6;
+
+    @Value("${algo.profile.balanced.time-budget-ms:200}")
+    private long balancedTimeBudgetMs = 200;
+
+    @Value("${algo.profile.balanced.max-iterations:5000}")
+    private int balancedMaxIterations = 5000;
+
+    @Value("${algo.profile.balanced.exact-max-requests:8}")
+    private int balancedExactMaxRequests = 8;
+
+    @Value("${algo.profile.quality.time-budget-ms:2000}")
+    private long qualityTimeBudgetMs = 2000;
+
+    @Value("${algo.profile.quality.max-iterations:50000}")
+    private int qualityMaxIterations = 50000;
+
+    @Value("${algo.profile.quality.exact-max-requests:9}")
+    private int qualityExactMaxRequests = 9;
+
+    /**
+     * Pool fork/join dédié aux îles de recherche (créé à la première utilisation)
+     * Distinct du pool commun utilisé par la construction de la matrice
+     */
+    private volatile ForkJoinPool searchPool;
+
+    /**
+     * Exécuteur borné des recalculs par coursier (créé à la première utilisation)
+     * Distinct du pool des îles, que chaque calcul peut lui-même solliciter
+     */
+    private volatile java.util.concurrent.ExecutorService courierExecutor;
+
     /**
      * Génère une clé unique pour le cache Dijkstra
-     * Format: "startNodeId|endNodeId"
+     * Format: "engine|startNodeId|endNodeId" (un moteur personnalisé peut rendre d'autres chemins)
+     */
+    private String generateCacheKey(String engine, String startNodeId, String endNodeId) {
+        return engine + "|" + startNodeId + "|" + endNodeId;
+    }
+
+    /**
+     * Cache Dijkstra vu par les constructions de matrice, restreint aux chemins du moteur donné
+     *
+     * @param engine Le nom du moteur de plus courts chemins
      */
-    private String generateCacheKey(String startNodeId, String endNodeId) {
-        return startNodeId + "|" + endNodeId;
+    private MatrixBuilder.PathCache pathCache(String engine) {
+        return new MatrixBuilder.PathCache() {
+            @Override
+            public ShortestPathResult get(String fromNodeId, String toNodeId) {
+                return dijkstraCache.get(generateCacheKey(engine, fromNodeId, toNodeId));
+            }
+
+            @Override
+            public void put(String fromNodeId, String toNodeId, ShortestPathResult result) {
+                dijkstraCache.put(generateCacheKey(engine, fromNodeId, toNodeId), result);
+            }
+        };
     }
     
     /**
@@ -112,178 +369,168 @@ public class ServiceAlgo {
             throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
         }
 
-        // Construction d'un graphe d'adjacence
-        Map<String, List<SegmentInfo>> adjacencyList = buildAdjacencyList(cityMap);
-        
-        return dijkstraWithAdjacency(start, end, adjacencyList, cityMap.getNodes());
-    }
-
-    /**
-     * Version optimisée de Dijkstra qui accepte une liste d'adjacence pré-calculée
-     * Utilisée par buildGraph() pour éviter de recalculer adjacencyList à chaque appel
-     * 
-     * OPTIMISATION: Utilise un cache LRU pour éviter de recalculer les mêmes chemins
-     *
-     * @param start         Le nœud de départ
-     * @param end           Le nœud d'arrivée
-     * @param adjacencyList La liste d'adjacence pré-calculée
-     * @param allNodes      La liste de tous les nœuds
-     * @return Un objet ShortestPathResult contenant la distance totale et la liste des segments du chemin
-     */
-    private ShortestPathResult dijkstraWithAdjacency(Node start, Node end, 
-                                                      Map<String, List<SegmentInfo>> adjacencyList,
-                                                      List<Node> allNodes) {
-        if (start == null || end == null) {
-            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
-        }
+        // Graphe compilé (CSR, numérotation de Hilbert) réutilisé tant que la carte ne change pas
+        CompiledGraph compiled = getCompiledGraph(cityMap);
 
-        String startId = start.getId();
-        String endId = end.getId();
-        
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // OPTIMISATION: Vérifier le cache avant de calculer
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        String cacheKey = generateCacheKey(startId, endId);
+        String cacheKey = generateCacheKey(defaultShortestPath, start.getId(), end.getId());
         ShortestPathResult cachedResult = dijkstraCache.get(cacheKey);
-        
         if (cachedResult != null) {
             // Cache hit ! Pas besoin de recalculer
             return cachedResult;
         }
 
-        // Cache miss, on doit calculer
+        int source = compiled.indexOf(start.getId());
+        int target = compiled.indexOf(end.getId());
+        if (source < 0 || target < 0) {
+            // Nœud absent du réseau routier : pas de chemin (sauf trajet vers soi-même)
+            return start.getId().equals(end.getId())
+                    ? new ShortestPathResult(0.0, new ArrayList<>())
+                    : new ShortestPathResult(NO_PATH_DISTANCE, Collections.emptyList());
+        }
 
-        // Structures de données pour Dijkstra
-        Map<String, Double> distances = new HashMap<>();
-        Map<String, String> predecessors = new HashMap<>();
-        Map<String, Segment> segmentFromPredecessor = new HashMap<>();
-        PriorityQueue<NodeDistance> queue = new PriorityQueue<>(Comparator.comparingDouble(nd -> nd.distance));
-        Set<String> visited = new HashSet<>();
+        ShortestPathResult result = getAlgorithms().shortestPathEngine(defaultShortestPath)
+                .search(compiled, source, new int[] {target})[0];
+        dijkstraCache.put(cacheKey, result);
+        return result;
+    }
 
-        // Initialisation : seulement le nœud de départ (lazy initialization pour les autres)
-        distances.put(startId, 0.0);
-        queue.add(new NodeDistance(startId, 0.0));
+    /**
+     * Retourne le graphe compilé de la carte, en le (re)construisant si la carte a changé
+     * Un changement de carte invalide aussi le cache Dijkstra (les IDs ne sont plus comparables)
+     *
+     * @param cityMap La carte de la ville
+     * @return Le graphe compilé correspondant
+     */
+    private synchronized CompiledGraph getCompiledGraph(CityMap cityMap) {
+        CompiledGraph current = compiledGraph;
+        if (current != null && current.isCompiledFrom(cityMap)) {
+            return current;
+        }
 
-        // Métriques de performance
         long startTime = System.currentTimeMillis();
-        int iterations = 0;
-
-        // Algorithme de Dijkstra
-        while (!queue.isEmpty()) {
-            iterations++;
-            NodeDistance current = queue.poll();
-            String currentNodeId = current.nodeId();
-
-            if (visited.contains(currentNodeId)) {
-                continue;
-            }
-
-            visited.add(currentNodeId);
-
-            // Si on a atteint le nœud de destination, on peut arrêter
-            if (currentNodeId.equals(endId)) {
-                break;
-            }
+        current = CompiledGraph.compile(cityMap, CompiledGraph.NodeOrdering.HILBERT);
+        if (compiledGraph != null) {
+            dijkstraCache.clear();
+        }
+        compiledGraph = current;
 
-            // Exploration des voisins
-            List<SegmentInfo> neighbors = adjacencyList.getOrDefault(currentNodeId, Collections.emptyList());
-            for (SegmentInfo segmentInfo : neighbors) {
-                String neighborId = segmentInfo.destinationId;
-                double newDistance = distances.get(currentNodeId) + segmentInfo.segment.getLength();
+        System.out.println("🧭 Graphe compilé (" + current.getOrdering() + "): " + current.nodeCount()
+                + " nœuds, " + current.arcCount() + " arcs en " + (System.currentTimeMillis() - startTime) + " ms");
+        return current;
+    }
 
-                // Utiliser getOrDefault pour lazy initialization
-                double currentNeighborDistance = distances.getOrDefault(neighborId, UNVISITED_DISTANCE);
-                
-                if (newDistance < currentNeighborDistance) {
-                    distances.put(neighborId, newDistance);
-                    predecessors.put(neighborId, currentNodeId);
-                    segmentFromPredecessor.put(neighborId, segmentInfo.segment);
-                    queue.add(new NodeDistance(neighborId, newDistance));
-                }
-            }
-        }
+    // =========================================================================
+    // PRÉ-FILTRAGE DES DEMANDES (ARBRES DE L'ENTREPÔT)
+    // =========================================================================
 
-        // Métriques de performance (pour debugging/monitoring)
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        if (elapsedTime > DIJKSTRA_SLOW_THRESHOLD_MS || iterations > DIJKSTRA_ITERATIONS_WARNING_THRESHOLD) {
-            System.out.println("⚠️  Dijkstra lent: " + elapsedTime + "ms, " + iterations + " itérations pour " + 
-                             startId + " → " + endId);
-        }
+    /**
+     * Vérifie qu'un nœud figure dans la carte (index du graphe compilé, O(1))
+     *
+     * @param nodeId  Le nœud à vérifier
+     * @param cityMap La carte de la ville
+     * @return true si le nœud est déclaré dans la carte
+     */
+    public boolean isMapNode(String nodeId, CityMap cityMap) {
+        return nodeId != null && cityMap != null && getCompiledGraph(cityMap).isDeclared(nodeId);
+    }
 
-        // Reconstruction du chemin
-        double totalDistance = distances.getOrDefault(endId, NO_PATH_DISTANCE);
-        if (totalDistance == NO_PATH_DISTANCE) {
-            // Pas de chemin trouvé
-            return new ShortestPathResult(NO_PATH_DISTANCE, Collections.emptyList());
+    /**
+     * Calcule (ou réutilise) les arbres aller/retour des plus courts chemins de l'entrepôt
+     * Appelé dès que l'entrepôt est connu pour que le pré-filtrage soit instantané ensuite
+     *
+     * @param warehouseNodeId Le nœud de l'entrepôt
+     * @param cityMap         La carte de la ville
+     * @return Les arbres de l'entrepôt
+     */
+    public WarehouseTrees prepareWarehouseTrees(String warehouseNodeId, CityMap cityMap) {
+        if (warehouseNodeId == null || cityMap == null) {
+            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
         }
 
-        List<Segment> pathSegments = new ArrayList<>();
-        String currentNodeId = endId;
-
-        while (!currentNodeId.equals(startId)) {
-            Segment segment = segmentFromPredecessor.get(currentNodeId);
-            if (segment == null) {
-                break;
-            }
-            pathSegments.add(0, segment); // Ajout au début pour avoir le bon ordre
-            currentNodeId = predecessors.get(currentNodeId);
+        CompiledGraph compiled = getCompiledGraph(cityMap);
+        WarehouseTrees current = warehouseTrees;
+        if (current != null && current.isFor(compiled, warehouseNodeId)) {
+            return current;
         }
 
-        ShortestPathResult result = new ShortestPathResult(totalDistance, pathSegments);
-        
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // OPTIMISATION: Mettre le résultat en cache
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        dijkstraCache.put(cacheKey, result);
-        
-        return result;
+        long startTime = System.currentTimeMillis();
+        current = WarehouseTrees.compute(compiled, warehouseNodeId);
+        warehouseTrees = current;
+        System.out.println("🌳 Arbres de l'entrepôt " + warehouseNodeId + " calculés en "
+                + (System.currentTimeMillis() - startTime) + " ms");
+        return current;
     }
 
     /**
-     * Construit une liste d'adjacence à partir des segments de la carte
-     * 
-     * IMPORTANT: Le graphe est NON-DIRIGÉ (bidirectionnel)
-     * Chaque segment du XML représente une rue qui peut être empruntée dans les deux sens
+     * Borne inférieure de la durée d'une tournée servant cette demande seule :
+     * entrepôt → pickup → delivery → entrepôt, plus les temps de service
      *
-     * @param cityMap La carte de la ville
-     * @return Une map où chaque nœud est associé à la liste de ses voisins avec les segments correspondants
+     * Calcul en O(1) avec les arbres de l'entrepôt (+ une recherche pickup → delivery,
+     * mise en cache). Aucune tournée contenant la demande ne peut être plus courte.
+     *
+     * @param demand          La demande à évaluer
+     * @param warehouseNodeId Le nœud de l'entrepôt
+     * @param cityMap         La carte de la ville
+     * @return La durée minimale en secondes (+∞ si un des trajets est impossible)
      */
-    private Map<String, List<SegmentInfo>> buildAdjacencyList(CityMap cityMap) {
-        Map<String, List<SegmentInfo>> adjacencyList = new HashMap<>();
-
-        for (Segment segment : cityMap.getSegments()) {
-            // Direction origine → destination (segment tel quel)
-            adjacencyList.computeIfAbsent(segment.getOrigin(), k -> new ArrayList<>())
-                    .add(new SegmentInfo(segment.getDestination(), segment));
-            
-            // Direction inverse: on crée un segment miroir pour que origin/destination reflètent
-            // le sens réellement parcouru (utile pour reconstruire et afficher le chemin sans zigzag)
-            Segment reverse = new Segment(
-                segment.getDestination(),
-                segment.getOrigin(),
-                segment.getLength(),
-                segment.getName()
-            );
-            adjacencyList.computeIfAbsent(reverse.getOrigin(), k -> new ArrayList<>())
-                    .add(new SegmentInfo(reverse.getDestination(), reverse));
+    public double estimateDemandMinimumDurationSec(Demand demand, String warehouseNodeId, CityMap cityMap) {
+        if (demand == null) {
+            throw new IllegalArgumentException("La demande ne peut pas être null");
         }
 
-        return adjacencyList;
+        WarehouseTrees trees = prepareWarehouseTrees(warehouseNodeId, cityMap);
+        double distance = trees.distanceFromWarehouse(demand.getPickupNodeId())
+                + shortestDistance(demand.getPickupNodeId(), demand.getDeliveryNodeId(), getCompiledGraph(cityMap))
+                + trees.distanceToWarehouse(demand.getDeliveryNodeId());
+
+        return StopRoutes.calculateTravelTime(distance) + demand.getPickupDurationSec() + demand.getDeliveryDurationSec();
     }
 
     /**
-     * Record représentant un nœud avec sa distance dans la file de priorité de Dijkstra
-     * Utilisé pour l'algorithme de recherche du plus court chemin
+     * Identifie les demandes impossibles à servir dans la limite de 4h, même seules
+     *
+     * @param demandeSet L'ensemble des demandes avec l'entrepôt
+     * @param cityMap    La carte de la ville
+     * @return Les demandes impossibles et leur durée minimale (ordre des demandes conservé)
      */
-    private record NodeDistance(String nodeId, double distance) {}
+    public Map<Demand, Double> findDemandsExceedingTimeLimit(DemandeSet demandeSet, CityMap cityMap) {
+        Map<Demand, Double> infeasible = new LinkedHashMap<>();
+        if (demandeSet == null || demandeSet.getWarehouse() == null || demandeSet.getDemands() == null
+                || cityMap == null) {
+            return infeasible;
+        }
+
+        String warehouseNodeId = demandeSet.getWarehouse().getNodeId();
+        for (Demand demand : demandeSet.getDemands()) {
+            double minimumDuration = estimateDemandMinimumDurationSec(demand, warehouseNodeId, cityMap);
+            if (minimumDuration > TIME_LIMIT_SEC) {
+                infeasible.put(demand, minimumDuration);
+            }
+        }
+        return infeasible;
+    }
 
     /**
-     * Record pour stocker les informations d'un segment dans la liste d'adjacence
-     * Associe une destination à un segment pour naviguer efficacement dans le graphe
+     * Plus courte distance entre deux nœuds (cache Dijkstra, sinon recherche un-vers-un)
      */
-    private record SegmentInfo(String destinationId, Segment segment) {}
+    private double shortestDistance(String fromNodeId, String toNodeId, CompiledGraph compiled) {
+        String cacheKey = generateCacheKey(defaultShortestPath, fromNodeId, toNodeId);
+        ShortestPathResult cached = dijkstraCache.get(cacheKey);
+        if (cached != null) {
+            return cached.getDistance();
+        }
+
+        int source = compiled.indexOf(fromNodeId);
+        int target = compiled.indexOf(toNodeId);
+        if (source < 0 || target < 0) {
+            return fromNodeId != null && fromNodeId.equals(toNodeId) ? 0.0 : NO_PATH_DISTANCE;
+        }
+
+        ShortestPathResult result = getAlgorithms().shortestPathEngine(defaultShortestPath)
+                .search(compiled, source, new int[] {target})[0];
+        dijkstraCache.put(cacheKey, result);
+        return result.getDistance();
+    }
 
     /**
      * Récupère un StopSet contenant tous les stops (pickup, delivery et warehouse)
@@ -336,14 +583,25 @@ public class ServiceAlgo {
      * Construit un graphe complet avec tous les trajets entre les stops
      * Calcule efficacement les distances entre tous les stops en utilisant Dijkstra
      * 
-     * OPTIMISATION: Calcul parallélisé des trajets pour améliorer les performances
-     * sur les cartes avec beaucoup de stops
+     * OPTIMISATION: Les distances sont calculées une seule fois par paire de nœuds
+     * distincts (en parallèle), puis projetées sur les stops ; les stops partageant
+     * un nœud sont reliés par un trajet de 0 m sans aucune recherche
      *
      * @param stopSet L'ensemble des stops (pickup, delivery, warehouse)
      * @param cityMap La carte de la ville
      * @return Un Graph contenant tous les trajets entre les stops
      */
     public Graph buildGraph(StopSet stopSet, CityMap cityMap) {
+        return buildGraph(stopSet, cityMap, resolveAlgorithms(null));
+    }
+
+    /**
+     * Construit le graphe avec le moteur de plus courts chemins et la construction de matrice
+     * de la sélection (voir {@link #resolveAlgorithms})
+     *
+     * @param algorithms Les composants retenus pour ce calcul
+     */
+    public Graph buildGraph(StopSet stopSet, CityMap cityMap, AlgorithmSelection algorithms) {
         if (stopSet == null || cityMap == null) {
             throw new IllegalArgumentException("StopSet et CityMap ne peuvent pas être null");
         }
@@ -356,13 +614,14 @@ public class ServiceAlgo {
         System.out.println("🔗 Construction du Graph avec " + stops.size() + " stops...");
         long startTime = System.currentTimeMillis();
 
-        // PRÉ-CALCUL : Créer la liste d'adjacence UNE SEULE FOIS (optimisation critique)
-        Map<String, List<SegmentInfo>> adjacencyList = buildAdjacencyList(cityMap);
-        
-        // PRÉ-CALCUL : Créer une map pour trouver rapidement les nodes par leur ID
-        Map<String, Node> nodeMap = new HashMap<>();
-        for (Node node : cityMap.getNodes()) {
-            nodeMap.put(node.getId(), node);
+        // PRÉ-CALCUL : Graphe compilé (CSR) partagé par toutes les recherches
+        CompiledGraph compiled = getCompiledGraph(cityMap);
+
+        // Vérifier que chaque stop correspond à un nœud de la carte
+        for (Stop stop : stops) {
+            if (!compiled.isDeclared(stop.getIdNode())) {
+                throw new IllegalArgumentException("Node non trouvé pour le stop: " + stop.getIdNode());
+            }
         }
 
         // Trouver le stop warehouse (stop de départ)
@@ -375,22 +634,37 @@ public class ServiceAlgo {
         Graph graph = new Graph();
         graph.setStopDepart(warehouseStop);
         graph.setCout(0.0);
+        graph.setCourierCapacity(courierCapacity > 0 ? courierCapacity : null);
+        
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // OPTIMISATION: Une recherche par NŒUD distinct (et non par stop)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
+        // Matrice du DemandeSet courant déjà à jour : simple copie, aucune recherche
+        // (seulement avec les composants par défaut, ceux qui la maintiennent)
+        List<String> nodeIds = NodeMatrix.distinctNodeIds(stops);
+        boolean defaultEngines = algorithms.matrixBuilder().equals(defaultMatrixBuilder)
+                && algorithms.shortestPath().equals(defaultShortestPath);
+        NodeMatrix nodeMatrix = defaultEngines ? liveMatrixSnapshot(compiled, nodeIds) : null;
+        if (nodeMatrix == null) {
+            AlgorithmRegistry registry = getAlgorithms();
+            String engine = algorithms.shortestPath();
+            nodeMatrix = registry.matrixBuilder(algorithms.matrixBuilder()).build(
+                    nodeIds, compiled, registry.shortestPathEngine(engine), pathCache(engine));
+            if (defaultEngines) {
+                seedLiveMatrix(compiled, nodeIds, nodeMatrix);
+            }
+        }
+
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // OPTIMISATION: Calcul parallélisé avec ConcurrentHashMap pour thread-safety
+        // Projection des stops sur la matrice des nœuds
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
         Map<Stop, Map<Stop, Trajet>> distancesMatrix = new java.util.concurrent.ConcurrentHashMap<>();
 
-        // Calculer tous les trajets entre tous les stops EN PARALLÈLE
-        // Pour chaque stop source
-        stops.parallelStream().forEach(stopSource -> {
+        for (Stop stopSource : stops) {
             Map<Stop, Trajet> trajetsFromSource = new java.util.concurrent.ConcurrentHashMap<>();
-            Node nodeSource = nodeMap.get(stopSource.getIdNode());
-            
-            if (nodeSource == null) {
-                throw new IllegalArgumentException("Node non trouvé pour le stop: " + stopSource.getIdNode());
-            }
+            int from = nodeMatrix.indexOf(stopSource.getIdNode());
 
             // Pour chaque stop destination (différent de la source)
             for (Stop stopDestination : stops) {
@@ -398,35 +672,28 @@ public class ServiceAlgo {
                     continue; // Pas de trajet vers soi-même
                 }
 
-                Node nodeDestination = nodeMap.get(stopDestination.getIdNode());
-                
-                if (nodeDestination == null) {
-                    throw new IllegalArgumentException("Node non trouvé pour le stop: " + stopDestination.getIdNode());
-                }
-
-                // OPTIMISATION : Utiliser dijkstraWithAdjacency avec la liste d'adjacence pré-calculée
-                // + cache automatique pour éviter les recalculs
-                ShortestPathResult result = dijkstraWithAdjacency(
-                    nodeSource, nodeDestination, adjacencyList, cityMap.getNodes());
+                // Stops co-localisés : diagonale de la matrice (0 m, aucun segment)
+                int to = nodeMatrix.indexOf(stopDestination.getIdNode());
+                double distance = nodeMatrix.distance(from, to);
 
                 // Créer le trajet
                 Trajet trajet = new Trajet();
                 trajet.setStopDepart(stopSource);
                 trajet.setStopArrivee(stopDestination);
-                trajet.setSegments(result.getSegments());
-                trajet.setDistance(result.getDistance());
+                trajet.setSegments(nodeMatrix.path(from, to));
+                trajet.setDistance(distance);
                 
                 // PHASE 1: Calculer la durée du trajet (temps de déplacement uniquement)
-                trajet.setDurationSec(calculateTravelTime(result.getDistance()));
+                trajet.setDurationSec(StopRoutes.calculateTravelTime(distance));
 
-                // Ajouter dans la map (thread-safe avec ConcurrentHashMap)
                 trajetsFromSource.put(stopDestination, trajet);
             }
 
             distancesMatrix.put(stopSource, trajetsFromSource);
-        });
+        }
 
         graph.setDistancesMatrix(distancesMatrix);
+        graph.setNodeMatrix(nodeMatrix);
         
         // PHASE 1: Construire la map des demandes pour le calcul de temps
         // Parcourir les stops et extraire les demandes uniques
@@ -443,1027 +710,502 @@ public class ServiceAlgo {
         int totalPaths = stops.size() * (stops.size() - 1);
         
         System.out.println("   ✓ Graph construit en " + elapsedTime + " ms");
-        System.out.println("   ✓ Nombre de trajets calculés: " + totalPaths);
+        System.out.println("   ✓ Nombre de trajets calculés: " + totalPaths
+                + " (" + nodeMatrix.size() + " nœuds distincts pour " + stops.size() + " stops)");
         System.out.println("   ✓ " + getCacheStats());
-        
+
         return graph;
     }
 
-    // =========================================================================
-    // PHASE 1: PRÉPARATION DES DONNÉES POUR L'ALGORITHME TSP
-    // =========================================================================
+    /**
+     * Restreint un graphe déjà construit aux stops de quelques demandes (recalcul par coursier)
+     *
+     * Aucune recherche de plus court chemin : la matrice globale est partagée par une vue
+     * découpée ({@link SlicedDistances}), ainsi que la matrice des nœuds. Le demandMap reste
+     * à renseigner par l'appelant, comme après {@link #buildGraph}.
+     *
+     * @param graph   Le graphe construit sur tous les stops du DemandeSet
+     * @param demands Les demandes du sous-graphe (leurs stops doivent figurer dans le graphe)
+     * @return Un graphe limité à l'entrepôt et aux pickups/deliveries de ces demandes
+     * @throws IllegalArgumentException Si un stop d'une demande est absent du graphe
+     */
+    public Graph sliceGraph(Graph graph, Collection<Demand> demands) {
+        if (graph == null || graph.getDistancesMatrix() == null || graph.getStopDepart() == null || demands == null) {
+            throw new IllegalArgumentException("Le graphe global et les demandes ne peuvent pas être null");
+        }
+
+        List<Stop> members = new ArrayList<>(1 + 2 * demands.size());
+        members.add(graph.getStopDepart());
+        for (Demand demand : demands) {
+            members.add(new Stop(demand.getPickupNodeId(), demand.getId(), Stop.TypeStop.PICKUP));
+            members.add(new Stop(demand.getDeliveryNodeId(), demand.getId(), Stop.TypeStop.DELIVERY));
+        }
+
+        Graph slice = new Graph();
+        slice.setStopDepart(graph.getStopDepart());
+        slice.setCout(0.0);
+        slice.setCourierCapacity(graph.getCourierCapacity());
+        slice.setDistancesMatrix(new SlicedDistances(graph.getDistancesMatrix(), members));
+        slice.setNodeMatrix(graph.getNodeMatrix());
+        slice.setDemandMap(new HashMap<>());
+        return slice;
+    }
 
     /**
-     * Extrait le stop de type WAREHOUSE depuis le Graph
-     * 
-     * @param graph Le graphe contenant tous les stops
-     * @return Le Stop warehouse
-     * @throws IllegalStateException Si aucun warehouse n'est trouvé
+     * Optimise des tournées indépendantes (un graphe par coursier) en parallèle
+     *
+     * Les calculs sont répartis sur un exécuteur borné (algo.parallel.courier-threads) ;
+     * un seul graphe est traité directement par le thread appelant. Les résultats sont
+     * rendus dans l'ordre des graphes, quel que soit l'ordre de fin des calculs : l'appelant
+     * les fusionne ensuite sans synchronisation.
+     *
+     * @param graphs Les graphes, dans l'ordre de fusion voulu (demandMap renseigné)
+     * @param solver Le calcul appliqué à chaque graphe (doit pouvoir être appelé en parallèle)
+     * @return Les résultats, dans l'ordre des graphes
+     * @throws IllegalStateException Si le calcul est interrompu
      */
-    private Stop extractWarehouse(Graph graph) {
-        if (graph == null || graph.getDistancesMatrix() == null) {
-            throw new IllegalArgumentException("Graph ne peut pas être null");
+    public List<TourDistributionResult> calculateIndependentTours(
+            List<Graph> graphs, java.util.function.Function<Graph, TourDistributionResult> solver) {
+        if (graphs == null || solver == null) {
+            throw new IllegalArgumentException("Les graphes et le calcul ne peuvent pas être null");
+        }
+        if (graphs.size() <= 1) {
+            return graphs.isEmpty() ? List.of() : List.of(solver.apply(graphs.get(0)));
         }
 
-        return graph.getDistancesMatrix().keySet().stream()
-                .filter(stop -> stop.getTypeStop() == Stop.TypeStop.WAREHOUSE)
-                .findFirst()
-                .orElseThrow(() -> new AlgorithmException(
-                    AlgorithmException.ErrorType.NO_WAREHOUSE,
-                    "Aucun entrepôt (warehouse) trouvé dans le Graph"
-                ));
+        long startTime = System.currentTimeMillis();
+        List<java.util.concurrent.Callable<TourDistributionResult>> tasks = new ArrayList<>();
+        for (Graph graph : graphs) {
+            tasks.add(() -> solver.apply(graph));
+        }
+        List<TourDistributionResult> results = new ArrayList<>();
+        try {
+            for (java.util.concurrent.Future<TourDistributionResult> future : getCourierExecutor().invokeAll(tasks)) {
+                results.add(awaitCourier(future));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recalcul par coursier interrompu", e);
+        }
+        System.out.println("   ✓ " + graphs.size() + " tournées optimisées en parallèle en "
+            + (System.currentTimeMillis() - startTime) + " ms");
+        return results;
     }
 
+    // =========================================================================
+    // MATRICE INCRÉMENTALE DU DEMANDESET COURANT
+    // =========================================================================
+
     /**
-     * Extrait tous les stops sauf le warehouse
-     * 
-     * @param graph Le graphe contenant tous les stops
-     * @return Liste des stops (pickups et deliveries uniquement)
+     * Suit un nouveau DemandeSet (chargement, entrepôt modifié, réinitialisation)
+     *
+     * La matrice précédente est abandonnée ; la suivante est reprise telle quelle du premier
+     * graphe construit sur tous les stops de ce DemandeSet, puis tenue à jour par
+     * {@link #onDemandAdded} et {@link #onDemandRemoved}.
+     *
+     * @param demandeSet Le DemandeSet courant, ou null pour ne plus en suivre
      */
-    private List<Stop> extractNonWarehouseStops(Graph graph) {
-        if (graph == null || graph.getDistancesMatrix() == null) {
-            throw new IllegalArgumentException("Graph ne peut pas être null");
+    public void trackDemandeSet(DemandeSet demandeSet) {
+        synchronized (liveMatrixLock) {
+            trackedDemandeSet = demandeSet;
+            liveMatrix = null;
+            liveMatrixGraph = null;
         }
-
-        return graph.getDistancesMatrix().keySet().stream()
-                .filter(stop -> stop.getTypeStop() != Stop.TypeStop.WAREHOUSE)
-                .collect(java.util.stream.Collectors.toList());
     }
 
     /**
-     * Organise les pickups par ID de demande
-     * Permet de retrouver facilement tous les pickups associés à une demande
-     * 
-     * @param stops Liste de tous les stops (pickups et deliveries)
-     * @return Map avec clé = idDemande, valeur = liste des stops pickup de cette demande
+     * Ajoute à la matrice courante les lignes et colonnes des nœuds de la demande
+     *
+     * Une recherche un-vers-plusieurs par nœud nouveau, vers tous les nœuds de la matrice ;
+     * le graphe compilé étant non dirigé, la colonne est le miroir de la ligne. Les nœuds
+     * déjà présents (commerce partagé, entrepôt) ne coûtent aucune recherche.
+     *
+     * @param demand La demande ajoutée au DemandeSet suivi
      */
-    private Map<String, List<Stop>> buildPickupsByRequestId(List<Stop> stops) {
-        if (stops == null) {
-            throw new IllegalArgumentException("La liste de stops ne peut pas être null");
+    public void onDemandAdded(Demand demand) {
+        VersionedNodeMatrix matrix;
+        CompiledGraph compiled;
+        synchronized (liveMatrixLock) {
+            matrix = liveMatrix;
+            compiled = liveMatrixGraph;
+        }
+        if (matrix == null || demand == null || demand.getPickupNodeId() == null || demand.getDeliveryNodeId() == null) {
+            return; // Pas encore de matrice : elle sera reprise du prochain graphe complet
         }
 
-        return stops.stream()
-                .filter(stop -> stop.getTypeStop() == Stop.TypeStop.PICKUP)
-                .collect(java.util.stream.Collectors.groupingBy(Stop::getIdDemande));
+        long startTime = System.currentTimeMillis();
+        ShortestPathEngine engine = getAlgorithms().shortestPathEngine(defaultShortestPath);
+        int searches = 0;
+        synchronized (matrix) {
+            List<String> added = matrix.acquire(List.of(demand.getPickupNodeId(), demand.getDeliveryNodeId()));
+            List<String> targets = matrix.nodeIds();
+            for (String nodeId : added) {
+                targets.remove(nodeId); // Les paires avec les nœuds déjà traités sont remplies
+                int source = compiled.indexOf(nodeId);
+                if (source < 0 || targets.isEmpty()) {
+                    continue; // Nœud hors carte : ligne et colonne restent à +∞
+                }
+                int[] indices = new int[targets.size()];
+                for (int i = 0; i < indices.length; i++) {
+                    indices[i] = compiled.indexOf(targets.get(i));
+                }
+                ShortestPathResult[] results = engine.search(compiled, source, indices);
+                searches++;
+                for (int i = 0; i < indices.length; i++) {
+                    List<Segment> path = results[i].getSegments();
+                    matrix.set(nodeId, targets.get(i), results[i].getDistance(), path);
+                    matrix.set(targets.get(i), nodeId, results[i].getDistance(), mirror(path));
+                }
+            }
+            System.out.println("♻️  Matrice incrémentale v" + matrix.getVersion() + ": demande " + demand.getId()
+                + " ajoutée (" + added.size() + " nœud(s), " + searches + " recherche(s), "
+                + (System.currentTimeMillis() - startTime) + " ms)");
+        }
     }
 
     /**
-     * Organise les deliveries par ID de demande
-     * Permet de retrouver facilement le delivery associé à une demande
-     * 
-     * @param stops Liste de tous les stops (pickups et deliveries)
-     * @return Map avec clé = idDemande, valeur = stop delivery de cette demande
+     * Retire de la matrice courante les nœuds que plus aucun stop n'utilise (O(n) par nœud)
+     *
+     * @param demand La demande retirée du DemandeSet suivi
      */
-    private Map<String, Stop> buildDeliveryByRequestId(List<Stop> stops) {
-        if (stops == null) {
-            throw new IllegalArgumentException("La liste de stops ne peut pas être null");
+    public void onDemandRemoved(Demand demand) {
+        VersionedNodeMatrix matrix;
+        synchronized (liveMatrixLock) {
+            matrix = liveMatrix;
         }
-
-        return stops.stream()
-                .filter(stop -> stop.getTypeStop() == Stop.TypeStop.DELIVERY)
-                .collect(java.util.stream.Collectors.toMap(
-                        Stop::getIdDemande, 
-                        java.util.function.Function.identity()
-                ));
+        if (matrix == null || demand == null || demand.getPickupNodeId() == null || demand.getDeliveryNodeId() == null) {
+            return;
+        }
+        List<String> removed = matrix.release(List.of(demand.getPickupNodeId(), demand.getDeliveryNodeId()));
+        System.out.println("♻️  Matrice incrémentale v" + matrix.getVersion() + ": demande " + demand.getId()
+            + " retirée (" + removed.size() + " nœud(s) supprimé(s), aucune recherche)");
     }
 
-    // =========================================================================
-    // PHASE 2: FONCTIONS UTILITAIRES POUR L'ALGORITHME TSP
-    // =========================================================================
-
     /**
-     * Récupère la distance entre deux stops depuis la matrice d'adjacence du Graph
-     * 
-     * @param a Le stop de départ
-     * @param b Le stop d'arrivée
-     * @param graph Le graphe contenant la matrice de distances
-     * @return La distance entre les deux stops
-     * @throws IllegalArgumentException Si les paramètres sont null ou si la distance n'existe pas
+     * Copie de la matrice courante si elle couvre tous les nœuds demandés, null sinon
      */
-    private double distance(Stop a, Stop b, Graph graph) {
-        if (a == null || b == null || graph == null) {
-            throw new IllegalArgumentException("Les stops et le graph ne peuvent pas être null");
-        }
-
-        // Cas spécial : même stop (ex: warehouse → warehouse si tournée vide)
-        if (a.getIdNode().equals(b.getIdNode())) {
-            return 0.0;
-        }
-
-        Map<Stop, Map<Stop, Trajet>> matrix = graph.getDistancesMatrix();
-        if (matrix == null || !matrix.containsKey(a)) {
-            throw new AlgorithmException(
-                AlgorithmException.ErrorType.STOP_NOT_FOUND,
-                "Stop source introuvable dans le graph: " + a.getIdNode()
-            );
+    private NodeMatrix liveMatrixSnapshot(CompiledGraph compiled, List<String> nodeIds) {
+        VersionedNodeMatrix matrix;
+        synchronized (liveMatrixLock) {
+            if (liveMatrix == null || liveMatrixGraph != compiled) {
+                return null;
+            }
+            matrix = liveMatrix;
         }
-
-        Map<Stop, Trajet> destinations = matrix.get(a);
-        if (!destinations.containsKey(b)) {
-            throw new AlgorithmException(
-                AlgorithmException.ErrorType.NO_PATH_FOUND,
-                "Pas de trajet trouvé entre " + a.getIdNode() + " et " + b.getIdNode()
-            );
+        synchronized (matrix) {
+            if (!matrix.containsAll(nodeIds)) {
+                return null;
+            }
+            System.out.println("   ♻️ Matrice incrémentale v" + matrix.getVersion() + " réutilisée ("
+                + nodeIds.size() + " nœuds, aucune recherche)");
+            return matrix.snapshot(nodeIds);
         }
-
-        Trajet trajet = destinations.get(b);
-        return trajet.getDistance();
     }
 
     /**
-     * Calcule la distance totale d'une tournée (route)
-     * 
-     * @param route Liste ordonnée des stops formant la tournée
-     * @param graph Le graphe contenant les distances entre stops
-     * @return La distance totale de la tournée en mètres
-     * @throws IllegalArgumentException Si les paramètres sont null ou si la route est invalide
+     * Reprend la matrice d'un graphe construit sur exactement les nœuds du DemandeSet suivi
      */
-    private double computeRouteDistance(List<Stop> route, Graph graph) {
-        if (route == null || graph == null) {
-            throw new IllegalArgumentException("Route et graph ne peuvent pas être null");
+    private void seedLiveMatrix(CompiledGraph compiled, List<String> nodeIds, NodeMatrix nodeMatrix) {
+        synchronized (liveMatrixLock) {
+            if (trackedDemandeSet == null || (liveMatrix != null && liveMatrixGraph == compiled)) {
+                return;
+            }
+            List<String> references = new ArrayList<>();
+            if (trackedDemandeSet.getWarehouse() != null) {
+                references.add(trackedDemandeSet.getWarehouse().getNodeId());
+            }
+            if (trackedDemandeSet.getDemands() != null) {
+                for (Demand demand : trackedDemandeSet.getDemands()) {
+                    references.add(demand.getPickupNodeId());
+                    references.add(demand.getDeliveryNodeId());
+                }
+            }
+            if (!new HashSet<>(references).equals(new HashSet<>(nodeIds))) {
+                return; // Graphe partiel (secteur, sous-ensemble) ou DemandeSet modifié entre-temps
+            }
+            liveMatrix = VersionedNodeMatrix.of(nodeMatrix, references);
+            liveMatrixGraph = compiled;
         }
+    }
 
-        if (route.size() < 2) {
-            return 0.0; // Une route avec 0 ou 1 stop a une distance de 0
+    /**
+     * Chemin inverse d'un chemin du graphe non dirigé (segments miroirs, ordre inversé)
+     */
+    private static List<Segment> mirror(List<Segment> path) {
+        if (path == null || path.isEmpty()) {
+            return path;
         }
-
-        double totalDistance = 0.0;
-
-        for (int i = 0; i < route.size() - 1; i++) {
-            Stop current = route.get(i);
-            Stop next = route.get(i + 1);
-            totalDistance += distance(current, next, graph);
+        List<Segment> reversed = new ArrayList<>(path.size());
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Segment segment = path.get(i);
+            reversed.add(new Segment(segment.getDestination(), segment.getOrigin(), segment.getLength(), segment.getName()));
         }
-
-        return totalDistance;
+        return reversed;
     }
 
     // =========================================================================
-    // CALCUL DE TEMPS (PHASE 1)
+    // PHASE 1: PRÉPARATION DES DONNÉES POUR L'ALGORITHME TSP
     // =========================================================================
 
     /**
-     * Calcule le temps de trajet entre deux stops (temps de déplacement uniquement)
+     * Extrait le stop de type WAREHOUSE depuis le Graph
      * 
-     * @param distance Distance en mètres
-     * @return Temps en secondes
-     * @throws IllegalArgumentException Si la distance est négative
+     * @param graph Le graphe contenant tous les stops
+     * @return Le Stop warehouse
+     * @throws IllegalStateException Si aucun warehouse n'est trouvé
      */
-    private double calculateTravelTime(double distance) {
-        if (distance < 0) {
-            throw new IllegalArgumentException("La distance ne peut pas être négative: " + distance);
-        }
-        if (distance == NO_PATH_DISTANCE || distance == Double.POSITIVE_INFINITY) {
-            return Double.POSITIVE_INFINITY;
+    private Stop extractWarehouse(Graph graph) {
+        if (graph == null || graph.getDistancesMatrix() == null) {
+            throw new IllegalArgumentException("Graph ne peut pas être null");
         }
-        return distance / COURIER_SPEED_MS; // temps = distance / vitesse
+
+        return graph.getDistancesMatrix().keySet().stream()
+                .filter(stop -> stop.getTypeStop() == Stop.TypeStop.WAREHOUSE)
+                .findFirst()
+                .orElseThrow(() -> new AlgorithmException(
+                    AlgorithmException.ErrorType.NO_WAREHOUSE,
+                    "Aucun entrepôt (warehouse) trouvé dans le Graph"
+                ));
     }
 
     /**
-     * Récupère la demande associée à un stop
+     * Extrait tous les stops sauf le warehouse
      * 
-     * @param stop Le stop
-     * @param demandMap Map des demandes par ID
-     * @return La demande ou null si le stop est un warehouse
+     * @param graph Le graphe contenant tous les stops
+     * @return Liste des stops (pickups et deliveries uniquement)
      */
-    private Demand getDemandByStop(Stop stop, Map<String, Demand> demandMap) {
-        if (stop.getTypeStop() == Stop.TypeStop.WAREHOUSE) {
-            return null;
+    private List<Stop> extractNonWarehouseStops(Graph graph) {
+        if (graph == null || graph.getDistancesMatrix() == null) {
+            throw new IllegalArgumentException("Graph ne peut pas être null");
         }
-        return demandMap.get(stop.getIdDemande());
+
+        return graph.getDistancesMatrix().keySet().stream()
+                .filter(stop -> stop.getTypeStop() != Stop.TypeStop.WAREHOUSE)
+                .collect(java.util.stream.Collectors.toList());
     }
 
     /**
-     * Calcule la durée totale d'une tournée (route)
-     * Inclut : temps de déplacement + temps de service (pickup + delivery)
+     * Organise les pickups par ID de demande
+     * Permet de retrouver facilement tous les pickups associés à une demande
      * 
-     * @param route Liste ordonnée des stops formant la tournée
-     * @param graph Le graphe contenant les distances entre stops
-     * @param demandMap Map des demandes par ID pour récupérer les durées de service
-     * @return La durée totale de la tournée en secondes
-     * @throws IllegalArgumentException Si les paramètres sont null ou si la route est invalide
+     * @param stops Liste de tous les stops (pickups et deliveries)
+     * @return Map avec clé = idDemande, valeur = liste des stops pickup de cette demande
      */
-    private double computeRouteDuration(List<Stop> route, Graph graph, Map<String, Demand> demandMap) {
-        if (route == null || graph == null || demandMap == null) {
-            throw new IllegalArgumentException("Route, graph et demandMap ne peuvent pas être null");
-        }
-
-        if (route.size() < 2) {
-            return 0.0; // Une route avec 0 ou 1 stop a une durée de 0
-        }
-
-        double totalTime = 0.0;
-
-        for (int i = 0; i < route.size() - 1; i++) {
-            Stop current = route.get(i);
-            Stop next = route.get(i + 1);
-            
-            // 1. Temps de trajet entre current et next
-            double distance = distance(current, next, graph);
-            totalTime += calculateTravelTime(distance);
-            
-            // 2. Temps de service au stop current
-            if (current.getTypeStop() == Stop.TypeStop.PICKUP) {
-                Demand demand = getDemandByStop(current, demandMap);
-                if (demand != null) {
-                    totalTime += demand.getPickupDurationSec();
-                }
-            } else if (current.getTypeStop() == Stop.TypeStop.DELIVERY) {
-                Demand demand = getDemandByStop(current, demandMap);
-                if (demand != null) {
-                    totalTime += demand.getDeliveryDurationSec();
-                }
-            }
-            // Le warehouse n'a pas de temps de service
+    private Map<String, List<Stop>> buildPickupsByRequestId(List<Stop> stops) {
+        if (stops == null) {
+            throw new IllegalArgumentException("La liste de stops ne peut pas être null");
         }
 
-        return totalTime;
+        return stops.stream()
+                .filter(stop -> stop.getTypeStop() == Stop.TypeStop.PICKUP)
+                .collect(java.util.stream.Collectors.groupingBy(Stop::getIdDemande));
     }
 
     /**
-     * Vérifie si un stop (en particulier une delivery) peut être visité
-     * Une delivery ne peut être visitée que si tous ses pickups correspondants ont déjà été visités
-     * Les pickups et le warehouse sont toujours faisables
+     * Organise les deliveries par ID de demande
+     * Permet de retrouver facilement le delivery associé à une demande
      * 
-     * @param stop Le stop à vérifier
-     * @param visited Ensemble des stops déjà visités
-     * @param pickupsByRequestId Map des pickups organisés par ID de demande
-     * @return true si le stop peut être visité, false sinon
+     * @param stops Liste de tous les stops (pickups et deliveries)
+     * @return Map avec clé = idDemande, valeur = stop delivery de cette demande
      */
-    private boolean isStopFeasible(
-            Stop stop,
-            Set<Stop> visited,
-            Map<String, List<Stop>> pickupsByRequestId
-    ) {
-        if (stop == null || visited == null || pickupsByRequestId == null) {
-            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
-        }
-
-        // Les pickups et le warehouse sont toujours faisables
-        if (stop.getTypeStop() == Stop.TypeStop.PICKUP || 
-            stop.getTypeStop() == Stop.TypeStop.WAREHOUSE) {
-            return true;
-        }
-
-        // Pour une delivery, vérifier que tous ses pickups ont été visités
-        if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
-            String requestId = stop.getIdDemande();
-            List<Stop> requiredPickups = pickupsByRequestId.get(requestId);
-
-            if (requiredPickups == null || requiredPickups.isEmpty()) {
-                // Pas de pickup requis (cas anormal, mais on considère comme faisable)
-                return true;
-            }
-
-            // Tous les pickups de cette demande doivent être dans visited
-            return visited.containsAll(requiredPickups);
+    private Map<String, Stop> buildDeliveryByRequestId(List<Stop> stops) {
+        if (stops == null) {
+            throw new IllegalArgumentException("La liste de stops ne peut pas être null");
         }
 
-        return false;
+        return stops.stream()
+                .filter(stop -> stop.getTypeStop() == Stop.TypeStop.DELIVERY)
+                .collect(java.util.stream.Collectors.toMap(
+                        Stop::getIdDemande, 
+                        java.util.function.Function.identity()
+                ));
     }
 
+    // =========================================================================
+    // PHASE 5: INTÉGRATION - MÉTHODE PRINCIPALE DE CALCUL DE TOURNÉE
+    // =========================================================================
+
     /**
-     * Vérifie si une tournée respecte les contraintes de précédence
-     * Chaque delivery doit être visitée APRÈS tous les pickups de sa demande
+     * Calcule les tournées optimales pour un nombre donné de livreurs
+     * 
+     * La stratégie est choisie selon la taille de l'instance, le nombre de coursiers et le
+     * budget du profil par défaut (voir {@link #calculateOptimalTours(Graph, int, String, Deadline)})
      * 
-     * @param route Liste ordonnée des stops formant la tournée
-     * @param pickupsByRequestId Map des pickups organisés par ID de demande
-     * @param deliveryByRequestId Map des deliveries organisés par ID de demande
-     * @return true si toutes les contraintes de précédence sont respectées, false sinon
+     * IMPLÉMENTATION ACTUELLE: Algorithme glouton + optimisation 2-opt + répartition
+     * - Utilise l'algorithme du plus proche voisin pour construire une tournée initiale
+     * - Applique l'optimisation 2-opt pour améliorer la solution
+     * - Répartit les demandes entre les livreurs (découpage optimal, économies ou FIFO)
+     * - Améliore la distribution par recherche à grand voisinage (LNS) sous budget de temps
+     * - Respecte la précédence (pickup avant delivery), les fenêtres horaires et la capacité
+     * - Retourne au plus une tournée par livreur, les demandes non servies étant signalées
+     * 
+     * @param graph Le graphe contenant les distances et chemins entre tous les stops
+     * @param courierCount Nombre de livreurs (au moins 1)
+     * @return Les tournées optimisées (au plus courierCount) et les demandes non assignées
+     * @throws IllegalArgumentException Si le graphe est null ou invalide, ou si courierCount < 1
      */
-    private boolean respectsPrecedence(
-            List<Stop> route,
-            Map<String, List<Stop>> pickupsByRequestId,
-            Map<String, Stop> deliveryByRequestId
-    ) {
-        if (route == null || pickupsByRequestId == null || deliveryByRequestId == null) {
-            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
-        }
-
-        Set<Stop> visited = new HashSet<>();
-
-        for (Stop stop : route) {
-            // Vérifier que le stop est faisable avec les stops déjà visités
-            if (!isStopFeasible(stop, visited, pickupsByRequestId)) {
-                return false; // Violation de contrainte : delivery avant son pickup
-            }
-            visited.add(stop);
-        }
-
-        return true;
+    public TourDistributionResult calculateOptimalTours(Graph graph, int courierCount) {
+        return calculateOptimalTours(graph, courierCount, null, Deadline.none());
     }
 
     /**
-     * Effectue un swap 2-opt sur une route
-     * Inverse le segment de route entre les indices i et k (inclus)
+     * Calcule les tournées avec un profil d'effort, sous une échéance globale
+     * 
+     * Toutes les phases consultent l'échéance (2-opt, réoptimisations FIFO, solveur exact,
+     * LNS, séparation et évaluation) : lorsqu'elle est atteinte ou annulée, la meilleure
+     * distribution valide trouvée jusque-là est renvoyée, marquée "timeLimited".
      * 
-     * Exemple:
-     *   Route originale: [W, A, B, C, D, E, W]
-     *   twoOptSwap(route, 1, 4) → [W, D, C, B, A, E, W]
-     *   (inverse le segment A→B→C→D)
+     * Sélection de la stratégie (voir {@link StrategySelector}) :
+     * - EXACT : programmation dynamique si l'instance est assez petite pour le profil
+     *   (repli heuristique si aucune tournée unique ne respecte la limite de 4h)
+     * - LOCAL_SEARCH : glouton + 2-opt + FIFO si le budget est trop court pour une recherche
+     * - DECOMPOSITION : une LNS par coursier en parallèle pour les grandes instances
+     * - METAHEURISTIC : LNS (ou îles) avec bornes inférieures sinon
      * 
-     * @param route La route originale
-     * @param i Index de début du segment à inverser (inclus)
-     * @param k Index de fin du segment à inverser (inclus)
-     * @return Une nouvelle route avec le segment inversé
-     * @throws IllegalArgumentException Si les indices sont invalides
+     * @param graph        Le graphe contenant les distances et chemins entre tous les stops
+     * @param courierCount Nombre de livreurs
+     * @param profileName  Profil d'effort (fast, balanced, quality), null pour le profil par défaut
+     * @param deadline     Échéance globale du calcul (annulable), {@link Deadline#none()} sans limite
+     * @return La distribution, avec la stratégie et le profil retenus
+     * @throws IllegalArgumentException Si un paramètre est invalide ou le profil inconnu
      */
-    private List<Stop> twoOptSwap(List<Stop> route, int i, int k) {
-        if (route == null) {
-            throw new IllegalArgumentException("Route ne peut pas être null");
+    public TourDistributionResult calculateOptimalTours(Graph graph, int courierCount, String profileName, Deadline deadline) {
+        return calculateOptimalTours(graph, courierCount, profileName, deadline, resolveAlgorithms(null));
+    }
+
+    /**
+     * Calcule les tournées avec les composants choisis pour la construction, l'amélioration
+     * et la répartition entre coursiers (voir {@link #resolveAlgorithms})
+     *
+     * @param algorithms Les composants retenus pour ce calcul
+     * @see #calculateOptimalTours(Graph, int, String, Deadline)
+     */
+    public TourDistributionResult calculateOptimalTours(
+            Graph graph, int courierCount, String profileName, Deadline deadline, AlgorithmSelection algorithms) {
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 1️⃣ VALIDATION
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        
+        if (graph == null) {
+            throw new IllegalArgumentException("Le graphe ne peut pas être null");
         }
 
-        if (i < 0 || k >= route.size() || i >= k) {
+        if (courierCount < 1) {
             throw new IllegalArgumentException(
-                "Indices invalides: i=" + i + ", k=" + k + ", taille route=" + route.size() + 
-                " (requis: 0 <= i < k < size)"
+                "Le nombre de coursiers doit être au moins 1 (reçu: " + courierCount + ")"
             );
         }
 
-        List<Stop> newRoute = new ArrayList<>();
-
-        // Segment 1: début → i-1 (inchangé)
-        newRoute.addAll(route.subList(0, i));
-
-        // Segment 2: i → k (inversé)
-        List<Stop> segmentToReverse = new ArrayList<>(route.subList(i, k + 1));
-        Collections.reverse(segmentToReverse);
-        newRoute.addAll(segmentToReverse);
-
-        // Segment 3: k+1 → fin (inchangé)
-        if (k + 1 < route.size()) {
-            newRoute.addAll(route.subList(k + 1, route.size()));
+        if (deadline == null) {
+            throw new IllegalArgumentException("L'échéance ne peut pas être null");
         }
 
-        return newRoute;
-    }
-
-    // =========================================================================
-    // PHASE 3: CONSTRUCTION DE LA TOURNÉE INITIALE (ALGORITHME GLOUTON)
-    // =========================================================================
-
-    /**
-     * Construit une tournée initiale en utilisant l'algorithme glouton du plus proche voisin
-     * 
-     * Algorithme:
-     * 1. Commencer à l'entrepôt (warehouse)
-     * 2. Tant qu'il reste des stops non visités:
-     *    - Trouver le stop faisable le plus proche du stop courant
-     *    - Un stop est faisable si:
-     *      * C'est un PICKUP (toujours faisable)
-     *      * C'est une DELIVERY dont tous les pickups ont été visités
-     * 3. Retourner à l'entrepôt
-     * 
-     * @param graph Le graphe contenant les distances entre stops
-     * @param warehouse Le stop entrepôt (point de départ/arrivée)
-     * @param stops Liste de tous les stops à visiter (hors warehouse)
-     * @param pickupsByRequestId Map des pickups organisés par ID de demande
-     * @return Une route (tournée) valide commençant et finissant au warehouse
-     * @throws IllegalArgumentException Si les paramètres sont invalides
-     * @throws IllegalStateException Si aucun stop faisable n'est trouvé (bug logique)
-     */
-    private List<Stop> buildInitialRoute(
-            Graph graph,
-            Stop warehouse,
-            List<Stop> stops,
-            Map<String, List<Stop>> pickupsByRequestId
-    ) {
-        if (graph == null || warehouse == null || stops == null || pickupsByRequestId == null) {
-            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
+        if (algorithms == null) {
+            throw new IllegalArgumentException("La sélection des algorithmes ne peut pas être null");
         }
 
+        SolverProfile profile = resolveProfile(profileName);
+        long budgetMs = Math.min(profile.timeBudgetMs(), deadline.remainingMillis());
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 2️⃣ PRÉPARATION DES DONNÉES (PHASE 1)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║     CALCUL DE TOURNÉE OPTIMALE - GLOUTON + 2-OPT             ║");
+        System.out.println("║     Mode: " + (courierCount == 1 ? "1 COURSIER" : courierCount + " COURSIERS (FIFO)") + "                                        ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+        
+        System.out.println("\n📊 Phase 1: Préparation des données...");
+        
+        Stop warehouse = extractWarehouse(graph);
+        List<Stop> stops = extractNonWarehouseStops(graph);
+        
         if (stops.isEmpty()) {
-            // Cas spécial: pas de stops à visiter, juste aller-retour au warehouse
-            return Arrays.asList(warehouse, warehouse);
+            System.out.println("⚠️  Aucune demande de livraison à traiter");
+            throw new IllegalStateException("Aucune demande de livraison à traiter");
         }
+        
+        Map<String, List<Stop>> pickupsByRequestId = buildPickupsByRequestId(stops);
+        Map<String, Stop> deliveryByRequestId = buildDeliveryByRequestId(stops);
+        
+        System.out.println("   ✓ Entrepôt (warehouse): " + warehouse.getIdNode());
+        System.out.println("   ✓ Nombre de stops à visiter: " + stops.size());
+        System.out.println("   ✓ Nombre de demandes: " + pickupsByRequestId.size());
 
-        List<Stop> route = new ArrayList<>();
-        Set<Stop> visited = new HashSet<>();
-        Set<Stop> remaining = new HashSet<>(stops);
-
-        // 1️⃣ Commencer à l'entrepôt
-        route.add(warehouse);
-        visited.add(warehouse);
-
-        // 2️⃣ Tant qu'il reste des stops non visités
-        while (!remaining.isEmpty()) {
-            Stop current = route.get(route.size() - 1);
-            Stop nearest = null;
-            double minDistance = Double.MAX_VALUE;
-
-            // 3️⃣ Chercher le stop faisable le plus proche
-            for (Stop candidate : remaining) {
-                // Vérifier si le stop est faisable (contraintes de précédence)
-                if (!isStopFeasible(candidate, visited, pickupsByRequestId)) {
-                    continue; // Delivery dont le pickup n'a pas encore été visité
-                }
-
-                // Calculer la distance
-                double dist = distance(current, candidate, graph);
-
-                // Garder le plus proche
-                if (dist < minDistance) {
-                    minDistance = dist;
-                    nearest = candidate;
-                }
-            }
+        // Vue indexée (null si le graphe ne s'y prête pas) et listes de voisins, construites une
+        // seule fois : solveur exact, construction, 2-opt, LNS et recherche entre coursiers
+        // consultent la même instance
+        StopMatrix routeMatrix = StopMatrix.of(graph, warehouse, pickupsByRequestId, deliveryByRequestId, COURIER_SPEED_MS);
+        NeighbourLists neighbours = routeMatrix != null && granularNeighbours > 0
+            ? NeighbourLists.of(routeMatrix, granularNeighbours)
+            : null;
+        RoutingProblem problem = new RoutingProblem(graph, warehouse, stops, pickupsByRequestId, deliveryByRequestId,
+            routeMatrix, neighbours, courierCount, TIME_LIMIT_SEC, deadline);
 
-            // 4️⃣ Vérifier qu'on a trouvé un stop faisable
-            if (nearest == null) {
-                // Cela ne devrait jamais arriver si la logique est correcte
-                throw new AlgorithmException(
-                    AlgorithmException.ErrorType.NO_FEASIBLE_STOP,
-                    "Aucun stop faisable trouvé. Stops restants: " + remaining.size() + 
-                    ", Stops visités: " + visited.size() + 
-                    ". Vérifiez que toutes les deliveries ont des pickups correspondants."
-                );
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 2️⃣bis SÉLECTION DE LA STRATÉGIE ET SOLVEUR EXACT (PETITES INSTANCES)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        
+        StrategySelector selector = new StrategySelector(lnsEnabled, decompositionMinRequests);
+        int requestCount = pickupsByRequestId.size();
+        SolverStrategy strategy = selector.select(requestCount, courierCount, profile, budgetMs);
+        System.out.println("\n🧭 Stratégie: " + strategy.getLabel() + " (profil " + profile.name()
+            + ", budget " + budgetMs + " ms)");
+        System.out.println("🧩 Algorithmes: " + algorithms);
+
+        if (strategy == SolverStrategy.EXACT) {
+            TourDistributionResult exactResult = solveExactly(problem);
+            if (exactResult != null) {
+                exactResult.setStrategy(strategy.name());
+                exactResult.setProfile(profile.name());
+                exactResult.setAlgorithms(algorithms.toString());
+                markIfTimeLimited(exactResult, deadline);
+                return exactResult;
             }
-
-            // 5️⃣ Ajouter le stop le plus proche à la route
-            route.add(nearest);
-            visited.add(nearest);
-            remaining.remove(nearest);
+            budgetMs = Math.min(budgetMs, deadline.remainingMillis());
+            strategy = selector.selectHeuristic(requestCount, courierCount, profile, budgetMs);
+            System.out.println("   ↪ Repli sur la stratégie: " + strategy.getLabel());
         }
 
-        // 6️⃣ Retour à l'entrepôt
-        route.add(warehouse);
-
-        return route;
-    }
-
-    // =========================================================================
-    // PHASE 4: OPTIMISATION 2-OPT
-    // =========================================================================
-
-    /**
-     * Optimise une tournée en utilisant l'algorithme 2-opt
-     * 
-     * L'algorithme 2-opt tente d'améliorer la tournée en éliminant les croisements:
-     * - Pour chaque paire de segments (i, i+1) et (k, k+1)
-     * - Teste si inverser le segment entre i+1 et k réduit la distance totale
-     * - Continue jusqu'à ce qu'aucune amélioration ne soit possible
-     * 
-     * CONTRAINTES:
-     * - Le premier et dernier stop (warehouse) ne sont jamais déplacés
-     * - Les contraintes de précédence (pickup avant delivery) doivent être respectées
-     * 
-     * @param route La tournée initiale à optimiser
-     * @param graph Le graphe contenant les distances
-     * @param pickupsByRequestId Map des pickups organisés par ID de demande
-     * @param deliveryByRequestId Map des deliveries organisés par ID de demande
-     * @return La tournée optimisée
-     */
-    private List<Stop> optimizeWith2Opt(
-            List<Stop> route,
-            Graph graph,
-            Map<String, List<Stop>> pickupsByRequestId,
-            Map<String, Stop> deliveryByRequestId
-    ) {
-        if (route == null || route.size() <= 3) {
-            // Une route avec 3 stops ou moins ne peut pas être optimisée par 2-opt
-            // (warehouse → stop → warehouse)
-            return route;
-        }
-
-        System.out.println("\n🔧 Phase 4: Optimisation 2-opt...");
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 3️⃣ CONSTRUCTION DE LA TOURNÉE INITIALE - GLOUTON (PHASE 3)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
-        List<Stop> bestRoute = new ArrayList<>(route);
-        double bestDistance = computeRouteDistance(bestRoute, graph);
+        System.out.println("\n🛣️  Phase 3: Construction de la tournée (algorithme glouton)...");
         
-        System.out.println("   📏 Distance initiale: " + String.format("%.2f", bestDistance) + " m");
+        long startTime = System.currentTimeMillis();
         
-        boolean improved = true;
-        int iteration = 0;
-        int totalImprovements = 0;
+        AlgorithmRegistry registry = getAlgorithms();
+        RouteImprover improver = registry.routeImprover(algorithms.routeImprover());
         
-        // Répéter jusqu'à ce qu'aucune amélioration ne soit trouvée
-        // Note: La convergence naturelle garantit la terminaison (optimum local)
-        while (improved) {
-            improved = false;
-            iteration++;
-            
-            // Essayer toutes les paires de segments possibles
-            // Note: on ne touche pas au premier (0) et dernier stop (size-1) qui sont le warehouse
-            for (int i = 1; i < bestRoute.size() - 2; i++) {
-                for (int k = i + 1; k < bestRoute.size() - 1; k++) {
-                    // Tester le swap 2-opt
-                    List<Stop> newRoute = twoOptSwap(bestRoute, i, k);
-                    
-                    // Vérifier les contraintes de précédence
-                    if (!respectsPrecedence(newRoute, pickupsByRequestId, deliveryByRequestId)) {
-                        continue; // Ce swap viole les contraintes, on passe au suivant
-                    }
-                    
-                    // Calculer la nouvelle distance
-                    double newDistance = computeRouteDistance(newRoute, graph);
-                    
-                    // Si c'est mieux, on garde cette solution
-                    if (newDistance < bestDistance) {
-                        bestRoute = newRoute;
-                        bestDistance = newDistance;
-                        improved = true;
-                        totalImprovements++;
-                        
-                        System.out.println("   ✓ Amélioration trouvée (itération " + iteration + 
-                                         ", swap [" + i + ", " + k + "]): " + 
-                                         String.format("%.2f", newDistance) + " m " +
-                                         "(" + String.format("%.2f", (bestDistance - newDistance)) + " m gagnés)");
-                    }
-                }
-            }
-        }
+        List<Stop> initialRoute = registry.routeConstructor(algorithms.routeConstructor()).build(problem);
         
-        if (totalImprovements > 0) {
-            System.out.println("   ✓ Optimisation terminée après " + iteration + " itérations");
-            System.out.println("   ✓ Nombre total d'améliorations: " + totalImprovements);
-            System.out.println("   📏 Distance finale: " + String.format("%.2f", bestDistance) + " m");
-            
-            double initialDistance = computeRouteDistance(route, graph);
-            double gain = initialDistance - bestDistance;
-            double gainPercent = (gain / initialDistance) * 100;
-            
-            System.out.println("   🎯 Gain total: " + String.format("%.2f", gain) + " m " +
-                             "(" + String.format("%.1f", gainPercent) + "%)");
-        } else {
-            System.out.println("   ✓ Aucune amélioration trouvée (tournée déjà optimale)");
-        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
         
-        return bestRoute;
-    }
-
-    // =========================================================================
-    // DISTRIBUTION FIFO MULTI-COURSIERS (PHASE 2)
-    // =========================================================================
+        System.out.println("   ✓ Tournée construite en " + elapsedTime + " ms");
+        System.out.println("   ✓ Nombre de stops dans la tournée: " + initialRoute.size());
+        System.out.println("   ✓ Ordre de visite: " + formatRouteForLog(initialRoute));
+        
+        double initialDistance = StopRoutes.computeRouteDistance(initialRoute, graph);
+        System.out.println("   📏 Distance de la tournée gloutonne: " + String.format("%.2f", initialDistance) + " m");
 
-    /**
-     * Distribue une route globale optimisée entre N coursiers avec RÉOPTIMISATION INCRÉMENTALE
-     * 
-     * PRINCIPE CORRIGÉ (Optimisation par coursier):
-     * 1. Parcours séquentiel de la route optimisée (ordre FIFO pour l'attribution)
-     * 2. Pour chaque demande rencontrée:
-     *    a. Ajouter temporairement la demande au coursier actuel
-     *    b. RECALCULER la tournée optimale (glouton + 2-opt) avec toutes les demandes assignées
-     *    c. Calculer la durée de la tournée optimisée
-     *    d. Si < 4h: garder cette assignation
-     *    e. Si > 4h: retirer la demande, fermer la tournée, passer au coursier suivant
-     * 3. Chaque coursier a une tournée OPTIMISÉE (pas séquentielle)
-     * 
-     * CONTRAINTES RESPECTÉES:
-     * - Contrainte temporelle: aucune tournée > 4h (14400 secondes)
-     * - Contrainte de précédence: pickup avant delivery dans chaque tournée optimisée
-     * - Contrainte d'optimalité: chaque tournée est optimisée (glouton + 2-opt)
-     * - Ordre FIFO: pour l'attribution aux coursiers (pas pour l'ordre des stops)
-     * 
-     * @param globalOptimizedRoute Route globale optimisée (pour ordre FIFO des demandes)
-     * @param graph Graphe avec distances
-     * @param courierCount Nombre de coursiers disponibles (1-10)
-     * @param pickupsByRequestId Map des pickups par ID de demande
-     * @param deliveryByRequestId Map des deliveries par ID de demande
-     * @param demandMap Map des demandes complètes
-     * @param warehouse Stop warehouse
-     * @return Résultat de la distribution avec tours optimisés, métriques et warnings
-     */
-    private TourDistributionResult distributeFIFO(
-            List<Stop> globalOptimizedRoute,
-            Graph graph,
-            int courierCount,
-            Map<String, List<Stop>> pickupsByRequestId,
-            Map<String, Stop> deliveryByRequestId,
-            Map<String, Demand> demandMap,
-            Stop warehouse
-    ) {
-        System.out.println("\n📦 Phase Distribution avec Réoptimisation Incrémentale...");
-        System.out.println("   Nombre de coursiers disponibles: " + courierCount);
-        System.out.println("   Contrainte temporelle: " + (TIME_LIMIT_SEC / 3600) + " heures");
-        System.out.println("   Mode: FIFO pour attribution + Optimisation par coursier");
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 4️⃣ OPTIMISATION 2-OPT (PHASE 4)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
-        // Structures de résultat
-        List<com.pickupdelivery.model.AlgorithmModel.Tour> tours = new ArrayList<>();
-        List<String> unassignedDemandIds = new ArrayList<>();
-        List<com.pickupdelivery.model.Demand> unassignedDemands = new ArrayList<>();
-        Map<Integer, TourMetrics> metricsByCourier = new HashMap<>();
-        DistributionWarnings warnings = new DistributionWarnings();
+        List<Stop> optimizedRoute = improver.improve(initialRoute, problem);
         
-        // État du coursier actuel
-        int currentCourierId = 1;
-        List<String> currentCourierDemandIds = new ArrayList<>();  // IDs des demandes assignées
-        Set<String> processedDemands = new HashSet<>();
+        System.out.println("   ✓ Ordre de visite après optimisation: " + formatRouteForLog(optimizedRoute));
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 5️⃣ VALIDATION ET CALCUL DE DISTANCE FINALE (PHASE 2)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
-        System.out.println("\n   Parcours FIFO de la route optimisée (pour ordre d'attribution)...");
+        System.out.println("\n✅ Phase 5: Validation finale et calcul de distance...");
         
-        // Parcours FIFO de la route optimisée pour déterminer l'ordre d'attribution
-        for (int i = 1; i < globalOptimizedRoute.size() - 1; i++) {
-            Stop stop = globalOptimizedRoute.get(i);
-            
-            // Ignorer les deliveries (traitées avec leurs pickups)
-            if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
-                continue;
-            }
-            
-            // Traiter uniquement les pickups
-            if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
-                String demandId = stop.getIdDemande();
-                
-                // Vérifier si déjà traité
-                if (processedDemands.contains(demandId)) {
-                    continue;
-                }
-                
-                // Récupérer la demande
-                Demand demand = demandMap.get(demandId);
-                if (demand == null) {
-                    System.out.println("   ⚠️  Demande " + demandId + " non trouvée dans demandMap");
-                    unassignedDemandIds.add(demandId);
-                    processedDemands.add(demandId);
-                    warnings.setHasUnassignedDemands(true);
-                    warnings.addMessage("Demande " + demandId + " ignorée (demande introuvable)");
-                    continue;
-                }
-                
-                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                // ÉTAPE CRITIQUE: Tester si on peut ajouter cette demande au coursier actuel
-                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                
-                // Créer une liste temporaire avec la nouvelle demande
-                List<String> tentativeDemandIds = new ArrayList<>(currentCourierDemandIds);
-                tentativeDemandIds.add(demandId);
-                
-                // Reconstruire les stops pour cette liste de demandes
-                List<Stop> tentativeStops = buildStopsFromDemandIds(tentativeDemandIds, pickupsByRequestId, deliveryByRequestId);
-                
-                // RÉOPTIMISER la tournée avec toutes les demandes (glouton + 2-opt)
-                List<Stop> optimizedTentativeRoute = buildInitialRoute(graph, warehouse, tentativeStops, pickupsByRequestId);
-                optimizedTentativeRoute = optimizeWith2Opt(optimizedTentativeRoute, graph, pickupsByRequestId, deliveryByRequestId);
-                
-                // Calculer la durée de cette tournée optimisée
-                double tentativeDuration = computeRouteDuration(optimizedTentativeRoute, graph, demandMap);
-                
-                System.out.println("   Test demande " + demandId + " sur coursier " + currentCourierId + 
-                    ": " + String.format("%.2f", tentativeDuration / 3600) + "h");
-                
-                // Vérifier contrainte 4h
-                if (tentativeDuration > TIME_LIMIT_SEC) {
-                    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    // DÉTECTION: Demande impossible seule ?
-                    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    
-                    if (currentCourierDemandIds.isEmpty()) {
-                        // Cette demande seule dépasse 4h → impossible
-                        System.out.println("   ❌ Demande " + demandId + 
-                            " impossible: dépasse 4h même seule (" + 
-                            String.format("%.2f", tentativeDuration / 3600) + "h)");
-                        unassignedDemandIds.add(demandId);
-                        unassignedDemands.add(demand);
-                        processedDemands.add(demandId);
-                        warnings.setHasUnassignedDemands(true);
-                        warnings.addMessage("Demande " + demandId + " non assignée (dépasse 4h même seule)");
-                        continue;  // Passer à la demande suivante
-                    }
-                    
-                    // Fermer la tournée actuelle (sans cette nouvelle demande)
-                    if (!currentCourierDemandIds.isEmpty()) {
-                        System.out.println("   📦 Fermeture tournée coursier " + currentCourierId + 
-                            " avec " + currentCourierDemandIds.size() + " demandes");
-                        
-                        // Reconstruire et optimiser la tournée finale pour ce coursier
-                        List<Stop> finalStops = buildStopsFromDemandIds(currentCourierDemandIds, pickupsByRequestId, deliveryByRequestId);
-                        List<Stop> finalRoute = buildInitialRoute(graph, warehouse, finalStops, pickupsByRequestId);
-                        finalRoute = optimizeWith2Opt(finalRoute, graph, pickupsByRequestId, deliveryByRequestId);
-                        
-                        double finalDistance = computeRouteDistance(finalRoute, graph);
-                        com.pickupdelivery.model.AlgorithmModel.Tour completedTour = buildTour(finalRoute, finalDistance, graph);
-                        completedTour.setCourierId(currentCourierId);
-                        tours.add(completedTour);
-                        
-                        System.out.println("   ✓ Tournée coursier " + currentCourierId + " fermée: " +
-                            String.format("%.2f", completedTour.getTotalDurationHours()) + "h, " +
-                            String.format("%.0f", finalDistance) + "m, " +
-                            completedTour.getRequestCount() + " demandes");
-                    }
-                    
-                    // Passer au coursier suivant
-                    if (currentCourierId < courierCount) {
-                        currentCourierId++;
-                        currentCourierDemandIds = new ArrayList<>();
-                        System.out.println("   → Passage au coursier " + currentCourierId);
-                        
-                        // Réessayer cette demande sur le nouveau coursier
-                        i--;
-                        continue;
-                    } else {
-                        // Plus de coursiers disponibles
-                        System.out.println("   ❌ Plus de coursiers disponibles, demandes restantes non assignées");
-                        
-                        // Marquer cette demande et toutes les suivantes comme non assignées
-                        unassignedDemandIds.add(demandId);
-                        unassignedDemands.add(demand);
-                        processedDemands.add(demandId);
-                        warnings.setHasUnassignedDemands(true);
-                        warnings.addMessage("Demande " + demandId + " non assignée (tous coursiers utilisés)");
-                        
-                        // Marquer TOUTES les demandes restantes
-                        for (int j = i + 1; j < globalOptimizedRoute.size() - 1; j++) {
-                            Stop remainingStop = globalOptimizedRoute.get(j);
-                            if (remainingStop.getTypeStop() == Stop.TypeStop.PICKUP) {
-                                String remainingDemandId = remainingStop.getIdDemande();
-                                if (!processedDemands.contains(remainingDemandId)) {
-                                    Demand remainingDemand = demandMap.get(remainingDemandId);
-                                    unassignedDemandIds.add(remainingDemandId);
-                                    if (remainingDemand != null) unassignedDemands.add(remainingDemand);
-                                    processedDemands.add(remainingDemandId);
-                                }
-                            }
-                        }
-                        break;  // Sortir de la boucle
-                    }
-                }
-                
-                // ✅ La demande peut être ajoutée (< 4h après optimisation)
-                currentCourierDemandIds.add(demandId);
-                processedDemands.add(demandId);
-                
-                System.out.println("   ✓ Demande " + demandId + " assignée au coursier " + currentCourierId + 
-                    " (" + currentCourierDemandIds.size() + " demandes, " + 
-                    String.format("%.2f", tentativeDuration / 3600) + "h)");
-            }
-        }
-        
-        // Fermer la dernière tournée SI ELLE CONTIENT DES DEMANDES ET N'A PAS DÉJÀ ÉTÉ FERMÉE
-        if (!currentCourierDemandIds.isEmpty()) {
-            System.out.println("   📦 Fermeture tournée finale coursier " + currentCourierId);
-            
-            List<Stop> finalStops = buildStopsFromDemandIds(currentCourierDemandIds, pickupsByRequestId, deliveryByRequestId);
-            List<Stop> finalRoute = buildInitialRoute(graph, warehouse, finalStops, pickupsByRequestId);
-            finalRoute = optimizeWith2Opt(finalRoute, graph, pickupsByRequestId, deliveryByRequestId);
-            
-            double finalDistance = computeRouteDistance(finalRoute, graph);
-            com.pickupdelivery.model.AlgorithmModel.Tour lastTour = buildTour(finalRoute, finalDistance, graph);
-            lastTour.setCourierId(currentCourierId);
-            
-            // ✅ FIX: Vérifier qu'on n'a pas déjà une tournée pour ce coursier
-            final int finalCourierId = currentCourierId; // Pour utilisation dans lambda
-            boolean courierAlreadyHasTour = tours.stream()
-                .anyMatch(t -> t.getCourierId() != null && t.getCourierId().equals(finalCourierId));
-            
-            if (!courierAlreadyHasTour) {
-                tours.add(lastTour);
-                System.out.println("   ✓ Tournée coursier " + currentCourierId + " (finale) fermée: " +
-                    String.format("%.2f", lastTour.getTotalDurationHours()) + "h, " +
-                    String.format("%.0f", finalDistance) + "m, " +
-                    lastTour.getRequestCount() + " demandes");
-            } else {
-                System.out.println("   ⚠️ Tournée coursier " + currentCourierId + " déjà fermée, ignorée");
-            }
-        }
-        
-        // Construire les métriques
-        for (com.pickupdelivery.model.AlgorithmModel.Tour tour : tours) {
-            TourMetrics metrics = new TourMetrics(
-                tour.getCourierId(),
-                tour.getTotalDistance(),
-                tour.getTotalDurationSec(),
-                tour.getRequestCount(),
-                tour.getStopCount(),
-                tour.exceedsTimeLimit()
-            );
-            metricsByCourier.put(tour.getCourierId(), metrics);
-            
-            if (tour.exceedsTimeLimit()) {
-                warnings.setHasTimeLimitExceeded(true);
-                warnings.addMessage("Coursier " + tour.getCourierId() + 
-                    " dépasse la limite de 4h (" + 
-                    String.format("%.2f", tour.getTotalDurationHours()) + "h)");
-            }
-        }
-        
-        System.out.println("\n   📊 Résumé de la distribution:");
-        System.out.println("      Coursiers utilisés: " + tours.size() + "/" + courierCount);
-        System.out.println("      Demandes assignées: " + processedDemands.size());
-        System.out.println("      Demandes non assignées: " + unassignedDemandIds.size());
-        
-        // 🔍 DEBUG: Afficher tous les courierIds
-        System.out.println("\n   🔍 DEBUG: CourierIds des tours créés:");
-        for (int i = 0; i < tours.size(); i++) {
-            com.pickupdelivery.model.AlgorithmModel.Tour tour = tours.get(i);
-            System.out.println("      Tour " + i + " -> courierId = " + tour.getCourierId() + 
-                " (" + tour.getRequestCount() + " demandes, " + 
-                String.format("%.2f", tour.getTotalDurationHours()) + "h)");
-        }
-        
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // VALIDATION POST-DISTRIBUTION (CRITIQUE)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        System.out.println("\n   🔍 Validation post-distribution...");
-        try {
-            validateTourDistribution(tours, pickupsByRequestId, deliveryByRequestId);
-            System.out.println("   ✓ Validation réussie: toutes les contraintes sont respectées");
-        } catch (AlgorithmException e) {
-            System.out.println("   ❌ ERREUR DE VALIDATION: " + e.getMessage());
-            throw e; // Propager l'exception pour éviter de retourner un résultat invalide
-        }
-        
-        TourDistributionResult result = new TourDistributionResult(
-            tours, unassignedDemandIds, unassignedDemands, metricsByCourier, warnings);
-        
-        return result;
-    }
-
-    /**
-     * Valide que la distribution des tours respecte toutes les contraintes de précédence
-     * 
-     * VÉRIFICATIONS:
-     * 1. Chaque delivery doit être dans le même tour que son pickup
-     * 2. Chaque delivery doit être APRÈS son pickup dans le tour
-     * 3. Pas de pickup orphelin (sans delivery dans le tour)
-     * 4. Pas de delivery orphelin (sans pickup dans le tour)
-     * 
-     * @param tours Liste des tours à valider
-     * @param pickupsByRequestId Map des pickups par ID de demande
-     * @param deliveryByRequestId Map des deliveries par ID de demande
-     * @throws AlgorithmException Si une contrainte est violée
-     */
-    private void validateTourDistribution(
-            List<com.pickupdelivery.model.AlgorithmModel.Tour> tours,
-            Map<String, List<Stop>> pickupsByRequestId,
-            Map<String, Stop> deliveryByRequestId
-    ) {
-        if (tours == null || tours.isEmpty()) {
-            return; // Rien à valider
-        }
-        
-        int tourIndex = 0;
-        for (com.pickupdelivery.model.AlgorithmModel.Tour tour : tours) {
-            tourIndex++;
-            List<Stop> stops = tour.getStops();
-            
-            if (stops == null || stops.size() < 2) {
-                continue; // Tour vide ou invalide, ignoré
-            }
-            
-            // Pour ce tour, collecter les demandes présentes (pickups et deliveries)
-            Set<String> tourPickupDemands = new HashSet<>();
-            Set<String> tourDeliveryDemands = new HashSet<>();
-            Set<Stop> visitedStops = new HashSet<>();
-            
-            for (Stop stop : stops) {
-                if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
-                    tourPickupDemands.add(stop.getIdDemande());
-                } else if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
-                    tourDeliveryDemands.add(stop.getIdDemande());
-                }
-                
-                // Vérifier contrainte de précédence locale (delivery après pickup)
-                if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
-                    String demandId = stop.getIdDemande();
-                    List<Stop> requiredPickups = pickupsByRequestId.get(demandId);
-                    
-                    if (requiredPickups == null || requiredPickups.isEmpty()) {
-                        throw new AlgorithmException(
-                            AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
-                            "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
-                            "Delivery " + demandId + " sans pickup associé dans pickupsByRequestId"
-                        );
-                    }
-                    
-                    // Vérifier que TOUS les pickups requis ont été visités AVANT ce delivery
-                    if (!visitedStops.containsAll(requiredPickups)) {
-                        throw new AlgorithmException(
-                            AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
-                            "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
-                            "Delivery " + demandId + " placé AVANT son pickup correspondant"
-                        );
-                    }
-                }
-                
-                visitedStops.add(stop);
-            }
-            
-            // Vérifier que chaque pickup a son delivery dans le même tour
-            for (String pickupDemandId : tourPickupDemands) {
-                if (!tourDeliveryDemands.contains(pickupDemandId)) {
-                    throw new AlgorithmException(
-                        AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
-                        "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
-                        "Pickup de la demande " + pickupDemandId + " présent mais delivery absent " +
-                        "(violation de la contrainte de paire indivisible)"
-                    );
-                }
-            }
-            
-            // Vérifier que chaque delivery a son pickup dans le même tour
-            for (String deliveryDemandId : tourDeliveryDemands) {
-                if (!tourPickupDemands.contains(deliveryDemandId)) {
-                    throw new AlgorithmException(
-                        AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
-                        "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
-                        "Delivery de la demande " + deliveryDemandId + " présent mais pickup absent " +
-                        "(violation de la contrainte de paire indivisible)"
-                    );
-                }
-            }
-        }
-    }
-
-    // =========================================================================
-    // PHASE 5: INTÉGRATION - MÉTHODE PRINCIPALE DE CALCUL DE TOURNÉE
-    // =========================================================================
-
-    /**
-     * Calcule les tournées optimales pour un nombre donné de livreurs
-     * 
-     * IMPLÉMENTATION ACTUELLE: Algorithme glouton + optimisation 2-opt (1 livreur)
-     * - Utilise l'algorithme du plus proche voisin pour construire une tournée initiale
-     * - Applique l'optimisation 2-opt pour améliorer la solution
-     * - Respecte les contraintes de précédence (pickup avant delivery)
-     * - Retourne une liste contenant une seule tournée
-     * 
-     * AMÉLIORATIONS FUTURES:
-     * - Support multi-livreurs (clustering des demandes)
-     * - Fenêtres horaires et autres contraintes
-     * 
-     * @param graph Le graphe contenant les distances et chemins entre tous les stops
-     * @param courierCount Nombre de livreurs (uniquement 1 supporté actuellement)
-     * @return Liste des tournées optimisées (1 seule pour l'instant)
-     * @throws IllegalArgumentException Si le graphe est null ou invalide
-     * @throws UnsupportedOperationException Si courierCount != 1
-     */
-    public TourDistributionResult calculateOptimalTours(Graph graph, int courierCount) {
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 1️⃣ VALIDATION
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        if (graph == null) {
-            throw new IllegalArgumentException("Le graphe ne peut pas être null");
-        }
-
-        if (courierCount < 1 || courierCount > 10) {
-            throw new IllegalArgumentException(
-                "Le nombre de coursiers doit être entre 1 et 10 (reçu: " + courierCount + ")"
-            );
-        }
-
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 2️⃣ PRÉPARATION DES DONNÉES (PHASE 1)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║     CALCUL DE TOURNÉE OPTIMALE - GLOUTON + 2-OPT             ║");
-        System.out.println("║     Mode: " + (courierCount == 1 ? "1 COURSIER" : courierCount + " COURSIERS (FIFO)") + "                                        ║");
-        System.out.println("╚════════════════════════════════════════════════════════════════╝");
-        
-        System.out.println("\n📊 Phase 1: Préparation des données...");
-        
-        Stop warehouse = extractWarehouse(graph);
-        List<Stop> stops = extractNonWarehouseStops(graph);
-        
-        if (stops.isEmpty()) {
-            System.out.println("⚠️  Aucune demande de livraison à traiter");
-            throw new IllegalStateException("Aucune demande de livraison à traiter");
-        }
-        
-        Map<String, List<Stop>> pickupsByRequestId = buildPickupsByRequestId(stops);
-        Map<String, Stop> deliveryByRequestId = buildDeliveryByRequestId(stops);
-        
-        System.out.println("   ✓ Entrepôt (warehouse): " + warehouse.getIdNode());
-        System.out.println("   ✓ Nombre de stops à visiter: " + stops.size());
-        System.out.println("   ✓ Nombre de demandes: " + pickupsByRequestId.size());
-
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 3️⃣ CONSTRUCTION DE LA TOURNÉE INITIALE - GLOUTON (PHASE 3)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        System.out.println("\n🛣️  Phase 3: Construction de la tournée (algorithme glouton)...");
-        
-        long startTime = System.currentTimeMillis();
-        
-        List<Stop> initialRoute = buildInitialRoute(graph, warehouse, stops, pickupsByRequestId);
-        
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        
-        System.out.println("   ✓ Tournée construite en " + elapsedTime + " ms");
-        System.out.println("   ✓ Nombre de stops dans la tournée: " + initialRoute.size());
-        System.out.println("   ✓ Ordre de visite: " + formatRouteForLog(initialRoute));
-        
-        double initialDistance = computeRouteDistance(initialRoute, graph);
-        System.out.println("   📏 Distance de la tournée gloutonne: " + String.format("%.2f", initialDistance) + " m");
-
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 4️⃣ OPTIMISATION 2-OPT (PHASE 4)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        List<Stop> optimizedRoute = optimizeWith2Opt(initialRoute, graph, pickupsByRequestId, deliveryByRequestId);
-        
-        System.out.println("   ✓ Ordre de visite après optimisation: " + formatRouteForLog(optimizedRoute));
-
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        // 5️⃣ VALIDATION ET CALCUL DE DISTANCE FINALE (PHASE 2)
-        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-        
-        System.out.println("\n✅ Phase 5: Validation finale et calcul de distance...");
-        
-        double finalDistance = computeRouteDistance(optimizedRoute, graph);
-        boolean isValid = respectsPrecedence(optimizedRoute, pickupsByRequestId, deliveryByRequestId);
+        double finalDistance = StopRoutes.computeRouteDistance(optimizedRoute, graph);
+        boolean isValid = StopRoutes.respectsPrecedence(optimizedRoute, pickupsByRequestId, deliveryByRequestId);
         
         if (!isValid) {
             throw new AlgorithmException(
@@ -1475,6 +1217,7 @@ public class ServiceAlgo {
         
         System.out.println("   ✓ Distance totale: " + String.format("%.2f", finalDistance) + " m");
         System.out.println("   ✓ Contraintes de précédence: RESPECTÉES");
+        // Fenêtres horaires et capacité : vérifiées par coursier une fois la tournée découpée
 
         // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         // 6️⃣ CONSTRUCTION DE L'OBJET TOUR
@@ -1489,20 +1232,42 @@ public class ServiceAlgo {
         
         List<com.pickupdelivery.model.AlgorithmModel.Tour> tours;
         
-        // Utiliser FIFO pour 1 ou plusieurs coursiers pour respecter contrainte 4h
-        System.out.println("   Mode: " + courierCount + " coursier(s) (distribution FIFO avec contrainte 4h)");
+        // Découpage optimal de la tournée globale ou construction par économies
+        // (repli FIFO si le graphe ne s'y prête pas)
+        System.out.println("   Mode: " + courierCount + " coursier(s) (découpage optimal / économies avec contrainte 4h)");
+        
+        TourDistributionResult distributionResult = registry.fleetDistributor(algorithms.fleetDistributor())
+            .distribute(optimizedRoute, problem, improver);
+        if (distributionResult == null) {
+            System.out.println("   Mode: " + courierCount + " coursier(s) (distribution FIFO avec contrainte 4h)");
+            distributionResult = registry.fleetDistributor(FIFO_DISTRIBUTOR).distribute(optimizedRoute, problem, improver);
+        }
+        
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 6️⃣bis AMÉLIORATION PAR RECHERCHE À GRAND VOISINAGE (LNS)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
-        TourDistributionResult distributionResult = distributeFIFO(
-            optimizedRoute,
-            graph,
-            courierCount,
-            pickupsByRequestId,
-            deliveryByRequestId,
-            graph.getDemandMap(),
-            warehouse
-        );
+        if (strategy != SolverStrategy.LOCAL_SEARCH) {
+            distributionResult = improveWithLns(
+                distributionResult,
+                problem,
+                strategy,
+                profile,
+                deadline.within(budgetMs),
+                deadline
+            );
+        }
+        if (interRouteEnabled && courierCount > 1) {
+            distributionResult = improveBetweenCouriers(distributionResult, problem);
+        }
+        distributionResult.setStrategy(strategy.name());
+        distributionResult.setProfile(profile.name());
+        distributionResult.setAlgorithms(algorithms.toString());
+        markIfTimeLimited(distributionResult, deadline);
         
         tours = distributionResult.getTours();
+        TourResults.validateTourDistribution(tours, pickupsByRequestId, deliveryByRequestId, graph);
+        System.out.println("   ✓ Fenêtres horaires et capacité: RESPECTÉES");
         
         // Afficher warnings si présents
         if (distributionResult.getWarnings().hasWarnings()) {
@@ -1562,237 +1327,945 @@ public class ServiceAlgo {
         }
         
         System.out.println("║  Temps de calcul total       : " + String.format("%10d", totalTime) + " ms                 ║");
-        System.out.println("║  Algorithme                  : Glouton + 2-opt + FIFO        ║");
+        System.out.println("║  Algorithme                  : " + String.format("%-31s", strategy.getLabel()) + " ║");
         System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
         
         return distributionResult;
     }
 
+    // =========================================================================
+    // DÉCOMPOSITION GÉOGRAPHIQUE (TRÈS GRANDES INSTANCES)
+    // =========================================================================
+
     /**
-     * Construit un objet Tour à partir d'une route et de sa distance
-     * Récupère les trajets détaillés depuis la matrice du Graph
-     * PHASE 1: Calcule également la durée totale de la tournée
-     * 
-     * @param route Liste ordonnée des stops
-     * @param totalDistance Distance totale de la tournée
-     * @param graph Le graphe contenant les trajets détaillés et les demandes
-     * @return Un objet Tour complet avec tous les trajets et la durée
+     * @return true si le nombre de demandes justifie la décomposition en secteurs géographiques
      */
-    private com.pickupdelivery.model.AlgorithmModel.Tour buildTour(List<Stop> route, double totalDistance, Graph graph) {
-        if (route == null || graph == null) {
-            throw new IllegalArgumentException("Route et graph ne peuvent pas être null");
+    public boolean shouldDecomposeGeographically(int requestCount) {
+        return requestCount >= geoDecompositionMinRequests;
+    }
+
+    /**
+     * Calcule les tournées d'un très grand ensemble de demandes par secteurs géographiques
+     *
+     * Le graphe complet (une recherche de plus court chemin par paire de stops) n'est jamais
+     * construit : les demandes sont découpées en secteurs angulaires autour de l'entrepôt
+     * (voir {@link SweepClustering}) dont le nombre ne dépend que du nombre de demandes
+     * (algo.geo-decomposition.cluster-size par secteur), puis chaque secteur reçoit une part des
+     * coursiers proportionnelle à son nombre de demandes. Avec moins de coursiers que de secteurs,
+     * les coursiers vont aux secteurs les plus chargés ; les demandes des secteurs sans coursier
+     * restent non assignées (un coursier ne sert de toute façon qu'une fraction d'un secteur en 4h).
+     * Le graphe de chaque secteur pourvu est ensuite construit et résolu par
+     * {@link #calculateOptimalTours(Graph, int, String, Deadline)}, les secteurs en parallèle.
+     * Les tournées sont ensuite recollées et chaque paire de secteurs voisins passe par une
+     * recherche locale entre coursiers limitée (voir {@link InterRouteSearch}) pour réparer
+     * les frontières.
+     *
+     * Avec des secteurs de taille bornée, le coût total est linéaire en nombre de demandes.
+     *
+     * @param demandeSet   Les demandes et l'entrepôt
+     * @param cityMap      La carte de la ville
+     * @param courierCount Nombre de coursiers disponibles
+     * @param profileName  Profil d'effort de chaque secteur, null pour le profil par défaut
+     * @param deadline     Échéance globale du calcul, {@link Deadline#none()} sans limite
+     * @return La distribution recollée (coursiers numérotés de 1 à N)
+     * @throws IllegalArgumentException Si un paramètre est invalide
+     */
+    public TourDistributionResult calculateDecomposedTours(
+            DemandeSet demandeSet,
+            CityMap cityMap,
+            int courierCount,
+            String profileName,
+            Deadline deadline
+    ) {
+        return calculateDecomposedTours(demandeSet, cityMap, courierCount, profileName, deadline, resolveAlgorithms(null));
+    }
+
+    /**
+     * Décomposition géographique avec les composants choisis pour chaque secteur
+     *
+     * @param algorithms Les composants retenus pour ce calcul (voir {@link #resolveAlgorithms})
+     * @see #calculateDecomposedTours(DemandeSet, CityMap, int, String, Deadline)
+     */
+    public TourDistributionResult calculateDecomposedTours(
+            DemandeSet demandeSet,
+            CityMap cityMap,
+            int courierCount,
+            String profileName,
+            Deadline deadline,
+            AlgorithmSelection algorithms
+    ) {
+        if (demandeSet == null || demandeSet.getWarehouse() == null || cityMap == null) {
+            throw new IllegalArgumentException("Les demandes, l'entrepôt et la carte ne peuvent pas être null");
+        }
+        if (courierCount < 1) {
+            throw new IllegalArgumentException(
+                "Le nombre de coursiers doit être au moins 1 (reçu: " + courierCount + ")"
+            );
+        }
+        if (deadline == null) {
+            throw new IllegalArgumentException("L'échéance ne peut pas être null");
+        }
+        if (algorithms == null) {
+            throw new IllegalArgumentException("La sélection des algorithmes ne peut pas être null");
+        }
+        List<Demand> demands = demandeSet.getDemands();
+        if (demands == null || demands.isEmpty()) {
+            throw new IllegalStateException("Aucune demande de livraison à traiter");
         }
 
-        com.pickupdelivery.model.AlgorithmModel.Tour tour = new com.pickupdelivery.model.AlgorithmModel.Tour();
-        tour.setStops(route);
-        tour.setTotalDistance(totalDistance);
-        
-        // Construire la liste des trajets détaillés entre chaque paire de stops consécutifs
-        List<Trajet> trajets = new ArrayList<>();
-        
-        for (int i = 0; i < route.size() - 1; i++) {
-            Stop from = route.get(i);
-            Stop to = route.get(i + 1);
-            
-            // Récupérer le trajet depuis la matrice du Graph
-            Trajet trajet = graph.getDistancesMatrix().get(from).get(to);
-            
-            if (trajet == null) {
-                throw new AlgorithmException(
-                    AlgorithmException.ErrorType.INVALID_GRAPH,
-                    "Trajet non trouvé dans le graph entre " + from.getIdNode() + " et " + to.getIdNode()
-                );
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 1️⃣ SECTEURS ET RÉPARTITION DES COURSIERS
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+        // Taille des secteurs bornée quel que soit le nombre de coursiers
+        int clusterSize = Math.max(1, geoDecompositionClusterSize);
+        int clusterCount = Math.max(1, (demands.size() + clusterSize - 1) / clusterSize);
+        List<List<Demand>> clusters = SweepClustering.partition(
+            demands, demandeSet.getWarehouse().getNodeId(), cityMap, clusterCount);
+        int[] couriers = shareCouriers(clusters, courierCount);
+        List<Demand> withoutCourier = new ArrayList<>();
+        for (int c = 0; c < clusters.size(); c++) {
+            if (couriers[c] == 0) {
+                withoutCourier.addAll(clusters.get(c));
             }
-            
-            trajets.add(trajet);
         }
-        
-        tour.setTrajets(trajets);
-        
-        // PHASE 1: Calculer la durée totale de la tournée
-        if (graph.getDemandMap() != null && !graph.getDemandMap().isEmpty()) {
-            double totalDuration = computeRouteDuration(route, graph, graph.getDemandMap());
-            tour.setTotalDurationSec(totalDuration);
-        } else {
-            // Si pas de demandes (cas de test), durée = 0
-            tour.setTotalDurationSec(0.0);
+
+        System.out.println("\n🗺️  Décomposition géographique: " + demands.size() + " demandes en "
+            + clusters.size() + " secteur(s), " + courierCount + " coursier(s)"
+            + (withoutCourier.isEmpty() ? "" : ", " + withoutCourier.size() + " demande(s) dans des secteurs sans coursier"));
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 2️⃣ RÉSOLUTION DES SECTEURS EN PARALLÈLE
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+        long startTime = System.currentTimeMillis();
+        List<java.util.concurrent.Callable<TourDistributionResult>> tasks = new ArrayList<>();
+        List<Integer> solved = new ArrayList<>();
+        for (int c = 0; c < clusters.size(); c++) {
+            if (couriers[c] == 0) {
+                continue;
+            }
+            solved.add(c);
+            List<Demand> cluster = clusters.get(c);
+            int clusterCouriers = couriers[c];
+            tasks.add(() -> calculateOptimalTours(
+                buildClusterGraph(demandeSet.getWarehouse(), cluster, cityMap, algorithms),
+                clusterCouriers, profileName, deadline, algorithms));
         }
-        
-        return tour;
+        List<TourDistributionResult> results = new ArrayList<>();
+        for (java.util.concurrent.Future<TourDistributionResult> future : getSearchPool().invokeAll(tasks)) {
+            results.add(awaitCluster(future));
+        }
+        System.out.println("   ✓ Secteurs résolus en " + (System.currentTimeMillis() - startTime) + " ms");
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 3️⃣ RÉPARATION DES FRONTIÈRES ENTRE SECTEURS VOISINS
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+        // Secteurs résolus, dans l'ordre du balayage : deux secteurs consécutifs restent voisins
+        List<List<com.pickupdelivery.model.AlgorithmModel.Tour>> toursByCluster = new ArrayList<>();
+        for (TourDistributionResult result : results) {
+            toursByCluster.add(new ArrayList<>(result.getTours()));
+        }
+        Map<String, Demand> demandById = new HashMap<>();
+        for (Demand demand : demands) {
+            demandById.put(demand.getId(), demand);
+        }
+        int pairs = solved.size() > 2 ? solved.size() : solved.size() - 1;
+        for (int c = 0; c < pairs && !deadline.isExpired(); c++) {
+            repairBoundary(toursByCluster, c, (c + 1) % solved.size(), demandeSet.getWarehouse(), demandById, cityMap,
+                algorithms, deadline);
+        }
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // 4️⃣ RECOLLAGE
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+        List<com.pickupdelivery.model.AlgorithmModel.Tour> tours = new ArrayList<>();
+        Map<Integer, TourMetrics> metricsByCourier = new HashMap<>();
+        for (List<com.pickupdelivery.model.AlgorithmModel.Tour> clusterTours : toursByCluster) {
+            for (com.pickupdelivery.model.AlgorithmModel.Tour tour : clusterTours) {
+                tour.setCourierId(tours.size() + 1);
+                tours.add(tour);
+                metricsByCourier.put(tour.getCourierId(), new TourMetrics(
+                    tour.getCourierId(),
+                    tour.getTotalDistance(),
+                    tour.getTotalDurationSec(),
+                    tour.getRequestCount(),
+                    tour.getStopCount(),
+                    tour.exceedsTimeLimit()
+                ));
+            }
+        }
+
+        List<String> unassignedDemandIds = new ArrayList<>();
+        List<Demand> unassignedDemands = new ArrayList<>();
+        DistributionWarnings warnings = new DistributionWarnings();
+        boolean timeLimited = false;
+        for (TourDistributionResult result : results) {
+            unassignedDemandIds.addAll(result.getUnassignedDemandIds());
+            unassignedDemands.addAll(result.getUnassignedDemands());
+            warnings.setHasUnassignedDemands(warnings.isHasUnassignedDemands() || result.getWarnings().isHasUnassignedDemands());
+            warnings.setHasTimeLimitExceeded(warnings.isHasTimeLimitExceeded() || result.getWarnings().isHasTimeLimitExceeded());
+            for (String message : result.getWarnings().getMessages()) {
+                if (!warnings.getMessages().contains(message)) {
+                    warnings.addMessage(message);
+                }
+            }
+            timeLimited |= result.isTimeLimited();
+        }
+        if (!withoutCourier.isEmpty()) {
+            for (Demand demand : withoutCourier) {
+                unassignedDemandIds.add(demand.getId());
+                unassignedDemands.add(demand);
+            }
+            warnings.setHasUnassignedDemands(true);
+            warnings.addMessage(withoutCourier.size() + " demande(s) non assignée(s): "
+                + (clusters.size() - solved.size()) + " secteur(s) sans coursier disponible");
+        }
+
+        TourDistributionResult merged = new TourDistributionResult(
+            tours, unassignedDemandIds, unassignedDemands, metricsByCourier, warnings);
+        merged.setStrategy(SolverStrategy.GEOGRAPHIC.name());
+        merged.setProfile(resolveProfile(profileName).name());
+        merged.setAlgorithms(algorithms.toString());
+        merged.setTimeLimited(timeLimited || deadline.isExpired());
+
+        System.out.println("   ✓ " + tours.size() + " tournée(s) recollée(s), "
+            + unassignedDemandIds.size() + " demande(s) non assignée(s), "
+            + String.format("%.2f", merged.getTotalDistance()) + " m en " + (System.currentTimeMillis() - startTime) + " ms");
+        return merged;
     }
 
     /**
-     * Formate une route pour l'affichage dans les logs
-     * Affiche W pour warehouse, P1/P2/... pour pickups, D1/D2/... pour deliveries
-     * 
-     * @param route La route à formater
-     * @return Une chaîne formatée (ex: "W → P1 → P2 → D1 → D2 → W")
+     * Répartit les coursiers entre secteurs au prorata des demandes (plus forts restes),
+     * au moins un coursier par secteur tant qu'il y a au moins autant de coursiers que de secteurs ;
+     * sinon chaque coursier va au secteur le plus chargé par coursier (plus forte moyenne),
+     * les autres secteurs n'en reçoivent aucun
      */
-    private String formatRouteForLog(List<Stop> route) {
-        if (route == null || route.isEmpty()) {
-            return "[]";
+    private static int[] shareCouriers(List<List<Demand>> clusters, int courierCount) {
+        int[] couriers = new int[clusters.size()];
+        if (courierCount < clusters.size()) {
+            for (int given = 0; given < courierCount; given++) {
+                int chosen = 0;
+                for (int c = 1; c < clusters.size(); c++) {
+                    // Comparaison de size / (couriers + 1) sans division (à égalité : le premier secteur)
+                    if ((long) clusters.get(c).size() * (couriers[chosen] + 1)
+                            > (long) clusters.get(chosen).size() * (couriers[c] + 1)) {
+                        chosen = c;
+                    }
+                }
+                couriers[chosen]++;
+            }
+            return couriers;
+        }
+
+        int total = 0;
+        for (List<Demand> cluster : clusters) {
+            total += cluster.size();
+        }
+        double[] remainders = new double[clusters.size()];
+        Integer[] byRemainder = new Integer[clusters.size()];
+        int given = 0;
+        for (int c = 0; c < clusters.size(); c++) {
+            double share = (double) courierCount * clusters.get(c).size() / total;
+            couriers[c] = Math.max(1, (int) Math.floor(share));
+            remainders[c] = share - Math.floor(share);
+            byRemainder[c] = c;
+            given += couriers[c];
+        }
+        Arrays.sort(byRemainder, (a, b) -> Double.compare(remainders[b], remainders[a]));
+        for (int i = 0; given < courierCount; i = (i + 1) % clusters.size()) {
+            couriers[byRemainder[i]]++;
+            given++;
+        }
+        // Trop de coursiers donnés par le minimum de 1 : on reprend aux secteurs les mieux dotés
+        while (given > courierCount) {
+            int largest = 0;
+            for (int c = 1; c < clusters.size(); c++) {
+                if (couriers[c] > couriers[largest]) {
+                    largest = c;
+                }
+            }
+            couriers[largest]--;
+            given--;
         }
+        return couriers;
+    }
 
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < route.size(); i++) {
-            Stop stop = route.get(i);
-            
-            if (stop.getTypeStop() == Stop.TypeStop.WAREHOUSE) {
-                sb.append("W");
-            } else {
-                sb.append(stop.getTypeStop() == Stop.TypeStop.PICKUP ? "P" : "D");
-                // Extraire le numéro de la demande (ex: "D1" → "1")
-                String requestId = stop.getIdDemande();
-                if (requestId != null && requestId.length() > 1) {
-                    sb.append(requestId.substring(1));
+    /**
+     * Construit le graphe d'un ensemble de demandes (entrepôt + leurs stops)
+     */
+    private Graph buildClusterGraph(Warehouse warehouse, List<Demand> demands, CityMap cityMap, AlgorithmSelection algorithms) {
+        DemandeSet subset = new DemandeSet();
+        subset.setWarehouse(warehouse);
+        subset.setDemands(new ArrayList<>(demands));
+        Graph graph = buildGraph(getStopSet(subset), cityMap, algorithms);
+        Map<String, Demand> demandMap = new HashMap<>();
+        for (Demand demand : demands) {
+            demandMap.put(demand.getId(), demand);
+        }
+        graph.setDemandMap(demandMap);
+        return graph;
+    }
+
+    /**
+     * Recherche locale entre les coursiers de deux secteurs voisins (tournées remplacées en place)
+     */
+    private void repairBoundary(
+            List<List<com.pickupdelivery.model.AlgorithmModel.Tour>> toursByCluster,
+            int first,
+            int second,
+            Warehouse warehouseModel,
+            Map<String, Demand> demandById,
+            CityMap cityMap,
+            AlgorithmSelection algorithms,
+            Deadline deadline
+    ) {
+        List<com.pickupdelivery.model.AlgorithmModel.Tour> firstTours = toursByCluster.get(first);
+        List<com.pickupdelivery.model.AlgorithmModel.Tour> secondTours = toursByCluster.get(second);
+        if (firstTours.isEmpty() || secondTours.isEmpty()) {
+            return;
+        }
+
+        // Demandes servies par les deux secteurs
+        Map<String, Demand> served = new LinkedHashMap<>();
+        for (List<com.pickupdelivery.model.AlgorithmModel.Tour> clusterTours : List.of(firstTours, secondTours)) {
+            for (com.pickupdelivery.model.AlgorithmModel.Tour tour : clusterTours) {
+                for (Stop stop : tour.getStops()) {
+                    if (stop.getTypeStop() == Stop.TypeStop.PICKUP && demandById.containsKey(stop.getIdDemande())) {
+                        served.put(stop.getIdDemande(), demandById.get(stop.getIdDemande()));
+                    }
                 }
             }
-            
-            if (i < route.size() - 1) {
-                sb.append(" → ");
+        }
+        List<Demand> demands = new ArrayList<>(served.values());
+
+        Graph graph = buildClusterGraph(warehouseModel, demands, cityMap, algorithms);
+        Stop warehouse = extractWarehouse(graph);
+        List<Stop> stops = extractNonWarehouseStops(graph);
+        Map<String, List<Stop>> pickupsByRequestId = buildPickupsByRequestId(stops);
+        Map<String, Stop> deliveryByRequestId = buildDeliveryByRequestId(stops);
+        StopMatrix matrix = StopMatrix.of(graph, warehouse, pickupsByRequestId, deliveryByRequestId, COURIER_SPEED_MS);
+        if (matrix == null) {
+            return;
+        }
+        List<com.pickupdelivery.model.AlgorithmModel.Tour> pairTours = new ArrayList<>(firstTours);
+        pairTours.addAll(secondTours);
+        Solution initial = toSolution(pairTours, matrix, pairTours.size());
+        if (initial == null || !initial.isFeasible(TIME_LIMIT_SEC)) {
+            return;
+        }
+
+        InterRouteSearch search = new InterRouteSearch(matrix, TIME_LIMIT_SEC, interRouteBalanceWeight);
+        Solution repaired = search.optimize(initial, deadline, geoDecompositionRepairRounds);
+        if (search.cost(repaired) >= search.cost(initial) - 1e-6) {
+            return;
+        }
+        System.out.println("   🔧 Frontière secteurs " + (first + 1) + "/" + (second + 1) + ": "
+            + String.format("%.2f", initial.totalDistance()) + " m → " + String.format("%.2f", repaired.totalDistance()) + " m");
+
+        int firstCount = firstTours.size();
+        firstTours.clear();
+        secondTours.clear();
+        for (int k = 0; k < repaired.routeCount(); k++) {
+            if (repaired.routeLength(k) == 0) {
+                continue;
             }
+            List<Stop> route = new ArrayList<>();
+            route.add(warehouse);
+            for (int index : repaired.route(k)) {
+                route.add(matrix.stop(index));
+            }
+            route.add(warehouse);
+            com.pickupdelivery.model.AlgorithmModel.Tour tour = TourResults.buildTour(route, StopRoutes.computeRouteDistance(route, graph), graph);
+            (k < firstCount ? firstTours : secondTours).add(tour);
+        }
+    }
+
+    private static TourDistributionResult awaitCourier(java.util.concurrent.Future<TourDistributionResult> future)
+            throws InterruptedException {
+        try {
+            return future.get();
+        } catch (java.util.concurrent.ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Échec du calcul d'un coursier: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static TourDistributionResult awaitCluster(java.util.concurrent.Future<TourDistributionResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Décomposition géographique interrompue", e);
+        } catch (java.util.concurrent.ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Échec d'un secteur: " + e.getCause().getMessage(), e.getCause());
         }
-        
-        return sb.toString();
     }
 
     // =========================================================================
-    // MÉTHODES AUXILIAIRES POUR DISTRIBUTION FIFO (PHASE 2)
+    // SOLVEUR EXACT (PROGRAMMATION DYNAMIQUE)
     // =========================================================================
 
     /**
-     * Trouve le stop delivery correspondant à un pickup dans une route optimisée
-     * 
-     * @param demandId ID de la demande
-     * @param route Route optimisée contenant tous les stops
-     * @param fromIndex Index à partir duquel commencer la recherche
-     * @return Le stop delivery ou null si non trouvé
+     * Résout exactement les petites instances : tournée unique de distance minimale
+     * (programmation dynamique sur (stops visités, dernier stop) avec précédence)
+     *
+     * Avec l'inégalité triangulaire, une tournée unique qui tient dans les 4h est aussi
+     * optimale en distance cumulée pour plusieurs coursiers : un seul coursier est alors utilisé.
+     *
+     * @param problem L'instance (matrice déjà construite, échéance globale du calcul)
+     * @return La distribution optimale, ou null si l'instance est trop grande ou si aucune
+     *         tournée unique ne respecte la limite de 4h (les heuristiques prennent le relais)
      */
-    private Stop findDeliveryInRoute(String demandId, List<Stop> route, int fromIndex) {
-        if (demandId == null || route == null) {
+    private TourDistributionResult solveExactly(RoutingProblem problem) {
+        Graph graph = problem.graph();
+        int courierCount = problem.courierCount();
+        Stop warehouse = problem.warehouse();
+        Map<String, List<Stop>> pickupsByRequestId = problem.pickupsByRequestId();
+        Map<String, Stop> deliveryByRequestId = problem.deliveryByRequestId();
+        Deadline deadline = problem.deadline();
+        if (pickupsByRequestId.size() > ExactPdpSolver.MAX_REQUESTS) {
             return null;
         }
+        StopMatrix matrix = problem.matrix();
+        if (matrix == null) {
+            return null;
+        }
+        if (matrix.hasSideConstraints()) {
+            System.out.println("\n🎯 Phase exacte ignorée: fenêtres horaires ou capacité (non gérées par la programmation dynamique)");
+            return null;
+        }
+
+        // Distance maximale compatible avec la limite de 4h (temps de service déduit)
+        double totalServiceSec = 0.0;
+        for (int stop = 1; stop < matrix.size(); stop++) {
+            totalServiceSec += matrix.serviceSec(stop);
+        }
+        double maxDistance = (TIME_LIMIT_SEC - totalServiceSec) * COURIER_SPEED_MS;
+        if (maxDistance < 0) {
+            return null;
+        }
+
+        System.out.println("\n🎯 Phase exacte: programmation dynamique (" + pickupsByRequestId.size() + " demandes)...");
+        long startTime = System.currentTimeMillis();
+        ExactPdpSolver solver = new ExactPdpSolver(matrix);
+        int[] route = solver.solve(maxDistance + 1e-6, deadline);
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        if (solver.isInterrupted()) {
+            System.out.println("   ⏱️  Programmation dynamique interrompue par l'échéance (" + elapsedTime + " ms)");
+            return null;
+        }
+        if (route == null) {
+            System.out.println("   ⚠️  Aucune tournée unique sous 4h (" + elapsedTime + " ms), passage aux heuristiques");
+            return null;
+        }
+
+        Solution solution = new Solution(matrix, courierCount);
+        solution.setRoute(0, route);
+        if (!solution.isFeasible(TIME_LIMIT_SEC)) {
+            return null;
+        }
+
+        TourDistributionResult result = TourResults.toDistributionResult(
+            solution, graph, warehouse, pickupsByRequestId, deliveryByRequestId);
+        result.setLowerBound(solution.totalDistance());
+        result.setGapPercent(0.0); // Optimalité prouvée
+        com.pickupdelivery.model.AlgorithmModel.Tour tour = result.getTours().get(0);
+
+        System.out.println("   ✓ Tournée optimale: " + formatRouteForLog(tour.getStops()));
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║                    RÉSULTAT DU CALCUL                          ║");
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        System.out.println("║  Distance optimale           : " + String.format("%10.2f", tour.getTotalDistance()) + " m              ║");
+        System.out.println("║  Durée de la tournée         : " + String.format("%10.2f", tour.getTotalDurationHours()) + " h                ║");
+        System.out.println("║  États explorés              : " + String.format("%10d", solver.getExploredStates()) + "                    ║");
+        System.out.println("║  Temps de calcul total       : " + String.format("%10d", elapsedTime) + " ms                 ║");
+        System.out.println("║  Algorithme                  : Programmation dynamique       ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+
+        return result;
+    }
+
+    // =========================================================================
+    // AMÉLIORATION LNS (RUIN & RECREATE)
+    // =========================================================================
+
+    /**
+     * Améliore une distribution FIFO par recherche à grand voisinage, sous budget de temps
+     *
+     * La distribution FIFO sert de solution initiale : la LNS ne peut donc que l'améliorer
+     * (moins de demandes non assignées, puis moins de distance cumulée). Si aucune meilleure
+     * solution n'est trouvée dans le budget, la distribution FIFO est renvoyée telle quelle.
+     * Avec plusieurs cœurs, une LNS est lancée par île sur le pool de recherche (multi-départs
+     * parallèle, échanges périodiques des meilleures solutions).
+     *
+     * @param fifoResult          La distribution FIFO (valide)
+     * @param problem             L'instance (matrice et listes de voisins déjà construites)
+     * @param strategy            METAHEURISTIC (LNS globale) ou DECOMPOSITION (une LNS par coursier)
+     * @param profile             Profil d'effort (nombre maximal d'itérations)
+     * @param searchDeadline      Échéance de la recherche (budget du profil borné par l'échéance globale)
+     * @param deadline            Échéance globale (borne aussi la séparation et évaluation)
+     * @return La meilleure distribution trouvée
+     */
+    private TourDistributionResult improveWithLns(
+            TourDistributionResult fifoResult,
+            RoutingProblem problem,
+            SolverStrategy strategy,
+            SolverProfile profile,
+            Deadline searchDeadline,
+            Deadline deadline
+    ) {
+        Graph graph = problem.graph();
+        int courierCount = problem.courierCount();
+        long budgetMs = searchDeadline.remainingMillis();
+        if (budgetMs <= 0 || problem.pickupsByRequestId().size() < 2) {
+            return fifoResult;
+        }
+
+        StopMatrix matrix = problem.matrix();
+        if (matrix == null) {
+            System.out.println("   ⚠️  LNS ignorée: demandes incomplètes dans le graphe");
+            return fifoResult;
+        }
+
+        Solution initial = toSolution(fifoResult.getTours(), matrix, courierCount);
+        if (initial == null || !initial.isFeasible(TIME_LIMIT_SEC)) {
+            System.out.println("   ⚠️  LNS ignorée: distribution initiale non convertible");
+            return fifoResult;
+        }
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // BORNE INFÉRIEURE ET OBJECTIF D'ARRÊT ANTICIPÉ
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
-        for (int i = fromIndex + 1; i < route.size(); i++) {
-            Stop stop = route.get(i);
-            if (stop.getTypeStop() == Stop.TypeStop.DELIVERY && 
-                demandId.equals(stop.getIdDemande())) {
-                return stop;
+        // Demandes servables (seules sous 4h et dans la capacité) : les autres restent non assignées quoi qu'il arrive
+        boolean[] servable = new boolean[matrix.requestCount()];
+        int unservableCount = 0;
+        for (int request = 0; request < servable.length; request++) {
+            servable[request] = matrix.isServableAlone(request, TIME_LIMIT_SEC);
+            if (!servable[request]) {
+                unservableCount++;
             }
         }
+        boolean initialServesAll = initial.unassignedCount() == unservableCount;
+        double lowerBound = LowerBounds.compute(matrix, servable,
+            initialServesAll ? initial.totalDistance() : Double.POSITIVE_INFINITY);
+        double targetObjective = lowerBound * (1 + gapTolerancePercent / 100)
+            + Solution.UNASSIGNED_PENALTY * unservableCount;
+        System.out.println("\n📐 Borne inférieure: " + String.format("%.2f", lowerBound) + " m"
+            + (initialServesAll ? " (écart FIFO: " + String.format("%.2f", gapPercent(initial.totalDistance(), lowerBound)) + " %)" : ""));
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // RECHERCHE À GRAND VOISINAGE (UNE OU PLUSIEURS ÎLES)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        
+        int islandCount = lnsIslands > 0 ? lnsIslands : Runtime.getRuntime().availableProcessors();
+        int maxIterations = profile.maxIterations();
+        NeighbourLists neighbours = problem.neighbours();
+        Solution best;
+
+        if (strategy == SolverStrategy.DECOMPOSITION) {
+            // Grandes instances : affectation FIFO conservée, une LNS par coursier en parallèle
+            System.out.println("\n🧩 Phase décomposition: une LNS par coursier (budget " + budgetMs + " ms)...");
+            RouteDecomposition decomposition = new RouteDecomposition(graph, TIME_LIMIT_SEC, lnsSeed, getSearchPool());
+            best = decomposition.optimize(initial, searchDeadline, maxIterations);
+            System.out.println("   ✓ " + decomposition.getSubproblems() + " sous-problème(s) en " + searchDeadline.elapsedMillis() + " ms");
+        } else if (islandCount > 1) {
+            System.out.println("\n🔁 Phase LNS: destruction/réparation (budget " + budgetMs + " ms, "
+                + islandCount + " îles)...");
+            // Multi-départs parallèle : une LNS par île, échanges périodiques des meilleures solutions
+            IslandSearch search = new IslandSearch(matrix, TIME_LIMIT_SEC, lnsSeed, islandCount, getSearchPool());
+            search.setTargetObjective(targetObjective);
+            search.setNeighbours(neighbours);
+            best = search.optimize(initial, searchDeadline, maxIterations, lnsMigrationInterval);
+            System.out.println("   ✓ " + search.getTotalIterations() + " itérations (" + search.getEpochs()
+                + " époque(s)) en " + searchDeadline.elapsedMillis() + " ms");
+        } else {
+            System.out.println("\n🔁 Phase LNS: destruction/réparation (budget " + budgetMs + " ms)...");
+            LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, lnsSeed);
+            optimizer.setTargetObjective(targetObjective);
+            optimizer.setNeighbours(neighbours);
+            best = optimizer.optimize(initial, searchDeadline, maxIterations);
+            System.out.println("   ✓ " + optimizer.getIterations() + " itérations en " + searchDeadline.elapsedMillis() + " ms, "
+                + optimizer.getImprovements() + " amélioration(s)");
+        }
+        System.out.println("   📏 Distance: " + String.format("%.2f", initial.totalDistance()) + " m → "
+            + String.format("%.2f", best.totalDistance()) + " m | Non assignées: "
+            + initial.unassignedCount() + " → " + best.unassignedCount());
+
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // SÉPARATION ET ÉVALUATION (PREUVE D'OPTIMALITÉ)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
         
-        return null;
+        boolean servesAll = best.unassignedCount() == unservableCount;
+        if (bnbEnabled && servesAll && !matrix.hasSideConstraints() && matrix.requestCount() - unservableCount <= bnbMaxRequests
+                && gapPercent(best.totalDistance(), lowerBound) > gapTolerancePercent) {
+            BranchAndBoundOutcome outcome = improveWithBranchAndBound(best, matrix, servable, deadline);
+            best = outcome.best();
+            lowerBound = Math.max(lowerBound, outcome.provenBound());
+        }
+
+        TourDistributionResult result;
+        if (best.objective() >= initial.objective() - 1e-6) {
+            System.out.println("   ✓ Distribution FIFO conservée (aucune amélioration)");
+            best = initial;
+            result = fifoResult;
+        } else {
+            result = TourResults.toDistributionResult(best, graph, problem.warehouse(),
+                problem.pickupsByRequestId(), problem.deliveryByRequestId());
+        }
+
+        // La borne porte sur les demandes réellement servies
+        if (best.unassignedCount() != unservableCount) {
+            boolean[] assigned = new boolean[matrix.requestCount()];
+            for (int request : best.assignedRequests()) {
+                assigned[request] = true;
+            }
+            lowerBound = LowerBounds.compute(matrix, assigned, best.totalDistance());
+        }
+        result.setLowerBound(lowerBound);
+        result.setGapPercent(gapPercent(best.totalDistance(), lowerBound));
+        System.out.println("   📐 Écart à la borne inférieure: " + String.format("%.2f", result.getGapPercent()) + " %");
+
+        return result;
     }
 
     /**
-     * Construit une liste de stops (pickups + deliveries) à partir d'une liste d'IDs de demandes
-     * Utilisé pour la réoptimisation incrémentale lors de la distribution
-     * 
-     * @param demandIds Liste des IDs de demandes à inclure
-     * @param pickupsByRequestId Map des pickups par ID de demande
-     * @param deliveryByRequestId Map des deliveries par ID de demande
-     * @return Liste des stops (tous les pickups et deliveries)
+     * Post-optimisation entre coursiers : relocalisation et échange de demandes, échange de
+     * queues de tournées (voir {@link InterRouteSearch})
+     *
+     * Réduit la distance cumulée et équilibre les durées (un coursier à 3h55 cède du travail à
+     * un coursier à 1h10), chaque tournée restant sous les 4h. Les demandes assignées ne changent
+     * pas ; la borne inférieure déjà calculée reste valable, seul l'écart est mis à jour.
+     *
+     * @return La distribution améliorée, ou celle reçue si aucun mouvement n'a été appliqué
      */
-    private List<Stop> buildStopsFromDemandIds(
-            List<String> demandIds,
-            Map<String, List<Stop>> pickupsByRequestId,
-            Map<String, Stop> deliveryByRequestId
-    ) {
-        List<Stop> stops = new ArrayList<>();
-        
-        for (String demandId : demandIds) {
-            // Ajouter le(s) pickup(s) de cette demande
-            List<Stop> pickups = pickupsByRequestId.get(demandId);
-            if (pickups != null) {
-                stops.addAll(pickups);
+    private TourDistributionResult improveBetweenCouriers(TourDistributionResult result, RoutingProblem problem) {
+        StopMatrix matrix = problem.matrix();
+        if (matrix == null) {
+            return result;
+        }
+        Deadline deadline = problem.deadline();
+        Solution initial = toSolution(result.getTours(), matrix, problem.courierCount());
+        if (initial == null || !initial.isFeasible(TIME_LIMIT_SEC)) {
+            return result;
+        }
+
+        System.out.println("\n🔀 Phase recherche locale entre coursiers...");
+        long startTime = System.currentTimeMillis();
+        InterRouteSearch search = new InterRouteSearch(matrix, TIME_LIMIT_SEC, interRouteBalanceWeight);
+        Solution improved = search.optimize(initial, deadline, interRouteMaxRounds);
+        int moves = search.getRelocations() + search.getSwaps() + search.getCrossExchanges();
+        System.out.println("   ✓ " + search.getRelocations() + " relocalisation(s), " + search.getSwaps()
+            + " échange(s), " + search.getCrossExchanges() + " échange(s) de queues en "
+            + (System.currentTimeMillis() - startTime) + " ms");
+        if (moves == 0 || search.cost(improved) >= search.cost(initial) - 1e-6) {
+            return result;
+        }
+        System.out.println("   📏 Distance: " + String.format("%.2f", initial.totalDistance()) + " m → "
+            + String.format("%.2f", improved.totalDistance()) + " m");
+
+        TourDistributionResult improvedResult = TourResults.toDistributionResult(improved, problem.graph(),
+            problem.warehouse(), problem.pickupsByRequestId(), problem.deliveryByRequestId());
+        improvedResult.setLowerBound(result.getLowerBound());
+        if (result.getLowerBound() != null) {
+            improvedResult.setGapPercent(gapPercent(improved.totalDistance(), result.getLowerBound()));
+        }
+        return improvedResult;
+    }
+
+    /**
+     * Résultat de la séparation et évaluation : meilleure solution et borne prouvée
+     * (0 si l'exploration n'a pas pu être terminée dans le budget)
+     */
+    private record BranchAndBoundOutcome(Solution best, double provenBound) {
+    }
+
+    /**
+     * Explore exhaustivement (sous budget) les tournées uniques pour prouver l'optimalité
+     * ou trouver une tournée unique plus courte qui respecte la limite de 4h
+     *
+     * @return La meilleure solution (la tournée unique trouvée si elle est meilleure et valide)
+     *         et la borne prouvée
+     */
+    private BranchAndBoundOutcome improveWithBranchAndBound(
+            Solution best, StopMatrix matrix, boolean[] servable, Deadline parentDeadline) {
+        System.out.println("\n🌳 Phase séparation et évaluation (budget " + bnbTimeBudgetMs + " ms)...");
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(matrix, servable);
+        Deadline deadline = parentDeadline.within(bnbTimeBudgetMs);
+        int[] route = solver.solve(best.totalDistance(), deadline);
+
+        double provenBound = solver.isProvenOptimal() ? solver.getBestDistance() : 0.0;
+        System.out.println("   ✓ " + solver.getExploredNodes() + " nœuds en " + deadline.elapsedMillis() + " ms"
+            + (solver.isProvenOptimal() ? " (exploration complète)" : " (budget épuisé)"));
+
+        if (route != null) {
+            Solution single = best.copy();
+            for (int k = 0; k < single.routeCount(); k++) {
+                single.setRoute(k, new int[0]);
             }
-            
-            // Ajouter le delivery de cette demande
-            Stop delivery = deliveryByRequestId.get(demandId);
-            if (delivery != null) {
-                stops.add(delivery);
+            single.setRoute(0, route);
+            if (single.isFeasible(TIME_LIMIT_SEC) && single.objective() < best.objective()) {
+                System.out.println("   ✓ Tournée unique plus courte trouvée: " + String.format("%.2f", single.totalDistance()) + " m");
+                return new BranchAndBoundOutcome(single, provenBound);
             }
         }
-        
-        return stops;
+        return new BranchAndBoundOutcome(best, provenBound);
     }
 
     /**
-     * Trouve l'index d'un delivery dans la route
-     * 
-     * @param demandId ID de la demande
-     * @param route Route complète
-     * @return Index du delivery ou -1 si non trouvé
+     * Écart relatif (%) entre une distance et sa borne inférieure
      */
-    private int findDeliveryIndex(String demandId, List<Stop> route) {
-        if (demandId == null || route == null) {
-            return -1;
+    private static double gapPercent(double distance, double lowerBound) {
+        if (distance <= 0) {
+            return 0.0;
         }
-        
-        for (int i = 0; i < route.size(); i++) {
-            Stop stop = route.get(i);
-            if (stop.getTypeStop() == Stop.TypeStop.DELIVERY && 
-                demandId.equals(stop.getIdDemande())) {
-                return i;
+        return Math.max(0.0, (distance - lowerBound) / distance * 100);
+    }
+
+    /**
+     * Marque une distribution calculée sous une échéance atteinte ou annulée
+     */
+    private void markIfTimeLimited(TourDistributionResult result, Deadline deadline) {
+        if (!deadline.isExpired()) {
+            return;
+        }
+        result.setTimeLimited(true);
+        result.getWarnings().addMessage(deadline.isCancelled()
+            ? "Calcul annulé: meilleure solution trouvée avant l'annulation"
+            : "Limite de temps atteinte: meilleure solution trouvée dans le budget");
+        System.out.println("   ⏱️  Résultat limité par l'échéance (" + deadline.elapsedMillis() + " ms)");
+    }
+
+    /**
+     * Résout un profil d'effort par son nom (insensible à la casse)
+     *
+     * @param profileName fast, balanced ou quality ; null ou vide pour le profil par défaut
+     * @return Le profil configuré
+     * @throws IllegalArgumentException Si le profil est inconnu
+     */
+    public SolverProfile resolveProfile(String profileName) {
+        String name = profileName == null || profileName.isBlank() ? defaultProfile : profileName.trim().toLowerCase();
+        return switch (name) {
+            case SolverProfile.FAST -> new SolverProfile(name, fastTimeBudgetMs, fastMaxIterations, fastExactMaxRequests);
+            case SolverProfile.BALANCED -> new SolverProfile(name, balancedTimeBudgetMs, balancedMaxIterations, balancedExactMaxRequests);
+            case SolverProfile.QUALITY -> new SolverProfile(name, qualityTimeBudgetMs, qualityMaxIterations, qualityExactMaxRequests);
+            default -> throw new IllegalArgumentException(
+                "Profil inconnu: " + profileName + " (attendus: fast, balanced, quality)");
+        };
+    }
+
+    /**
+     * Résout les composants d'un calcul : ceux de la configuration (algo.spi.*), dont une
+     * partie peut être remplacée par requête pour comparer deux chaînes sans redéploiement
+     *
+     * @param spec "clé=nom" séparés par des virgules (ex. "route-improver=none,fleet-distributor=fifo"),
+     *             null ou vide pour la configuration seule
+     * @return La sélection, dont chaque composant est enregistré
+     * @throws IllegalArgumentException Si la spécification est mal formée ou un nom inconnu
+     */
+    public AlgorithmSelection resolveAlgorithms(String spec) {
+        AlgorithmSelection selection = new AlgorithmSelection(defaultShortestPath, defaultMatrixBuilder,
+            defaultRouteConstructor, defaultRouteImprover, defaultFleetDistributor).withOverrides(spec);
+        getAlgorithms().validate(selection);
+        return selection;
+    }
+
+    /**
+     * @return Les noms des composants disponibles, par type de composant
+     */
+    public Map<String, List<String>> getAvailableAlgorithms() {
+        return getAlgorithms().available();
+    }
+
+    /**
+     * Registre des composants : implémentations intégrées, puis beans de l'application
+     */
+    private AlgorithmRegistry getAlgorithms() {
+        AlgorithmRegistry registry = algorithmRegistry;
+        if (registry == null) {
+            synchronized (this) {
+                if (algorithmRegistry == null) {
+                    algorithmRegistry = createAlgorithmRegistry();
+                }
+                registry = algorithmRegistry;
             }
         }
-        
-        return -1;
+        return registry;
+    }
+
+    private AlgorithmRegistry createAlgorithmRegistry() {
+        AlgorithmRegistry registry = new AlgorithmRegistry();
+
+        registry.registerShortestPathEngine("dijkstra", new DijkstraEngine());
+
+        registry.registerMatrixBuilder("one-to-many", new OneToManyMatrixBuilder());
+        registry.registerMatrixBuilder("pairwise", new PairwiseMatrixBuilder());
+
+        // Plus proche voisin : granulaire si les listes de voisins sont activées
+        registry.registerRouteConstructor("nearest-neighbour", new NearestNeighbourConstructor(true));
+        registry.registerRouteConstructor("nearest-neighbour-full", new NearestNeighbourConstructor(false));
+
+        ParallelTwoOptImprover parallelTwoOpt = new ParallelTwoOptImprover(this::getSearchPool, parallelTwoOptChunk);
+        FullTwoOptImprover fullTwoOpt = new FullTwoOptImprover(parallelTwoOpt, parallelTwoOptMinStops);
+        registry.registerRouteImprover("2-opt", new TwoOptImprover(granularNeighbours, fullTwoOpt));
+        registry.registerRouteImprover("full-2-opt", fullTwoOpt);
+        registry.registerRouteImprover("parallel-2-opt", parallelTwoOpt);
+        registry.registerRouteImprover("none", (route, problem) -> route);
+
+        registry.registerFleetDistributor("split-savings", new MultiCourierDistributor(true, true));
+        registry.registerFleetDistributor("split", new MultiCourierDistributor(true, false));
+        registry.registerFleetDistributor("savings", new MultiCourierDistributor(false, true));
+        registry.registerFleetDistributor(FIFO_DISTRIBUTOR, new FifoDistributor(fullTwoOpt));
+
+        if (customShortestPathEngines != null) {
+            customShortestPathEngines.forEach(registry::registerShortestPathEngine);
+        }
+        if (customMatrixBuilders != null) {
+            customMatrixBuilders.forEach(registry::registerMatrixBuilder);
+        }
+        if (customRouteConstructors != null) {
+            customRouteConstructors.forEach(registry::registerRouteConstructor);
+        }
+        if (customRouteImprovers != null) {
+            customRouteImprovers.forEach(registry::registerRouteImprover);
+        }
+        if (customFleetDistributors != null) {
+            customFleetDistributors.forEach(registry::registerFleetDistributor);
+        }
+        return registry;
     }
 
     /**
-     * Calcule le temps nécessaire pour effectuer une demande complète (pickup + delivery)
-     * à partir de la position actuelle dans la tournée
-     * 
-     * @param currentStop Stop actuel dans la tournée (dernier stop ajouté)
-     * @param pickupStop Stop de pickup de la demande
-     * @param deliveryStop Stop de delivery de la demande
-     * @param globalRoute Route globale optimisée pour référence
-     * @param graph Graphe avec distances
-     * @param demand Objet Demand contenant les durées de service
-     * @return Temps total en secondes pour cette demande
+     * Exécuteur des recalculs par coursier : au plus algo.parallel.courier-threads calculs simultanés
+     * Threads démons, pour ne pas retenir l'arrêt de l'application
      */
-    private double calculateDemandTime(
-            Stop currentStop,
-            Stop pickupStop,
-            Stop deliveryStop,
-            List<Stop> globalRoute,
-            Graph graph,
-            Demand demand
+    private java.util.concurrent.ExecutorService getCourierExecutor() {
+        java.util.concurrent.ExecutorService executor = courierExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (courierExecutor == null) {
+                    int threads = courierThreads > 0 ? courierThreads : Runtime.getRuntime().availableProcessors();
+                    java.util.concurrent.atomic.AtomicInteger created = new java.util.concurrent.atomic.AtomicInteger();
+                    courierExecutor = java.util.concurrent.Executors.newFixedThreadPool(threads, task -> {
+                        Thread thread = new Thread(task, "courier-solver-" + created.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                executor = courierExecutor;
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Pool des îles de recherche, dimensionné sur les cœurs disponibles
+     */
+    private ForkJoinPool getSearchPool() {
+        ForkJoinPool pool = searchPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (searchPool == null) {
+                    searchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                }
+                pool = searchPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Arrête les pools de calcul à la fermeture du contexte (ils seraient sinon conservés
+     * à chaque rafraîchissement du contexte) ; une utilisation ultérieure les recrée
+     */
+    @PreDestroy
+    public void shutdownPools() {
+        synchronized (this) {
+            if (searchPool != null) {
+                searchPool.shutdownNow();
+                searchPool = null;
+            }
+            if (courierExecutor != null) {
+                courierExecutor.shutdownNow();
+                courierExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Convertit des tours en solution indexée
+     *
+     * @return La solution, ou null si un stop d'un tour est absent de la matrice
+     */
+    private Solution toSolution(
+            List<com.pickupdelivery.model.AlgorithmModel.Tour> tours,
+            StopMatrix matrix,
+            int courierCount
     ) {
-        double totalTime = 0.0;
-        
-        // 1. Temps de trajet du stop actuel vers le pickup
-        double distanceToPickup = distance(currentStop, pickupStop, graph);
-        totalTime += calculateTravelTime(distanceToPickup);
-        
-        // 2. Temps de service au pickup
-        totalTime += demand.getPickupDurationSec();
-        
-        // 3. Temps de trajet du pickup vers le delivery
-        double distancePickupToDelivery = distance(pickupStop, deliveryStop, graph);
-        totalTime += calculateTravelTime(distancePickupToDelivery);
-        
-        // 4. Temps de service au delivery
-        totalTime += demand.getDeliveryDurationSec();
-        
-        return totalTime;
+        if (tours.size() > courierCount) {
+            return null;
+        }
+        Solution solution = new Solution(matrix, courierCount);
+        for (int k = 0; k < tours.size(); k++) {
+            List<Stop> stops = tours.get(k).getStops();
+            int[] route = new int[Math.max(0, stops.size() - 2)];
+            for (int i = 1; i < stops.size() - 1; i++) {
+                int index = matrix.indexOf(stops.get(i));
+                if (index <= StopMatrix.DEPOT) {
+                    return null;
+                }
+                route[i - 1] = index;
+            }
+            try {
+                solution.setRoute(k, route);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return solution;
     }
 
     /**
-     * Calcule le temps de retour vers le warehouse depuis un stop donné
+     * Formate une route pour l'affichage dans les logs
+     * Affiche W pour warehouse, P1/P2/... pour pickups, D1/D2/... pour deliveries
      * 
-     * @param fromStop Stop de départ
-     * @param warehouse Stop warehouse
-     * @param graph Graphe avec distances
-     * @return Temps de retour en secondes
+     * @param route La route à formater
+     * @return Une chaîne formatée (ex: "W → P1 → P2 → D1 → D2 → W")
      */
-    private double calculateReturnTime(Stop fromStop, Stop warehouse, Graph graph) {
-        if (fromStop == null || warehouse == null || graph == null) {
-            return 0.0;
+    private String formatRouteForLog(List<Stop> route) {
+        if (route == null || route.isEmpty()) {
+            return "[]";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < route.size(); i++) {
+            Stop stop = route.get(i);
+            
+            if (stop.getTypeStop() == Stop.TypeStop.WAREHOUSE) {
+                sb.append("W");
+            } else {
+                sb.append(stop.getTypeStop() == Stop.TypeStop.PICKUP ? "P" : "D");
+                // Extraire le numéro de la demande (ex: "D1" → "1")
+                String requestId = stop.getIdDemande();
+                if (requestId != null && requestId.length() > 1) {
+                    sb.append(requestId.substring(1));
+                }
+            }
+            
+            if (i < route.size() - 1) {
+                sb.append(" → ");
+            }
         }
         
-        double distanceToWarehouse = distance(fromStop, warehouse, graph);
-        return calculateTravelTime(distanceToWarehouse);
+        return sb.toString();
     }
 }
@@ -4,6 +4,7 @@ import com.pickupdelivery.dto.AddDeliveryRequest;
 import com.pickupdelivery.dto.RemoveDeliveryRequest;
 import com.pickupdelivery.dto.TourModificationResponse;
 import com.pickupdelivery.dto.UpdateCourierRequest;
+import com.pickupdelivery.exception.ValidationException;
 import com.pickupdelivery.model.DeliveryRequest;
 import com.pickupdelivery.model.Tour;
 import com.pickupdelivery.model.AlgorithmModel.Stop;
@@ -87,6 +88,19 @@ public class TourService {
             request.getDeliveryDuration()
         );
         
+        // Rejeter immédiatement une demande impossible même seule : aucun coursier ne pourrait la servir
+        try {
+            if (deliveryService != null) {
+                deliveryService.validateDemandFeasibility(newDelivery);
+            }
+        } catch (ValidationException e) {
+            TourModificationResponse response = new TourModificationResponse();
+            response.setSuccess(false);
+            response.setRequiresCourierChange(false);
+            response.setErrorMessage(e.getMessage());
+            return response;
+        }
+        
         // Vérifier si l'ajout est faisable (contraintes de temps, distance, etc.)
         boolean isFeasible = validateDeliveryFeasibility(tour, newDelivery);
         
@@ -0,0 +1,173 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Séparation et évaluation (branch and bound) pour la tournée unique de distance minimale
+ *
+ * Exploration en profondeur depuis l'entrepôt, en ne branchant que sur les stops autorisés
+ * par la précédence (voisins les plus proches d'abord). Un nœud est élagué lorsque
+ * distance parcourue + borne du reste ≥ meilleure distance connue. La borne du reste est la
+ * somme, pour chaque stop non visité et pour le retour à l'entrepôt, du plus petit arc entrant
+ * possible.
+ *
+ * La recherche porte sur la relaxation sans limite de durée : si elle se termine dans le
+ * budget, la distance trouvée est une borne inférieure exacte de la distance cumulée de toute
+ * distribution (voir {@link LowerBounds}).
+ */
+public final class BranchAndBoundSolver {
+
+    /** Fréquence (en nœuds) de consultation de l'échéance */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final StopMatrix matrix;
+    private final int[] stops;
+    private final double[] minIncoming;
+    private final double minIncomingDepot;
+
+    private final boolean[] visited;
+    private final int[] path;
+    private Deadline deadline;
+    private boolean interrupted;
+    private long exploredNodes;
+
+    private int[] bestRoute;
+    private double bestDistance;
+
+    /**
+     * @param matrix   La matrice des stops
+     * @param included Les demandes à servir (indice = demande)
+     */
+    public BranchAndBoundSolver(StopMatrix matrix, boolean[] included) {
+        this.matrix = matrix;
+        List<Integer> selected = new ArrayList<>();
+        for (int r = 0; r < included.length; r++) {
+            if (included[r]) {
+                selected.add(StopMatrix.pickupOf(r));
+                selected.add(StopMatrix.deliveryOf(r));
+            }
+        }
+        this.stops = selected.stream().mapToInt(Integer::intValue).toArray();
+        this.visited = new boolean[matrix.size()];
+        this.path = new int[stops.length];
+
+        // Plus petit arc entrant de chaque stop (depuis l'entrepôt ou un autre stop inclus)
+        this.minIncoming = new double[matrix.size()];
+        for (int to : stops) {
+            double min = to % 2 == 1 ? matrix.distance(StopMatrix.DEPOT, to) : Double.POSITIVE_INFINITY;
+            for (int from : stops) {
+                if (from != to && !(to % 2 == 1 && from == to + 1)) {
+                    min = Math.min(min, matrix.distance(from, to));
+                }
+            }
+            minIncoming[to] = min;
+        }
+        double depotMin = stops.length == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+        for (int from : stops) {
+            if (from % 2 == 0) {
+                depotMin = Math.min(depotMin, matrix.distance(from, StopMatrix.DEPOT));
+            }
+        }
+        this.minIncomingDepot = depotMin;
+    }
+
+    /**
+     * Cherche une tournée strictement plus courte que la borne, jusqu'à l'échéance
+     *
+     * @param upperBound Distance d'une solution connue, ou +∞
+     * @param deadline   Échéance horloge murale
+     * @return La meilleure tournée trouvée (indices sans l'entrepôt), ou null si aucune ne bat la borne
+     */
+    public int[] solve(double upperBound, Deadline deadline) {
+        this.deadline = deadline;
+        this.interrupted = false;
+        this.exploredNodes = 0;
+        this.bestRoute = null;
+        this.bestDistance = upperBound;
+
+        double remaining = minIncomingDepot;
+        for (int stop : stops) {
+            remaining += minIncoming[stop];
+        }
+        explore(StopMatrix.DEPOT, 0, 0.0, remaining);
+        return bestRoute;
+    }
+
+    /**
+     * @return true si l'arbre a été entièrement exploré (la meilleure distance est optimale)
+     */
+    public boolean isProvenOptimal() {
+        return !interrupted;
+    }
+
+    /**
+     * @return La distance de la meilleure tournée trouvée, ou la borne initiale si aucune ne l'a battue
+     */
+    public double getBestDistance() {
+        return bestDistance;
+    }
+
+    public long getExploredNodes() {
+        return exploredNodes;
+    }
+
+    private void explore(int last, int depth, double distance, double remainingBound) {
+        if (interrupted) {
+            return;
+        }
+        if (++exploredNodes % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+            interrupted = true;
+            return;
+        }
+
+        if (depth == stops.length) {
+            double total = distance + matrix.distance(last, StopMatrix.DEPOT);
+            if (total < bestDistance) {
+                bestDistance = total;
+                bestRoute = path.clone();
+            }
+            return;
+        }
+
+        // Candidats autorisés, triés du plus proche au plus lointain
+        int[] candidates = new int[stops.length - depth];
+        int count = 0;
+        for (int stop : stops) {
+            if (!visited[stop] && (stop % 2 == 1 || visited[stop - 1])) {
+                candidates[count++] = stop;
+            }
+        }
+        sortByDistanceFrom(last, candidates, count);
+
+        for (int i = 0; i < count; i++) {
+            int next = candidates[i];
+            double nextDistance = distance + matrix.distance(last, next);
+            double nextRemaining = remainingBound - minIncoming[next];
+            if (nextDistance + nextRemaining >= bestDistance) {
+                continue;
+            }
+            visited[next] = true;
+            path[depth] = next;
+            explore(next, depth + 1, nextDistance, nextRemaining);
+            visited[next] = false;
+            if (interrupted) {
+                return;
+            }
+        }
+    }
+
+    private void sortByDistanceFrom(int from, int[] candidates, int count) {
+        // Tri par insertion : peu de candidats à chaque niveau
+        for (int i = 1; i < count; i++) {
+            int stop = candidates[i];
+            double key = matrix.distance(from, stop);
+            int j = i - 1;
+            while (j >= 0 && matrix.distance(from, candidates[j]) > key) {
+                candidates[j + 1] = candidates[j];
+                j--;
+            }
+            candidates[j + 1] = stop;
+        }
+    }
+}
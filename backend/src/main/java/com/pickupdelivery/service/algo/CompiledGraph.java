@@ -0,0 +1,377 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.model.Segment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Représentation compacte (CSR) du réseau routier, construite une seule fois par carte
+ *
+ * Les nœuds sont renumérotés selon une courbe de Hilbert sur (longitude, latitude) :
+ * deux intersections voisines sur le terrain obtiennent des indices proches, et leurs
+ * arcs sont rangés de manière contiguë dans les tableaux d'adjacence. Les relaxations
+ * de Dijkstra restent ainsi dans les mêmes lignes de cache au lieu de sauter d'un bout
+ * à l'autre de la mémoire comme avec l'ordre du fichier XML.
+ *
+ * IMPORTANT: comme l'ancienne liste d'adjacence, le graphe est NON-DIRIGÉ :
+ * chaque tronçon produit un arc dans chaque sens (avec un segment miroir pour le retour).
+ */
+public final class CompiledGraph {
+
+    /**
+     * Stratégie de numérotation des nœuds
+     */
+    public enum NodeOrdering {
+        /** Ordre d'apparition dans le fichier XML (comportement historique) */
+        INPUT,
+        /** Ordre de la courbe de Hilbert sur les coordonnées (localité mémoire) */
+        HILBERT
+    }
+
+    /** Résolution de la grille de Hilbert (2^16 cellules par axe) */
+    private static final int HILBERT_ORDER = 16;
+
+    private final CityMap source;
+    private final int sourceNodeCount;
+    private final int sourceSegmentCount;
+    private final NodeOrdering ordering;
+
+    private final String[] nodeIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final boolean[] declared;
+    private final Map<String, Integer> indexById;
+
+    // Adjacence CSR : les arcs du nœud v sont dans [firstArc[v], firstArc[v + 1])
+    private final int[] firstArc;
+    private final int[] arcHead;
+    private final double[] arcLength;
+    private final Segment[] arcSegment;
+
+    private CompiledGraph(CityMap source, NodeOrdering ordering, String[] nodeIds, double[] latitudes,
+                          double[] longitudes, boolean[] declared, Map<String, Integer> indexById,
+                          int[] firstArc, int[] arcHead, double[] arcLength, Segment[] arcSegment) {
+        this.source = source;
+        this.sourceNodeCount = source.getNodes() != null ? source.getNodes().size() : 0;
+        this.sourceSegmentCount = source.getSegments() != null ? source.getSegments().size() : 0;
+        this.ordering = ordering;
+        this.nodeIds = nodeIds;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.declared = declared;
+        this.indexById = indexById;
+        this.firstArc = firstArc;
+        this.arcHead = arcHead;
+        this.arcLength = arcLength;
+        this.arcSegment = arcSegment;
+    }
+
+    /**
+     * Compile une carte avec la numérotation de Hilbert (mode par défaut)
+     */
+    public static CompiledGraph compile(CityMap cityMap) {
+        return compile(cityMap, NodeOrdering.HILBERT);
+    }
+
+    /**
+     * Compile une carte en tableaux primitifs
+     *
+     * @param cityMap  La carte de la ville
+     * @param ordering La numérotation des nœuds à appliquer
+     * @return Le graphe compilé
+     */
+    public static CompiledGraph compile(CityMap cityMap, NodeOrdering ordering) {
+        if (cityMap == null) {
+            throw new IllegalArgumentException("La carte ne peut pas être null");
+        }
+
+        List<Node> nodes = cityMap.getNodes() != null ? cityMap.getNodes() : List.of();
+        List<Segment> segments = cityMap.getSegments() != null ? cityMap.getSegments() : List.of();
+
+        // 1️⃣ Collecter les nœuds dans l'ordre XML (les extrémités de tronçons inconnues sont
+        //    conservées, sans coordonnées, pour rester routables comme auparavant)
+        Map<String, Integer> inputIndex = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        List<double[]> coords = new ArrayList<>();
+        List<Boolean> declaredList = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node == null || node.getId() == null || inputIndex.containsKey(node.getId())) {
+                continue;
+            }
+            inputIndex.put(node.getId(), ids.size());
+            ids.add(node.getId());
+            coords.add(new double[] {node.getLatitude(), node.getLongitude()});
+            declaredList.add(Boolean.TRUE);
+        }
+        for (Segment segment : segments) {
+            for (String endpoint : new String[] {segment.getOrigin(), segment.getDestination()}) {
+                if (endpoint != null && !inputIndex.containsKey(endpoint)) {
+                    inputIndex.put(endpoint, ids.size());
+                    ids.add(endpoint);
+                    coords.add(new double[] {Double.NaN, Double.NaN});
+                    declaredList.add(Boolean.FALSE);
+                }
+            }
+        }
+
+        int n = ids.size();
+
+        // 2️⃣ Calculer la permutation : position → indice XML
+        int[] order = ordering == NodeOrdering.HILBERT ? hilbertOrder(coords) : identity(n);
+        int[] newIndexOf = new int[n];
+        for (int position = 0; position < n; position++) {
+            newIndexOf[order[position]] = position;
+        }
+
+        String[] nodeIds = new String[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        boolean[] declared = new boolean[n];
+        Map<String, Integer> indexById = new HashMap<>(n * 2);
+        for (int position = 0; position < n; position++) {
+            int input = order[position];
+            nodeIds[position] = ids.get(input);
+            latitudes[position] = coords.get(input)[0];
+            longitudes[position] = coords.get(input)[1];
+            declared[position] = declaredList.get(input);
+            indexById.put(nodeIds[position], position);
+        }
+
+        // 3️⃣ Construire l'adjacence CSR (deux arcs par tronçon)
+        int[] degree = new int[n + 1];
+        for (Segment segment : segments) {
+            if (segment.getOrigin() == null || segment.getDestination() == null) {
+                continue;
+            }
+            degree[newIndexOf[inputIndex.get(segment.getOrigin())]]++;
+            degree[newIndexOf[inputIndex.get(segment.getDestination())]]++;
+        }
+
+        int[] firstArc = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            firstArc[v + 1] = firstArc[v] + degree[v];
+        }
+
+        int arcCount = firstArc[n];
+        int[] arcHead = new int[arcCount];
+        double[] arcLength = new double[arcCount];
+        Segment[] arcSegment = new Segment[arcCount];
+        int[] cursor = Arrays.copyOf(firstArc, n);
+
+        for (Segment segment : segments) {
+            if (segment.getOrigin() == null || segment.getDestination() == null) {
+                continue;
+            }
+            int origin = newIndexOf[inputIndex.get(segment.getOrigin())];
+            int destination = newIndexOf[inputIndex.get(segment.getDestination())];
+
+            // Direction origine → destination (segment tel quel)
+            int arc = cursor[origin]++;
+            arcHead[arc] = destination;
+            arcLength[arc] = segment.getLength();
+            arcSegment[arc] = segment;
+
+            // Direction inverse: segment miroir pour que origin/destination reflètent le sens parcouru
+            arc = cursor[destination]++;
+            arcHead[arc] = origin;
+            arcLength[arc] = segment.getLength();
+            arcSegment[arc] = new Segment(segment.getDestination(), segment.getOrigin(),
+                                          segment.getLength(), segment.getName());
+        }
+
+        // 4️⃣ Trier les arcs de chaque nœud par tête croissante (accès mémoire séquentiels)
+        for (int v = 0; v < n; v++) {
+            sortArcs(firstArc[v], firstArc[v + 1], arcHead, arcLength, arcSegment);
+        }
+
+        return new CompiledGraph(cityMap, ordering, nodeIds, latitudes, longitudes, declared,
+                                 indexById, firstArc, arcHead, arcLength, arcSegment);
+    }
+
+    /**
+     * Vérifie que ce graphe compilé correspond toujours à la carte donnée
+     * (même instance, même nombre de nœuds et de tronçons)
+     */
+    public boolean isCompiledFrom(CityMap cityMap) {
+        return cityMap == source
+                && sourceNodeCount == (cityMap.getNodes() != null ? cityMap.getNodes().size() : 0)
+                && sourceSegmentCount == (cityMap.getSegments() != null ? cityMap.getSegments().size() : 0);
+    }
+
+    /**
+     * Crée un espace de travail Dijkstra dédié (non partagé entre threads)
+     */
+    public DijkstraSearch newSearch() {
+        return new DijkstraSearch(this);
+    }
+
+    /**
+     * @return L'indice compilé du nœud, ou -1 s'il est inconnu
+     */
+    public int indexOf(String nodeId) {
+        Integer index = nodeId != null ? indexById.get(nodeId) : null;
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return true si le nœud figure dans la liste des nœuds de la carte
+     */
+    public boolean isDeclared(String nodeId) {
+        int index = indexOf(nodeId);
+        return index >= 0 && declared[index];
+    }
+
+    public String nodeId(int index) {
+        return nodeIds[index];
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int arcCount() {
+        return arcHead.length;
+    }
+
+    public NodeOrdering getOrdering() {
+        return ordering;
+    }
+
+    int firstArc(int node) {
+        return firstArc[node];
+    }
+
+    int endArc(int node) {
+        return firstArc[node + 1];
+    }
+
+    int arcHead(int arc) {
+        return arcHead[arc];
+    }
+
+    double arcLength(int arc) {
+        return arcLength[arc];
+    }
+
+    Segment arcSegment(int arc) {
+        return arcSegment[arc];
+    }
+
+    // =========================================================================
+    // COURBE DE HILBERT
+    // =========================================================================
+
+    /**
+     * Trie les nœuds selon leur position sur la courbe de Hilbert
+     * Les nœuds sans coordonnées sont placés à la fin, dans l'ordre XML
+     */
+    private static int[] hilbertOrder(List<double[]> coords) {
+        int n = coords.size();
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+        for (double[] c : coords) {
+            if (Double.isNaN(c[0]) || Double.isNaN(c[1])) {
+                continue;
+            }
+            minLat = Math.min(minLat, c[0]);
+            maxLat = Math.max(maxLat, c[0]);
+            minLon = Math.min(minLon, c[1]);
+            maxLon = Math.max(maxLon, c[1]);
+        }
+
+        int side = 1 << HILBERT_ORDER;
+        double latSpan = Math.max(maxLat - minLat, 1e-12);
+        double lonSpan = Math.max(maxLon - minLon, 1e-12);
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            double[] c = coords.get(i);
+            if (Double.isNaN(c[0]) || Double.isNaN(c[1])) {
+                keys[i] = Long.MAX_VALUE;
+                continue;
+            }
+            int x = (int) Math.min(side - 1, (c[1] - minLon) / lonSpan * (side - 1));
+            int y = (int) Math.min(side - 1, (c[0] - minLat) / latSpan * (side - 1));
+            keys[i] = hilbertIndex(side, x, y);
+        }
+
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        // Tri stable : à clé égale, l'ordre XML est conservé
+        Arrays.sort(boxed, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Position d'une cellule (x, y) sur la courbe de Hilbert d'une grille side × side
+     */
+    static long hilbertIndex(int side, int x, int y) {
+        long d = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // Rotation du quadrant
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Tri par insertion des arcs d'un nœud (degrés faibles sur un réseau routier)
+     */
+    private static void sortArcs(int from, int to, int[] head, double[] length, Segment[] segment) {
+        for (int i = from + 1; i < to; i++) {
+            int h = head[i];
+            double l = length[i];
+            Segment s = segment[i];
+            int j = i - 1;
+            while (j >= from && head[j] > h) {
+                head[j + 1] = head[j];
+                length[j + 1] = length[j];
+                segment[j + 1] = segment[j];
+                j--;
+            }
+            head[j + 1] = h;
+            length[j + 1] = l;
+            segment[j + 1] = s;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Échéance "horloge murale" partagée par les phases d'optimisation
+ *
+ * Les optimiseurs "anytime" la consultent entre deux itérations et rendent
+ * leur meilleure solution dès qu'elle est dépassée. Une échéance peut aussi être
+ * annulée (client déconnecté, demande d'annulation) : elle est alors considérée
+ * comme expirée, ainsi que toutes les sous-échéances créées par {@link #within(long)}.
+ */
+public final class Deadline {
+
+    private final long startNanos;
+    private final long budgetNanos;
+    private final Deadline parent;
+    private volatile boolean cancelled;
+
+    private Deadline(long budgetMillis, Deadline parent) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.parent = parent;
+    }
+
+    /**
+     * @param budgetMillis Budget en millisecondes à partir de maintenant (≤ 0 : déjà expirée)
+     */
+    public static Deadline in(long budgetMillis) {
+        return new Deadline(Math.max(0, budgetMillis), null);
+    }
+
+    /**
+     * Échéance sans limite de temps (les optimiseurs s'arrêtent sur leurs autres critères)
+     */
+    public static Deadline none() {
+        return new Deadline(Long.MAX_VALUE / 1_000_000L, null);
+    }
+
+    /**
+     * Sous-échéance d'une phase : expire après son propre budget, à l'expiration
+     * de cette échéance ou à son annulation (le premier des trois)
+     *
+     * @param budgetMillis Budget de la phase en millisecondes
+     */
+    public Deadline within(long budgetMillis) {
+        return new Deadline(Math.max(0, Math.min(budgetMillis, remainingMillis())), this);
+    }
+
+    /**
+     * Annule l'échéance : les phases en cours s'arrêtent à leur prochain point de contrôle
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    public boolean isExpired() {
+        return isCancelled() || System.nanoTime() - startNanos >= budgetNanos
+            || (parent != null && parent.isExpired());
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    public long remainingMillis() {
+        if (isCancelled()) {
+            return 0;
+        }
+        long remaining = Math.max(0, (budgetNanos - (System.nanoTime() - startNanos)) / 1_000_000L);
+        return parent != null ? Math.min(remaining, parent.remainingMillis()) : remaining;
+    }
+}
@@ -0,0 +1,116 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Calcul par lots des surcoûts d'insertion d'un stop x dans les intervalles d'une tournée
+ *
+ * Pour chaque intervalle p (entre les stops prev_p et next_p), le surcoût est
+ * d(prev_p, x) + d(x, next_p) - d(prev_p, next_p). Les trois distances sont d'abord
+ * rassemblées dans des tableaux contigus ({@link #gather}), puis le noyau calcule tous les
+ * surcoûts d'un coup :
+ * - scalaire : noyau utilisé par l'algorithme, boucle que le JIT (C2) peut vectoriser lui-même
+ * - vectoriel (API Vector, module incubateur jdk.incubator.vector) lorsque la JVM est lancée
+ *   avec --add-modules jdk.incubator.vector, avec exactement les mêmes opérations (mêmes
+ *   résultats au bit près). Il ne bat pas la boucle scalaire de façon stable sur des lots de
+ *   8 à 512 intervalles (banc d'essai de DetourKernelTest) : il n'est donc pas préféré.
+ *
+ * Un surcoût vaut +∞ ou NaN si l'un des trajets manque, comme le calcul scalaire d'origine.
+ */
+public abstract class DetourKernel {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.pickupdelivery.service.algo.VectorDetourKernel";
+
+    private static final DetourKernel SCALAR = new ScalarDetourKernel();
+    private static final DetourKernel VECTOR = loadVector();
+
+    /**
+     * @return Le noyau utilisé par l'algorithme (le noyau scalaire, voir la doc de la classe)
+     */
+    public static DetourKernel preferred() {
+        return SCALAR;
+    }
+
+    /**
+     * @return Le noyau scalaire (repli, et référence des tests)
+     */
+    public static DetourKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return Le noyau vectoriel, ou null si le module n'est pas chargé (banc d'essai)
+     */
+    static DetourKernel vector() {
+        return VECTOR;
+    }
+
+    /**
+     * out[p] = toStop[p] + fromStop[p] - direct[p] pour p ∈ [0, count)
+     */
+    public abstract void detours(double[] toStop, double[] fromStop, double[] direct, double[] out, int count);
+
+    /**
+     * @return Le nom du noyau (journaux, banc d'essai)
+     */
+    public abstract String name();
+
+    /**
+     * Rassemble les distances des intervalles d'une tournée autour du stop x
+     *
+     * L'intervalle p ∈ [0, longueur] précède la position p (entrepôt avant le premier stop
+     * et après le dernier).
+     *
+     * @param toStop   Reçoit d(prev_p, x)
+     * @param fromStop Reçoit d(x, next_p)
+     * @param direct   Reçoit d(prev_p, next_p), ou null s'il est déjà rempli pour cette tournée
+     * @return Le nombre d'intervalles (longueur + 1)
+     */
+    public static int gather(Solution solution, int route, int x,
+                             double[] toStop, double[] fromStop, double[] direct) {
+        StopMatrix matrix = solution.getMatrix();
+        int length = solution.routeLength(route);
+        int previous = StopMatrix.DEPOT;
+        for (int p = 0; p <= length; p++) {
+            int next = p < length ? solution.stopAt(route, p) : StopMatrix.DEPOT;
+            toStop[p] = matrix.distance(previous, x);
+            fromStop[p] = matrix.distance(x, next);
+            if (direct != null) {
+                direct[p] = matrix.distance(previous, next);
+            }
+            previous = next;
+        }
+        return length + 1;
+    }
+
+    /**
+     * Noyau vectoriel chargé par réflexion : sa classe n'est liée que si le module est présent
+     */
+    private static DetourKernel loadVector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (DetourKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Boucle scalaire de référence
+     */
+    private static final class ScalarDetourKernel extends DetourKernel {
+
+        @Override
+        public void detours(double[] toStop, double[] fromStop, double[] direct, double[] out, int count) {
+            for (int p = 0; p < count; p++) {
+                out[p] = toStop[p] + fromStop[p] - direct[p];
+            }
+        }
+
+        @Override
+        public String name() {
+            return "scalaire";
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.Segment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Espace de travail Dijkstra réutilisable sur un {@link CompiledGraph}
+ *
+ * Toutes les structures sont des tableaux primitifs indexés par nœud compilé ;
+ * un compteur de génération évite de les réinitialiser entre deux recherches.
+ * Une instance n'est PAS thread-safe : créer une recherche par thread.
+ */
+public final class DijkstraSearch {
+
+    private final CompiledGraph graph;
+
+    private final double[] dist;
+    private final int[] predArc;
+    private final int[] predNode;
+    private final int[] reachedStamp;
+    private final int[] settledStamp;
+    private final int[] targetStamp;
+    private int generation;
+
+    // Tas binaire (insertion paresseuse : les entrées obsolètes sont ignorées au pop)
+    private double[] heapKey = new double[64];
+    private int[] heapNode = new int[64];
+    private int heapSize;
+
+    private int source = -1;
+    private int settledCount;
+
+    DijkstraSearch(CompiledGraph graph) {
+        this.graph = graph;
+        int n = graph.nodeCount();
+        this.dist = new double[n];
+        this.predArc = new int[n];
+        this.predNode = new int[n];
+        this.reachedStamp = new int[n];
+        this.settledStamp = new int[n];
+        this.targetStamp = new int[n];
+    }
+
+    /**
+     * Calcule l'arbre complet des plus courts chemins depuis la source
+     */
+    public void run(int source) {
+        run(source, null);
+    }
+
+    /**
+     * Calcule les plus courts chemins depuis la source, en s'arrêtant dès que
+     * toutes les cibles sont fixées (recherche "un vers plusieurs")
+     *
+     * @param source  Indice compilé du nœud de départ
+     * @param targets Indices compilés des cibles, ou null pour l'arbre complet
+     */
+    public void run(int source, int[] targets) {
+        nextGeneration();
+        this.source = source;
+        this.settledCount = 0;
+        this.heapSize = 0;
+
+        int remainingTargets = Integer.MAX_VALUE;
+        if (targets != null) {
+            remainingTargets = 0;
+            for (int target : targets) {
+                if (target >= 0 && targetStamp[target] != generation) {
+                    targetStamp[target] = generation;
+                    remainingTargets++;
+                }
+            }
+            if (remainingTargets == 0) {
+                remainingTargets = Integer.MAX_VALUE;
+            }
+        }
+
+        dist[source] = 0.0;
+        predArc[source] = -1;
+        reachedStamp[source] = generation;
+        push(0.0, source);
+
+        while (heapSize > 0) {
+            double d = heapKey[0];
+            int u = pop();
+            if (settledStamp[u] == generation || d > dist[u]) {
+                continue; // Entrée obsolète
+            }
+            settledStamp[u] = generation;
+            settledCount++;
+
+            if (targetStamp[u] == generation && --remainingTargets == 0) {
+                break; // Toutes les cibles sont atteintes
+            }
+
+            for (int arc = graph.firstArc(u), end = graph.endArc(u); arc < end; arc++) {
+                int v = graph.arcHead(arc);
+                if (settledStamp[v] == generation) {
+                    continue;
+                }
+                double candidate = d + graph.arcLength(arc);
+                if (reachedStamp[v] != generation || candidate < dist[v]) {
+                    reachedStamp[v] = generation;
+                    dist[v] = candidate;
+                    predArc[v] = arc;
+                    predNode[v] = u;
+                    push(candidate, v);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return La distance définitive vers le nœud, ou +∞ s'il n'a pas été fixé
+     */
+    public double distanceTo(int node) {
+        return node >= 0 && settledStamp[node] == generation ? dist[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Copie les distances définitives de tous les nœuds (+∞ pour les nœuds non fixés)
+     * Utile pour conserver un arbre complet au-delà de la prochaine recherche
+     */
+    public double[] copyDistances() {
+        double[] copy = new double[dist.length];
+        for (int v = 0; v < copy.length; v++) {
+            copy[v] = settledStamp[v] == generation ? dist[v] : Double.POSITIVE_INFINITY;
+        }
+        return copy;
+    }
+
+    /**
+     * Reconstruit la liste ordonnée des segments de la source vers le nœud
+     *
+     * @return Les segments du chemin, ou une liste vide si le nœud n'a pas été fixé
+     */
+    public List<Segment> pathTo(int node) {
+        if (node < 0 || settledStamp[node] != generation) {
+            return new ArrayList<>();
+        }
+        List<Segment> path = new ArrayList<>();
+        int current = node;
+        while (current != source) {
+            path.add(graph.arcSegment(predArc[current]));
+            current = predNode[current];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return Le nombre de nœuds fixés par la dernière recherche
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    public CompiledGraph getGraph() {
+        return graph;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Débordement du compteur : remise à zéro explicite des tampons
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(settledStamp, 0);
+            Arrays.fill(targetStamp, 0);
+            generation = 1;
+        }
+    }
+
+    private void push(double key, int node) {
+        if (heapSize == heapKey.length) {
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKey[parent] <= key) {
+                break;
+            }
+            heapKey[i] = heapKey[parent];
+            heapNode[i] = heapNode[parent];
+            i = parent;
+        }
+        heapKey[i] = key;
+        heapNode[i] = node;
+    }
+
+    private int pop() {
+        int top = heapNode[0];
+        heapSize--;
+        if (heapSize > 0) {
+            double key = heapKey[heapSize];
+            int node = heapNode[heapSize];
+            int i = 0;
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                    child++;
+                }
+                if (key <= heapKey[child]) {
+                    break;
+                }
+                heapKey[i] = heapKey[child];
+                heapNode[i] = heapNode[child];
+                i = child;
+            }
+            heapKey[i] = key;
+            heapNode[i] = node;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,166 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.Arrays;
+
+/**
+ * Solveur exact d'une tournée pickup & delivery par programmation dynamique (Held–Karp)
+ *
+ * État : (ensemble des stops visités, dernier stop visité) → distance minimale depuis
+ * l'entrepôt. Les états violant la précédence (delivery sans son pickup) ne sont jamais
+ * créés. Tout est stocké dans des tableaux primitifs indexés par masque de bits :
+ * le pickup de la demande r occupe le bit 2r, sa delivery le bit 2r+1.
+ *
+ * Complexité O(2^(2n) · (2n)²) en temps et O(2^(2n) · 2n) en mémoire : réservé aux
+ * petites instances ({@link #MAX_REQUESTS} demandes au plus).
+ */
+public final class ExactPdpSolver {
+
+    /** Nombre maximal de demandes (2^18 × 18 états, ≈ 40 Mo) */
+    public static final int MAX_REQUESTS = 9;
+
+    /** Fréquence (en masques) de consultation de l'échéance */
+    private static final int DEADLINE_CHECK_INTERVAL = 4096;
+
+    /** Bits des pickups dans un masque (bits pairs) */
+    private static final int PICKUP_BITS = 0x55555555;
+
+    private final StopMatrix matrix;
+    private long exploredStates;
+    private boolean interrupted;
+
+    public ExactPdpSolver(StopMatrix matrix) {
+        if (matrix.requestCount() > MAX_REQUESTS) {
+            throw new IllegalArgumentException("Trop de demandes pour le solveur exact: "
+                + matrix.requestCount() + " (maximum " + MAX_REQUESTS + ")");
+        }
+        this.matrix = matrix;
+    }
+
+    /**
+     * Calcule la tournée unique de distance minimale visitant toutes les demandes
+     *
+     * @param upperBound Distance d'une solution connue (élagage), ou +∞
+     * @return Les indices de la tournée optimale (sans l'entrepôt), un tableau vide s'il n'y a
+     *         aucune demande, ou null si aucune tournée ne fait mieux que la borne
+     */
+    public int[] solve(double upperBound) {
+        return solve(upperBound, Deadline.none());
+    }
+
+    /**
+     * Comme {@link #solve(double)}, interrompu (résultat null) si l'échéance est dépassée
+     *
+     * @param upperBound Distance d'une solution connue (élagage), ou +∞
+     * @param deadline   Échéance horloge murale
+     * @return La tournée optimale, ou null si aucune ne bat la borne ou si le calcul est interrompu
+     */
+    public int[] solve(double upperBound, Deadline deadline) {
+        int stopCount = 2 * matrix.requestCount();
+        exploredStates = 0;
+        interrupted = false;
+        if (stopCount == 0) {
+            return new int[0];
+        }
+
+        int full = (1 << stopCount) - 1;
+        double[] cost = new double[(full + 1) * stopCount];
+        byte[] parent = new byte[(full + 1) * stopCount];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+
+        // Distances au départ/retour de l'entrepôt et entre stops (bit b ↔ stop b+1)
+        double[] fromDepot = new double[stopCount];
+        double[] toDepot = new double[stopCount];
+        double[] between = new double[stopCount * stopCount];
+        for (int a = 0; a < stopCount; a++) {
+            fromDepot[a] = matrix.distance(StopMatrix.DEPOT, a + 1);
+            toDepot[a] = matrix.distance(a + 1, StopMatrix.DEPOT);
+            for (int b = 0; b < stopCount; b++) {
+                between[a * stopCount + b] = matrix.distance(a + 1, b + 1);
+            }
+        }
+
+        // Une tournée commence forcément par un pickup
+        for (int bit = 0; bit < stopCount; bit += 2) {
+            if (fromDepot[bit] + toDepot[bit] <= upperBound) {
+                cost[(1 << bit) * stopCount + bit] = fromDepot[bit];
+                parent[(1 << bit) * stopCount + bit] = -1;
+            }
+        }
+
+        for (int mask = 1; mask < full; mask++) {
+            if (mask % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+                interrupted = true;
+                return null;
+            }
+            int pickups = mask & PICKUP_BITS;
+            if (((mask & ~PICKUP_BITS) >>> 1 & ~pickups) != 0) {
+                continue; // Une delivery sans son pickup : état impossible
+            }
+            for (int last = 0; last < stopCount; last++) {
+                double current = cost[mask * stopCount + last];
+                if (current == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                exploredStates++;
+                for (int next = 0; next < stopCount; next++) {
+                    int bit = 1 << next;
+                    if ((mask & bit) != 0) {
+                        continue;
+                    }
+                    if ((next & 1) == 1 && (mask & (1 << (next - 1))) == 0) {
+                        continue; // Précédence : delivery avant son pickup
+                    }
+                    double candidate = current + between[last * stopCount + next];
+                    // Par inégalité triangulaire, le retour coûte au moins next → entrepôt
+                    if (candidate + toDepot[next] > upperBound) {
+                        continue;
+                    }
+                    int cell = (mask | bit) * stopCount + next;
+                    if (candidate < cost[cell]) {
+                        cost[cell] = candidate;
+                        parent[cell] = (byte) last;
+                    }
+                }
+            }
+        }
+
+        int bestLast = -1;
+        double bestCost = upperBound;
+        for (int last = 0; last < stopCount; last++) {
+            double total = cost[full * stopCount + last] + toDepot[last];
+            if (total < bestCost) {
+                bestCost = total;
+                bestLast = last;
+            }
+        }
+        if (bestLast < 0) {
+            return null;
+        }
+
+        // Remontée des parents
+        int[] route = new int[stopCount];
+        int mask = full;
+        int last = bestLast;
+        for (int position = stopCount - 1; position >= 0; position--) {
+            route[position] = last + 1;
+            int previous = parent[mask * stopCount + last];
+            mask &= ~(1 << last);
+            last = previous;
+        }
+        return route;
+    }
+
+    /**
+     * @return Le nombre d'états (masque, dernier stop) développés par le dernier calcul
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * @return true si le dernier calcul a été interrompu par l'échéance
+     */
+    public boolean isInterrupted() {
+        return interrupted;
+    }
+}
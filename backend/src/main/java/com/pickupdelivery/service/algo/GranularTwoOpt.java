@@ -0,0 +1,223 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * 2-opt granulaire d'une tournée pickup & delivery, avec bits "don't look"
+ *
+ * Un mouvement inverse le segment s[i..k] de la tournée (entrepôt aux deux extrémités) : les
+ * arcs (a, b) et (c, d) sont remplacés par (a, c) et (b, d). Seuls les mouvements créant un arc
+ * vers un voisin proche sont évalués (voir {@link NeighbourLists}) :
+ * - x = a : c parcourt les voisins de x
+ * - x = d : b parcourt les voisins de x
+ *
+ * Chaque évaluation est en O(1) :
+ * - distance : sommes préfixes des distances dans les deux sens de parcours (la matrice n'est
+ *   pas forcément symétrique, le segment inversé est parcouru à rebours)
+ * - précédence : le segment ne doit contenir aucune demande complète, soit k < limite[i], où
+ *   limite[i] est la plus petite position de delivery dont le pickup est en position ≥ i
+ *
+ * Bits "don't look" : un stop sans mouvement améliorant n'est plus examiné tant qu'aucune de
+ * ses arêtes n'a changé ; les extrémités des arcs modifiés sont réactivées. Les temps de service
+ * ne changent pas : une tournée plus courte reste sous la limite de durée.
+ *
+ * Avec des fenêtres horaires ou une capacité, un mouvement améliorant n'est appliqué que s'il
+ * les respecte sans rentrer plus tard (voir {@link TwoOptConstraints} : segment inversé en
+ * O(k - i), suite de la tournée en O(1) par les marges avant).
+ *
+ * Complexité : O(n·k) évaluations par passage, O(n) par mouvement appliqué.
+ */
+public final class GranularTwoOpt {
+
+    private static final double EPSILON = 1e-9;
+
+    private final StopMatrix matrix;
+    private final NeighbourLists neighbours;
+
+    private int moves;
+    private long evaluations;
+    private TwoOptConstraints constraints;
+
+    /**
+     * @param matrix     La matrice des stops
+     * @param neighbours Les listes de candidats de la matrice
+     */
+    public GranularTwoOpt(StopMatrix matrix, NeighbourLists neighbours) {
+        this.matrix = matrix;
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * Améliore une tournée jusqu'à l'optimum local granulaire ou l'échéance
+     *
+     * @param route    Indices de la tournée sans l'entrepôt, précédence respectée (non modifiée)
+     * @param deadline Échéance consultée avant chaque stop examiné
+     * @return La tournée améliorée (toujours valide)
+     */
+    public int[] optimize(int[] route, Deadline deadline) {
+        moves = 0;
+        evaluations = 0;
+        int length = route.length;
+        if (length < 2) {
+            return route.clone();
+        }
+
+        // Séquence étendue : entrepôt en 0 et en length + 1
+        int[] sequence = new int[length + 2];
+        System.arraycopy(route, 0, sequence, 1, length);
+        sequence[0] = StopMatrix.DEPOT;
+        sequence[length + 1] = StopMatrix.DEPOT;
+
+        int[] position = new int[matrix.size()];
+        double[] forward = new double[length + 2];
+        double[] backward = new double[length + 2];
+        int[] limit = new int[length + 2];
+        constraints = new TwoOptConstraints(matrix, length + 2);
+        refresh(sequence, position, forward, backward, limit);
+
+        // File des stops actifs (bits "don't look" à faux), entrepôt compris
+        int[] queue = new int[matrix.size()];
+        boolean[] queued = new boolean[matrix.size()];
+        int head = 0;
+        int size = 0;
+        for (int p = 0; p <= length; p++) {
+            int stop = sequence[p];
+            queue[(head + size++) % queue.length] = stop;
+            queued[stop] = true;
+        }
+
+        while (size > 0 && !deadline.isExpired()) {
+            int x = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            queued[x] = false;
+
+            int[] move = findImprovingMove(x, sequence, position, forward, backward, limit);
+            if (move == null) {
+                continue; // Bit "don't look" levé
+            }
+            int i = move[0];
+            int k = move[1];
+            int[] touched = {sequence[i - 1], sequence[i], sequence[k], sequence[k + 1]};
+            TwoOptSequence.reverse(sequence, i, k);
+            refresh(sequence, position, forward, backward, limit);
+            moves++;
+
+            for (int stop : touched) {
+                if (!queued[stop]) {
+                    queue[(head + size++) % queue.length] = stop;
+                    queued[stop] = true;
+                }
+            }
+        }
+
+        int[] result = new int[length];
+        System.arraycopy(sequence, 1, result, 0, length);
+        return result;
+    }
+
+    /**
+     * Applique {@link #optimize} à chaque tournée de la solution (modifiée en place)
+     *
+     * @return Le nombre de tournées raccourcies
+     */
+    public int improve(Solution solution, Deadline deadline) {
+        int improvedRoutes = 0;
+        int totalMoves = 0;
+        long totalEvaluations = 0;
+        for (int k = 0; k < solution.routeCount() && !deadline.isExpired(); k++) {
+            if (solution.routeLength(k) < 2) {
+                continue;
+            }
+            int[] original = solution.route(k);
+            double before = solution.routeDistance(k);
+            int[] optimized = optimize(original, deadline);
+            totalMoves += moves;
+            totalEvaluations += evaluations;
+            solution.setRoute(k, optimized);
+            if (solution.routeDistance(k) < before - EPSILON) {
+                improvedRoutes++;
+            } else {
+                solution.setRoute(k, original);
+            }
+        }
+        moves = totalMoves;
+        evaluations = totalEvaluations;
+        return improvedRoutes;
+    }
+
+    /**
+     * @return Le nombre de mouvements appliqués par le dernier appel
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return Le nombre de mouvements évalués par le dernier appel
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Premier mouvement améliorant créant un arc entre x et l'un de ses voisins
+     *
+     * @return {i, k} (segment à inverser), ou null
+     */
+    private int[] findImprovingMove(int x, int[] sequence, int[] position,
+                                    double[] forward, double[] backward, int[] limit) {
+        int last = sequence.length - 2;
+        int count = neighbours.count(x);
+
+        // x = a (position i - 1), nouvel arc (x, c)
+        int from = x == StopMatrix.DEPOT ? 0 : position[x];
+        if (from < last) {
+            int i = from + 1;
+            for (int rank = 0; rank < count; rank++) {
+                int k = position[neighbours.neighbour(x, rank)];
+                if (k > i && k < limit[i] && improves(sequence, forward, backward, i, k)
+                        && respectsConstraints(sequence, i, k)) {
+                    return new int[] {i, k};
+                }
+            }
+        }
+
+        // x = d (position k + 1), nouvel arc (b, x)
+        int to = x == StopMatrix.DEPOT ? last + 1 : position[x];
+        if (to > 1) {
+            int k = to - 1;
+            for (int rank = 0; rank < count; rank++) {
+                int i = position[neighbours.neighbour(x, rank)];
+                if (i >= 1 && i < k && k < limit[i] && improves(sequence, forward, backward, i, k)
+                        && respectsConstraints(sequence, i, k)) {
+                    return new int[] {i, k};
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean improves(int[] sequence, double[] forward, double[] backward, int i, int k) {
+        evaluations++;
+        int a = sequence[i - 1];
+        int b = sequence[i];
+        int c = sequence[k];
+        int d = sequence[k + 1];
+        double removed = matrix.distance(a, b) + forward[k] - forward[i] + matrix.distance(c, d);
+        double added = matrix.distance(a, c) + backward[k] - backward[i] + matrix.distance(b, d);
+        return added - removed < -EPSILON; // Faux si NaN (trajets manquants)
+    }
+
+    private boolean respectsConstraints(int[] sequence, int i, int k) {
+        return !constraints.isActive() || constraints.allows(sequence, i, k);
+    }
+
+    /**
+     * Positions, sommes préfixes, limites de précédence, planning et charges de la séquence
+     */
+    private void refresh(int[] sequence, int[] position, double[] forward, double[] backward, int[] limit) {
+        TwoOptSequence.refresh(matrix, sequence, position, forward, backward, limit);
+        if (constraints.isActive()) {
+            constraints.refresh(sequence);
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Recherche locale entre tournées : déplace et échange des demandes entre coursiers
+ *
+ * Trois voisinages, parcourus en "meilleure amélioration" jusqu'à ce qu'aucun ne progresse :
+ * - Relocalisation : une demande (pickup + delivery) quitte sa tournée pour sa meilleure
+ *   insertion dans une autre
+ * - Échange : deux demandes de tournées différentes prennent chacune les emplacements de l'autre
+ * - Échange de queues (cross-exchange / 2-opt*) : deux tournées échangent leurs fins, coupées
+ *   à des positions où aucune demande n'est en cours (pickup sans sa delivery)
+ *
+ * Chaque mouvement est évalué en O(1) (arcs modifiés seulement, sommes préfixes de distance et
+ * de service pour les queues) et n'est retenu que si les deux tournées restent sous la limite
+ * de durée. Le coût minimisé est la distance cumulée plus un terme d'équilibrage :
+ * balanceWeight × Σ (durée en heures)², qui favorise le transfert de travail d'un coursier
+ * chargé vers un coursier peu chargé à distance presque égale.
+ *
+ * Avec des fenêtres horaires ou une capacité, la relocalisation vérifie l'insertion par les
+ * tableaux de la solution (marges avant, charges) ; un échange ou un échange de queues est
+ * appliqué puis annulé si l'une des deux tournées devient infaisable.
+ */
+public final class InterRouteSearch {
+
+    private static final double EPSILON = 1e-6;
+
+    private final StopMatrix matrix;
+    private final double timeLimitSec;
+    private final double balanceWeight;
+
+    // Tableaux de travail des surcoûts par intervalle (voir DetourKernel)
+    private final DetourKernel kernel = DetourKernel.preferred();
+    private double[] direct;
+    private double[] toPickup;
+    private double[] fromPickup;
+    private double[] toDelivery;
+    private double[] fromDelivery;
+    private double[] pickupDetours;
+    private double[] deliveryDetours;
+
+    private int relocations;
+    private int swaps;
+    private int crossExchanges;
+
+    /**
+     * @param matrix        La matrice des stops
+     * @param timeLimitSec  Durée maximale d'une tournée en secondes
+     * @param balanceWeight Poids de l'équilibrage, en mètres par heure² (0 : distance seule)
+     */
+    public InterRouteSearch(StopMatrix matrix, double timeLimitSec, double balanceWeight) {
+        this.matrix = matrix;
+        this.timeLimitSec = timeLimitSec;
+        this.balanceWeight = balanceWeight;
+    }
+
+    /**
+     * Applique les trois voisinages jusqu'à stabilité, à l'échéance ou après maxRounds passages
+     *
+     * @param initial   Solution valide de départ (non modifiée)
+     * @param deadline  Échéance horloge murale
+     * @param maxRounds Nombre maximal de passages sur les trois voisinages
+     * @return La solution améliorée (mêmes demandes assignées, toutes les tournées sous la limite)
+     */
+    public Solution optimize(Solution initial, Deadline deadline, int maxRounds) {
+        relocations = 0;
+        swaps = 0;
+        crossExchanges = 0;
+        Solution solution = initial.copy();
+
+        for (int round = 0; round < maxRounds && !deadline.isExpired(); round++) {
+            boolean improved = relocatePass(solution, deadline);
+            improved |= swapPass(solution, deadline);
+            improved |= crossExchangePass(solution, deadline);
+            if (!improved) {
+                break;
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * Coût minimisé : distance cumulée + balanceWeight × Σ (durée en heures)²
+     */
+    public double cost(Solution solution) {
+        double cost = solution.totalDistance();
+        for (int k = 0; k < solution.routeCount(); k++) {
+            cost += balanceWeight * squaredHours(solution.routeDuration(k));
+        }
+        return cost;
+    }
+
+    public int getRelocations() {
+        return relocations;
+    }
+
+    public int getSwaps() {
+        return swaps;
+    }
+
+    public int getCrossExchanges() {
+        return crossExchanges;
+    }
+
+    // =========================================================================
+    // RELOCALISATION D'UNE DEMANDE
+    // =========================================================================
+
+    private boolean relocatePass(Solution solution, Deadline deadline) {
+        boolean improved = false;
+        double speed = matrix.getSpeedMs();
+        for (int request = 0; request < matrix.requestCount() && !deadline.isExpired(); request++) {
+            int from = solution.routeOf(request);
+            if (from < 0) {
+                continue;
+            }
+            int pickup = StopMatrix.pickupOf(request);
+            int delivery = StopMatrix.deliveryOf(request);
+            double service = matrix.serviceSec(pickup) + matrix.serviceSec(delivery);
+            double removal = -solution.removalDistanceDelta(request);
+            double fromDuration = solution.routeDuration(from) + solution.removalDurationDelta(request);
+
+            double bestDelta = -EPSILON;
+            int bestRoute = -1;
+            int bestPickupGap = -1;
+            int bestDeliveryGap = -1;
+            boolean emptyTried = false;
+            for (int to = 0; to < solution.routeCount(); to++) {
+                if (to == from) {
+                    continue;
+                }
+                if (solution.routeLength(to) == 0) {
+                    if (emptyTried) {
+                        continue; // Toutes les tournées vides sont équivalentes
+                    }
+                    emptyTried = true;
+                }
+                Insertion insertion = bestInsertion(solution, to, pickup, delivery);
+                if (insertion == null) {
+                    continue;
+                }
+                double toDuration = solution.routeDuration(to) + insertion.delta() / speed + service;
+                boolean fits = matrix.hasSideConstraints()
+                    ? solution.isInsertionFeasible(request, to, insertion.pickupGap(), insertion.deliveryGap(), timeLimitSec)
+                    : toDuration <= timeLimitSec;
+                if (!fits) {
+                    continue;
+                }
+                double delta = insertion.delta() - removal
+                    + balanceDelta(solution.routeDuration(from), solution.routeDuration(to), fromDuration, toDuration);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestRoute = to;
+                    bestPickupGap = insertion.pickupGap();
+                    bestDeliveryGap = insertion.deliveryGap();
+                }
+            }
+
+            if (bestRoute >= 0) {
+                solution.removeRequest(request);
+                solution.insertRequest(request, bestRoute, bestPickupGap, bestDeliveryGap);
+                relocations++;
+                improved = true;
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Meilleure insertion d'une demande dans une tournée, en O(longueur) : les détours de tous
+     * les intervalles sont calculés par lots (voir {@link DetourKernel}), puis le meilleur détour
+     * du pickup sur les positions précédentes est tenu à jour pendant le parcours des positions
+     * de la delivery
+     *
+     * @return L'insertion, ou null si aucun trajet n'existe
+     */
+    private Insertion bestInsertion(Solution solution, int route, int pickup, int delivery) {
+        int length = solution.routeLength(route);
+        if (direct == null) {
+            direct = new double[matrix.size()];
+            toPickup = new double[matrix.size()];
+            fromPickup = new double[matrix.size()];
+            toDelivery = new double[matrix.size()];
+            fromDelivery = new double[matrix.size()];
+            pickupDetours = new double[matrix.size()];
+            deliveryDetours = new double[matrix.size()];
+        }
+        int gaps = DetourKernel.gather(solution, route, pickup, toPickup, fromPickup, direct);
+        DetourKernel.gather(solution, route, delivery, toDelivery, fromDelivery, null);
+        kernel.detours(toPickup, fromPickup, direct, pickupDetours, gaps);
+        kernel.detours(toDelivery, fromDelivery, direct, deliveryDetours, gaps);
+        double pickupToDelivery = matrix.distance(pickup, delivery);
+
+        double best = Double.POSITIVE_INFINITY;
+        int bestPickupGap = -1;
+        int bestDeliveryGap = -1;
+        double bestPickupDetour = Double.POSITIVE_INFINITY;
+        int bestPickupDetourGap = -1;
+
+        for (int gap = 0; gap <= length; gap++) {
+            // Pickup et delivery consécutifs dans ce même intervalle
+            double together = toPickup[gap] + pickupToDelivery + fromDelivery[gap] - direct[gap];
+            if (together < best) {
+                best = together;
+                bestPickupGap = gap;
+                bestDeliveryGap = gap;
+            }
+
+            // Delivery dans cet intervalle, pickup dans un intervalle précédent
+            if (bestPickupDetourGap >= 0) {
+                double separate = bestPickupDetour + deliveryDetours[gap];
+                if (separate < best) {
+                    best = separate;
+                    bestPickupGap = bestPickupDetourGap;
+                    bestDeliveryGap = gap;
+                }
+            }
+
+            if (pickupDetours[gap] < bestPickupDetour) {
+                bestPickupDetour = pickupDetours[gap];
+                bestPickupDetourGap = gap;
+            }
+        }
+        return bestPickupGap < 0 ? null : new Insertion(best, bestPickupGap, bestDeliveryGap);
+    }
+
+    private record Insertion(double delta, int pickupGap, int deliveryGap) {
+    }
+
+    // =========================================================================
+    // ÉCHANGE DE DEUX DEMANDES
+    // =========================================================================
+
+    private boolean swapPass(Solution solution, Deadline deadline) {
+        boolean improved = false;
+        double speed = matrix.getSpeedMs();
+        int requestCount = matrix.requestCount();
+        for (int first = 0; first < requestCount && !deadline.isExpired(); first++) {
+            for (int second = first + 1; second < requestCount; second++) {
+                int routeA = solution.routeOf(first);
+                int routeB = solution.routeOf(second);
+                if (routeA < 0 || routeB < 0 || routeA == routeB) {
+                    continue;
+                }
+                int pickupA = StopMatrix.pickupOf(first);
+                int deliveryA = StopMatrix.deliveryOf(first);
+                int pickupB = StopMatrix.pickupOf(second);
+                int deliveryB = StopMatrix.deliveryOf(second);
+                double serviceA = matrix.serviceSec(pickupA) + matrix.serviceSec(deliveryA);
+                double serviceB = matrix.serviceSec(pickupB) + matrix.serviceSec(deliveryB);
+
+                int pickupPositionA = solution.indexInRoute(routeA, pickupA);
+                int deliveryPositionA = solution.indexInRoute(routeA, deliveryA);
+                int pickupPositionB = solution.indexInRoute(routeB, pickupB);
+                int deliveryPositionB = solution.indexInRoute(routeB, deliveryB);
+                double deltaA = replacementDelta(solution, routeA, pickupPositionA, deliveryPositionA, pickupB, deliveryB);
+                double deltaB = replacementDelta(solution, routeB, pickupPositionB, deliveryPositionB, pickupA, deliveryA);
+                double durationA = solution.routeDuration(routeA) + deltaA / speed - serviceA + serviceB;
+                double durationB = solution.routeDuration(routeB) + deltaB / speed - serviceB + serviceA;
+                if (!(durationA <= timeLimitSec) || !(durationB <= timeLimitSec)) {
+                    continue;
+                }
+                double delta = deltaA + deltaB
+                    + balanceDelta(solution.routeDuration(routeA), solution.routeDuration(routeB), durationA, durationB);
+                if (!(delta < -EPSILON)) {
+                    continue;
+                }
+
+                int[] stopsA = solution.route(routeA);
+                int[] stopsB = solution.route(routeB);
+                stopsA[pickupPositionA] = pickupB;
+                stopsA[deliveryPositionA] = deliveryB;
+                stopsB[pickupPositionB] = pickupA;
+                stopsB[deliveryPositionB] = deliveryA;
+                if (!applyIfFeasible(solution, routeA, stopsA, routeB, stopsB)) {
+                    continue;
+                }
+                swaps++;
+                improved = true;
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Variation de distance quand les stops aux positions i et j (i < j) sont remplacés
+     */
+    private double replacementDelta(Solution solution, int route, int i, int j, int newPickup, int newDelivery) {
+        int oldPickup = stop(solution, route, i);
+        int oldDelivery = stop(solution, route, j);
+        int beforePickup = stop(solution, route, i - 1);
+        int afterDelivery = stop(solution, route, j + 1);
+        if (j == i + 1) {
+            return matrix.distance(beforePickup, newPickup) + matrix.distance(newPickup, newDelivery)
+                + matrix.distance(newDelivery, afterDelivery)
+                - matrix.distance(beforePickup, oldPickup) - matrix.distance(oldPickup, oldDelivery)
+                - matrix.distance(oldDelivery, afterDelivery);
+        }
+        int afterPickup = stop(solution, route, i + 1);
+        int beforeDelivery = stop(solution, route, j - 1);
+        return matrix.distance(beforePickup, newPickup) + matrix.distance(newPickup, afterPickup)
+            + matrix.distance(beforeDelivery, newDelivery) + matrix.distance(newDelivery, afterDelivery)
+            - matrix.distance(beforePickup, oldPickup) - matrix.distance(oldPickup, afterPickup)
+            - matrix.distance(beforeDelivery, oldDelivery) - matrix.distance(oldDelivery, afterDelivery);
+    }
+
+    // =========================================================================
+    // ÉCHANGE DE QUEUES (CROSS-EXCHANGE)
+    // =========================================================================
+
+    private boolean crossExchangePass(Solution solution, Deadline deadline) {
+        boolean improved = false;
+        for (int a = 0; a < solution.routeCount() && !deadline.isExpired(); a++) {
+            for (int b = a + 1; b < solution.routeCount(); b++) {
+                if (solution.routeLength(a) == 0 && solution.routeLength(b) == 0) {
+                    continue;
+                }
+                if (tryCrossExchange(solution, a, b)) {
+                    crossExchanges++;
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Meilleur échange de queues entre deux tournées ; l'applique s'il améliore le coût
+     */
+    private boolean tryCrossExchange(Solution solution, int a, int b) {
+        RouteProfile first = new RouteProfile(solution, a);
+        RouteProfile second = new RouteProfile(solution, b);
+        double speed = matrix.getSpeedMs();
+        double oldA = solution.routeDuration(a);
+        double oldB = solution.routeDuration(b);
+        double current = solution.routeDistance(a) + solution.routeDistance(b);
+
+        double bestDelta = -EPSILON;
+        int bestCutA = -1;
+        int bestCutB = -1;
+        for (int cutA = 0; cutA <= first.length; cutA++) {
+            if (!first.cuttable[cutA]) {
+                continue;
+            }
+            for (int cutB = 0; cutB <= second.length; cutB++) {
+                if (!second.cuttable[cutB]) {
+                    continue;
+                }
+                // Échanger tout ou rien ne change rien
+                if ((cutA == 0 && cutB == 0) || (cutA == first.length && cutB == second.length)) {
+                    continue;
+                }
+                double distanceA = first.headDistance(cutA, second.tailFirst(cutB)) + second.suffixDistance[cutB];
+                double distanceB = second.headDistance(cutB, first.tailFirst(cutA)) + first.suffixDistance[cutA];
+                double durationA = distanceA / speed + first.prefixService[cutA] + second.tailService(cutB);
+                double durationB = distanceB / speed + second.prefixService[cutB] + first.tailService(cutA);
+                if (!(durationA <= timeLimitSec) || !(durationB <= timeLimitSec)) {
+                    continue;
+                }
+                double delta = distanceA + distanceB - current + balanceDelta(oldA, oldB, durationA, durationB);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestCutA = cutA;
+                    bestCutB = cutB;
+                }
+            }
+        }
+        if (bestCutA < 0) {
+            return false;
+        }
+
+        int[] newA = concat(first.stops, bestCutA, second.stops, bestCutB);
+        int[] newB = concat(second.stops, bestCutB, first.stops, bestCutA);
+        return applyIfFeasible(solution, a, newA, b, newB);
+    }
+
+    /**
+     * Sommes préfixes d'une tournée (lues dans les tableaux cumulés de la solution) et
+     * positions de coupe admissibles (cut = nombre de stops gardés en tête)
+     */
+    private final class RouteProfile {
+
+        final int[] stops;
+        final int length;
+        final double[] prefixDistance;
+        final double[] prefixService;
+        final double[] suffixDistance;
+        final boolean[] cuttable;
+        final double totalService;
+
+        RouteProfile(Solution solution, int route) {
+            stops = solution.route(route);
+            length = stops.length;
+            prefixDistance = new double[length + 1];
+            prefixService = new double[length + 1];
+            suffixDistance = new double[length + 1];
+            cuttable = new boolean[length + 1];
+
+            int open = 0;
+            cuttable[0] = true;
+            double total = solution.routeDistance(route);
+            for (int cut = 1; cut <= length; cut++) {
+                // Distance jusqu'au dernier stop de la tête (sans le retour)
+                prefixDistance[cut] = solution.distanceTo(route, cut - 1);
+                prefixService[cut] = solution.serviceBefore(route, cut);
+                open += stops[cut - 1] % 2 == 1 ? 1 : -1;
+                cuttable[cut] = open == 0;
+            }
+            totalService = prefixService[length];
+
+            // Distance de la queue (stops cut..fin puis retour à l'entrepôt)
+            for (int cut = 0; cut < length; cut++) {
+                suffixDistance[cut] = total - solution.distanceTo(route, cut);
+            }
+            suffixDistance[length] = 0.0;
+        }
+
+        /**
+         * Distance de la tête (entrepôt → stops 0..cut-1) puis du raccord vers le stop suivant
+         */
+        double headDistance(int cut, int following) {
+            int last = cut == 0 ? StopMatrix.DEPOT : stops[cut - 1];
+            return prefixDistance[cut] + matrix.distance(last, following);
+        }
+
+        /**
+         * @return Le premier stop de la queue, ou l'entrepôt si elle est vide
+         */
+        int tailFirst(int cut) {
+            return cut == length ? StopMatrix.DEPOT : stops[cut];
+        }
+
+        double tailService(int cut) {
+            return totalService - prefixService[cut];
+        }
+    }
+
+    private static int[] concat(int[] head, int headLength, int[] tail, int tailStart) {
+        int[] stops = new int[headLength + tail.length - tailStart];
+        System.arraycopy(head, 0, stops, 0, headLength);
+        System.arraycopy(tail, tailStart, stops, headLength, tail.length - tailStart);
+        return stops;
+    }
+
+    // =========================================================================
+    // OUTILS
+    // =========================================================================
+
+    /**
+     * Remplace deux tournées qui s'échangent des demandes (vidées d'abord : une demande
+     * ne peut pas appartenir à deux tournées pendant la mise à jour)
+     */
+    private void replaceRoutes(Solution solution, int a, int[] stopsA, int b, int[] stopsB) {
+        solution.setRoute(a, new int[0]);
+        solution.setRoute(b, new int[0]);
+        solution.setRoute(a, stopsA);
+        solution.setRoute(b, stopsB);
+    }
+
+    /**
+     * Applique le remplacement de deux tournées ; avec des fenêtres horaires ou une capacité,
+     * l'annule si l'une des deux devient infaisable
+     *
+     * @return true si le mouvement est conservé
+     */
+    private boolean applyIfFeasible(Solution solution, int a, int[] stopsA, int b, int[] stopsB) {
+        if (!matrix.hasSideConstraints()) {
+            replaceRoutes(solution, a, stopsA, b, stopsB);
+            return true;
+        }
+        int[] oldA = solution.route(a);
+        int[] oldB = solution.route(b);
+        replaceRoutes(solution, a, stopsA, b, stopsB);
+        if (solution.isRouteFeasible(a, timeLimitSec) && solution.isRouteFeasible(b, timeLimitSec)) {
+            return true;
+        }
+        replaceRoutes(solution, a, oldA, b, oldB);
+        return false;
+    }
+
+    /**
+     * @return Le stop à cette position, ou l'entrepôt avant le début et après la fin
+     */
+    private static int stop(Solution solution, int route, int index) {
+        return index < 0 || index >= solution.routeLength(route) ? StopMatrix.DEPOT : solution.stopAt(route, index);
+    }
+
+    private double balanceDelta(double oldA, double oldB, double newA, double newB) {
+        if (balanceWeight == 0) {
+            return 0.0;
+        }
+        return balanceWeight * (squaredHours(newA) + squaredHours(newB) - squaredHours(oldA) - squaredHours(oldB));
+    }
+
+    private static double squaredHours(double seconds) {
+        double hours = seconds / 3600.0;
+        return hours * hours;
+    }
+}
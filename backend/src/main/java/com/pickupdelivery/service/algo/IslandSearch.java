@@ -0,0 +1,182 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Recherche multi-départs parallèle en "îles" sur un pool fork/join
+ *
+ * Chaque île est une {@link LnsOptimizer} avec sa propre graine : l'île 0 part de la
+ * solution fournie, les autres d'une construction aléatoire par insertion à regret.
+ * Toutes partagent la même {@link StopMatrix} (lecture seule). Les îles progressent par
+ * époques d'un nombre fixe d'itérations ; entre deux époques, chaque île reçoit la
+ * meilleure solution de sa voisine (migration en anneau) si elle est meilleure que la sienne.
+ * Une île n'est pas relancée à chaque époque : son recuit se poursuit (solution courante,
+ * température et progression sur l'ensemble des itérations prévues).
+ *
+ * Le déroulement ne dépend que de la graine et du nombre d'itérations, pas de l'ordonnancement
+ * des threads : à échéance non atteinte, le résultat est reproductible quel que soit le pool.
+ */
+public final class IslandSearch {
+
+    private static final double EPSILON = 1e-9;
+
+    private final StopMatrix matrix;
+    private final double timeLimitSec;
+    private final int islandCount;
+    private final ForkJoinPool pool;
+    private final long[] islandSeeds;
+
+    private double targetObjective = Double.NEGATIVE_INFINITY;
+    private NeighbourLists neighbours;
+
+    private int epochs;
+    private int totalIterations;
+
+    /**
+     * @param matrix       La matrice des stops (partagée en lecture seule)
+     * @param timeLimitSec Durée maximale d'une tournée en secondes
+     * @param seed         Graine globale, d'où sont dérivées les graines des îles
+     * @param islandCount  Nombre d'îles (≥ 1)
+     * @param pool         Pool fork/join exécutant les îles
+     */
+    public IslandSearch(StopMatrix matrix, double timeLimitSec, long seed, int islandCount, ForkJoinPool pool) {
+        if (islandCount < 1) {
+            throw new IllegalArgumentException("Le nombre d'îles doit être au moins 1 (reçu: " + islandCount + ")");
+        }
+        this.matrix = matrix;
+        this.timeLimitSec = timeLimitSec;
+        this.islandCount = islandCount;
+        this.pool = pool;
+        this.islandSeeds = new long[islandCount];
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < islandCount; i++) {
+            islandSeeds[i] = seeds.nextLong();
+        }
+    }
+
+    /**
+     * Lance les îles jusqu'à l'échéance ou au nombre maximal d'itérations par île
+     *
+     * @param initial             Solution de départ valide de l'île 0 (non modifiée)
+     * @param deadline            Échéance horloge murale
+     * @param maxIterations       Nombre maximal d'itérations par île
+     * @param migrationInterval   Nombre d'itérations par île entre deux migrations
+     * @return La meilleure solution valide de toutes les îles (au pire une copie de l'initiale)
+     */
+    public Solution optimize(Solution initial, Deadline deadline, int maxIterations, int migrationInterval) {
+        int interval = Math.max(1, migrationInterval);
+        epochs = 0;
+        totalIterations = 0;
+
+        LnsOptimizer[] optimizers = new LnsOptimizer[islandCount];
+        Solution[] islands = new Solution[islandCount];
+        for (int i = 0; i < islandCount; i++) {
+            optimizers[i] = new LnsOptimizer(matrix, timeLimitSec, islandSeeds[i]);
+            optimizers[i].setTargetObjective(targetObjective);
+            optimizers[i].setNeighbours(neighbours);
+            islands[i] = i == 0 ? initial.copy() : new Solution(matrix, initial.routeCount());
+        }
+
+        Solution best = initial.copy();
+        int remaining = maxIterations;
+        while (remaining > 0 && best.objective() > targetObjective && !deadline.isExpired()) {
+            int epochIterations = Math.min(interval, remaining);
+            remaining -= epochIterations;
+            boolean first = epochs++ == 0;
+
+            // Époque : toutes les îles en parallèle ; chacune poursuit sa propre recherche
+            // (solution courante et température conservées d'une époque à l'autre)
+            List<Callable<Solution>> tasks = new ArrayList<>(islandCount);
+            for (int i = 0; i < islandCount; i++) {
+                LnsOptimizer optimizer = optimizers[i];
+                Solution start = islands[i];
+                tasks.add(() -> {
+                    if (first) {
+                        optimizer.start(start, maxIterations);
+                    }
+                    return optimizer.resume(deadline, epochIterations);
+                });
+            }
+            List<Future<Solution>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < islandCount; i++) {
+                Solution result = await(results.get(i));
+                // Une île partie d'une construction vide peut rester moins bonne : seule la validité compte
+                if (result.isFeasible(timeLimitSec)) {
+                    islands[i] = result.copy();
+                }
+            }
+
+            // Meilleure solution globale (à égalité : l'île de plus petit indice)
+            for (Solution island : islands) {
+                if (island.isFeasible(timeLimitSec) && island.objective() < best.objective() - EPSILON) {
+                    best = island.copy();
+                }
+            }
+
+            // Migration en anneau : l'île i adopte la solution de l'île i-1 si elle est meilleure
+            if (islandCount > 1) {
+                Solution[] previous = islands.clone();
+                for (int i = 0; i < islandCount; i++) {
+                    Solution neighbour = previous[(i + islandCount - 1) % islandCount];
+                    if (neighbour.isFeasible(timeLimitSec) && optimizers[i].adopt(neighbour)) {
+                        islands[i] = neighbour.copy();
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < islandCount; i++) {
+            totalIterations += optimizers[i].getIterations();
+        }
+        return best;
+    }
+
+    /**
+     * Arrêt anticipé : les îles s'interrompent dès que la meilleure solution atteint cet objectif
+     */
+    public void setTargetObjective(double targetObjective) {
+        this.targetObjective = targetObjective;
+    }
+
+    /**
+     * Listes de voisins partagées (lecture seule) par l'insertion granulaire de chaque île
+     */
+    public void setNeighbours(NeighbourLists neighbours) {
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * @return Le nombre d'époques (migrations) effectuées par le dernier appel
+     */
+    public int getEpochs() {
+        return epochs;
+    }
+
+    /**
+     * @return Le nombre total d'itérations, toutes îles confondues
+     */
+    public int getTotalIterations() {
+        return totalIterations;
+    }
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    private static Solution await(Future<Solution> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recherche en îles interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'une île de recherche: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Recherche à grand voisinage (LNS, "ruin and recreate") pour le pickup & delivery
+ *
+ * À chaque itération, une copie de la solution courante est partiellement détruite
+ * (retrait de paires pickup/delivery) puis reconstruite par insertion à regret.
+ * La nouvelle solution est acceptée selon un recuit simulé dont la température décroît
+ * avec le nombre d'itérations effectuées. La meilleure solution rencontrée est conservée :
+ * elle est toujours valide (précédence respectée, chaque tournée sous la limite de durée).
+ *
+ * Opérateurs de destruction (choisis au hasard) :
+ * - aléatoire : demandes tirées uniformément
+ * - pire coût : demandes dont le retrait fait gagner le plus de distance
+ * - Shaw : demandes proches (pickups et deliveries voisins) d'une demande pivot
+ */
+public final class LnsOptimizer {
+
+    /** Nombre maximal de demandes retirées par itération */
+    private static final int MAX_REMOVED = 30;
+
+    /** Part maximale des demandes assignées retirée par itération */
+    private static final double MAX_REMOVED_RATIO = 0.4;
+
+    /** Déterminisme de la sélection "pire coût" (plus grand = plus glouton) */
+    private static final double WORST_RANDOMNESS = 3.0;
+
+    /** Déterminisme de la sélection Shaw */
+    private static final double SHAW_RANDOMNESS = 6.0;
+
+    /** Dégradation relative acceptée avec une probabilité de 50% au départ */
+    private static final double INITIAL_ACCEPTED_DEGRADATION = 0.05;
+
+    /** Rapport température finale / température initiale */
+    private static final double FINAL_TEMPERATURE_RATIO = 0.01;
+
+    private static final double EPSILON = 1e-9;
+
+    private final StopMatrix matrix;
+    private final double timeLimitSec;
+    private final Random random;
+
+    private double targetObjective = Double.NEGATIVE_INFINITY;
+
+    private NeighbourLists neighbours;
+    private int[] pickupMark;
+    private int[] deliveryMark;
+    private int stamp;
+
+    // Tableaux de travail des surcoûts par intervalle (voir DetourKernel)
+    private final DetourKernel kernel = DetourKernel.preferred();
+    private double[] direct;
+    private double[] toPickup;
+    private double[] fromPickup;
+    private double[] toDelivery;
+    private double[] fromDelivery;
+    private double[] pickupCosts;
+    private double[] deliveryCosts;
+
+    // État de la recherche en cours (voir start/resume)
+    private Solution best;
+    private Solution current;
+    private double initialTemperature;
+    private int scheduledIterations;
+    private int iterations;
+    private int improvements;
+
+    /**
+     * @param matrix       La matrice des stops
+     * @param timeLimitSec Durée maximale d'une tournée en secondes
+     * @param seed         Graine du générateur aléatoire (reproductibilité à budget d'itérations égal)
+     */
+    public LnsOptimizer(StopMatrix matrix, double timeLimitSec, long seed) {
+        this.matrix = matrix;
+        this.timeLimitSec = timeLimitSec;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Améliore une solution jusqu'à l'échéance ou au nombre maximal d'itérations
+     *
+     * @param initial       Solution de départ (valide), non modifiée
+     * @param deadline      Échéance horloge murale
+     * @param maxIterations Nombre maximal d'itérations de destruction/réparation
+     * @return La meilleure solution valide rencontrée (au pire une copie de la solution initiale)
+     */
+    public Solution optimize(Solution initial, Deadline deadline, int maxIterations) {
+        start(initial, maxIterations);
+        return resume(deadline, maxIterations);
+    }
+
+    /**
+     * Prépare une recherche menée en plusieurs tranches (voir {@link #resume}) : réinsertion
+     * des demandes non assignées et température initiale
+     *
+     * @param initial             Solution de départ (valide), non modifiée
+     * @param scheduledIterations Nombre total d'itérations prévues, sur lequel la température décroît
+     */
+    public void start(Solution initial, int scheduledIterations) {
+        iterations = 0;
+        improvements = 0;
+        this.scheduledIterations = Math.max(1, scheduledIterations);
+
+        best = initial.copy();
+        current = initial.copy();
+
+        // Les demandes laissées de côté par la construction sont d'abord réinsérées si possible
+        repair(current);
+        if (current.isFeasible(timeLimitSec) && current.objective() < best.objective() - EPSILON) {
+            best = current.copy();
+            improvements++;
+        } else {
+            current = best.copy();
+        }
+
+        initialTemperature = Math.max(1.0,
+            INITIAL_ACCEPTED_DEGRADATION * current.totalDistance() / Math.log(2));
+    }
+
+    /**
+     * Poursuit la recherche préparée par {@link #start} : solution courante, température et
+     * compteur d'itérations reprennent là où la tranche précédente s'est arrêtée.
+     * La température ne dépend que du nombre d'itérations effectuées (pas de l'horloge) :
+     * à graine égale et échéance non atteinte, le résultat est identique.
+     *
+     * @param deadline   Échéance horloge murale
+     * @param iterations Nombre maximal d'itérations de cette tranche
+     * @return La meilleure solution valide rencontrée depuis {@link #start}
+     */
+    public Solution resume(Deadline deadline, int iterations) {
+        if (current == null) {
+            throw new IllegalStateException("Recherche non préparée (appeler start)");
+        }
+        int limit = this.iterations + iterations;
+        while (this.iterations < limit && best.objective() > targetObjective && !deadline.isExpired()) {
+            this.iterations++;
+
+            Solution candidate = current.copy();
+            destroy(candidate);
+            repair(candidate);
+
+            if (!candidate.isFeasible(timeLimitSec)) {
+                continue; // Inégalité triangulaire non respectée par la matrice : on ignore
+            }
+
+            double delta = candidate.objective() - current.objective();
+            double progress = Math.min(1.0, (double) this.iterations / scheduledIterations);
+            double temperature = initialTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, progress);
+
+            if (delta < EPSILON || random.nextDouble() < Math.exp(-delta / temperature)) {
+                current = candidate;
+                if (current.objective() < best.objective() - EPSILON) {
+                    best = current.copy();
+                    improvements++;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Adopte une solution venue d'ailleurs (migration entre îles) si elle est meilleure que
+     * la meilleure solution de la recherche : elle devient aussi la solution courante, sans
+     * réchauffer la température
+     *
+     * @param migrant Solution valide, non modifiée
+     * @return true si la solution a été adoptée
+     */
+    public boolean adopt(Solution migrant) {
+        if (current == null) {
+            throw new IllegalStateException("Recherche non préparée (appeler start)");
+        }
+        if (migrant.objective() >= best.objective() - EPSILON) {
+            return false;
+        }
+        best = migrant.copy();
+        current = migrant.copy();
+        return true;
+    }
+
+    /**
+     * Arrêt anticipé : la recherche s'interrompt dès que la meilleure solution atteint cet objectif
+     * (typiquement borne inférieure × (1 + tolérance))
+     */
+    public void setTargetObjective(double targetObjective) {
+        this.targetObjective = targetObjective;
+    }
+
+    /**
+     * Insertion granulaire : seules les positions voisines (avant ou après) d'un des k plus
+     * proches stops du pickup, respectivement de la delivery, sont évaluées, ainsi que les
+     * positions touchant l'entrepôt. null pour évaluer toutes les positions.
+     */
+    public void setNeighbours(NeighbourLists neighbours) {
+        this.neighbours = neighbours;
+        if (neighbours != null) {
+            pickupMark = new int[matrix.size()];
+            deliveryMark = new int[matrix.size()];
+            stamp = 0;
+        }
+    }
+
+    /**
+     * @return Le nombre d'itérations effectuées depuis le dernier {@link #start}
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return Le nombre de fois où la meilleure solution a été améliorée depuis le dernier {@link #start}
+     */
+    public int getImprovements() {
+        return improvements;
+    }
+
+    // =========================================================================
+    // DESTRUCTION
+    // =========================================================================
+
+    private void destroy(Solution solution) {
+        List<Integer> assigned = solution.assignedRequests();
+        if (assigned.isEmpty()) {
+            return;
+        }
+        int maxRemoved = Math.max(1, Math.min(MAX_REMOVED, (int) Math.ceil(assigned.size() * MAX_REMOVED_RATIO)));
+        int toRemove = 1 + random.nextInt(maxRemoved);
+
+        switch (random.nextInt(3)) {
+            case 0 -> randomRemoval(solution, assigned, toRemove);
+            case 1 -> worstRemoval(solution, toRemove);
+            default -> shawRemoval(solution, assigned, toRemove);
+        }
+    }
+
+    private void randomRemoval(Solution solution, List<Integer> assigned, int toRemove) {
+        Collections.shuffle(assigned, random);
+        for (int i = 0; i < toRemove; i++) {
+            solution.removeRequest(assigned.get(i));
+        }
+    }
+
+    private void worstRemoval(Solution solution, int toRemove) {
+        for (int removed = 0; removed < toRemove; removed++) {
+            List<Integer> assigned = solution.assignedRequests();
+            if (assigned.isEmpty()) {
+                return;
+            }
+            double[] gain = new double[matrix.requestCount()];
+            for (int request : assigned) {
+                gain[request] = -solution.removalDistanceDelta(request);
+            }
+            assigned.sort(Comparator.comparingDouble((Integer request) -> gain[request]).reversed());
+            solution.removeRequest(assigned.get(biasedIndex(assigned.size(), WORST_RANDOMNESS)));
+        }
+    }
+
+    private void shawRemoval(Solution solution, List<Integer> assigned, int toRemove) {
+        List<Integer> remaining = new ArrayList<>(assigned);
+        List<Integer> removed = new ArrayList<>();
+        removed.add(remaining.remove(random.nextInt(remaining.size())));
+
+        while (removed.size() < toRemove && !remaining.isEmpty()) {
+            int pivot = removed.get(random.nextInt(removed.size()));
+            remaining.sort(Comparator.comparingDouble(request -> relatedness(pivot, request)));
+            removed.add(remaining.remove(biasedIndex(remaining.size(), SHAW_RANDOMNESS)));
+        }
+
+        for (int request : removed) {
+            solution.removeRequest(request);
+        }
+    }
+
+    /**
+     * Proximité de deux demandes : distance pickup-pickup + delivery-delivery
+     */
+    private double relatedness(int a, int b) {
+        return matrix.distance(StopMatrix.pickupOf(a), StopMatrix.pickupOf(b))
+            + matrix.distance(StopMatrix.deliveryOf(a), StopMatrix.deliveryOf(b));
+    }
+
+    /**
+     * Tire un indice biaisé vers le début d'une liste triée (y^p, Ropke & Pisinger)
+     */
+    private int biasedIndex(int size, double randomness) {
+        return Math.min(size - 1, (int) (Math.pow(random.nextDouble(), randomness) * size));
+    }
+
+    // =========================================================================
+    // RÉPARATION : INSERTION À REGRET-2
+    // =========================================================================
+
+    /**
+     * Réinsère les demandes non assignées, en commençant par celles qu'il serait le plus
+     * coûteux de ne pas placer dans leur meilleure tournée (regret = 2e meilleur - meilleur)
+     */
+    private void repair(Solution solution) {
+        List<Integer> pending = solution.unassignedRequests();
+        if (pending.isEmpty()) {
+            return;
+        }
+        Collections.shuffle(pending, random);
+
+        int routeCount = solution.routeCount();
+        Insertion[][] insertions = new Insertion[pending.size()][routeCount];
+        for (int i = 0; i < pending.size(); i++) {
+            for (int k = 0; k < routeCount; k++) {
+                insertions[i][k] = bestInsertion(solution, pending.get(i), k);
+            }
+        }
+        boolean[] done = new boolean[pending.size()];
+
+        while (true) {
+            int chosen = -1;
+            int chosenRoute = -1;
+            double chosenRegret = Double.NEGATIVE_INFINITY;
+            double chosenCost = Double.POSITIVE_INFINITY;
+
+            for (int i = 0; i < pending.size(); i++) {
+                if (done[i]) {
+                    continue;
+                }
+                int bestRoute = -1;
+                double bestCost = Double.POSITIVE_INFINITY;
+                double secondCost = Double.POSITIVE_INFINITY;
+                for (int k = 0; k < routeCount; k++) {
+                    double cost = insertions[i][k] != null ? insertions[i][k].cost : Double.POSITIVE_INFINITY;
+                    if (cost < bestCost) {
+                        secondCost = bestCost;
+                        bestCost = cost;
+                        bestRoute = k;
+                    } else if (cost < secondCost) {
+                        secondCost = cost;
+                    }
+                }
+                if (bestRoute < 0) {
+                    continue; // Aucune tournée ne peut accueillir cette demande
+                }
+                double regret = Double.isInfinite(secondCost) ? Double.MAX_VALUE : secondCost - bestCost;
+                if (regret > chosenRegret + EPSILON
+                        || (Math.abs(regret - chosenRegret) <= EPSILON && bestCost < chosenCost)) {
+                    chosen = i;
+                    chosenRoute = bestRoute;
+                    chosenRegret = regret;
+                    chosenCost = bestCost;
+                }
+            }
+
+            if (chosen < 0) {
+                return; // Plus aucune demande insérable
+            }
+
+            Insertion insertion = insertions[chosen][chosenRoute];
+            solution.insertRequest(pending.get(chosen), chosenRoute, insertion.pickupPosition, insertion.deliveryGap);
+            done[chosen] = true;
+
+            // Seule la tournée modifiée doit être réévaluée
+            for (int i = 0; i < pending.size(); i++) {
+                if (!done[i]) {
+                    insertions[i][chosenRoute] = bestInsertion(solution, pending.get(i), chosenRoute);
+                }
+            }
+        }
+    }
+
+    /**
+     * Meilleure insertion d'une demande dans une tournée, en respectant la précédence
+     * et la limite de durée. Chaque position est évaluée en O(1) ; avec des listes de
+     * voisins, seules les positions candidates le sont (voir {@link #setNeighbours}).
+     * Avec des fenêtres horaires, les attentes peuvent absorber un détour : la borne en
+     * distance est remplacée par {@link Solution#isInsertionFeasible}, en O(1) elle aussi
+     * (et vérifie aussi la capacité des coursiers).
+     * Sans voisins, les surcoûts de tous les intervalles sont calculés par lots
+     * (voir {@link DetourKernel}).
+     *
+     * @return L'insertion de moindre surcoût en distance, ou null si aucune n'est faisable
+     */
+    Insertion bestInsertion(Solution solution, int request, int route) {
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        int length = solution.routeLength(route);
+
+        double maxExtraDistance = Double.MAX_VALUE; // Écarte seulement les trajets manquants (+∞)
+        if (!matrix.hasTimeWindows()) {
+            double slackSec = timeLimitSec - solution.routeDuration(route)
+                - matrix.serviceSec(pickup) - matrix.serviceSec(delivery);
+            if (slackSec < -EPSILON) {
+                return null;
+            }
+            maxExtraDistance = slackSec * matrix.getSpeedMs() + EPSILON;
+        }
+        if (neighbours != null && length > 2 * neighbours.width()) {
+            return bestGranularInsertion(solution, request, route, maxExtraDistance);
+        }
+        double pickupToDelivery = matrix.distance(pickup, delivery);
+
+        // Surcoûts du pickup et de la delivery dans chaque intervalle, calculés par lots
+        if (direct == null) {
+            direct = new double[matrix.size()];
+            toPickup = new double[matrix.size()];
+            fromPickup = new double[matrix.size()];
+            toDelivery = new double[matrix.size()];
+            fromDelivery = new double[matrix.size()];
+            pickupCosts = new double[matrix.size()];
+            deliveryCosts = new double[matrix.size()];
+        }
+        int gaps = DetourKernel.gather(solution, route, pickup, toPickup, fromPickup, direct);
+        DetourKernel.gather(solution, route, delivery, toDelivery, fromDelivery, null);
+        kernel.detours(toPickup, fromPickup, direct, pickupCosts, gaps);
+        kernel.detours(toDelivery, fromDelivery, direct, deliveryCosts, gaps);
+
+        Insertion best = null;
+        for (int i = 0; i <= length; i++) {
+            double pickupCost = pickupCosts[i];
+            if (Double.isNaN(pickupCost) || Double.isInfinite(pickupCost)) {
+                continue;
+            }
+
+            // Delivery juste après le pickup
+            double adjacent = toPickup[i] + pickupToDelivery + fromDelivery[i] - direct[i];
+            if (adjacent <= maxExtraDistance && (best == null || adjacent < best.cost)
+                    && respectsConstraints(solution, request, route, i, i)) {
+                best = new Insertion(adjacent, i, i);
+            }
+
+            // Delivery plus loin dans la tournée
+            for (int j = i + 1; j <= length; j++) {
+                double cost = pickupCost + deliveryCosts[j];
+                if (cost <= maxExtraDistance && (best == null || cost < best.cost)
+                        && respectsConstraints(solution, request, route, i, j)) {
+                    best = new Insertion(cost, i, j);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Meilleure insertion parmi les positions candidates (voir {@link #setNeighbours}).
+     * Un parcours de la tournée repère les voisins, puis O(k²) paires de positions sont évaluées.
+     */
+    private Insertion bestGranularInsertion(Solution solution, int request, int route, double maxExtraDistance) {
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        int length = solution.routeLength(route);
+
+        stamp++;
+        for (int rank = 0; rank < neighbours.count(pickup); rank++) {
+            pickupMark[neighbours.neighbour(pickup, rank)] = stamp;
+        }
+        for (int rank = 0; rank < neighbours.count(delivery); rank++) {
+            deliveryMark[neighbours.neighbour(delivery, rank)] = stamp;
+        }
+
+        // Positions encadrant un voisin, plus celles touchant l'entrepôt
+        int[] pickupGaps = new int[2 * neighbours.width() + 2];
+        int[] deliveryGaps = new int[2 * neighbours.width() + 2];
+        int pickupCount = 0;
+        int deliveryCount = 0;
+        pickupGaps[pickupCount++] = 0;
+        pickupGaps[pickupCount++] = length;
+        deliveryGaps[deliveryCount++] = length;
+        for (int position = 0; position < length; position++) {
+            int stop = solution.stopAt(route, position);
+            if (pickupMark[stop] == stamp) {
+                pickupGaps[pickupCount++] = position;
+                pickupGaps[pickupCount++] = position + 1;
+            }
+            if (deliveryMark[stop] == stamp) {
+                deliveryGaps[deliveryCount++] = position;
+                deliveryGaps[deliveryCount++] = position + 1;
+            }
+        }
+        Arrays.sort(pickupGaps, 0, pickupCount);
+        Arrays.sort(deliveryGaps, 0, deliveryCount);
+
+        double pickupToDelivery = matrix.distance(pickup, delivery);
+        Insertion best = null;
+        for (int p = 0; p < pickupCount; p++) {
+            int i = pickupGaps[p];
+            if (p > 0 && i == pickupGaps[p - 1]) {
+                continue;
+            }
+            int before = stopBefore(solution, route, i);
+            int at = stopAt(solution, route, i);
+            double pickupCost = matrix.distance(before, pickup) + matrix.distance(pickup, at) - matrix.distance(before, at);
+            if (Double.isNaN(pickupCost) || Double.isInfinite(pickupCost)) {
+                continue;
+            }
+
+            double adjacent = matrix.distance(before, pickup) + pickupToDelivery
+                + matrix.distance(delivery, at) - matrix.distance(before, at);
+            if (adjacent <= maxExtraDistance && (best == null || adjacent < best.cost)
+                    && respectsConstraints(solution, request, route, i, i)) {
+                best = new Insertion(adjacent, i, i);
+            }
+
+            for (int d = 0; d < deliveryCount; d++) {
+                int j = deliveryGaps[d];
+                if (j <= i || (d > 0 && j == deliveryGaps[d - 1])) {
+                    continue;
+                }
+                int beforeDelivery = solution.stopAt(route, j - 1);
+                int atDelivery = stopAt(solution, route, j);
+                double cost = pickupCost + matrix.distance(beforeDelivery, delivery)
+                    + matrix.distance(delivery, atDelivery) - matrix.distance(beforeDelivery, atDelivery);
+                if (cost <= maxExtraDistance && (best == null || cost < best.cost)
+                        && respectsConstraints(solution, request, route, i, j)) {
+                    best = new Insertion(cost, i, j);
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean respectsConstraints(Solution solution, int request, int route, int pickupPosition, int deliveryGap) {
+        return !matrix.hasSideConstraints()
+            || solution.isInsertionFeasible(request, route, pickupPosition, deliveryGap, timeLimitSec);
+    }
+
+    private static int stopBefore(Solution solution, int route, int position) {
+        return position == 0 ? StopMatrix.DEPOT : solution.stopAt(route, position - 1);
+    }
+
+    private static int stopAt(Solution solution, int route, int position) {
+        return position >= solution.routeLength(route) ? StopMatrix.DEPOT : solution.stopAt(route, position);
+    }
+
+    /**
+     * Position d'insertion évaluée (surcoût en distance)
+     */
+    record Insertion(double cost, int pickupPosition, int deliveryGap) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bornes inférieures de la distance totale nécessaire pour servir un ensemble de demandes
+ *
+ * Toutes les bornes portent sur la relaxation "une seule tournée sans limite de durée".
+ * Les distances étant des plus courts chemins (inégalité triangulaire), plusieurs tournées
+ * mises bout à bout forment une tournée unique au plus aussi longue : ces bornes minorent
+ * donc aussi la distance cumulée de toute distribution multi-coursiers servant ces demandes.
+ *
+ * - Relaxation d'affectation : chaque stop reçoit exactement un successeur, en interdisant
+ *   les arcs incompatibles avec la précédence (delivery → son pickup, entrepôt → delivery,
+ *   pickup → entrepôt)
+ * - 1-arbre de Held–Karp : arbre couvrant minimal + deux arêtes de l'entrepôt, renforcé
+ *   par optimisation sous-gradient des pénalités de degré
+ */
+public final class LowerBounds {
+
+    /** Nombre d'itérations du sous-gradient pour le 1-arbre */
+    private static final int SUBGRADIENT_ITERATIONS = 100;
+
+    /** Coût des arcs interdits dans la relaxation d'affectation */
+    private static final double FORBIDDEN = 1e12;
+
+    private LowerBounds() {
+    }
+
+    /**
+     * Meilleure des bornes disponibles
+     *
+     * @param matrix     La matrice des stops
+     * @param included   Les demandes à servir (indice = demande)
+     * @param upperBound Distance d'une solution connue (pilote le pas du sous-gradient), ou +∞
+     * @return Une borne inférieure de la distance (0 si aucune demande, ou si un trajet manque)
+     */
+    public static double compute(StopMatrix matrix, boolean[] included, double upperBound) {
+        return Math.max(assignmentBound(matrix, included), oneTreeBound(matrix, included, upperBound));
+    }
+
+    /**
+     * Borne de la relaxation d'affectation (algorithme hongrois, O(n³))
+     */
+    public static double assignmentBound(StopMatrix matrix, boolean[] included) {
+        int[] nodes = nodesOf(included);
+        int n = nodes.length;
+        if (n <= 1) {
+            return 0.0;
+        }
+
+        double[][] cost = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cost[i][j] = isForbidden(nodes[i], nodes[j]) ? FORBIDDEN : matrix.distance(nodes[i], nodes[j]);
+                if (Double.isInfinite(cost[i][j])) {
+                    cost[i][j] = FORBIDDEN;
+                }
+            }
+        }
+
+        double total = hungarian(cost);
+        return total >= FORBIDDEN ? 0.0 : total;
+    }
+
+    /**
+     * Borne du 1-arbre (entrepôt = nœud spécial) avec pénalités de Held–Karp
+     */
+    public static double oneTreeBound(StopMatrix matrix, boolean[] included, double upperBound) {
+        int[] nodes = nodesOf(included);
+        int n = nodes.length;
+        if (n <= 2) {
+            return 0.0;
+        }
+
+        // Relaxation symétrique : min des deux sens
+        double[] cost = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cost[i * n + j] = i == j ? 0.0
+                    : Math.min(matrix.distance(nodes[i], nodes[j]), matrix.distance(nodes[j], nodes[i]));
+                if (Double.isInfinite(cost[i * n + j])) {
+                    return 0.0;
+                }
+            }
+        }
+
+        double[] penalty = new double[n];
+        int[] degree = new int[n];
+        double best = 0.0;
+        double step = 2.0;
+        int sinceImprovement = 0;
+
+        for (int iteration = 0; iteration < SUBGRADIENT_ITERATIONS; iteration++) {
+            double value = oneTree(cost, penalty, degree, n);
+            if (value > best + 1e-9) {
+                best = value;
+                sinceImprovement = 0;
+            } else if (++sinceImprovement >= 10) {
+                step /= 2;
+                sinceImprovement = 0;
+            }
+
+            double norm = 0.0;
+            for (int i = 0; i < n; i++) {
+                norm += (degree[i] - 2) * (degree[i] - 2);
+            }
+            if (norm == 0) {
+                return Math.max(best, value); // Le 1-arbre est une tournée : borne atteinte
+            }
+            double target = Double.isInfinite(upperBound) ? value * 1.05 : upperBound;
+            double t = step * Math.max(target - value, 1e-3 * Math.abs(value)) / norm;
+            for (int i = 0; i < n; i++) {
+                penalty[i] += t * (degree[i] - 2);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Calcule le 1-arbre de coût minimal pour des pénalités données
+     *
+     * @return La valeur lagrangienne (coût pénalisé - 2 Σ pénalités) ; remplit les degrés
+     */
+    private static double oneTree(double[] cost, double[] penalty, int[] degree, int n) {
+        Arrays.fill(degree, 0);
+
+        // Prim sur les nœuds 1..n-1
+        double[] key = new double[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        key[1] = 0.0;
+        parent[1] = -1;
+        double total = 0.0;
+        for (int added = 1; added < n; added++) {
+            int u = -1;
+            for (int v = 1; v < n; v++) {
+                if (!inTree[v] && (u < 0 || key[v] < key[u])) {
+                    u = v;
+                }
+            }
+            inTree[u] = true;
+            total += key[u];
+            if (parent[u] >= 0) {
+                degree[u]++;
+                degree[parent[u]]++;
+            }
+            for (int v = 1; v < n; v++) {
+                double c = cost[u * n + v] + penalty[u] + penalty[v];
+                if (!inTree[v] && c < key[v]) {
+                    key[v] = c;
+                    parent[v] = u;
+                }
+            }
+        }
+
+        // Deux arêtes les moins chères de l'entrepôt (nœud 0)
+        int first = -1;
+        int second = -1;
+        for (int v = 1; v < n; v++) {
+            double c = cost[v] + penalty[0] + penalty[v];
+            if (first < 0 || c < cost[first] + penalty[0] + penalty[first]) {
+                second = first;
+                first = v;
+            } else if (second < 0 || c < cost[second] + penalty[0] + penalty[second]) {
+                second = v;
+            }
+        }
+        total += cost[first] + penalty[0] + penalty[first] + cost[second] + penalty[0] + penalty[second];
+        degree[0] = 2;
+        degree[first]++;
+        degree[second]++;
+
+        double penaltySum = 0.0;
+        for (double p : penalty) {
+            penaltySum += p;
+        }
+        return total - 2 * penaltySum;
+    }
+
+    /**
+     * Affectation de coût minimal (version à potentiels, indices 1..n en interne)
+     */
+    private static double hungarian(double[][] cost) {
+        int n = cost.length;
+        double[] u = new double[n + 1];
+        double[] v = new double[n + 1];
+        int[] match = new int[n + 1];
+        int[] way = new int[n + 1];
+
+        for (int row = 1; row <= n; row++) {
+            match[0] = row;
+            int column0 = 0;
+            double[] minValue = new double[n + 1];
+            boolean[] used = new boolean[n + 1];
+            Arrays.fill(minValue, Double.POSITIVE_INFINITY);
+            do {
+                used[column0] = true;
+                int row0 = match[column0];
+                double delta = Double.POSITIVE_INFINITY;
+                int column1 = 0;
+                for (int column = 1; column <= n; column++) {
+                    if (!used[column]) {
+                        double current = cost[row0 - 1][column - 1] - u[row0] - v[column];
+                        if (current < minValue[column]) {
+                            minValue[column] = current;
+                            way[column] = column0;
+                        }
+                        if (minValue[column] < delta) {
+                            delta = minValue[column];
+                            column1 = column;
+                        }
+                    }
+                }
+                for (int column = 0; column <= n; column++) {
+                    if (used[column]) {
+                        u[match[column]] += delta;
+                        v[column] -= delta;
+                    } else {
+                        minValue[column] -= delta;
+                    }
+                }
+                column0 = column1;
+            } while (match[column0] != 0);
+            do {
+                int column1 = way[column0];
+                match[column0] = match[column1];
+                column0 = column1;
+            } while (column0 != 0);
+        }
+
+        double total = 0.0;
+        for (int column = 1; column <= n; column++) {
+            total += cost[match[column] - 1][column - 1];
+        }
+        return total;
+    }
+
+    /**
+     * Arcs impossibles dans une tournée unique respectant la précédence
+     */
+    private static boolean isForbidden(int from, int to) {
+        if (from == to) {
+            return true;
+        }
+        if (from == StopMatrix.DEPOT) {
+            return to % 2 == 0; // La tournée commence par un pickup
+        }
+        if (to == StopMatrix.DEPOT) {
+            return from % 2 == 1; // La tournée finit par une delivery
+        }
+        // Une delivery ne précède jamais directement son propre pickup
+        return from % 2 == 0 && to == from - 1;
+    }
+
+    /**
+     * Entrepôt puis pickup/delivery des demandes incluses
+     */
+    private static int[] nodesOf(boolean[] included) {
+        List<Integer> nodes = new ArrayList<>();
+        nodes.add(StopMatrix.DEPOT);
+        for (int r = 0; r < included.length; r++) {
+            if (included[r]) {
+                nodes.add(StopMatrix.pickupOf(r));
+                nodes.add(StopMatrix.deliveryOf(r));
+            }
+        }
+        return nodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Construction gloutonne "plus proche voisin" d'une tournée unique, guidée par les listes de voisins
+ *
+ * Depuis le dernier stop visité, le prochain stop est le plus proche stop faisable (pickup, ou
+ * delivery dont le pickup est déjà visité). Les voisins étant triés par distance, le premier
+ * voisin faisable de la liste est le plus proche : la liste complète n'est parcourue que si
+ * aucun des k voisins n'est faisable.
+ *
+ * Complexité : O(n·k) lorsque les voisins suffisent, O(n²) dans le pire cas.
+ */
+public final class NearestNeighbourConstruction {
+
+    private NearestNeighbourConstruction() {
+    }
+
+    /**
+     * @param matrix     La matrice des stops
+     * @param neighbours Les listes de candidats de la matrice
+     * @return La tournée géante (indices sans l'entrepôt) visitant chaque stop une fois
+     */
+    public static int[] build(StopMatrix matrix, NeighbourLists neighbours) {
+        int n = matrix.size();
+        int[] tour = new int[n - 1];
+        boolean[] visited = new boolean[n];
+        int current = StopMatrix.DEPOT;
+
+        for (int step = 0; step < tour.length; step++) {
+            int next = -1;
+            for (int rank = 0; rank < neighbours.count(current); rank++) {
+                int candidate = neighbours.neighbour(current, rank);
+                if (isFeasible(candidate, visited)) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next < 0) {
+                // Aucun voisin faisable : parcours complet des stops restants
+                double nearest = Double.POSITIVE_INFINITY;
+                for (int candidate = 1; candidate < n; candidate++) {
+                    if (isFeasible(candidate, visited)
+                            && (next < 0 || matrix.distance(current, candidate) < nearest)) {
+                        next = candidate;
+                        nearest = matrix.distance(current, candidate);
+                    }
+                }
+            }
+            tour[step] = next;
+            visited[next] = true;
+            current = next;
+        }
+        return tour;
+    }
+
+    private static boolean isFeasible(int stop, boolean[] visited) {
+        if (visited[stop]) {
+            return false;
+        }
+        int request = StopMatrix.requestOf(stop);
+        return stop == StopMatrix.pickupOf(request) || visited[StopMatrix.pickupOf(request)];
+    }
+}
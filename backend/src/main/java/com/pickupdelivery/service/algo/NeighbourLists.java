@@ -0,0 +1,89 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Listes de candidats "granulaires" : pour chaque stop, ses k plus proches stops
+ *
+ * Les bons mouvements relient presque toujours des stops proches : la construction, le 2-opt
+ * et l'insertion ne consultent que ces candidats au lieu de toutes les paires. Les voisins
+ * sont triés par distance réseau croissante depuis le stop (à égalité, par indice), l'entrepôt
+ * n'en fait jamais partie et les stops inaccessibles (+∞) sont écartés.
+ *
+ * Stockage dans un tableau primitif à plat : la ligne du stop i commence en i·k.
+ *
+ * Complexité : O(n²·k) pour la construction, O(1) par consultation.
+ */
+public final class NeighbourLists {
+
+    private final int width;
+    private final int[] neighbours;
+    private final int[] counts;
+
+    private NeighbourLists(int width, int[] neighbours, int[] counts) {
+        this.width = width;
+        this.neighbours = neighbours;
+        this.counts = counts;
+    }
+
+    /**
+     * @param matrix La matrice des stops
+     * @param k      Nombre de voisins par stop (borné par le nombre de stops hors entrepôt)
+     * @return Les listes de voisins de chaque stop, entrepôt compris
+     * @throws IllegalArgumentException Si k est inférieur à 1
+     */
+    public static NeighbourLists of(StopMatrix matrix, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Le nombre de voisins doit être au moins 1 (reçu: " + k + ")");
+        }
+        int n = matrix.size();
+        int width = Math.max(1, Math.min(k, n - 2));
+        int[] neighbours = new int[n * width];
+        int[] counts = new int[n];
+        double[] distances = new double[width];
+
+        for (int i = 0; i < n; i++) {
+            int row = i * width;
+            int count = 0;
+            for (int j = 1; j < n; j++) {
+                double distance = matrix.distance(i, j);
+                if (j == i || Double.isInfinite(distance) || Double.isNaN(distance)) {
+                    continue;
+                }
+                if (count == width && distance >= distances[count - 1]) {
+                    continue; // Plus loin que le k-ième voisin (à égalité, l'indice plus petit reste)
+                }
+                // Insertion triée dans le tampon des k meilleurs
+                int slot = count < width ? count++ : count - 1;
+                while (slot > 0 && distances[slot - 1] > distance) {
+                    distances[slot] = distances[slot - 1];
+                    neighbours[row + slot] = neighbours[row + slot - 1];
+                    slot--;
+                }
+                distances[slot] = distance;
+                neighbours[row + slot] = j;
+            }
+            counts[i] = count;
+        }
+        return new NeighbourLists(width, neighbours, counts);
+    }
+
+    /**
+     * @return Le nombre maximal de voisins par stop
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return Le nombre de voisins du stop (inférieur à la largeur si des stops sont inaccessibles)
+     */
+    public int count(int stop) {
+        return counts[stop];
+    }
+
+    /**
+     * @param rank Rang du voisin (0 = le plus proche)
+     */
+    public int neighbour(int stop, int rank) {
+        return neighbours[stop * width + rank];
+    }
+}
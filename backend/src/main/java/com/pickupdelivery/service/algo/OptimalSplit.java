@@ -0,0 +1,227 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Découpage optimal d'une tournée géante en au plus K tournées de coursiers
+ * ("route-first, cluster-second", procédure Split de Beasley / Prins)
+ *
+ * Les demandes sont prises dans l'ordre de leurs pickups dans la tournée géante. Une tournée
+ * de coursier sert une suite contiguë de demandes ; ses stops sont visités dans l'ordre de la
+ * tournée géante, ce qui conserve la précédence. Le découpage minimise, par programmation
+ * dynamique sur les points de coupe, le nombre de demandes abandonnées (pénalité
+ * {@link Solution#UNASSIGNED_PENALTY}) puis la distance cumulée, chaque tournée respectant
+ * la limite de durée.
+ *
+ * Coût d'une tournée (i..j) : calculé incrémentalement quand j avance, en insérant les deux
+ * stops de la demande j entre leurs voisins dans l'ordre de la tournée géante ; les temps de
+ * service viennent de sommes préfixes. Avec l'inégalité triangulaire, une tournée ne raccourcit
+ * jamais en ajoutant une demande : l'extension s'arrête au premier dépassement de la limite.
+ * Avec des fenêtres horaires, la tournée est en plus simulée (attentes comprises) : ajouter
+ * une demande ne fait que retarder les stops suivants, l'arrêt au premier échec reste exact.
+ * De même pour la capacité : une demande de plus ne diminue la charge nulle part.
+ *
+ * Complexité : O(n·L·log n) pour les coûts et O(K·n·L) pour le découpage, où L est le nombre
+ * maximal de demandes d'une tournée réalisable.
+ */
+public final class OptimalSplit {
+
+    private final StopMatrix matrix;
+    private final double timeLimitSec;
+
+    /**
+     * @param matrix       La matrice des stops
+     * @param timeLimitSec Durée maximale d'une tournée en secondes
+     */
+    public OptimalSplit(StopMatrix matrix, double timeLimitSec) {
+        this.matrix = matrix;
+        this.timeLimitSec = timeLimitSec;
+    }
+
+    /**
+     * @param giantTour Tournée géante (indices sans l'entrepôt) visitant chaque stop une fois
+     *                  et respectant la précédence
+     * @param maxRoutes Nombre maximal de tournées (coursiers)
+     * @return La solution découpée ; les demandes abandonnées restent non assignées
+     * @throws IllegalArgumentException Si la tournée géante ne couvre pas exactement les stops
+     */
+    public Solution split(int[] giantTour, int maxRoutes) {
+        int requestCount = matrix.requestCount();
+        if (giantTour.length != 2 * requestCount) {
+            throw new IllegalArgumentException("La tournée géante doit contenir les " + 2 * requestCount
+                + " stops (reçu: " + giantTour.length + ")");
+        }
+
+        // Position de chaque stop dans la tournée géante, demandes dans l'ordre de leurs pickups
+        int[] position = new int[matrix.size()];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < giantTour.length; i++) {
+            position[giantTour[i]] = i;
+        }
+        int[] sequence = new int[requestCount];
+        int count = 0;
+        for (int stop : giantTour) {
+            if (stop == StopMatrix.DEPOT || position[stop] < 0) {
+                throw new IllegalArgumentException("Stop invalide dans la tournée géante: " + stop);
+            }
+            if (stop == StopMatrix.pickupOf(StopMatrix.requestOf(stop))) {
+                sequence[count++] = StopMatrix.requestOf(stop);
+            }
+        }
+        if (count != requestCount) {
+            throw new IllegalArgumentException("La tournée géante ne contient pas un pickup par demande");
+        }
+
+        double[][] segmentCost = segmentCosts(giantTour, position, sequence);
+        int[][] cut = new int[maxRoutes + 1][requestCount + 1];
+        shortestSplit(segmentCost, maxRoutes, cut);
+
+        // Reconstruction des tournées (de la fin vers le début)
+        Solution solution = new Solution(matrix, maxRoutes);
+        int k = maxRoutes;
+        int j = requestCount;
+        int route = 0;
+        while (j > 0 && k > 0) {
+            int i = cut[k][j];
+            if (i < 0) {
+                j--; // Demande sequence[j-1] abandonnée
+            } else if (i == j) {
+                k--; // Une tournée de moins suffit
+            } else {
+                solution.setRoute(route++, routeOf(giantTour, position, sequence, i, j));
+                j = i;
+                k--;
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * Coûts (distance) des tournées servant les demandes sequence[i..j], +∞ au-delà de la limite
+     *
+     * @return segmentCost[i][len - 1] pour la tournée de len demandes commençant en i
+     */
+    private double[][] segmentCosts(int[] giantTour, int[] position, int[] sequence) {
+        int n = sequence.length;
+        double speed = matrix.getSpeedMs();
+        double[] servicePrefix = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            int request = sequence[i];
+            servicePrefix[i + 1] = servicePrefix[i]
+                + matrix.serviceSec(StopMatrix.pickupOf(request)) + matrix.serviceSec(StopMatrix.deliveryOf(request));
+        }
+
+        double[][] costs = new double[n][];
+        double[] buffer = new double[n];
+        TreeSet<Integer> visited = new TreeSet<>();
+        for (int i = 0; i < n; i++) {
+            visited.clear();
+            double distance = 0.0;
+            int length = 0;
+            for (int j = i; j < n; j++) {
+                int request = sequence[j];
+                distance = insert(visited, giantTour, position[StopMatrix.pickupOf(request)], distance);
+                distance = insert(visited, giantTour, position[StopMatrix.deliveryOf(request)], distance);
+                double duration = distance / speed + servicePrefix[j + 1] - servicePrefix[i];
+                if (!(duration <= timeLimitSec)) {
+                    break; // Plus longue encore avec une demande de plus (inégalité triangulaire)
+                }
+                if (matrix.hasSideConstraints()) {
+                    int[] route = routeOf(giantTour, position, sequence, i, j + 1);
+                    if (matrix.peakLoad(route, 0, route.length) > matrix.capacity()) {
+                        break; // Capacité dépassée
+                    }
+                    if (matrix.hasTimeWindows() && !(matrix.returnTime(route, 0, route.length) <= timeLimitSec)) {
+                        break; // Fenêtre manquée ou retour trop tardif
+                    }
+                }
+                buffer[length++] = distance;
+            }
+            costs[i] = Arrays.copyOf(buffer, length);
+        }
+        return costs;
+    }
+
+    /**
+     * Insère un stop (par sa position dans la tournée géante) entre ses voisins déjà visités
+     *
+     * @return La nouvelle distance de la tournée (entrepôt → stops → entrepôt)
+     */
+    private double insert(TreeSet<Integer> visited, int[] giantTour, int position, double distance) {
+        Integer before = visited.lower(position);
+        Integer after = visited.higher(position);
+        int previous = before != null ? giantTour[before] : StopMatrix.DEPOT;
+        int next = after != null ? giantTour[after] : StopMatrix.DEPOT;
+        int stop = giantTour[position];
+        visited.add(position);
+        double removed = visited.size() == 1 ? 0.0 : matrix.distance(previous, next);
+        if (Double.isInfinite(distance) || Double.isInfinite(removed)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return distance + matrix.distance(previous, stop) + matrix.distance(stop, next) - removed;
+    }
+
+    /**
+     * Plus court chemin sur le graphe des points de coupe, avec au plus maxRoutes arcs "tournée"
+     * et des arcs "abandon" de coût {@link Solution#UNASSIGNED_PENALTY}
+     *
+     * @param cut Rempli : début de la dernière tournée, -1 (abandon) ou j (tournée inutilisée)
+     * @return best[k][j] : objectif minimal pour les j premières demandes avec au plus k tournées
+     */
+    private static double[][] shortestSplit(double[][] segmentCost, int maxRoutes, int[][] cut) {
+        int n = segmentCost.length;
+        int maxLength = 0;
+        for (double[] costs : segmentCost) {
+            maxLength = Math.max(maxLength, costs.length);
+        }
+        double[][] best = new double[maxRoutes + 1][n + 1];
+        for (int j = 1; j <= n; j++) {
+            best[0][j] = best[0][j - 1] + Solution.UNASSIGNED_PENALTY;
+            cut[0][j] = -1;
+        }
+        for (int k = 1; k <= maxRoutes; k++) {
+            for (int j = 1; j <= n; j++) {
+                double value = best[k - 1][j];
+                int from = j;
+                double drop = best[k][j - 1] + Solution.UNASSIGNED_PENALTY;
+                if (drop < value) {
+                    value = drop;
+                    from = -1;
+                }
+                // Dernière tournée = demandes i..j-1, limitée aux tournées réalisables
+                for (int i = j - 1; i >= Math.max(0, j - maxLength); i--) {
+                    if (j - 1 - i >= segmentCost[i].length) {
+                        continue;
+                    }
+                    double candidate = best[k - 1][i] + segmentCost[i][j - 1 - i];
+                    if (candidate < value) {
+                        value = candidate;
+                        from = i;
+                    }
+                }
+                best[k][j] = value;
+                cut[k][j] = from;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Stops des demandes sequence[from..to-1], dans l'ordre de la tournée géante
+     */
+    private static int[] routeOf(int[] giantTour, int[] position, int[] sequence, int from, int to) {
+        int[] positions = new int[2 * (to - from)];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            positions[count++] = position[StopMatrix.pickupOf(sequence[i])];
+            positions[count++] = position[StopMatrix.deliveryOf(sequence[i])];
+        }
+        Arrays.sort(positions);
+        int[] route = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            route[i] = giantTour[positions[i]];
+        }
+        return route;
+    }
+}
@@ -0,0 +1,193 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 2-opt "meilleure amélioration" d'une longue tournée, évaluation des mouvements en parallèle
+ *
+ * À chaque passage, toutes les paires (i, k) sont évaluées : le segment s[i..k] est inversé
+ * si aucune demande complète n'y figure, chaque évaluation en O(1) par sommes préfixes dans
+ * les deux sens de parcours (voir {@link TwoOptSequence}). Avec des fenêtres horaires ou une
+ * capacité, seul un mouvement qui améliore le meilleur de sa tranche est vérifié (voir
+ * {@link TwoOptConstraints}), les tableaux de planning étant partagés en lecture seule.
+ *
+ * Le balayage est découpé en tranches de positions i sur un pool fork/join ; chaque tranche
+ * renvoie son meilleur mouvement améliorant, puis les résultats sont réduits dans un ordre
+ * total (gain, puis i, puis k). Le mouvement retenu ne dépend donc ni du nombre de threads
+ * ni de l'ordonnancement : deux exécutions donnent la même tournée. Le mouvement est appliqué
+ * séquentiellement avant le passage suivant.
+ *
+ * Complexité : O(n²) évaluations par passage, réparties sur les cœurs, O(n) par mouvement.
+ *
+ * Utilisé uniquement par le 2-opt complet (sans listes de voisins, algo.granular.neighbours=0)
+ * pour les tournées d'au moins algo.parallel.two-opt-min-stops stops : avec les listes de
+ * voisins (par défaut), les tournées passent par {@link GranularTwoOpt}, dont le balayage
+ * borné par les candidats n'a pas besoin d'être parallélisé.
+ */
+public final class ParallelTwoOpt {
+
+    private static final double EPSILON = 1e-9;
+
+    private final StopMatrix matrix;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    private int moves;
+    private long evaluations;
+    private TwoOptConstraints constraints;
+
+    /**
+     * @param matrix    La matrice des stops
+     * @param pool      Le pool d'évaluation
+     * @param chunkSize Nombre de positions i évaluées par une tranche séquentielle
+     * @throws IllegalArgumentException Si la taille de tranche est inférieure à 1
+     */
+    public ParallelTwoOpt(StopMatrix matrix, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("La taille de tranche doit être au moins 1 (reçu: " + chunkSize + ")");
+        }
+        this.matrix = matrix;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Applique le meilleur mouvement de chaque passage jusqu'à l'optimum local ou l'échéance
+     *
+     * @param route    Indices de la tournée sans l'entrepôt, précédence respectée (non modifiée)
+     * @param deadline Échéance consultée avant chaque passage
+     * @return La tournée améliorée (toujours valide)
+     */
+    public int[] optimize(int[] route, Deadline deadline) {
+        moves = 0;
+        evaluations = 0;
+        int length = route.length;
+        if (length < 2) {
+            return route.clone();
+        }
+
+        int[] sequence = new int[length + 2];
+        System.arraycopy(route, 0, sequence, 1, length);
+        sequence[0] = StopMatrix.DEPOT;
+        sequence[length + 1] = StopMatrix.DEPOT;
+        int[] position = new int[matrix.size()];
+        double[] forward = new double[length + 2];
+        double[] backward = new double[length + 2];
+        int[] limit = new int[length + 2];
+        constraints = new TwoOptConstraints(matrix, length + 2);
+
+        while (!deadline.isExpired()) {
+            TwoOptSequence.refresh(matrix, sequence, position, forward, backward, limit);
+            if (constraints.isActive()) {
+                constraints.refresh(sequence);
+            }
+            Move best = pool.invoke(new ScanTask(sequence, forward, backward, limit, 1, length));
+            evaluations += best.evaluations;
+            if (best.i < 0) {
+                break; // Optimum local
+            }
+            TwoOptSequence.reverse(sequence, best.i, best.k);
+            moves++;
+        }
+
+        int[] result = new int[length];
+        System.arraycopy(sequence, 1, result, 0, length);
+        return result;
+    }
+
+    /**
+     * @return Le nombre de mouvements appliqués par le dernier appel
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return Le nombre de mouvements évalués par le dernier appel
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Meilleur mouvement d'une tranche (i = -1 si aucun n'améliore)
+     */
+    private record Move(double delta, int i, int k, long evaluations) {
+
+        /**
+         * Réduction déterministe : plus grand gain, puis plus petit i, puis plus petit k
+         */
+        Move merge(Move other) {
+            long total = evaluations + other.evaluations;
+            Move best = this;
+            if (other.i >= 0 && (i < 0 || other.delta < delta
+                    || (other.delta == delta && (other.i < i || (other.i == i && other.k < k))))) {
+                best = other;
+            }
+            return new Move(best.delta, best.i, best.k, total);
+        }
+    }
+
+    /**
+     * Évalue les mouvements dont le segment commence en i ∈ [from, to)
+     */
+    private final class ScanTask extends RecursiveTask<Move> {
+
+        private final int[] sequence;
+        private final double[] forward;
+        private final double[] backward;
+        private final int[] limit;
+        private final int from;
+        private final int to;
+
+        ScanTask(int[] sequence, double[] forward, double[] backward, int[] limit, int from, int to) {
+            this.sequence = sequence;
+            this.forward = forward;
+            this.backward = backward;
+            this.limit = limit;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Move compute() {
+            if (to - from <= chunkSize) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(sequence, forward, backward, limit, from, middle);
+            left.fork();
+            Move right = new ScanTask(sequence, forward, backward, limit, middle, to).compute();
+            return left.join().merge(right);
+        }
+
+        private Move scan() {
+            int last = sequence.length - 2;
+            double bestDelta = -EPSILON;
+            int bestI = -1;
+            int bestK = -1;
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                int a = sequence[i - 1];
+                int b = sequence[i];
+                int end = Math.min(last, limit[i] - 1);
+                for (int k = i + 1; k <= end; k++) {
+                    int c = sequence[k];
+                    int d = sequence[k + 1];
+                    double removed = matrix.distance(a, b) + forward[k] - forward[i] + matrix.distance(c, d);
+                    double added = matrix.distance(a, c) + backward[k] - backward[i] + matrix.distance(b, d);
+                    double delta = added - removed;
+                    count++;
+                    // Faux si NaN (trajets manquants)
+                    if (delta < bestDelta && (!constraints.isActive() || constraints.allows(sequence, i, k))) {
+                        bestDelta = delta;
+                        bestI = i;
+                        bestK = k;
+                    }
+                }
+            }
+            return bestI < 0 ? new Move(0.0, -1, -1, count) : new Move(bestDelta, bestI, bestK, count);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Décomposition d'une distribution en sous-problèmes indépendants, un par coursier
+ *
+ * Chaque tournée non vide devient une instance à un seul coursier (sa propre
+ * {@link StopMatrix}, limitée à ses demandes) optimisée par une {@link LnsOptimizer} ;
+ * les sous-problèmes sont résolus en parallèle sur le pool fourni puis recollés.
+ * L'affectation des demandes aux coursiers est conservée : seule la séquence de chaque
+ * tournée change, ce qui rend la recherche linéaire en nombre de coursiers.
+ */
+public final class RouteDecomposition {
+
+    private final Graph graph;
+    private final double timeLimitSec;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    private int subproblems;
+
+    /**
+     * @param graph        Le graphe d'origine (trajets et demandes)
+     * @param timeLimitSec Durée maximale d'une tournée en secondes
+     * @param seed         Graine des recherches (décalée pour chaque coursier)
+     * @param pool         Pool exécutant les sous-problèmes
+     */
+    public RouteDecomposition(Graph graph, double timeLimitSec, long seed, ForkJoinPool pool) {
+        this.graph = graph;
+        this.timeLimitSec = timeLimitSec;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * @param initial       Distribution valide de départ (non modifiée)
+     * @param deadline      Échéance horloge murale commune
+     * @param maxIterations Nombre maximal d'itérations, réparti entre les coursiers
+     * @return La distribution recollée (au pire une copie de l'initiale)
+     */
+    public Solution optimize(Solution initial, Deadline deadline, int maxIterations) {
+        StopMatrix matrix = initial.getMatrix();
+        List<Integer> routes = new ArrayList<>();
+        for (int k = 0; k < initial.routeCount(); k++) {
+            if (initial.routeLength(k) > 2) {
+                routes.add(k);
+            }
+        }
+        subproblems = routes.size();
+        Solution merged = initial.copy();
+        if (routes.isEmpty()) {
+            return merged;
+        }
+
+        int iterationsPerRoute = Math.max(1, maxIterations / routes.size());
+        List<Callable<int[]>> tasks = new ArrayList<>(routes.size());
+        for (int k : routes) {
+            int[] route = initial.route(k);
+            long routeSeed = seed + k;
+            tasks.add(() -> optimizeRoute(matrix, route, deadline, iterationsPerRoute, routeSeed));
+        }
+
+        List<Future<int[]>> results = pool.invokeAll(tasks);
+        for (int i = 0; i < routes.size(); i++) {
+            int k = routes.get(i);
+            int[] route = await(results.get(i));
+            if (route != null) {
+                Solution candidate = merged.copy();
+                candidate.setRoute(k, route);
+                if (candidate.isFeasible(timeLimitSec) && candidate.routeDistance(k) < merged.routeDistance(k)) {
+                    merged = candidate;
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return Le nombre de sous-problèmes résolus par le dernier appel
+     */
+    public int getSubproblems() {
+        return subproblems;
+    }
+
+    /**
+     * Optimise une tournée seule sur sa propre matrice
+     *
+     * @return La séquence optimisée, en indices de la matrice d'origine (null si non convertible)
+     */
+    private int[] optimizeRoute(StopMatrix matrix, int[] route, Deadline deadline, int maxIterations, long routeSeed) {
+        Map<String, List<Stop>> pickups = new HashMap<>();
+        Map<String, Stop> deliveries = new HashMap<>();
+        for (int index : route) {
+            String requestId = matrix.requestId(StopMatrix.requestOf(index));
+            if (index == StopMatrix.pickupOf(StopMatrix.requestOf(index))) {
+                pickups.put(requestId, List.of(matrix.stop(index)));
+            } else {
+                deliveries.put(requestId, matrix.stop(index));
+            }
+        }
+        StopMatrix sub = StopMatrix.of(graph, matrix.stop(StopMatrix.DEPOT), pickups, deliveries, matrix.getSpeedMs());
+        if (sub == null) {
+            return null;
+        }
+
+        Solution start = new Solution(sub, 1);
+        start.setRoute(0, toSubIndices(route, matrix, sub));
+        Solution best = new LnsOptimizer(sub, timeLimitSec, routeSeed).optimize(start, deadline, maxIterations);
+
+        int[] subRoute = best.route(0);
+        int[] result = new int[subRoute.length];
+        for (int i = 0; i < subRoute.length; i++) {
+            result[i] = matrix.indexOf(sub.stop(subRoute[i]));
+        }
+        return best.unassignedCount() == 0 ? result : null;
+    }
+
+    private static int[] toSubIndices(int[] route, StopMatrix matrix, StopMatrix sub) {
+        int[] result = new int[route.length];
+        for (int i = 0; i < route.length; i++) {
+            result[i] = sub.indexOf(matrix.stop(route[i]));
+        }
+        return result;
+    }
+
+    private static int[] await(Future<int[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Décomposition interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un sous-problème: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Construction multi-coursiers par économies (Clarke–Wright) adaptée au pickup & delivery
+ *
+ * Chaque demande part dans sa propre tournée entrepôt → pickup → delivery → entrepôt. Mettre
+ * la tournée B à la suite de la tournée A économise
+ * s(a, b) = d(dernier stop de A, entrepôt) + d(entrepôt, premier stop de B) - d(dernier stop de A, premier stop de B).
+ * Les fusions sont tirées d'un tas binaire (économie maximale d'abord) et acceptées si A se
+ * termine bien par la demande a, B commence par la demande b, A ≠ B et la tournée fusionnée
+ * tient dans la limite de durée. Les tournées ne sont jamais retournées : la concaténation
+ * conserve la précédence pickup → delivery.
+ *
+ * Avec des fenêtres horaires, chaque tournée initiale et chaque fusion est en plus simulée
+ * (attentes comprises, en O(longueur)) et refusée si une fenêtre est manquée. Avec une capacité,
+ * une tournée se vide avant de revenir à l'entrepôt : la charge maximale d'une fusion est le
+ * maximum de celles des deux tournées (O(1)).
+ *
+ * Toutes les tournées sont construites ensemble, sans limite sur le nombre de coursiers. S'il
+ * reste plus de tournées que de coursiers, on garde celles qui servent le plus de demandes
+ * (à égalité, les plus courtes) ; les demandes des autres restent non assignées.
+ *
+ * Complexité : O(n²) économies, O(n² log n) pour les extraire du tas, chaque fusion en O(1).
+ */
+public final class SavingsConstruction {
+
+    private final StopMatrix matrix;
+    private final double timeLimitSec;
+
+    /**
+     * @param matrix       La matrice des stops
+     * @param timeLimitSec Durée maximale d'une tournée en secondes
+     */
+    public SavingsConstruction(StopMatrix matrix, double timeLimitSec) {
+        this.matrix = matrix;
+        this.timeLimitSec = timeLimitSec;
+    }
+
+    /**
+     * @param maxRoutes Nombre de coursiers disponibles
+     * @return Une solution valide d'au plus maxRoutes tournées
+     */
+    public Solution build(int maxRoutes) {
+        int n = matrix.requestCount();
+        double speed = matrix.getSpeedMs();
+
+        // Tournées initiales : une par demande réalisable seule
+        int[] next = new int[n];
+        int[] headRoute = new int[n];
+        int[] tailRoute = new int[n];
+        int[] tail = new int[n];
+        int[] size = new int[n];
+        double[] distance = new double[n];
+        double[] service = new double[n];
+        int[] peakLoad = new int[n];
+        boolean[] alive = new boolean[n];
+        Arrays.fill(next, -1);
+        Arrays.fill(headRoute, -1);
+        Arrays.fill(tailRoute, -1);
+        for (int r = 0; r < n; r++) {
+            int pickup = StopMatrix.pickupOf(r);
+            int delivery = StopMatrix.deliveryOf(r);
+            distance[r] = matrix.distance(StopMatrix.DEPOT, pickup) + matrix.distance(pickup, delivery)
+                + matrix.distance(delivery, StopMatrix.DEPOT);
+            service[r] = matrix.serviceSec(pickup) + matrix.serviceSec(delivery);
+            peakLoad[r] = matrix.load(r);
+            double duration = matrix.hasTimeWindows() ? matrix.aloneDuration(r) : distance[r] / speed + service[r];
+            if (duration <= timeLimitSec && peakLoad[r] <= matrix.capacity()) {
+                alive[r] = true;
+                headRoute[r] = r;
+                tailRoute[r] = r;
+                tail[r] = r;
+                size[r] = 1;
+            }
+        }
+
+        // Économies positives de toutes les paires (a en fin de tournée, b en début)
+        SavingsHeap heap = new SavingsHeap();
+        for (int a = 0; a < n; a++) {
+            if (!alive[a]) {
+                continue;
+            }
+            int from = StopMatrix.deliveryOf(a);
+            for (int b = 0; b < n; b++) {
+                if (a == b || !alive[b]) {
+                    continue;
+                }
+                int to = StopMatrix.pickupOf(b);
+                double saving = matrix.distance(from, StopMatrix.DEPOT) + matrix.distance(StopMatrix.DEPOT, to)
+                    - matrix.distance(from, to);
+                if (saving > 0 && !Double.isNaN(saving) && !Double.isInfinite(saving)) {
+                    heap.add(saving, a, b);
+                }
+            }
+        }
+        heap.heapify();
+
+        // Fusions, économie maximale d'abord
+        while (!heap.isEmpty()) {
+            double saving = heap.topSaving();
+            int a = heap.topFrom();
+            int b = heap.topTo();
+            heap.poll();
+
+            int first = tailRoute[a];
+            int second = headRoute[b];
+            if (first < 0 || second < 0 || first == second) {
+                continue;
+            }
+            double mergedDistance = distance[first] + distance[second] - saving;
+            double mergedService = service[first] + service[second];
+            if (mergedDistance / speed + mergedService > timeLimitSec
+                    || Math.max(peakLoad[first], peakLoad[second]) > matrix.capacity()) {
+                continue;
+            }
+            if (matrix.hasTimeWindows()) {
+                int[] merged = new int[2 * (size[first] + size[second])];
+                collectStops(next, second, merged, collectStops(next, first, merged, 0));
+                if (!(matrix.returnTime(merged, 0, merged.length) <= timeLimitSec)) {
+                    continue;
+                }
+            }
+
+            next[a] = b;
+            tailRoute[a] = -1;
+            headRoute[b] = -1;
+            tailRoute[tail[second]] = first;
+            tail[first] = tail[second];
+            distance[first] = mergedDistance;
+            service[first] = mergedService;
+            peakLoad[first] = Math.max(peakLoad[first], peakLoad[second]);
+            size[first] += size[second];
+            alive[second] = false;
+        }
+
+        // Les maxRoutes tournées servant le plus de demandes
+        List<Integer> routes = new ArrayList<>();
+        for (int r = 0; r < n; r++) {
+            if (alive[r]) {
+                routes.add(r);
+            }
+        }
+        routes.sort(Comparator.<Integer>comparingInt(r -> -size[r]).thenComparingDouble(r -> distance[r]));
+
+        Solution solution = new Solution(matrix, maxRoutes);
+        for (int k = 0; k < Math.min(maxRoutes, routes.size()); k++) {
+            int head = routes.get(k);
+            int[] stops = new int[2 * size[head]];
+            collectStops(next, head, stops, 0);
+            solution.setRoute(k, stops);
+        }
+        return solution;
+    }
+
+    /**
+     * Écrit les stops de la tournée commençant par la demande head à partir de offset
+     *
+     * @return La position suivant le dernier stop écrit
+     */
+    private static int collectStops(int[] next, int head, int[] stops, int offset) {
+        for (int r = head; r >= 0; r = next[r]) {
+            stops[offset++] = StopMatrix.pickupOf(r);
+            stops[offset++] = StopMatrix.deliveryOf(r);
+        }
+        return offset;
+    }
+
+    /**
+     * Tas binaire max sur tableaux primitifs : n² entrées sans objet par économie
+     */
+    private static final class SavingsHeap {
+
+        private double[] savings = new double[16];
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int size;
+
+        void add(double saving, int a, int b) {
+            if (size == savings.length) {
+                int capacity = size * 2;
+                savings = Arrays.copyOf(savings, capacity);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+            }
+            savings[size] = saving;
+            from[size] = a;
+            to[size] = b;
+            size++;
+        }
+
+        void heapify() {
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double topSaving() {
+            return savings[0];
+        }
+
+        int topFrom() {
+            return from[0];
+        }
+
+        int topTo() {
+            return to[0];
+        }
+
+        void poll() {
+            size--;
+            move(size, 0);
+            siftDown(0);
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && before(left, largest)) {
+                    largest = left;
+                }
+                if (right < size && before(right, largest)) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        /**
+         * Économie plus grande d'abord ; à égalité, ordre (a, b) croissant pour un résultat déterministe
+         */
+        private boolean before(int i, int j) {
+            if (savings[i] != savings[j]) {
+                return savings[i] > savings[j];
+            }
+            return from[i] != from[j] ? from[i] < from[j] : to[i] < to[j];
+        }
+
+        private void move(int source, int target) {
+            savings[target] = savings[source];
+            from[target] = from[source];
+            to[target] = to[source];
+        }
+
+        private void swap(int i, int j) {
+            double saving = savings[i];
+            int a = from[i];
+            int b = to[i];
+            move(j, i);
+            savings[j] = saving;
+            from[j] = a;
+            to[j] = b;
+        }
+    }
+}
@@ -0,0 +1,666 @@
+package com.pickupdelivery.service.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solution multi-coursiers manipulée par les optimiseurs
+ *
+ * Chaque tournée est une suite d'indices de {@link StopMatrix} SANS l'entrepôt
+ * (implicite au départ et à l'arrivée). Distance et durée de chaque tournée sont
+ * tenues à jour à chaque insertion/retrait. Une demande est soit entièrement dans
+ * une tournée (pickup avant delivery), soit non assignée.
+ *
+ * Chaque tournée porte aussi des tableaux cumulés, indexés par position p = 0..longueur
+ * (p = longueur : retour à l'entrepôt) et mis à jour à partir de la première position
+ * modifiée :
+ * - distance parcourue jusqu'au stop p
+ * - temps de service des stops 0..p-1
+ * On en déduit en O(1) l'heure d'arrivée à chaque stop, la position d'un stop et la
+ * variation de distance et de durée d'une insertion ou d'un retrait (faisabilité des
+ * insertions, pire retrait de la LNS, relocalisation entre coursiers).
+ *
+ * Lorsque la matrice porte des fenêtres horaires, chaque tournée garde en plus son
+ * planning (arrivée, début de service après attente, attente cumulée) et la marge
+ * avant (forward time slack) de chaque position :
+ *   marge[p] = attente[p] + min(auPlusTard[p] - début[p], marge[p+1]), marge[longueur] = +∞
+ * c'est-à-dire le retard maximal à l'arrivée en p qui ne fait manquer aucune fenêtre
+ * de la suite. La faisabilité d'une insertion se vérifie alors en O(1).
+ *
+ * Lorsque les coursiers ont une capacité, chaque tournée garde la charge à bord à l'arrivée
+ * en chaque position et le maximum de cette charge sur la suite (maximum suffixe) : une
+ * insertion tient si la charge maximale entre le pickup et la delivery, plus la charge de
+ * la demande, reste sous la capacité.
+ */
+public final class Solution {
+
+    /** Pénalité par demande non assignée (domine toute distance réaliste) */
+    public static final double UNASSIGNED_PENALTY = 1e9;
+
+    private static final double EPSILON = 1e-6;
+
+    private final StopMatrix matrix;
+    private final int[][] routes;
+    private final int[] lengths;
+    private final double[] routeDistances;
+    private final double[] routeDurations;
+    private final int[] routeOfRequest;
+    private final int[] positionOfStop;
+    private final double[][] prefixDistance;
+    private final double[][] prefixService;
+    // Planning avec fenêtres horaires (null si la matrice n'en a pas)
+    private final double[][] arrival;
+    private final double[][] serviceStart;
+    private final double[][] waitBefore;
+    private final double[][] forwardSlack;
+    private final boolean[] windowViolated;
+    // Charge à bord (null si la capacité est illimitée)
+    private final int[][] loadBefore;
+    private final int[][] peakLoadFrom;
+
+    /**
+     * Crée une solution vide : toutes les demandes sont non assignées
+     *
+     * @param matrix     La matrice des stops
+     * @param routeCount Le nombre de tournées (coursiers) disponibles
+     */
+    public Solution(StopMatrix matrix, int routeCount) {
+        this.matrix = matrix;
+        this.routes = new int[routeCount][];
+        this.lengths = new int[routeCount];
+        this.routeDistances = new double[routeCount];
+        this.routeDurations = new double[routeCount];
+        this.routeOfRequest = new int[matrix.requestCount()];
+        this.positionOfStop = new int[matrix.size()];
+        this.prefixDistance = new double[routeCount][];
+        this.prefixService = new double[routeCount][];
+        for (int k = 0; k < routeCount; k++) {
+            routes[k] = new int[8];
+            prefixDistance[k] = new double[9];
+            prefixService[k] = new double[9];
+        }
+        Arrays.fill(routeOfRequest, -1);
+        if (matrix.hasTimeWindows()) {
+            this.arrival = new double[routeCount][9];
+            this.serviceStart = new double[routeCount][9];
+            this.waitBefore = new double[routeCount][9];
+            this.forwardSlack = new double[routeCount][9];
+            this.windowViolated = new boolean[routeCount];
+            for (int k = 0; k < routeCount; k++) {
+                forwardSlack[k][0] = Double.POSITIVE_INFINITY;
+            }
+        } else {
+            this.arrival = null;
+            this.serviceStart = null;
+            this.waitBefore = null;
+            this.forwardSlack = null;
+            this.windowViolated = null;
+        }
+        if (matrix.hasCapacity()) {
+            this.loadBefore = new int[routeCount][9];
+            this.peakLoadFrom = new int[routeCount][9];
+        } else {
+            this.loadBefore = null;
+            this.peakLoadFrom = null;
+        }
+    }
+
+    private Solution(Solution other) {
+        this.matrix = other.matrix;
+        this.routes = new int[other.routes.length][];
+        for (int k = 0; k < routes.length; k++) {
+            routes[k] = other.routes[k].clone();
+        }
+        this.lengths = other.lengths.clone();
+        this.routeDistances = other.routeDistances.clone();
+        this.routeDurations = other.routeDurations.clone();
+        this.routeOfRequest = other.routeOfRequest.clone();
+        this.positionOfStop = other.positionOfStop.clone();
+        this.prefixDistance = new double[routes.length][];
+        this.prefixService = new double[routes.length][];
+        for (int k = 0; k < routes.length; k++) {
+            prefixDistance[k] = other.prefixDistance[k].clone();
+            prefixService[k] = other.prefixService[k].clone();
+        }
+        this.arrival = deepCopy(other.arrival);
+        this.serviceStart = deepCopy(other.serviceStart);
+        this.waitBefore = deepCopy(other.waitBefore);
+        this.forwardSlack = deepCopy(other.forwardSlack);
+        this.windowViolated = other.windowViolated != null ? other.windowViolated.clone() : null;
+        this.loadBefore = deepCopy(other.loadBefore);
+        this.peakLoadFrom = deepCopy(other.peakLoadFrom);
+    }
+
+    private static int[][] deepCopy(int[][] arrays) {
+        if (arrays == null) {
+            return null;
+        }
+        int[][] copy = new int[arrays.length][];
+        for (int k = 0; k < arrays.length; k++) {
+            copy[k] = arrays[k].clone();
+        }
+        return copy;
+    }
+
+    private static double[][] deepCopy(double[][] arrays) {
+        if (arrays == null) {
+            return null;
+        }
+        double[][] copy = new double[arrays.length][];
+        for (int k = 0; k < arrays.length; k++) {
+            copy[k] = arrays[k].clone();
+        }
+        return copy;
+    }
+
+    public Solution copy() {
+        return new Solution(this);
+    }
+
+    /**
+     * Remplace le contenu d'une tournée (indices sans l'entrepôt)
+     *
+     * @throws IllegalArgumentException Si un stop est déjà assigné ou si une demande est incomplète
+     */
+    public void setRoute(int route, int[] stops) {
+        for (int i = 0; i < lengths[route]; i++) {
+            routeOfRequest[StopMatrix.requestOf(routes[route][i])] = -1;
+        }
+        for (int stop : stops) {
+            int request = StopMatrix.requestOf(stop);
+            if (stop == StopMatrix.DEPOT || (routeOfRequest[request] != -1 && routeOfRequest[request] != route)) {
+                throw new IllegalArgumentException("Stop invalide ou déjà assigné: " + stop);
+            }
+            routeOfRequest[request] = route;
+        }
+        routes[route] = Arrays.copyOf(stops, Math.max(8, stops.length));
+        lengths[route] = stops.length;
+        update(route, 0);
+        for (int stop : stops) {
+            int request = StopMatrix.requestOf(stop);
+            if (indexInRoute(route, StopMatrix.pickupOf(request)) > indexInRoute(route, StopMatrix.deliveryOf(request))
+                    || indexInRoute(route, StopMatrix.pickupOf(request)) < 0) {
+                throw new IllegalArgumentException("Précédence violée pour la demande " + matrix.requestId(request));
+            }
+        }
+    }
+
+    // =========================================================================
+    // LECTURE
+    // =========================================================================
+
+    public StopMatrix getMatrix() {
+        return matrix;
+    }
+
+    public int routeCount() {
+        return routes.length;
+    }
+
+    public int routeLength(int route) {
+        return lengths[route];
+    }
+
+    public int stopAt(int route, int position) {
+        return routes[route][position];
+    }
+
+    /**
+     * @return Les indices de la tournée (sans l'entrepôt)
+     */
+    public int[] route(int route) {
+        return Arrays.copyOf(routes[route], lengths[route]);
+    }
+
+    public double routeDistance(int route) {
+        return routeDistances[route];
+    }
+
+    public double routeDuration(int route) {
+        return routeDurations[route];
+    }
+
+    /**
+     * @return La tournée de la demande, ou -1 si elle n'est pas assignée
+     */
+    public int routeOf(int request) {
+        return routeOfRequest[request];
+    }
+
+    public boolean isAssigned(int request) {
+        return routeOfRequest[request] >= 0;
+    }
+
+    public double totalDistance() {
+        double total = 0.0;
+        for (int k = 0; k < routes.length; k++) {
+            total += routeDistances[k];
+        }
+        return total;
+    }
+
+    public int unassignedCount() {
+        int count = 0;
+        for (int route : routeOfRequest) {
+            if (route < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public List<Integer> unassignedRequests() {
+        List<Integer> unassigned = new ArrayList<>();
+        for (int r = 0; r < routeOfRequest.length; r++) {
+            if (routeOfRequest[r] < 0) {
+                unassigned.add(r);
+            }
+        }
+        return unassigned;
+    }
+
+    public List<Integer> assignedRequests() {
+        List<Integer> assigned = new ArrayList<>();
+        for (int r = 0; r < routeOfRequest.length; r++) {
+            if (routeOfRequest[r] >= 0) {
+                assigned.add(r);
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Objectif minimisé : distance totale + pénalité par demande non assignée
+     */
+    public double objective() {
+        return totalDistance() + UNASSIGNED_PENALTY * unassignedCount();
+    }
+
+    /**
+     * @return true si toutes les tournées respectent la limite de durée (et les fenêtres horaires)
+     */
+    public boolean isFeasible(double timeLimitSec) {
+        for (int k = 0; k < routes.length; k++) {
+            if (!isRouteFeasible(k, timeLimitSec)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true si la tournée respecte la limite de durée, chaque fenêtre horaire et la capacité
+     */
+    public boolean isRouteFeasible(int route, double timeLimitSec) {
+        return routeDurations[route] <= timeLimitSec + EPSILON
+            && (windowViolated == null || !windowViolated[route])
+            && (peakLoadFrom == null || peakLoadFrom[route][0] <= matrix.capacity());
+    }
+
+    /**
+     * @return La position du stop dans la tournée, ou -1 (en O(1))
+     */
+    public int indexInRoute(int route, int stop) {
+        if (stop == StopMatrix.DEPOT || routeOfRequest[StopMatrix.requestOf(stop)] != route) {
+            return -1;
+        }
+        return positionOfStop[stop];
+    }
+
+    // =========================================================================
+    // TABLEAUX CUMULÉS ET VARIATIONS DE DURÉE EN O(1)
+    // =========================================================================
+
+    /**
+     * @param position 0..longueur (longueur : retour à l'entrepôt)
+     * @return L'heure d'arrivée au stop, en secondes depuis le départ de l'entrepôt
+     *         (attentes aux fenêtres horaires comprises)
+     */
+    public double arrivalAt(int route, int position) {
+        if (arrival != null) {
+            return arrival[route][position];
+        }
+        return prefixDistance[route][position] / matrix.getSpeedMs() + prefixService[route][position];
+    }
+
+    /**
+     * @return La distance parcourue depuis l'entrepôt jusqu'au stop de cette position (0..longueur)
+     */
+    public double distanceTo(int route, int position) {
+        return prefixDistance[route][position];
+    }
+
+    /**
+     * @return Le temps de service cumulé des stops placés avant cette position (0..longueur)
+     */
+    public double serviceBefore(int route, int position) {
+        return prefixService[route][position];
+    }
+
+    /**
+     * Variation de durée si la demande (non assignée) est insérée comme par
+     * {@link #insertRequest(int, int, int, int)} (trajets et services, hors attentes)
+     */
+    public double insertionDurationDelta(int request, int route, int pickupPosition, int deliveryGap) {
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        int before = stopOrDepot(route, pickupPosition - 1);
+        int at = stopOrDepot(route, pickupPosition);
+        double distance;
+        if (deliveryGap == pickupPosition) {
+            distance = matrix.distance(before, pickup) + matrix.distance(pickup, delivery)
+                + matrix.distance(delivery, at) - matrix.distance(before, at);
+        } else {
+            int beforeDelivery = stopOrDepot(route, deliveryGap - 1);
+            int atDelivery = stopOrDepot(route, deliveryGap);
+            distance = matrix.distance(before, pickup) + matrix.distance(pickup, at) - matrix.distance(before, at)
+                + matrix.distance(beforeDelivery, delivery) + matrix.distance(delivery, atDelivery)
+                - matrix.distance(beforeDelivery, atDelivery);
+        }
+        return distance / matrix.getSpeedMs() + matrix.serviceSec(pickup) + matrix.serviceSec(delivery);
+    }
+
+    /**
+     * Variation de distance (négative en pratique) si la demande assignée est retirée
+     */
+    public double removalDistanceDelta(int request) {
+        int route = routeOfRequest[request];
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        int i = positionOfStop[pickup];
+        int j = positionOfStop[delivery];
+        int before = stopOrDepot(route, i - 1);
+        int after = stopOrDepot(route, j + 1);
+        if (j == i + 1) {
+            return matrix.distance(before, after) - matrix.distance(before, pickup)
+                - matrix.distance(pickup, delivery) - matrix.distance(delivery, after);
+        }
+        int afterPickup = stopOrDepot(route, i + 1);
+        int beforeDelivery = stopOrDepot(route, j - 1);
+        return matrix.distance(before, afterPickup) - matrix.distance(before, pickup)
+            - matrix.distance(pickup, afterPickup)
+            + matrix.distance(beforeDelivery, after) - matrix.distance(beforeDelivery, delivery)
+            - matrix.distance(delivery, after);
+    }
+
+    /**
+     * Variation de durée (négative en pratique) si la demande assignée est retirée
+     */
+    public double removalDurationDelta(int request) {
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        return removalDistanceDelta(request) / matrix.getSpeedMs() - matrix.serviceSec(pickup) - matrix.serviceSec(delivery);
+    }
+
+    /**
+     * Vérifie en O(1) qu'une insertion (comme par {@link #insertRequest(int, int, int, int)})
+     * garde la tournée sous la limite de durée et dans les fenêtres horaires
+     *
+     * Avec fenêtres : le retard causé par le pickup à l'arrivée en pickupPosition doit tenir
+     * dans la marge avant de cette position ; il est absorbé par les attentes jusqu'à la
+     * delivery, dont le retard à l'arrivée en deliveryGap doit tenir dans la marge suivante.
+     * Le retour à l'entrepôt est retardé de ce qui reste après les attentes de la fin.
+     */
+    public boolean isInsertionFeasible(int request, int route, int pickupPosition, int deliveryGap,
+                                       double timeLimitSec) {
+        if (!isLoadFeasible(request, route, pickupPosition, deliveryGap)) {
+            return false;
+        }
+        if (arrival == null) {
+            return routeDurations[route] + insertionDurationDelta(request, route, pickupPosition, deliveryGap)
+                <= timeLimitSec + EPSILON;
+        }
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        double[] begin = serviceStart[route];
+
+        int before = stopOrDepot(route, pickupPosition - 1);
+        double leave = pickupPosition == 0 ? 0.0 : begin[pickupPosition - 1] + matrix.serviceSec(before);
+        double pickupStart = Math.max(leave + matrix.travelTime(before, pickup), matrix.earliestSec(pickup));
+        if (pickupStart > matrix.latestSec(pickup) + EPSILON) {
+            return false;
+        }
+        double afterPickup = pickupStart + matrix.serviceSec(pickup);
+
+        int previous = pickup;
+        if (deliveryGap > pickupPosition) {
+            double delay = afterPickup + matrix.travelTime(pickup, routes[route][pickupPosition])
+                - arrival[route][pickupPosition];
+            if (!absorbs(route, pickupPosition, delay, timeLimitSec)) {
+                return false;
+            }
+            // Décalage du début de service en deliveryGap - 1 après les attentes intermédiaires
+            double waited = waitBefore[route][deliveryGap] - waitBefore[route][pickupPosition];
+            previous = routes[route][deliveryGap - 1];
+            afterPickup = begin[deliveryGap - 1] + Math.max(0.0, delay - waited) + matrix.serviceSec(previous);
+        }
+        double deliveryStart = Math.max(afterPickup + matrix.travelTime(previous, delivery),
+            matrix.earliestSec(delivery));
+        if (deliveryStart > matrix.latestSec(delivery) + EPSILON) {
+            return false;
+        }
+        double delay = deliveryStart + matrix.serviceSec(delivery)
+            + matrix.travelTime(delivery, stopOrDepot(route, deliveryGap)) - arrival[route][deliveryGap];
+        return absorbs(route, deliveryGap, delay, timeLimitSec);
+    }
+
+    /**
+     * Vérifie la capacité pour une insertion : la charge de la demande s'ajoute à la charge à
+     * bord à l'arrivée en chaque position pickupPosition..deliveryGap
+     *
+     * O(1) par le maximum suffixe lorsque toute la suite de la tournée peut accueillir la
+     * charge (ou que la position du pickup ne le peut pas) ; sinon parcours de l'intervalle.
+     */
+    public boolean isLoadFeasible(int request, int route, int pickupPosition, int deliveryGap) {
+        if (loadBefore == null) {
+            return true;
+        }
+        int free = matrix.capacity() - matrix.load(request);
+        int[] load = loadBefore[route];
+        if (peakLoadFrom[route][pickupPosition] <= free) {
+            return true;
+        }
+        for (int p = pickupPosition; p <= deliveryGap; p++) {
+            if (load[p] > free) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return La charge à bord à l'arrivée en position p (0..longueur), 0 sans capacité
+     */
+    public int loadAt(int route, int position) {
+        return loadBefore != null ? loadBefore[route][position] : 0;
+    }
+
+    /**
+     * @return true si un retard à l'arrivée en position p ne fait manquer aucune fenêtre
+     *         et garde le retour à l'entrepôt sous la limite
+     */
+    private boolean absorbs(int route, int position, double delay, double timeLimitSec) {
+        if (delay > forwardSlack[route][position] + EPSILON) {
+            return false;
+        }
+        int length = lengths[route];
+        double waited = waitBefore[route][length] - waitBefore[route][position];
+        return arrival[route][length] + Math.max(0.0, delay - waited) <= timeLimitSec + EPSILON;
+    }
+
+    private int stopOrDepot(int route, int position) {
+        return position < 0 || position >= lengths[route] ? StopMatrix.DEPOT : routes[route][position];
+    }
+
+    // =========================================================================
+    // MODIFICATION
+    // =========================================================================
+
+    /**
+     * Insère une demande dans une tournée
+     *
+     * @param request        La demande (non assignée)
+     * @param route          La tournée cible
+     * @param pickupPosition Position du pickup dans la tournée actuelle (0..longueur)
+     * @param deliveryGap    Position de la delivery dans la tournée actuelle (pickupPosition..longueur) :
+     *                       la delivery est insérée juste après le pickup si deliveryGap == pickupPosition
+     */
+    public void insertRequest(int request, int route, int pickupPosition, int deliveryGap) {
+        if (routeOfRequest[request] >= 0) {
+            throw new IllegalStateException("Demande déjà assignée: " + matrix.requestId(request));
+        }
+        int length = lengths[route];
+        if (length + 2 > routes[route].length) {
+            routes[route] = Arrays.copyOf(routes[route], Math.max(8, routes[route].length * 2));
+        }
+        int[] stops = routes[route];
+        // Décalage de la fin puis du milieu (de droite à gauche)
+        System.arraycopy(stops, deliveryGap, stops, deliveryGap + 2, length - deliveryGap);
+        stops[deliveryGap + 1] = StopMatrix.deliveryOf(request);
+        System.arraycopy(stops, pickupPosition, stops, pickupPosition + 1, deliveryGap - pickupPosition);
+        stops[pickupPosition] = StopMatrix.pickupOf(request);
+        lengths[route] = length + 2;
+        routeOfRequest[request] = route;
+        update(route, pickupPosition);
+    }
+
+    /**
+     * Retire une demande (pickup et delivery) de sa tournée
+     */
+    public void removeRequest(int request) {
+        int route = routeOfRequest[request];
+        if (route < 0) {
+            return;
+        }
+        int pickup = StopMatrix.pickupOf(request);
+        int delivery = StopMatrix.deliveryOf(request);
+        int first = positionOfStop[pickup];
+        int[] stops = routes[route];
+        int write = first;
+        for (int read = first; read < lengths[route]; read++) {
+            if (stops[read] != pickup && stops[read] != delivery) {
+                stops[write++] = stops[read];
+            }
+        }
+        lengths[route] = write;
+        routeOfRequest[request] = -1;
+        update(route, first);
+    }
+
+    /**
+     * Recalcule distance et durée d'une tournée (trajets + temps de service)
+     */
+    public void recompute(int route) {
+        update(route, 0);
+    }
+
+    /**
+     * Met à jour les tableaux cumulés à partir d'une position (les précédentes sont inchangées),
+     * puis distance et durée de la tournée
+     */
+    private void update(int route, int from) {
+        int[] stops = routes[route];
+        int length = lengths[route];
+        if (prefixDistance[route].length < length + 1) {
+            int capacity = Math.max(length + 1, prefixDistance[route].length * 2);
+            prefixDistance[route] = Arrays.copyOf(prefixDistance[route], capacity);
+            prefixService[route] = Arrays.copyOf(prefixService[route], capacity);
+        }
+        double[] forward = prefixDistance[route];
+        double[] service = prefixService[route];
+
+        for (int p = Math.max(0, from); p <= length; p++) {
+            int stop = p < length ? stops[p] : StopMatrix.DEPOT;
+            if (p < length) {
+                positionOfStop[stop] = p;
+            }
+            if (p == 0) {
+                forward[0] = length > 0 ? matrix.distance(StopMatrix.DEPOT, stop) : 0.0;
+                service[0] = 0.0;
+            } else {
+                int previous = stops[p - 1];
+                forward[p] = forward[p - 1] + matrix.distance(previous, stop);
+                service[p] = service[p - 1] + matrix.serviceSec(previous);
+            }
+        }
+        routeDistances[route] = forward[length];
+        routeDurations[route] = forward[length] / matrix.getSpeedMs() + service[length];
+        if (arrival != null) {
+            updateSchedule(route, from);
+        }
+        if (loadBefore != null) {
+            updateLoads(route, from);
+        }
+    }
+
+    /**
+     * Charge à l'arrivée (à partir d'une position) puis maximum suffixe (toute la tournée)
+     */
+    private void updateLoads(int route, int from) {
+        int[] stops = routes[route];
+        int length = lengths[route];
+        if (loadBefore[route].length < length + 1) {
+            int capacity = Math.max(length + 1, loadBefore[route].length * 2);
+            loadBefore[route] = Arrays.copyOf(loadBefore[route], capacity);
+            peakLoadFrom[route] = Arrays.copyOf(peakLoadFrom[route], capacity);
+        }
+        int[] load = loadBefore[route];
+        int[] peak = peakLoadFrom[route];
+        int start = Math.max(0, from);
+        if (start == 0) {
+            load[0] = 0;
+            start = 1;
+        }
+        for (int p = start; p <= length; p++) {
+            load[p] = load[p - 1] + matrix.loadDelta(stops[p - 1]);
+        }
+        peak[length] = load[length];
+        for (int p = length - 1; p >= 0; p--) {
+            peak[p] = Math.max(load[p], peak[p + 1]);
+        }
+    }
+
+    /**
+     * Planning avec attentes (à partir d'une position) puis marges avant (toute la tournée) ;
+     * la durée de la tournée devient l'heure de retour, attentes comprises
+     */
+    private void updateSchedule(int route, int from) {
+        int[] stops = routes[route];
+        int length = lengths[route];
+        if (arrival[route].length < length + 1) {
+            int capacity = Math.max(length + 1, arrival[route].length * 2);
+            arrival[route] = Arrays.copyOf(arrival[route], capacity);
+            serviceStart[route] = Arrays.copyOf(serviceStart[route], capacity);
+            waitBefore[route] = Arrays.copyOf(waitBefore[route], capacity);
+            forwardSlack[route] = Arrays.copyOf(forwardSlack[route], capacity);
+        }
+        double[] arrive = arrival[route];
+        double[] begin = serviceStart[route];
+        double[] waits = waitBefore[route];
+        double[] slack = forwardSlack[route];
+
+        for (int p = Math.max(0, from); p <= length; p++) {
+            int stop = p < length ? stops[p] : StopMatrix.DEPOT;
+            if (p == 0) {
+                arrive[0] = length > 0 ? matrix.travelTime(StopMatrix.DEPOT, stop) : 0.0;
+                waits[0] = 0.0;
+            } else {
+                int previous = stops[p - 1];
+                arrive[p] = begin[p - 1] + matrix.serviceSec(previous) + matrix.travelTime(previous, stop);
+                waits[p] = waits[p - 1] + begin[p - 1] - arrive[p - 1];
+            }
+            begin[p] = p < length ? Math.max(arrive[p], matrix.earliestSec(stop)) : arrive[p];
+        }
+
+        boolean violated = false;
+        slack[length] = Double.POSITIVE_INFINITY;
+        for (int p = length - 1; p >= 0; p--) {
+            double latest = matrix.latestSec(stops[p]);
+            violated |= begin[p] > latest + EPSILON;
+            slack[p] = begin[p] - arrive[p] + Math.min(latest - begin[p], slack[p + 1]);
+        }
+        windowViolated[route] = violated;
+        routeDurations[route] = arrive[length];
+    }
+}
@@ -0,0 +1,22 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Profil d'effort nommé (fast / balanced / quality) : budget de latence et limites des solveurs
+ *
+ * @param name             Nom du profil
+ * @param timeBudgetMs     Budget horloge murale de la recherche (ms)
+ * @param maxIterations    Nombre maximal d'itérations de la recherche
+ * @param exactMaxRequests Taille maximale (en demandes) résolue par programmation dynamique
+ */
+public record SolverProfile(String name, long timeBudgetMs, int maxIterations, int exactMaxRequests) {
+
+    public static final String FAST = "fast";
+    public static final String BALANCED = "balanced";
+    public static final String QUALITY = "quality";
+
+    public SolverProfile {
+        if (timeBudgetMs < 0 || maxIterations < 0 || exactMaxRequests < 0) {
+            throw new IllegalArgumentException("Le profil " + name + " contient une valeur négative");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Stratégies de résolution disponibles, de la plus exacte à la plus rapide
+ */
+public enum SolverStrategy {
+
+    /** Programmation dynamique : tournée unique optimale (petites instances) */
+    EXACT("Programmation dynamique"),
+
+    /** Construction gloutonne + 2-opt + distribution FIFO, sans métaheuristique */
+    LOCAL_SEARCH("Glouton + 2-opt + FIFO"),
+
+    /** Construction puis recherche à grand voisinage (une ou plusieurs îles) et bornes */
+    METAHEURISTIC("Glouton + 2-opt + FIFO + LNS"),
+
+    /** Construction puis une recherche indépendante par coursier, en parallèle */
+    DECOMPOSITION("FIFO + LNS par coursier"),
+
+    /** Très grandes instances : secteurs géographiques résolus en parallèle puis recollés */
+    GEOGRAPHIC("Secteurs géographiques en parallèle");
+
+    private final String label;
+
+    SolverStrategy(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return Libellé lisible de la stratégie (logs, réponse)
+     */
+    public String getLabel() {
+        return label;
+    }
+}
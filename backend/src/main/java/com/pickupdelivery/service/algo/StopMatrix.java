@@ -0,0 +1,336 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.Demand;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vue indexée et dense d'un {@link Graph} pour les optimiseurs
+ *
+ * Numérotation des stops :
+ * - 0 : l'entrepôt
+ * - 1 + 2r : pickup de la demande r
+ * - 2 + 2r : delivery de la demande r
+ *
+ * Les distances reprennent la sémantique de StopRoutes.distance() : 0 m entre deux
+ * stops du même nœud, +∞ lorsque la matrice du Graph ne contient pas le trajet.
+ *
+ * Fenêtres horaires (secondes après le départ de l'entrepôt) : début de service au plus tôt
+ * (0 sans contrainte) et au plus tard (+∞ sans contrainte) de chaque stop.
+ *
+ * Capacité : charge de chaque demande (embarquée au pickup, déposée à la delivery) et
+ * capacité commune des coursiers, portée par le Graph (illimitée si absente).
+ */
+public final class StopMatrix {
+
+    /** Indice de l'entrepôt */
+    public static final int DEPOT = 0;
+
+    private final Stop[] stops;
+    private final String[] requestIds;
+    private final double[] distances;
+    private final double[] serviceSec;
+    private final double speedMs;
+    private final double[] earliestSec;
+    private final double[] latestSec;
+    private final boolean timeWindows;
+    private final int[] loads;
+    private final Integer capacity;
+    private final Map<Stop, Integer> indexByStop;
+
+    private StopMatrix(Stop[] stops, String[] requestIds, double[] distances, double[] serviceSec, double speedMs,
+                       double[] earliestSec, double[] latestSec, int[] loads, Integer capacity) {
+        this.stops = stops;
+        this.requestIds = requestIds;
+        this.distances = distances;
+        this.serviceSec = serviceSec;
+        this.speedMs = speedMs;
+        this.earliestSec = earliestSec;
+        this.latestSec = latestSec;
+        boolean constrained = false;
+        for (int i = 0; i < stops.length; i++) {
+            constrained |= earliestSec[i] > 0 || latestSec[i] < Double.POSITIVE_INFINITY;
+        }
+        this.timeWindows = constrained;
+        this.loads = loads;
+        this.capacity = capacity;
+        this.indexByStop = new HashMap<>(stops.length * 2);
+        for (int i = 0; i < stops.length; i++) {
+            indexByStop.put(stops[i], i);
+        }
+    }
+
+    /**
+     * Construit la vue indexée d'un graphe
+     *
+     * @param graph               Le graphe (matrice de trajets + demandMap)
+     * @param warehouse           Le stop entrepôt
+     * @param pickupsByRequestId  Pickups par demande
+     * @param deliveryByRequestId Delivery par demande
+     * @param speedMs             Vitesse du coursier en m/s
+     * @return La matrice, ou null si le graphe ne s'y prête pas (demande sans exactement
+     *         un pickup et une delivery, ou absente de la demandMap)
+     */
+    public static StopMatrix of(
+            Graph graph,
+            Stop warehouse,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId,
+            double speedMs
+    ) {
+        if (graph == null || graph.getDistancesMatrix() == null || graph.getDemandMap() == null || warehouse == null) {
+            return null;
+        }
+
+        // Ordre des demandes indépendant de l'itération des HashMap (reproductibilité)
+        TreeMap<String, List<Stop>> sortedPickups = new TreeMap<>(pickupsByRequestId);
+        if (sortedPickups.size() != deliveryByRequestId.size()) {
+            return null;
+        }
+
+        int requestCount = sortedPickups.size();
+        int n = 1 + 2 * requestCount;
+        Stop[] stops = new Stop[n];
+        String[] requestIds = new String[requestCount];
+        double[] serviceSec = new double[n];
+        double[] earliestSec = new double[n];
+        double[] latestSec = new double[n];
+        Arrays.fill(latestSec, Double.POSITIVE_INFINITY);
+        int[] loads = new int[requestCount];
+        stops[DEPOT] = warehouse;
+
+        int r = 0;
+        for (Map.Entry<String, List<Stop>> entry : sortedPickups.entrySet()) {
+            String requestId = entry.getKey();
+            Stop delivery = deliveryByRequestId.get(requestId);
+            Demand demand = graph.getDemandMap().get(requestId);
+            if (entry.getValue().size() != 1 || delivery == null || demand == null) {
+                return null;
+            }
+            requestIds[r] = requestId;
+            stops[1 + 2 * r] = entry.getValue().get(0);
+            stops[2 + 2 * r] = delivery;
+            serviceSec[1 + 2 * r] = demand.getPickupDurationSec();
+            serviceSec[2 + 2 * r] = demand.getDeliveryDurationSec();
+            earliestSec[1 + 2 * r] = bound(demand.getPickupEarliestSec(), 0.0);
+            latestSec[1 + 2 * r] = bound(demand.getPickupLatestSec(), Double.POSITIVE_INFINITY);
+            earliestSec[2 + 2 * r] = bound(demand.getDeliveryEarliestSec(), 0.0);
+            latestSec[2 + 2 * r] = bound(demand.getDeliveryLatestSec(), Double.POSITIVE_INFINITY);
+            loads[r] = demand.getLoad() != null ? demand.getLoad() : 0;
+            r++;
+        }
+
+        Map<Stop, Map<Stop, Trajet>> matrix = graph.getDistancesMatrix();
+        double[] distances = new double[n * n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            Map<Stop, Trajet> row = matrix.get(stops[i]);
+            for (int j = 0; j < n; j++) {
+                if (stops[i].getIdNode().equals(stops[j].getIdNode())) {
+                    distances[i * n + j] = 0.0;
+                } else if (row != null) {
+                    Trajet trajet = row.get(stops[j]);
+                    if (trajet != null) {
+                        distances[i * n + j] = trajet.getDistance();
+                    }
+                }
+            }
+        }
+
+        return new StopMatrix(stops, requestIds, distances, serviceSec, speedMs, earliestSec, latestSec,
+            loads, graph.getCourierCapacity());
+    }
+
+    private static double bound(Integer seconds, double unbounded) {
+        return seconds != null ? Math.max(0.0, seconds) : unbounded;
+    }
+
+    /**
+     * @return Le nombre de stops (entrepôt compris)
+     */
+    public int size() {
+        return stops.length;
+    }
+
+    public int requestCount() {
+        return requestIds.length;
+    }
+
+    public static int pickupOf(int request) {
+        return 1 + 2 * request;
+    }
+
+    public static int deliveryOf(int request) {
+        return 2 + 2 * request;
+    }
+
+    /**
+     * @return La demande d'un stop (pickup ou delivery), indéfini pour l'entrepôt
+     */
+    public static int requestOf(int stop) {
+        return (stop - 1) >> 1;
+    }
+
+    public double distance(int from, int to) {
+        return distances[from * stops.length + to];
+    }
+
+    /**
+     * @return Le temps de trajet en secondes (+∞ si aucun trajet)
+     */
+    public double travelTime(int from, int to) {
+        return distance(from, to) / speedMs;
+    }
+
+    public double serviceSec(int stop) {
+        return serviceSec[stop];
+    }
+
+    public double getSpeedMs() {
+        return speedMs;
+    }
+
+    /**
+     * @return Le début de service au plus tôt du stop (secondes après le départ, 0 sans contrainte)
+     */
+    public double earliestSec(int stop) {
+        return earliestSec[stop];
+    }
+
+    /**
+     * @return Le début de service au plus tard du stop (+∞ sans contrainte)
+     */
+    public double latestSec(int stop) {
+        return latestSec[stop];
+    }
+
+    /**
+     * @return true si au moins un stop a une fenêtre horaire
+     */
+    public boolean hasTimeWindows() {
+        return timeWindows;
+    }
+
+    /**
+     * @return true si les coursiers ont une capacité limitée
+     */
+    public boolean hasCapacity() {
+        return capacity != null;
+    }
+
+    /**
+     * @return La capacité d'un coursier (Integer.MAX_VALUE si illimitée)
+     */
+    public int capacity() {
+        return capacity != null ? capacity : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return La charge de la demande (0 si non renseignée)
+     */
+    public int load(int request) {
+        return loads[request];
+    }
+
+    /**
+     * @return La variation de charge au stop : +charge au pickup, -charge à la delivery, 0 à l'entrepôt
+     */
+    public int loadDelta(int stop) {
+        if (stop == DEPOT) {
+            return 0;
+        }
+        int request = requestOf(stop);
+        return stop == pickupOf(request) ? loads[request] : -loads[request];
+    }
+
+    /**
+     * @return true si la matrice impose plus que la limite de durée (fenêtres ou capacité)
+     */
+    public boolean hasSideConstraints() {
+        return timeWindows || capacity != null;
+    }
+
+    /**
+     * @return true si la demande tient seule dans un coursier (durée et capacité)
+     */
+    public boolean isServableAlone(int request, double timeLimitSec) {
+        return aloneDuration(request) <= timeLimitSec && loads[request] <= capacity();
+    }
+
+    /**
+     * @param route  Indices des stops (sans l'entrepôt)
+     * @param offset Position du premier stop dans le tableau
+     * @param length Nombre de stops
+     * @return La charge maximale à bord au cours de la tournée
+     */
+    public int peakLoad(int[] route, int offset, int length) {
+        int load = 0;
+        int peak = 0;
+        for (int i = offset; i < offset + length; i++) {
+            load += loadDelta(route[i]);
+            peak = Math.max(peak, load);
+        }
+        return peak;
+    }
+
+    /**
+     * Simule une tournée (entrepôt → stops → entrepôt) en attendant l'ouverture des fenêtres
+     *
+     * @param route  Indices des stops (sans l'entrepôt)
+     * @param offset Position du premier stop dans le tableau
+     * @param length Nombre de stops
+     * @return L'heure de retour à l'entrepôt, ou +∞ si un début de service dépasse sa fenêtre
+     */
+    public double returnTime(int[] route, int offset, int length) {
+        if (length == 0) {
+            return 0.0;
+        }
+        double time = 0.0;
+        int previous = DEPOT;
+        for (int i = offset; i < offset + length; i++) {
+            int stop = route[i];
+            time = Math.max(time + travelTime(previous, stop), earliestSec[stop]);
+            if (time > latestSec[stop]) {
+                return Double.POSITIVE_INFINITY;
+            }
+            time += serviceSec[stop];
+            previous = stop;
+        }
+        return time + travelTime(previous, DEPOT);
+    }
+
+    public Stop stop(int index) {
+        return stops[index];
+    }
+
+    public String requestId(int request) {
+        return requestIds[request];
+    }
+
+    /**
+     * @return L'indice du stop, ou -1 s'il n'appartient pas à la matrice
+     */
+    public int indexOf(Stop stop) {
+        Integer index = indexByStop.get(stop);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Durée de la tournée entrepôt → pickup → delivery → entrepôt pour une demande seule
+     */
+    public double aloneDuration(int request) {
+        int p = pickupOf(request);
+        int d = deliveryOf(request);
+        if (timeWindows) {
+            return returnTime(new int[] {p, d}, 0, 2);
+        }
+        return travelTime(DEPOT, p) + travelTime(p, d) + travelTime(d, DEPOT) + serviceSec[p] + serviceSec[d];
+    }
+}
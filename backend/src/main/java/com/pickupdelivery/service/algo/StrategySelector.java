@@ -0,0 +1,56 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Choisit la stratégie de résolution d'une instance selon sa taille, le nombre de coursiers
+ * et le budget de latence demandé
+ *
+ * - Petites instances : solveur exact (programmation dynamique, limité par le profil)
+ * - Budget trop court pour une recherche : construction + 2-opt + FIFO seuls
+ * - Grandes instances multi-coursiers : décomposition par coursier, résolue en parallèle
+ * - Sinon : métaheuristique (LNS / îles) avec bornes inférieures
+ */
+public final class StrategySelector {
+
+    /** Budget (ms) en dessous duquel une métaheuristique n'a pas le temps de progresser */
+    public static final long MIN_SEARCH_BUDGET_MS = 20;
+
+    private final boolean searchEnabled;
+    private final int decompositionMinRequests;
+
+    /**
+     * @param searchEnabled            false pour interdire les métaheuristiques (LNS désactivée)
+     * @param decompositionMinRequests Nombre de demandes à partir duquel on décompose par coursier
+     */
+    public StrategySelector(boolean searchEnabled, int decompositionMinRequests) {
+        this.searchEnabled = searchEnabled;
+        this.decompositionMinRequests = decompositionMinRequests;
+    }
+
+    /**
+     * @param requestCount Nombre de demandes de l'instance
+     * @param courierCount Nombre de coursiers disponibles
+     * @param profile      Profil d'effort
+     * @param budgetMs     Budget de latence de la recherche (ms)
+     * @return La stratégie à appliquer
+     */
+    public SolverStrategy select(int requestCount, int courierCount, SolverProfile profile, long budgetMs) {
+        if (requestCount <= Math.min(profile.exactMaxRequests(), ExactPdpSolver.MAX_REQUESTS)) {
+            return SolverStrategy.EXACT;
+        }
+        return selectHeuristic(requestCount, courierCount, profile, budgetMs);
+    }
+
+    /**
+     * Stratégie de repli lorsque le solveur exact ne s'applique pas
+     * (par exemple aucune tournée unique ne respecte la limite de 4h)
+     */
+    public SolverStrategy selectHeuristic(int requestCount, int courierCount, SolverProfile profile, long budgetMs) {
+        if (!searchEnabled || requestCount < 2 || budgetMs < MIN_SEARCH_BUDGET_MS || profile.maxIterations() == 0) {
+            return SolverStrategy.LOCAL_SEARCH;
+        }
+        if (courierCount > 1 && requestCount >= decompositionMinRequests) {
+            return SolverStrategy.DECOMPOSITION;
+        }
+        return SolverStrategy.METAHEURISTIC;
+    }
+}
@@ -0,0 +1,122 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Fenêtres horaires et capacité d'un mouvement 2-opt (inversion du segment s[i..k])
+ *
+ * La séquence est la tournée étendue (entrepôt en 0 et en dernière position). Après chaque
+ * mouvement appliqué, {@link #refresh} recalcule en O(n) le planning de la séquence (arrivée,
+ * début de service, attente cumulée), la marge avant de chaque position (voir {@link Solution})
+ * et la charge à bord à l'arrivée. Un mouvement est ensuite vérifié sans resimuler la tournée :
+ * - segment inversé : parcouru à rebours depuis le départ de s[i-1], O(k - i)
+ * - suite s[k+1..] : le retard à l'arrivée en k+1 doit tenir dans la marge, O(1)
+ * - charge : recalculée sur le segment inversé, inchangée ailleurs, O(k - i)
+ * La tournée ne doit pas non plus rentrer plus tard (la limite de durée reste respectée).
+ *
+ * Une séquence qui manque déjà une fenêtre n'est contrainte que par la capacité : la
+ * validation des tournées la signale ensuite.
+ */
+public final class TwoOptConstraints {
+
+    private static final double EPSILON = 1e-6;
+
+    private final StopMatrix matrix;
+    private final double[] arrival;
+    private final double[] begin;
+    private final double[] waitBefore;
+    private final double[] slack;
+    private final int[] loadBefore;
+    private boolean windowViolated;
+
+    /**
+     * @param matrix         La matrice des stops
+     * @param sequenceLength Longueur de la séquence étendue (entrepôt aux deux extrémités)
+     */
+    public TwoOptConstraints(StopMatrix matrix, int sequenceLength) {
+        this.matrix = matrix;
+        boolean windows = matrix.hasTimeWindows();
+        this.arrival = windows ? new double[sequenceLength] : null;
+        this.begin = windows ? new double[sequenceLength] : null;
+        this.waitBefore = windows ? new double[sequenceLength] : null;
+        this.slack = windows ? new double[sequenceLength] : null;
+        this.loadBefore = matrix.hasCapacity() ? new int[sequenceLength] : null;
+    }
+
+    /**
+     * @return true si la matrice impose des fenêtres ou une capacité (sinon tout mouvement passe)
+     */
+    public boolean isActive() {
+        return arrival != null || loadBefore != null;
+    }
+
+    /**
+     * Planning, marges et charges de la séquence courante
+     */
+    public void refresh(int[] sequence) {
+        int last = sequence.length - 1;
+        if (loadBefore != null) {
+            loadBefore[0] = 0;
+            for (int p = 1; p <= last; p++) {
+                loadBefore[p] = loadBefore[p - 1] + matrix.loadDelta(sequence[p - 1]);
+            }
+        }
+        if (arrival == null) {
+            return;
+        }
+
+        arrival[0] = 0.0;
+        begin[0] = 0.0;
+        waitBefore[0] = 0.0;
+        for (int p = 1; p <= last; p++) {
+            int previous = sequence[p - 1];
+            arrival[p] = begin[p - 1] + matrix.serviceSec(previous) + matrix.travelTime(previous, sequence[p]);
+            begin[p] = p < last ? Math.max(arrival[p], matrix.earliestSec(sequence[p])) : arrival[p];
+            waitBefore[p] = waitBefore[p - 1] + begin[p - 1] - arrival[p - 1];
+        }
+
+        windowViolated = false;
+        slack[last] = Double.POSITIVE_INFINITY;
+        for (int p = last - 1; p >= 1; p--) {
+            double latest = matrix.latestSec(sequence[p]);
+            windowViolated |= begin[p] > latest + EPSILON;
+            slack[p] = begin[p] - arrival[p] + Math.min(latest - begin[p], slack[p + 1]);
+        }
+    }
+
+    /**
+     * @return true si l'inversion de s[i..k] (1 ≤ i < k < dernière position) respecte la
+     *         capacité et les fenêtres sans rentrer plus tard
+     */
+    public boolean allows(int[] sequence, int i, int k) {
+        if (loadBefore != null) {
+            int load = loadBefore[i];
+            for (int p = k; p >= i; p--) {
+                load += matrix.loadDelta(sequence[p]);
+                if (load > matrix.capacity()) {
+                    return false;
+                }
+            }
+        }
+        if (arrival == null || windowViolated) {
+            return true;
+        }
+
+        int previous = sequence[i - 1];
+        double time = begin[i - 1] + matrix.serviceSec(previous);
+        for (int p = k; p >= i; p--) {
+            int stop = sequence[p];
+            time = Math.max(time + matrix.travelTime(previous, stop), matrix.earliestSec(stop));
+            if (time > matrix.latestSec(stop) + EPSILON) {
+                return false;
+            }
+            time += matrix.serviceSec(stop);
+            previous = stop;
+        }
+        double delay = time + matrix.travelTime(previous, sequence[k + 1]) - arrival[k + 1];
+        if (delay > slack[k + 1] + EPSILON) {
+            return false;
+        }
+        int last = sequence.length - 1;
+        double waited = waitBefore[last] - waitBefore[k + 1];
+        return delay - waited <= EPSILON;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Outils communs aux 2-opt indexés ({@link GranularTwoOpt}, {@link ParallelTwoOpt})
+ *
+ * La séquence est la tournée étendue (entrepôt en 0 et en dernière position). Pour un segment
+ * s[i..k] :
+ * - distance : sommes préfixes dans les deux sens de parcours (la matrice n'est pas forcément
+ *   symétrique, le segment inversé est parcouru à rebours)
+ * - précédence : le segment ne doit contenir aucune demande complète, soit k < limite[i], où
+ *   limite[i] est la plus petite position de delivery dont le pickup est en position ≥ i
+ */
+final class TwoOptSequence {
+
+    private TwoOptSequence() {
+    }
+
+    /**
+     * Positions, sommes préfixes (aller et retour) et limites de précédence de la séquence
+     */
+    static void refresh(StopMatrix matrix, int[] sequence, int[] position,
+                        double[] forward, double[] backward, int[] limit) {
+        int last = sequence.length - 1;
+        for (int p = 1; p < last; p++) {
+            position[sequence[p]] = p;
+        }
+        forward[0] = 0.0;
+        backward[0] = 0.0;
+        for (int p = 1; p <= last; p++) {
+            forward[p] = forward[p - 1] + matrix.distance(sequence[p - 1], sequence[p]);
+            backward[p] = backward[p - 1] + matrix.distance(sequence[p], sequence[p - 1]);
+        }
+        limit[last] = Integer.MAX_VALUE;
+        for (int p = last - 1; p >= 1; p--) {
+            int stop = sequence[p];
+            int request = StopMatrix.requestOf(stop);
+            boolean pickup = stop == StopMatrix.pickupOf(request);
+            limit[p] = pickup ? Math.min(limit[p + 1], position[StopMatrix.deliveryOf(request)]) : limit[p + 1];
+        }
+    }
+
+    /**
+     * Inverse le segment s[i..k] en place
+     */
+    static void reverse(int[] sequence, int i, int k) {
+        while (i < k) {
+            int stop = sequence[i];
+            sequence[i] = sequence[k];
+            sequence[k] = stop;
+            i++;
+            k--;
+        }
+    }
+}
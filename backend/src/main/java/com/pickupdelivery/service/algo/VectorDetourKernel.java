@@ -0,0 +1,36 @@
+package com.pickupdelivery.service.algo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Noyau vectoriel de {@link DetourKernel} (API Vector, largeur préférée de la machine)
+ *
+ * Chargé par {@link DetourKernel#vector()} lorsque le module jdk.incubator.vector est
+ * résolu ; la queue du lot est traitée par la boucle scalaire.
+ * Seule classe compilée avec ce module (exécution compile-vector-kernel du pom.xml).
+ */
+final class VectorDetourKernel extends DetourKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void detours(double[] toStop, double[] fromStop, double[] direct, double[] out, int count) {
+        int bound = SPECIES.loopBound(count);
+        int p = 0;
+        for (; p < bound; p += SPECIES.length()) {
+            DoubleVector to = DoubleVector.fromArray(SPECIES, toStop, p);
+            DoubleVector from = DoubleVector.fromArray(SPECIES, fromStop, p);
+            DoubleVector shortcut = DoubleVector.fromArray(SPECIES, direct, p);
+            to.add(from).sub(shortcut).intoArray(out, p);
+        }
+        for (; p < count; p++) {
+            out[p] = toStop[p] + fromStop[p] - direct[p];
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vectoriel (" + SPECIES.length() + " voies)";
+    }
+}
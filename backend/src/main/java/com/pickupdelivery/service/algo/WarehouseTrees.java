@@ -0,0 +1,76 @@
+package com.pickupdelivery.service.algo;
+
+/**
+ * Arbres complets des plus courts chemins enracinés à l'entrepôt
+ *
+ * L'arbre "aller" donne d(entrepôt → n) et l'arbre "retour" d(n → entrepôt) pour
+ * tout nœud n de la carte. Avec la distance pickup → delivery, ils bornent en O(1)
+ * la durée minimale de la tournée d'une demande servie seule.
+ *
+ * Le graphe compilé est symétrique (chaque tronçon est praticable dans les deux sens),
+ * l'arbre retour est donc identique à l'arbre aller et partage le même tableau.
+ */
+public final class WarehouseTrees {
+
+    private final CompiledGraph graph;
+    private final String warehouseNodeId;
+    private final double[] fromWarehouse;
+    private final double[] toWarehouse;
+
+    private WarehouseTrees(CompiledGraph graph, String warehouseNodeId,
+                           double[] fromWarehouse, double[] toWarehouse) {
+        this.graph = graph;
+        this.warehouseNodeId = warehouseNodeId;
+        this.fromWarehouse = fromWarehouse;
+        this.toWarehouse = toWarehouse;
+    }
+
+    /**
+     * Calcule les arbres aller et retour depuis l'entrepôt
+     *
+     * @param graph           Le graphe compilé de la carte
+     * @param warehouseNodeId Le nœud de l'entrepôt
+     * @return Les arbres de l'entrepôt
+     * @throws IllegalArgumentException Si l'entrepôt n'est pas un nœud de la carte
+     */
+    public static WarehouseTrees compute(CompiledGraph graph, String warehouseNodeId) {
+        int warehouse = graph.indexOf(warehouseNodeId);
+        if (warehouse < 0) {
+            throw new IllegalArgumentException("Nœud de l'entrepôt introuvable dans la carte: " + warehouseNodeId);
+        }
+
+        DijkstraSearch search = graph.newSearch();
+        search.run(warehouse);
+        double[] forward = search.copyDistances();
+
+        // Graphe symétrique : l'arbre inverse coïncide avec l'arbre direct
+        return new WarehouseTrees(graph, warehouseNodeId, forward, forward);
+    }
+
+    /**
+     * @return true si ces arbres ont été calculés pour ce graphe et cet entrepôt
+     */
+    public boolean isFor(CompiledGraph graph, String warehouseNodeId) {
+        return this.graph == graph && this.warehouseNodeId.equals(warehouseNodeId);
+    }
+
+    /**
+     * @return d(entrepôt → nœud) en mètres, +∞ si inaccessible ou inconnu
+     */
+    public double distanceFromWarehouse(String nodeId) {
+        int index = graph.indexOf(nodeId);
+        return index < 0 ? Double.POSITIVE_INFINITY : fromWarehouse[index];
+    }
+
+    /**
+     * @return d(nœud → entrepôt) en mètres, +∞ si inaccessible ou inconnu
+     */
+    public double distanceToWarehouse(String nodeId) {
+        int index = graph.indexOf(nodeId);
+        return index < 0 ? Double.POSITIVE_INFINITY : toWarehouse[index];
+    }
+
+    public String getWarehouseNodeId() {
+        return warehouseNodeId;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pickupdelivery.service.algo.spi;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composants interchangeables de la chaîne de calcul, enregistrés par nom
+ *
+ * Les implémentations intégrées sont enregistrées par le service ; les beans Spring
+ * implémentant l'une des interfaces s'y ajoutent sous leur nom de bean. Un nom ne peut
+ * être enregistré qu'une fois par type de composant.
+ */
+public final class AlgorithmRegistry {
+
+    private final Map<String, ShortestPathEngine> shortestPathEngines = new LinkedHashMap<>();
+    private final Map<String, MatrixBuilder> matrixBuilders = new LinkedHashMap<>();
+    private final Map<String, RouteConstructor> routeConstructors = new LinkedHashMap<>();
+    private final Map<String, RouteImprover> routeImprovers = new LinkedHashMap<>();
+    private final Map<String, FleetDistributor> fleetDistributors = new LinkedHashMap<>();
+
+    // =========================================================================
+    // ENREGISTREMENT
+    // =========================================================================
+
+    public void registerShortestPathEngine(String name, ShortestPathEngine engine) {
+        register(shortestPathEngines, AlgorithmSelection.SHORTEST_PATH, name, engine);
+    }
+
+    public void registerMatrixBuilder(String name, MatrixBuilder builder) {
+        register(matrixBuilders, AlgorithmSelection.MATRIX_BUILDER, name, builder);
+    }
+
+    public void registerRouteConstructor(String name, RouteConstructor constructor) {
+        register(routeConstructors, AlgorithmSelection.ROUTE_CONSTRUCTOR, name, constructor);
+    }
+
+    public void registerRouteImprover(String name, RouteImprover improver) {
+        register(routeImprovers, AlgorithmSelection.ROUTE_IMPROVER, name, improver);
+    }
+
+    public void registerFleetDistributor(String name, FleetDistributor distributor) {
+        register(fleetDistributors, AlgorithmSelection.FLEET_DISTRIBUTOR, name, distributor);
+    }
+
+    // =========================================================================
+    // RÉSOLUTION
+    // =========================================================================
+
+    /**
+     * @throws IllegalArgumentException Si aucun moteur ne porte ce nom (de même pour les autres composants)
+     */
+    public ShortestPathEngine shortestPathEngine(String name) {
+        return lookup(shortestPathEngines, AlgorithmSelection.SHORTEST_PATH, name);
+    }
+
+    public MatrixBuilder matrixBuilder(String name) {
+        return lookup(matrixBuilders, AlgorithmSelection.MATRIX_BUILDER, name);
+    }
+
+    public RouteConstructor routeConstructor(String name) {
+        return lookup(routeConstructors, AlgorithmSelection.ROUTE_CONSTRUCTOR, name);
+    }
+
+    public RouteImprover routeImprover(String name) {
+        return lookup(routeImprovers, AlgorithmSelection.ROUTE_IMPROVER, name);
+    }
+
+    public FleetDistributor fleetDistributor(String name) {
+        return lookup(fleetDistributors, AlgorithmSelection.FLEET_DISTRIBUTOR, name);
+    }
+
+    /**
+     * Vérifie que chaque composant de la sélection est enregistré
+     *
+     * @throws IllegalArgumentException Sinon (le message liste les noms attendus)
+     */
+    public void validate(AlgorithmSelection selection) {
+        shortestPathEngine(selection.shortestPath());
+        matrixBuilder(selection.matrixBuilder());
+        routeConstructor(selection.routeConstructor());
+        routeImprover(selection.routeImprover());
+        fleetDistributor(selection.fleetDistributor());
+    }
+
+    /**
+     * @return Les noms enregistrés par type de composant, dans l'ordre d'enregistrement
+     */
+    public Map<String, List<String>> available() {
+        Map<String, List<String>> available = new LinkedHashMap<>();
+        available.put(AlgorithmSelection.SHORTEST_PATH, new ArrayList<>(shortestPathEngines.keySet()));
+        available.put(AlgorithmSelection.MATRIX_BUILDER, new ArrayList<>(matrixBuilders.keySet()));
+        available.put(AlgorithmSelection.ROUTE_CONSTRUCTOR, new ArrayList<>(routeConstructors.keySet()));
+        available.put(AlgorithmSelection.ROUTE_IMPROVER, new ArrayList<>(routeImprovers.keySet()));
+        available.put(AlgorithmSelection.FLEET_DISTRIBUTOR, new ArrayList<>(fleetDistributors.keySet()));
+        return available;
+    }
+
+    private static <T> void register(Map<String, T> components, String slot, String name, T component) {
+        if (name == null || name.isBlank() || component == null) {
+            throw new IllegalArgumentException("Composant " + slot + " sans nom ou sans implémentation");
+        }
+        if (components.putIfAbsent(name, component) != null) {
+            throw new IllegalStateException("Nom déjà enregistré pour " + slot + ": " + name);
+        }
+    }
+
+    private static <T> T lookup(Map<String, T> components, String slot, String name) {
+        T component = components.get(name);
+        if (component == null) {
+            throw new IllegalArgumentException("Algorithme inconnu pour " + slot + ": " + name
+                + " (attendus: " + String.join(", ", components.keySet()) + ")");
+        }
+        return component;
+    }
+}
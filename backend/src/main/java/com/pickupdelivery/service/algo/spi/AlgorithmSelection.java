@@ -0,0 +1,86 @@
+package com.pickupdelivery.service.algo.spi;
+
+/**
+ * Composants retenus pour un calcul, désignés par leur nom dans {@link AlgorithmRegistry}
+ *
+ * Les valeurs par défaut viennent de la configuration (algo.spi.*) ; une requête peut en
+ * remplacer une partie par une spécification "clé=nom" séparée par des virgules, par exemple
+ * "route-improver=parallel-2-opt,fleet-distributor=fifo" (voir {@link #withOverrides}).
+ *
+ * @param shortestPath     Moteur de plus courts chemins
+ * @param matrixBuilder    Construction de la matrice des distances
+ * @param routeConstructor Construction de la tournée globale
+ * @param routeImprover    Amélioration des tournées
+ * @param fleetDistributor Répartition entre coursiers
+ */
+public record AlgorithmSelection(
+        String shortestPath,
+        String matrixBuilder,
+        String routeConstructor,
+        String routeImprover,
+        String fleetDistributor
+) {
+
+    public static final String SHORTEST_PATH = "shortest-path";
+    public static final String MATRIX_BUILDER = "matrix-builder";
+    public static final String ROUTE_CONSTRUCTOR = "route-constructor";
+    public static final String ROUTE_IMPROVER = "route-improver";
+    public static final String FLEET_DISTRIBUTOR = "fleet-distributor";
+
+    public AlgorithmSelection {
+        if (isBlank(shortestPath) || isBlank(matrixBuilder) || isBlank(routeConstructor)
+                || isBlank(routeImprover) || isBlank(fleetDistributor)) {
+            throw new IllegalArgumentException("Chaque composant de la chaîne de calcul doit être nommé");
+        }
+    }
+
+    /**
+     * Remplace les composants désignés par une spécification "clé=nom,clé=nom"
+     *
+     * @param spec La spécification, null ou vide pour garder la sélection telle quelle
+     * @return La nouvelle sélection
+     * @throws IllegalArgumentException Si une entrée est mal formée ou la clé inconnue
+     */
+    public AlgorithmSelection withOverrides(String spec) {
+        if (isBlank(spec)) {
+            return this;
+        }
+        String[] names = {shortestPath, matrixBuilder, routeConstructor, routeImprover, fleetDistributor};
+        for (String entry : spec.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Entrée d'algorithme mal formée: '" + entry.trim() + "' (attendu: clé=nom)");
+            }
+            String key = entry.substring(0, separator).trim().toLowerCase();
+            String name = entry.substring(separator + 1).trim();
+            names[slotOf(key)] = name;
+        }
+        return new AlgorithmSelection(names[0], names[1], names[2], names[3], names[4]);
+    }
+
+    /**
+     * @return La sélection au format de {@link #withOverrides} (journaux, résultats)
+     */
+    @Override
+    public String toString() {
+        return SHORTEST_PATH + "=" + shortestPath + "," + MATRIX_BUILDER + "=" + matrixBuilder + ","
+            + ROUTE_CONSTRUCTOR + "=" + routeConstructor + "," + ROUTE_IMPROVER + "=" + routeImprover + ","
+            + FLEET_DISTRIBUTOR + "=" + fleetDistributor;
+    }
+
+    private static int slotOf(String key) {
+        return switch (key) {
+            case SHORTEST_PATH -> 0;
+            case MATRIX_BUILDER -> 1;
+            case ROUTE_CONSTRUCTOR -> 2;
+            case ROUTE_IMPROVER -> 3;
+            case FLEET_DISTRIBUTOR -> 4;
+            default -> throw new IllegalArgumentException("Composant inconnu: " + key + " (attendus: " + SHORTEST_PATH
+                + ", " + MATRIX_BUILDER + ", " + ROUTE_CONSTRUCTOR + ", " + ROUTE_IMPROVER + ", " + FLEET_DISTRIBUTOR + ")");
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
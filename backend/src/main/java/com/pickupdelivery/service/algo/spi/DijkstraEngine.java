@@ -0,0 +1,57 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.service.algo.CompiledGraph;
+import com.pickupdelivery.service.algo.DijkstraSearch;
+
+import java.util.Collections;
+
+/**
+ * Moteur par défaut : une recherche de Dijkstra un-vers-plusieurs (voir {@link DijkstraSearch}),
+ * arrêtée dès que toutes les cibles sont fixées
+ *
+ * Chaque thread garde son espace de travail tant que le graphe compilé ne change pas : les
+ * recherches successives (une par nœud distinct, ajout de demande) ne réallouent rien.
+ */
+public final class DijkstraEngine implements ShortestPathEngine {
+
+    /** Seuil (ms) au-delà duquel une recherche est signalée comme lente */
+    private static final long SLOW_THRESHOLD_MS = 100;
+
+    private final ThreadLocal<DijkstraSearch> workspace = new ThreadLocal<>();
+
+    @Override
+    public ShortestPathResult[] search(CompiledGraph graph, int source, int[] targets) {
+        DijkstraSearch search = workspace(graph);
+        long startTime = System.currentTimeMillis();
+        search.run(source, targets);
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        // Métriques de performance (pour debugging/monitoring)
+        if (elapsedTime > SLOW_THRESHOLD_MS) {
+            System.out.println("⚠️  Dijkstra lent: " + elapsedTime + "ms, " + search.getSettledCount()
+                    + " nœuds fixés depuis " + graph.nodeId(source));
+        }
+
+        ShortestPathResult[] results = new ShortestPathResult[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            double distance = search.distanceTo(targets[i]);
+            results[i] = distance == Double.POSITIVE_INFINITY
+                ? new ShortestPathResult(Double.POSITIVE_INFINITY, Collections.emptyList())
+                : new ShortestPathResult(distance, search.pathTo(targets[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Espace de travail du thread courant sur ce graphe (recréé si la carte a été recompilée)
+     */
+    private DijkstraSearch workspace(CompiledGraph graph) {
+        DijkstraSearch search = workspace.get();
+        if (search == null || search.getGraph() != graph) {
+            search = graph.newSearch();
+            workspace.set(search);
+        }
+        return search;
+    }
+}
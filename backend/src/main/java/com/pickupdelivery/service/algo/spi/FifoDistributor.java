@@ -0,0 +1,413 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.DistributionWarnings;
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.dto.TourMetrics;
+import com.pickupdelivery.exception.AlgorithmException;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.service.algo.Deadline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Répartition "fifo" : les demandes sont attribuées dans l'ordre de la tournée globale, et la
+ * tournée de chaque coursier est reconstruite (glouton + 2-opt complet) à chaque ajout
+ *
+ * Sert aussi de repli lorsque la répartition choisie ne s'applique pas à l'instance.
+ */
+public final class FifoDistributor implements FleetDistributor {
+
+    private final FullTwoOptImprover fullTwoOpt;
+
+    /**
+     * @param fullTwoOpt Le 2-opt appliqué à chaque réoptimisation d'un coursier
+     */
+    public FifoDistributor(FullTwoOptImprover fullTwoOpt) {
+        this.fullTwoOpt = fullTwoOpt;
+    }
+
+    @Override
+    public TourDistributionResult distribute(List<Stop> globalRoute, RoutingProblem problem, RouteImprover improver) {
+        return distribute(globalRoute, problem.graph(), problem.courierCount(), problem.pickupsByRequestId(),
+            problem.deliveryByRequestId(), problem.graph().getDemandMap(), problem.warehouse(), problem.deadline());
+    }
+
+    /**
+     * Distribue une route globale optimisée entre N coursiers avec RÉOPTIMISATION INCRÉMENTALE
+     * 
+     * PRINCIPE CORRIGÉ (Optimisation par coursier):
+     * 1. Parcours séquentiel de la route optimisée (ordre FIFO pour l'attribution)
+     * 2. Pour chaque demande rencontrée:
+     *    a. Ajouter temporairement la demande au coursier actuel
+     *    b. RECALCULER la tournée optimale (glouton + 2-opt) avec toutes les demandes assignées
+     *    c. Calculer la durée de la tournée optimisée
+     *    d. Si < 4h: garder cette assignation
+     *    e. Si > 4h: retirer la demande, fermer la tournée, passer au coursier suivant
+     * 3. Chaque coursier a une tournée OPTIMISÉE (pas séquentielle)
+     * 
+     * CONTRAINTES RESPECTÉES:
+     * - Contrainte temporelle: aucune tournée > 4h (14400 secondes)
+     * - Contrainte de précédence: pickup avant delivery dans chaque tournée optimisée
+     * - Contrainte d'optimalité: chaque tournée est optimisée (glouton + 2-opt)
+     * - Ordre FIFO: pour l'attribution aux coursiers (pas pour l'ordre des stops)
+     * 
+     * @param globalOptimizedRoute Route globale optimisée (pour ordre FIFO des demandes)
+     * @param graph Graphe avec distances
+     * @param courierCount Nombre de coursiers disponibles (≥ 1)
+     * @param pickupsByRequestId Map des pickups par ID de demande
+     * @param deliveryByRequestId Map des deliveries par ID de demande
+     * @param demandMap Map des demandes complètes
+     * @param warehouse Stop warehouse
+     * @param deadline Échéance transmise au 2-opt de chaque réoptimisation : une fois atteinte,
+     *                 les tournées ne sont plus réoptimisées (construction gloutonne seule)
+     * @return Résultat de la distribution avec tours optimisés, métriques et warnings
+     */
+    public TourDistributionResult distribute(
+            List<Stop> globalOptimizedRoute,
+            Graph graph,
+            int courierCount,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId,
+            Map<String, Demand> demandMap,
+            Stop warehouse,
+            Deadline deadline
+    ) {
+        System.out.println("\n📦 Phase Distribution avec Réoptimisation Incrémentale...");
+        System.out.println("   Nombre de coursiers disponibles: " + courierCount);
+        System.out.println("   Contrainte temporelle: " + (StopRoutes.TIME_LIMIT_SEC / 3600) + " heures");
+        System.out.println("   Mode: FIFO pour attribution + Optimisation par coursier");
+        
+        // Structures de résultat
+        List<Tour> tours = new ArrayList<>();
+        List<String> unassignedDemandIds = new ArrayList<>();
+        List<com.pickupdelivery.model.Demand> unassignedDemands = new ArrayList<>();
+        Map<Integer, TourMetrics> metricsByCourier = new HashMap<>();
+        DistributionWarnings warnings = new DistributionWarnings();
+        
+        // État du coursier actuel
+        int currentCourierId = 1;
+        List<String> currentCourierDemandIds = new ArrayList<>();  // IDs des demandes assignées
+        Set<String> processedDemands = new HashSet<>();
+        
+        System.out.println("\n   Parcours FIFO de la route optimisée (pour ordre d'attribution)...");
+        
+        // Parcours FIFO de la route optimisée pour déterminer l'ordre d'attribution
+        for (int i = 1; i < globalOptimizedRoute.size() - 1; i++) {
+            Stop stop = globalOptimizedRoute.get(i);
+            
+            // Ignorer les deliveries (traitées avec leurs pickups)
+            if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                continue;
+            }
+            
+            // Traiter uniquement les pickups
+            if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                String demandId = stop.getIdDemande();
+                
+                // Vérifier si déjà traité
+                if (processedDemands.contains(demandId)) {
+                    continue;
+                }
+                
+                // Récupérer la demande
+                Demand demand = demandMap.get(demandId);
+                if (demand == null) {
+                    System.out.println("   ⚠️  Demande " + demandId + " non trouvée dans demandMap");
+                    unassignedDemandIds.add(demandId);
+                    processedDemands.add(demandId);
+                    warnings.setHasUnassignedDemands(true);
+                    warnings.addMessage("Demande " + demandId + " ignorée (demande introuvable)");
+                    continue;
+                }
+                
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // PRÉ-FILTRAGE O(1): demande impossible même seule ?
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                
+                double aloneDuration = computeDemandAloneDuration(
+                    demand, pickupsByRequestId.get(demandId), deliveryByRequestId.get(demandId), warehouse, graph);
+                if (aloneDuration > StopRoutes.TIME_LIMIT_SEC) {
+                    System.out.println("   ❌ Demande " + demandId + 
+                        " impossible: dépasse 4h même seule (" + 
+                        String.format("%.2f", aloneDuration / 3600) + "h)");
+                    unassignedDemandIds.add(demandId);
+                    unassignedDemands.add(demand);
+                    processedDemands.add(demandId);
+                    warnings.setHasUnassignedDemands(true);
+                    warnings.addMessage("Demande " + demandId + " non assignée (dépasse 4h même seule)");
+                    continue;
+                }
+                if (graph.getCourierCapacity() != null && demand.getLoad() != null
+                        && demand.getLoad() > graph.getCourierCapacity()) {
+                    System.out.println("   ❌ Demande " + demandId + " impossible: charge " + demand.getLoad()
+                        + " > capacité " + graph.getCourierCapacity());
+                    unassignedDemandIds.add(demandId);
+                    unassignedDemands.add(demand);
+                    processedDemands.add(demandId);
+                    warnings.setHasUnassignedDemands(true);
+                    warnings.addMessage("Demande " + demandId + " non assignée (dépasse la capacité du coursier)");
+                    continue;
+                }
+                
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                // ÉTAPE CRITIQUE: Tester si on peut ajouter cette demande au coursier actuel
+                // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                
+                // Créer une liste temporaire avec la nouvelle demande
+                List<String> tentativeDemandIds = new ArrayList<>(currentCourierDemandIds);
+                tentativeDemandIds.add(demandId);
+                
+                // Reconstruire les stops pour cette liste de demandes
+                List<Stop> tentativeStops = buildStopsFromDemandIds(tentativeDemandIds, pickupsByRequestId, deliveryByRequestId);
+                
+                // RÉOPTIMISER la tournée avec toutes les demandes (glouton + 2-opt)
+                List<Stop> optimizedTentativeRoute = NearestNeighbourConstructor.buildInitialRoute(graph, warehouse, tentativeStops, pickupsByRequestId);
+                optimizedTentativeRoute = fullTwoOpt.optimize(optimizedTentativeRoute, graph, pickupsByRequestId, deliveryByRequestId, deadline);
+                
+                // Calculer la durée de cette tournée optimisée
+                double tentativeDuration = StopRoutes.computeRouteDuration(optimizedTentativeRoute, graph, demandMap);
+                
+                System.out.println("   Test demande " + demandId + " sur coursier " + currentCourierId + 
+                    ": " + String.format("%.2f", tentativeDuration / 3600) + "h");
+                
+                // Vérifier contrainte 4h (et fenêtres horaires, capacité)
+                if (tentativeDuration > StopRoutes.TIME_LIMIT_SEC
+                        || !StopRoutes.respectsTimeWindows(optimizedTentativeRoute, graph, demandMap)
+                        || !StopRoutes.respectsCapacity(optimizedTentativeRoute, graph, demandMap)) {
+                    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                    // DÉTECTION: Demande impossible seule ?
+                    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                    
+                    if (currentCourierDemandIds.isEmpty()) {
+                        // Cette demande seule dépasse 4h → impossible
+                        System.out.println("   ❌ Demande " + demandId + 
+                            " impossible: dépasse 4h même seule (" + 
+                            String.format("%.2f", tentativeDuration / 3600) + "h)");
+                        unassignedDemandIds.add(demandId);
+                        unassignedDemands.add(demand);
+                        processedDemands.add(demandId);
+                        warnings.setHasUnassignedDemands(true);
+                        warnings.addMessage("Demande " + demandId + " non assignée (dépasse 4h même seule)");
+                        continue;  // Passer à la demande suivante
+                    }
+                    
+                    // Fermer la tournée actuelle (sans cette nouvelle demande)
+                    if (!currentCourierDemandIds.isEmpty()) {
+                        System.out.println("   📦 Fermeture tournée coursier " + currentCourierId + 
+                            " avec " + currentCourierDemandIds.size() + " demandes");
+                        
+                        // Reconstruire et optimiser la tournée finale pour ce coursier
+                        List<Stop> finalStops = buildStopsFromDemandIds(currentCourierDemandIds, pickupsByRequestId, deliveryByRequestId);
+                        List<Stop> finalRoute = NearestNeighbourConstructor.buildInitialRoute(graph, warehouse, finalStops, pickupsByRequestId);
+                        finalRoute = fullTwoOpt.optimize(finalRoute, graph, pickupsByRequestId, deliveryByRequestId, deadline);
+                        
+                        double finalDistance = StopRoutes.computeRouteDistance(finalRoute, graph);
+                        Tour completedTour = TourResults.buildTour(finalRoute, finalDistance, graph);
+                        completedTour.setCourierId(currentCourierId);
+                        tours.add(completedTour);
+                        
+                        System.out.println("   ✓ Tournée coursier " + currentCourierId + " fermée: " +
+                            String.format("%.2f", completedTour.getTotalDurationHours()) + "h, " +
+                            String.format("%.0f", finalDistance) + "m, " +
+                            completedTour.getRequestCount() + " demandes");
+                    }
+                    
+                    // Passer au coursier suivant
+                    if (currentCourierId < courierCount) {
+                        currentCourierId++;
+                        currentCourierDemandIds = new ArrayList<>();
+                        System.out.println("   → Passage au coursier " + currentCourierId);
+                        
+                        // Réessayer cette demande sur le nouveau coursier
+                        i--;
+                        continue;
+                    } else {
+                        // Plus de coursiers disponibles
+                        System.out.println("   ❌ Plus de coursiers disponibles, demandes restantes non assignées");
+                        
+                        // Marquer cette demande et toutes les suivantes comme non assignées
+                        unassignedDemandIds.add(demandId);
+                        unassignedDemands.add(demand);
+                        processedDemands.add(demandId);
+                        warnings.setHasUnassignedDemands(true);
+                        warnings.addMessage("Demande " + demandId + " non assignée (tous coursiers utilisés)");
+                        
+                        // Marquer TOUTES les demandes restantes
+                        for (int j = i + 1; j < globalOptimizedRoute.size() - 1; j++) {
+                            Stop remainingStop = globalOptimizedRoute.get(j);
+                            if (remainingStop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                                String remainingDemandId = remainingStop.getIdDemande();
+                                if (!processedDemands.contains(remainingDemandId)) {
+                                    Demand remainingDemand = demandMap.get(remainingDemandId);
+                                    unassignedDemandIds.add(remainingDemandId);
+                                    if (remainingDemand != null) unassignedDemands.add(remainingDemand);
+                                    processedDemands.add(remainingDemandId);
+                                }
+                            }
+                        }
+                        break;  // Sortir de la boucle
+                    }
+                }
+                
+                // ✅ La demande peut être ajoutée (< 4h après optimisation)
+                currentCourierDemandIds.add(demandId);
+                processedDemands.add(demandId);
+                
+                System.out.println("   ✓ Demande " + demandId + " assignée au coursier " + currentCourierId + 
+                    " (" + currentCourierDemandIds.size() + " demandes, " + 
+                    String.format("%.2f", tentativeDuration / 3600) + "h)");
+            }
+        }
+        
+        // Fermer la dernière tournée SI ELLE CONTIENT DES DEMANDES ET N'A PAS DÉJÀ ÉTÉ FERMÉE
+        if (!currentCourierDemandIds.isEmpty()) {
+            System.out.println("   📦 Fermeture tournée finale coursier " + currentCourierId);
+            
+            List<Stop> finalStops = buildStopsFromDemandIds(currentCourierDemandIds, pickupsByRequestId, deliveryByRequestId);
+            List<Stop> finalRoute = NearestNeighbourConstructor.buildInitialRoute(graph, warehouse, finalStops, pickupsByRequestId);
+            finalRoute = fullTwoOpt.optimize(finalRoute, graph, pickupsByRequestId, deliveryByRequestId, deadline);
+            
+            double finalDistance = StopRoutes.computeRouteDistance(finalRoute, graph);
+            Tour lastTour = TourResults.buildTour(finalRoute, finalDistance, graph);
+            lastTour.setCourierId(currentCourierId);
+            
+            // ✅ FIX: Vérifier qu'on n'a pas déjà une tournée pour ce coursier
+            final int finalCourierId = currentCourierId; // Pour utilisation dans lambda
+            boolean courierAlreadyHasTour = tours.stream()
+                .anyMatch(t -> t.getCourierId() != null && t.getCourierId().equals(finalCourierId));
+            
+            if (!courierAlreadyHasTour) {
+                tours.add(lastTour);
+                System.out.println("   ✓ Tournée coursier " + currentCourierId + " (finale) fermée: " +
+                    String.format("%.2f", lastTour.getTotalDurationHours()) + "h, " +
+                    String.format("%.0f", finalDistance) + "m, " +
+                    lastTour.getRequestCount() + " demandes");
+            } else {
+                System.out.println("   ⚠️ Tournée coursier " + currentCourierId + " déjà fermée, ignorée");
+            }
+        }
+        
+        // Construire les métriques
+        for (Tour tour : tours) {
+            TourMetrics metrics = new TourMetrics(
+                tour.getCourierId(),
+                tour.getTotalDistance(),
+                tour.getTotalDurationSec(),
+                tour.getRequestCount(),
+                tour.getStopCount(),
+                tour.exceedsTimeLimit()
+            );
+            metricsByCourier.put(tour.getCourierId(), metrics);
+            
+            if (tour.exceedsTimeLimit()) {
+                warnings.setHasTimeLimitExceeded(true);
+                warnings.addMessage("Coursier " + tour.getCourierId() + 
+                    " dépasse la limite de 4h (" + 
+                    String.format("%.2f", tour.getTotalDurationHours()) + "h)");
+            }
+        }
+        
+        System.out.println("\n   📊 Résumé de la distribution:");
+        System.out.println("      Coursiers utilisés: " + tours.size() + "/" + courierCount);
+        System.out.println("      Demandes assignées: " + processedDemands.size());
+        System.out.println("      Demandes non assignées: " + unassignedDemandIds.size());
+        
+        // 🔍 DEBUG: Afficher tous les courierIds
+        System.out.println("\n   🔍 DEBUG: CourierIds des tours créés:");
+        for (int i = 0; i < tours.size(); i++) {
+            Tour tour = tours.get(i);
+            System.out.println("      Tour " + i + " -> courierId = " + tour.getCourierId() + 
+                " (" + tour.getRequestCount() + " demandes, " + 
+                String.format("%.2f", tour.getTotalDurationHours()) + "h)");
+        }
+        
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        // VALIDATION POST-DISTRIBUTION (CRITIQUE)
+        // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+        
+        System.out.println("\n   🔍 Validation post-distribution...");
+        try {
+            TourResults.validateTourDistribution(tours, pickupsByRequestId, deliveryByRequestId, graph);
+            System.out.println("   ✓ Validation réussie: toutes les contraintes sont respectées");
+        } catch (AlgorithmException e) {
+            System.out.println("   ❌ ERREUR DE VALIDATION: " + e.getMessage());
+            throw e; // Propager l'exception pour éviter de retourner un résultat invalide
+        }
+        
+        TourDistributionResult result = new TourDistributionResult(
+            tours, unassignedDemandIds, unassignedDemands, metricsByCourier, warnings);
+        
+        return result;
+    }
+
+    /**
+     * Durée de la tournée entrepôt → pickup(s) → delivery → entrepôt pour une demande seule
+     * Lue directement dans la matrice du Graph (O(1)) : c'est une borne inférieure de la
+     * durée de toute tournée contenant la demande
+     *
+     * @param demand   La demande
+     * @param pickups  Les pickups de la demande
+     * @param delivery La delivery de la demande
+     * @param warehouse Le stop warehouse
+     * @param graph    Le graphe avec distances
+     * @return La durée en secondes (0 si les stops de la demande sont incomplets)
+     */
+    private static double computeDemandAloneDuration(
+            Demand demand,
+            List<Stop> pickups,
+            Stop delivery,
+            Stop warehouse,
+            Graph graph
+    ) {
+        if (pickups == null || pickups.isEmpty() || delivery == null) {
+            return 0.0; // Laisser la distribution signaler l'incohérence
+        }
+
+        Stop pickup = pickups.get(0);
+        double distance = StopRoutes.distance(warehouse, pickup, graph)
+            + StopRoutes.distance(pickup, delivery, graph)
+            + StopRoutes.distance(delivery, warehouse, graph);
+        return StopRoutes.calculateTravelTime(distance) + demand.getPickupDurationSec() + demand.getDeliveryDurationSec();
+    }
+
+    /**
+     * Construit une liste de stops (pickups + deliveries) à partir d'une liste d'IDs de demandes
+     * Utilisé pour la réoptimisation incrémentale lors de la distribution
+     * 
+     * @param demandIds Liste des IDs de demandes à inclure
+     * @param pickupsByRequestId Map des pickups par ID de demande
+     * @param deliveryByRequestId Map des deliveries par ID de demande
+     * @return Liste des stops (tous les pickups et deliveries)
+     */
+    private static List<Stop> buildStopsFromDemandIds(
+            List<String> demandIds,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId
+    ) {
+        List<Stop> stops = new ArrayList<>();
+        
+        for (String demandId : demandIds) {
+            // Ajouter le(s) pickup(s) de cette demande
+            List<Stop> pickups = pickupsByRequestId.get(demandId);
+            if (pickups != null) {
+                stops.addAll(pickups);
+            }
+            
+            // Ajouter le delivery de cette demande
+            Stop delivery = deliveryByRequestId.get(demandId);
+            if (delivery != null) {
+                stops.add(delivery);
+            }
+        }
+        
+        return stops;
+    }
+}
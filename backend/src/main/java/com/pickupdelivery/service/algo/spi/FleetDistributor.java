@@ -0,0 +1,21 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+
+import java.util.List;
+
+/**
+ * Répartition des demandes entre les coursiers à partir de la tournée globale améliorée
+ */
+@FunctionalInterface
+public interface FleetDistributor {
+
+    /**
+     * @param globalRoute La tournée globale (warehouse aux deux extrémités)
+     * @param problem     L'instance à résoudre
+     * @param improver    L'améliorateur à appliquer aux tournées des coursiers
+     * @return La distribution, ou null si l'instance ne s'y prête pas (repli sur la distribution FIFO)
+     */
+    TourDistributionResult distribute(List<Stop> globalRoute, RoutingProblem problem, RouteImprover improver);
+}
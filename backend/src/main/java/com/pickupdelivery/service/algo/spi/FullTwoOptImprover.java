@@ -0,0 +1,187 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.StopMatrix;
+import com.pickupdelivery.service.algo.TwoOptConstraints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Amélioration "full-2-opt" : 2-opt complet sur le {@link Graph}, première amélioration
+ *
+ * Toutes les paires de positions sont essayées ; seuls les échanges respectant la précédence
+ * sont acceptés. Si la matrice des stops de la tournée porte des fenêtres horaires ou une
+ * capacité, un échange plus court n'est retenu que s'il les respecte sans rentrer plus tard
+ * (voir {@link TwoOptConstraints}). Les tournées d'au moins parallelMinStops stops passent par
+ * {@link ParallelTwoOptImprover} (mouvements évalués en parallèle sur la matrice des stops).
+ */
+public final class FullTwoOptImprover implements RouteImprover {
+
+    private final ParallelTwoOptImprover parallel;
+    private final int parallelMinStops;
+
+    /**
+     * @param parallel         Le 2-opt parallèle des longues tournées
+     * @param parallelMinStops Nombre de stops à partir duquel il est utilisé (0 = jamais)
+     */
+    public FullTwoOptImprover(ParallelTwoOptImprover parallel, int parallelMinStops) {
+        this.parallel = parallel;
+        this.parallelMinStops = parallelMinStops;
+    }
+
+    @Override
+    public List<Stop> improve(List<Stop> route, RoutingProblem problem) {
+        return optimize(route, problem.graph(), problem.pickupsByRequestId(), problem.deliveryByRequestId(), problem.deadline());
+    }
+
+    /**
+     * Optimise une tournée en utilisant l'algorithme 2-opt
+     * 
+     * L'algorithme 2-opt tente d'améliorer la tournée en éliminant les croisements:
+     * - Pour chaque paire de segments (i, i+1) et (k, k+1)
+     * - Teste si inverser le segment entre i+1 et k réduit la distance totale
+     * - Continue jusqu'à ce qu'aucune amélioration ne soit possible
+     * 
+     * CONTRAINTES:
+     * - Le premier et dernier stop (warehouse) ne sont jamais déplacés
+     * - Les contraintes de précédence (pickup avant delivery) doivent être respectées
+     * - Les fenêtres horaires et la capacité aussi, lorsque le graphe en porte
+     * 
+     * @param route La tournée initiale à optimiser
+     * @param graph Le graphe contenant les distances
+     * @param pickupsByRequestId Map des pickups organisés par ID de demande
+     * @param deliveryByRequestId Map des deliveries organisés par ID de demande
+     * @return La tournée optimisée
+     */
+    public List<Stop> optimize(
+            List<Stop> route,
+            Graph graph,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId
+    ) {
+        return optimize(route, graph, pickupsByRequestId, deliveryByRequestId, Deadline.none());
+    }
+
+    /**
+     * Variante "anytime" du 2-opt : à l'échéance, la meilleure tournée trouvée est renvoyée
+     * (toujours valide, seuls les échanges respectant la précédence étant acceptés)
+     *
+     * @param deadline Échéance consultée avant chaque nouveau stop de départ i
+     */
+    public List<Stop> optimize(
+            List<Stop> route,
+            Graph graph,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId,
+            Deadline deadline
+    ) {
+        if (route == null || route.size() <= 3) {
+            // Une route avec 3 stops ou moins ne peut pas être optimisée par 2-opt
+            // (warehouse → stop → warehouse)
+            return route;
+        }
+        if (parallelMinStops > 0 && route.size() - 2 >= parallelMinStops) {
+            List<Stop> optimized = parallel.optimize(route, graph, pickupsByRequestId, deliveryByRequestId, deadline);
+            if (optimized != null) {
+                return optimized;
+            }
+        }
+
+        System.out.println("\n🔧 Phase 4: Optimisation 2-opt...");
+        
+        List<Stop> bestRoute = new ArrayList<>(route);
+        double bestDistance = StopRoutes.computeRouteDistance(bestRoute, graph);
+
+        // Fenêtres horaires et capacité : vérifiées sur la matrice des stops de la tournée
+        StopMatrix matrix = StopRoutes.routeMatrix(route, graph, pickupsByRequestId, deliveryByRequestId);
+        TwoOptConstraints constraints = matrix != null && matrix.hasSideConstraints()
+            ? new TwoOptConstraints(matrix, route.size())
+            : null;
+        int[] sequence = null;
+        if (constraints != null) {
+            sequence = StopRoutes.toSequence(bestRoute, matrix);
+            constraints.refresh(sequence);
+        }
+        
+        System.out.println("   📏 Distance initiale: " + String.format("%.2f", bestDistance) + " m");
+        
+        boolean improved = true;
+        int iteration = 0;
+        int totalImprovements = 0;
+        
+        boolean interrupted = false;
+        
+        // Répéter jusqu'à ce qu'aucune amélioration ne soit trouvée ou que l'échéance soit atteinte
+        while (improved) {
+            improved = false;
+            iteration++;
+            
+            // Essayer toutes les paires de segments possibles
+            // Note: on ne touche pas au premier (0) et dernier stop (size-1) qui sont le warehouse
+            for (int i = 1; i < bestRoute.size() - 2; i++) {
+                if (deadline.isExpired()) {
+                    interrupted = true;
+                    improved = false;
+                    break;
+                }
+                for (int k = i + 1; k < bestRoute.size() - 1; k++) {
+                    // Tester le swap 2-opt
+                    List<Stop> newRoute = StopRoutes.twoOptSwap(bestRoute, i, k);
+                    
+                    // Vérifier les contraintes de précédence
+                    if (!StopRoutes.respectsPrecedence(newRoute, pickupsByRequestId, deliveryByRequestId)) {
+                        continue; // Ce swap viole les contraintes, on passe au suivant
+                    }
+                    
+                    // Calculer la nouvelle distance
+                    double newDistance = StopRoutes.computeRouteDistance(newRoute, graph);
+                    
+                    // Si c'est mieux (et faisable), on garde cette solution
+                    if (newDistance < bestDistance) {
+                        if (constraints != null && !constraints.allows(sequence, i, k)) {
+                            continue;
+                        }
+                        bestRoute = newRoute;
+                        if (constraints != null) {
+                            sequence = StopRoutes.toSequence(bestRoute, matrix);
+                            constraints.refresh(sequence);
+                        }
+                        bestDistance = newDistance;
+                        improved = true;
+                        totalImprovements++;
+                        
+                        System.out.println("   ✓ Amélioration trouvée (itération " + iteration + 
+                                         ", swap [" + i + ", " + k + "]): " + 
+                                         String.format("%.2f", newDistance) + " m " +
+                                         "(" + String.format("%.2f", (bestDistance - newDistance)) + " m gagnés)");
+                    }
+                }
+            }
+        }
+        
+        if (interrupted) {
+            System.out.println("   ⏱️  2-opt interrompu par l'échéance (itération " + iteration + ")");
+        }
+        
+        if (totalImprovements > 0) {
+            System.out.println("   ✓ Optimisation terminée après " + iteration + " itérations");
+            System.out.println("   ✓ Nombre total d'améliorations: " + totalImprovements);
+            System.out.println("   📏 Distance finale: " + String.format("%.2f", bestDistance) + " m");
+            
+            double initialDistance = StopRoutes.computeRouteDistance(route, graph);
+            double gain = initialDistance - bestDistance;
+            double gainPercent = (gain / initialDistance) * 100;
+            
+            System.out.println("   🎯 Gain total: " + String.format("%.2f", gain) + " m " +
+                             "(" + String.format("%.1f", gainPercent) + "%)");
+        } else {
+            System.out.println("   ✓ Aucune amélioration trouvée (tournée déjà optimale)");
+        }
+        
+        return bestRoute;
+    }
+}
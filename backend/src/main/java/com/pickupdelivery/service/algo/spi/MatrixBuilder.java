@@ -0,0 +1,39 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.model.AlgorithmModel.NodeMatrix;
+import com.pickupdelivery.service.algo.CompiledGraph;
+
+import java.util.List;
+
+/**
+ * Construction de la matrice des plus courts chemins entre les nœuds distincts des stops
+ *
+ * Implémentations fournies : {@link OneToManyMatrixBuilder} (par défaut) et
+ * {@link PairwiseMatrixBuilder}.
+ */
+@FunctionalInterface
+public interface MatrixBuilder {
+
+    /**
+     * @param nodeIds  Les IDs de nœuds distincts
+     * @param compiled Le graphe compilé de la carte
+     * @param engine   Le moteur de plus courts chemins à utiliser
+     * @param cache    Le cache des chemins déjà calculés (consulté puis complété)
+     * @return La matrice remplie (+∞ pour les paires sans chemin)
+     */
+    NodeMatrix build(List<String> nodeIds, CompiledGraph compiled, ShortestPathEngine engine, PathCache cache);
+
+    /**
+     * Cache des plus courts chemins entre deux nœuds, partagé par les calculs successifs
+     */
+    interface PathCache {
+
+        /**
+         * @return Le chemin en cache, ou null
+         */
+        ShortestPathResult get(String fromNodeId, String toNodeId);
+
+        void put(String fromNodeId, String toNodeId, ShortestPathResult result);
+    }
+}
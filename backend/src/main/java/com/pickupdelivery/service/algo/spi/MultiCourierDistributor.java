@@ -0,0 +1,107 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.OptimalSplit;
+import com.pickupdelivery.service.algo.SavingsConstruction;
+import com.pickupdelivery.service.algo.Solution;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.List;
+
+/**
+ * Répartitions "split-savings", "split" et "savings" : construit les tournées des coursiers
+ * et garde la meilleure des constructions demandées
+ *
+ * - Découpage optimal de la tournée globale (voir {@link OptimalSplit}) : les points de
+ *   coupe sont choisis par programmation dynamique (le moins de demandes non assignées
+ *   possible, puis la distance cumulée minimale)
+ * - Économies de Clarke–Wright (voir {@link SavingsConstruction}), avec plusieurs coursiers
+ *   (ou seules demandées) : toutes les tournées sont construites ensemble, sans passer par
+ *   une tournée unique
+ *
+ * La tournée retenue est ensuite passée une seule fois à l'améliorateur, tournée par tournée.
+ * La distribution vaut null si le graphe ne permet pas la vue indexée (repli FIFO).
+ */
+public final class MultiCourierDistributor implements FleetDistributor {
+
+    private final boolean split;
+    private final boolean savings;
+
+    /**
+     * @param split   true pour essayer le découpage optimal
+     * @param savings true pour essayer les économies
+     */
+    public MultiCourierDistributor(boolean split, boolean savings) {
+        this.split = split;
+        this.savings = savings;
+    }
+
+    @Override
+    public TourDistributionResult distribute(List<Stop> globalOptimizedRoute, RoutingProblem problem, RouteImprover improver) {
+        StopMatrix matrix = problem.matrix();
+        if (matrix == null) {
+            return null;
+        }
+        int courierCount = problem.courierCount();
+
+        Solution solution = split ? splitOptimally(globalOptimizedRoute, matrix, courierCount, problem.timeLimitSec()) : null;
+
+        if (savings && (courierCount > 1 || !split)) {
+            System.out.println("\n💰 Phase construction par économies (Clarke–Wright)...");
+            long startTime = System.currentTimeMillis();
+            Solution built = new SavingsConstruction(matrix, problem.timeLimitSec()).build(courierCount);
+            System.out.println("   ✓ " + built.assignedRequests().size() + " demandes réparties, "
+                + built.unassignedCount() + " non assignée(s), "
+                + String.format("%.2f", built.totalDistance()) + " m en " + (System.currentTimeMillis() - startTime) + " ms");
+            if (solution == null || built.objective() < solution.objective()) {
+                System.out.println("   ✓ Construction par économies retenue");
+                solution = built;
+            }
+        }
+        if (solution == null) {
+            return null;
+        }
+
+        improver.improveRoutes(solution, problem);
+        return TourResults.toDistributionResult(solution, problem.graph(), problem.warehouse(),
+            problem.pickupsByRequestId(), problem.deliveryByRequestId());
+    }
+
+    /**
+     * Découpe la tournée globale optimisée en au plus courierCount tournées de 4h maximum
+     *
+     * Contrairement à la distribution FIFO, qui ferme un coursier dès que la demande suivante
+     * ne tient plus, le découpage choisit les points de coupe par programmation dynamique.
+     *
+     * @return La solution découpée, ou null si la route ne correspond pas à la matrice
+     */
+    private static Solution splitOptimally(
+            List<Stop> globalOptimizedRoute, StopMatrix matrix, int courierCount, double timeLimitSec) {
+        if (globalOptimizedRoute.size() != matrix.size() + 1) {
+            return null;
+        }
+        int[] giantTour = new int[matrix.size() - 1];
+        for (int i = 1; i < globalOptimizedRoute.size() - 1; i++) {
+            int index = matrix.indexOf(globalOptimizedRoute.get(i));
+            if (index <= StopMatrix.DEPOT) {
+                return null;
+            }
+            giantTour[i - 1] = index;
+        }
+
+        System.out.println("\n✂️  Phase découpage optimal de la tournée globale...");
+        long startTime = System.currentTimeMillis();
+        Solution solution;
+        try {
+            solution = new OptimalSplit(matrix, timeLimitSec).split(giantTour, courierCount);
+        } catch (IllegalArgumentException e) {
+            System.out.println("   ⚠️  Découpage impossible: " + e.getMessage());
+            return null;
+        }
+        System.out.println("   ✓ " + solution.assignedRequests().size() + " demandes réparties, "
+            + solution.unassignedCount() + " non assignée(s), "
+            + String.format("%.2f", solution.totalDistance()) + " m en " + (System.currentTimeMillis() - startTime) + " ms");
+        return solution;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.exception.AlgorithmException;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.NearestNeighbourConstruction;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Construction par défaut : plus proche stop faisable (glouton)
+ *
+ * En mode granulaire, si l'instance fournit des listes de voisins, seuls les voisins du
+ * dernier stop sont consultés (voir {@link NearestNeighbourConstruction}) ; sinon tous les
+ * stops restants sont comparés sur le {@link Graph}.
+ */
+public final class NearestNeighbourConstructor implements RouteConstructor {
+
+    private final boolean granular;
+
+    /**
+     * @param granular true pour utiliser les listes de voisins lorsqu'elles sont disponibles
+     */
+    public NearestNeighbourConstructor(boolean granular) {
+        this.granular = granular;
+    }
+
+    @Override
+    public List<Stop> build(RoutingProblem problem) {
+        if (granular && problem.neighbours() != null) {
+            StopMatrix matrix = problem.matrix();
+            return StopRoutes.toStopRoute(NearestNeighbourConstruction.build(matrix, problem.neighbours()), matrix);
+        }
+        return buildInitialRoute(problem.graph(), problem.warehouse(), problem.stops(), problem.pickupsByRequestId());
+    }
+
+    /**
+     * Construit une tournée initiale en utilisant l'algorithme glouton du plus proche voisin
+     * 
+     * Algorithme:
+     * 1. Commencer à l'entrepôt (warehouse)
+     * 2. Tant qu'il reste des stops non visités:
+     *    - Trouver le stop faisable le plus proche du stop courant
+     *    - Un stop est faisable si:
+     *      * C'est un PICKUP (toujours faisable)
+     *      * C'est une DELIVERY dont tous les pickups ont été visités
+     * 3. Retourner à l'entrepôt
+     * 
+     * @param graph Le graphe contenant les distances entre stops
+     * @param warehouse Le stop entrepôt (point de départ/arrivée)
+     * @param stops Liste de tous les stops à visiter (hors warehouse)
+     * @param pickupsByRequestId Map des pickups organisés par ID de demande
+     * @return Une route (tournée) valide commençant et finissant au warehouse
+     * @throws IllegalArgumentException Si les paramètres sont invalides
+     * @throws IllegalStateException Si aucun stop faisable n'est trouvé (bug logique)
+     */
+    public static List<Stop> buildInitialRoute(
+            Graph graph,
+            Stop warehouse,
+            List<Stop> stops,
+            Map<String, List<Stop>> pickupsByRequestId
+    ) {
+        if (graph == null || warehouse == null || stops == null || pickupsByRequestId == null) {
+            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
+        }
+
+        if (stops.isEmpty()) {
+            // Cas spécial: pas de stops à visiter, juste aller-retour au warehouse
+            return Arrays.asList(warehouse, warehouse);
+        }
+
+        List<Stop> route = new ArrayList<>();
+        Set<Stop> visited = new HashSet<>();
+        Set<Stop> remaining = new HashSet<>(stops);
+
+        // 1️⃣ Commencer à l'entrepôt
+        route.add(warehouse);
+        visited.add(warehouse);
+
+        // 2️⃣ Tant qu'il reste des stops non visités
+        while (!remaining.isEmpty()) {
+            Stop current = route.get(route.size() - 1);
+            Stop nearest = null;
+            double minDistance = Double.MAX_VALUE;
+
+            // 3️⃣ Chercher le stop faisable le plus proche
+            for (Stop candidate : remaining) {
+                // Vérifier si le stop est faisable (contraintes de précédence)
+                if (!StopRoutes.isStopFeasible(candidate, visited, pickupsByRequestId)) {
+                    continue; // Delivery dont le pickup n'a pas encore été visité
+                }
+
+                // Calculer la distance
+                double dist = StopRoutes.distance(current, candidate, graph);
+
+                // Garder le plus proche
+                if (dist < minDistance) {
+                    minDistance = dist;
+                    nearest = candidate;
+                }
+            }
+
+            // 4️⃣ Vérifier qu'on a trouvé un stop faisable
+            if (nearest == null) {
+                // Cela ne devrait jamais arriver si la logique est correcte
+                throw new AlgorithmException(
+                    AlgorithmException.ErrorType.NO_FEASIBLE_STOP,
+                    "Aucun stop faisable trouvé. Stops restants: " + remaining.size() + 
+                    ", Stops visités: " + visited.size() + 
+                    ". Vérifiez que toutes les deliveries ont des pickups correspondants."
+                );
+            }
+
+            // 5️⃣ Ajouter le stop le plus proche à la route
+            route.add(nearest);
+            visited.add(nearest);
+            remaining.remove(nearest);
+        }
+
+        // 6️⃣ Retour à l'entrepôt
+        route.add(warehouse);
+
+        return route;
+    }
+}
@@ -0,0 +1,58 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.model.AlgorithmModel.NodeMatrix;
+import com.pickupdelivery.service.algo.CompiledGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Construction par défaut : une recherche un-vers-plusieurs par nœud source, uniquement vers
+ * les cibles absentes du cache ; les nœuds sources sont traités en parallèle (une ligne par thread)
+ */
+public final class OneToManyMatrixBuilder implements MatrixBuilder {
+
+    @Override
+    public NodeMatrix build(List<String> nodeIds, CompiledGraph compiled, ShortestPathEngine engine, PathCache cache) {
+        NodeMatrix nodeMatrix = new NodeMatrix(nodeIds);
+        int n = nodeMatrix.size();
+
+        IntStream.range(0, n).parallel().forEach(from -> {
+            String sourceId = nodeMatrix.nodeId(from);
+
+            // Cibles absentes du cache pour ce nœud source
+            List<Integer> missing = new ArrayList<>();
+            for (int to = 0; to < n; to++) {
+                if (to == from) {
+                    continue; // Diagonale : 0 m sans recherche
+                }
+                ShortestPathResult cached = cache.get(sourceId, nodeMatrix.nodeId(to));
+                if (cached != null) {
+                    nodeMatrix.set(from, to, cached.getDistance(), cached.getSegments());
+                } else {
+                    missing.add(to);
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            // Recherche unique vers toutes les cibles manquantes
+            int[] targets = new int[missing.size()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = compiled.indexOf(nodeMatrix.nodeId(missing.get(i)));
+            }
+            ShortestPathResult[] results = engine.search(compiled, compiled.indexOf(sourceId), targets);
+
+            for (int i = 0; i < targets.length; i++) {
+                int to = missing.get(i);
+                nodeMatrix.set(from, to, results[i].getDistance(), results[i].getSegments());
+                cache.put(sourceId, nodeMatrix.nodeId(to), results[i]);
+            }
+        });
+
+        return nodeMatrix;
+    }
+}
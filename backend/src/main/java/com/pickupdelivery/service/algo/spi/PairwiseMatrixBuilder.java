@@ -0,0 +1,42 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.model.AlgorithmModel.NodeMatrix;
+import com.pickupdelivery.service.algo.CompiledGraph;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Construction paire par paire : une recherche par couple de nœuds absent du cache
+ *
+ * Plus lente que {@link OneToManyMatrixBuilder} (n² recherches au lieu de n), elle sert de
+ * référence pour comparer les moteurs de plus courts chemins point à point.
+ */
+public final class PairwiseMatrixBuilder implements MatrixBuilder {
+
+    @Override
+    public NodeMatrix build(List<String> nodeIds, CompiledGraph compiled, ShortestPathEngine engine, PathCache cache) {
+        NodeMatrix nodeMatrix = new NodeMatrix(nodeIds);
+        int n = nodeMatrix.size();
+
+        IntStream.range(0, n).parallel().forEach(from -> {
+            String sourceId = nodeMatrix.nodeId(from);
+            int source = compiled.indexOf(sourceId);
+            for (int to = 0; to < n; to++) {
+                if (to == from) {
+                    continue; // Diagonale : 0 m sans recherche
+                }
+                String targetId = nodeMatrix.nodeId(to);
+                ShortestPathResult result = cache.get(sourceId, targetId);
+                if (result == null) {
+                    result = engine.search(compiled, source, new int[] {compiled.indexOf(targetId)})[0];
+                    cache.put(sourceId, targetId, result);
+                }
+                nodeMatrix.set(from, to, result.getDistance(), result.getSegments());
+            }
+        });
+
+        return nodeMatrix;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.ParallelTwoOpt;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Amélioration "parallel-2-opt" : 2-opt meilleure amélioration, mouvements évalués en
+ * parallèle (voir {@link ParallelTwoOpt})
+ *
+ * Les échanges respectent la précédence, les fenêtres horaires et la capacité de la matrice.
+ * Aussi utilisée par {@link FullTwoOptImprover} pour les longues tournées.
+ */
+public final class ParallelTwoOptImprover implements RouteImprover {
+
+    private final Supplier<ForkJoinPool> pool;
+    private final int chunkSize;
+
+    /**
+     * @param pool      Fournit le pool d'évaluation (créé à la première utilisation)
+     * @param chunkSize Nombre de positions de départ évaluées par tranche séquentielle
+     */
+    public ParallelTwoOptImprover(Supplier<ForkJoinPool> pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public List<Stop> improve(List<Stop> route, RoutingProblem problem) {
+        List<Stop> optimized = route.size() > 3
+            ? optimize(route, problem.graph(), problem.pickupsByRequestId(), problem.deliveryByRequestId(), problem.deadline())
+            : null;
+        return optimized != null ? optimized : route;
+    }
+
+    /**
+     * 2-opt des longues tournées (voir {@link ParallelTwoOpt}) : à chaque passage, toutes les
+     * paires sont évaluées en parallèle par tranches, puis le meilleur mouvement est appliqué
+     *
+     * @return La tournée optimisée, ou null si la matrice des stops ne peut pas être construite
+     */
+    public List<Stop> optimize(
+            List<Stop> route,
+            Graph graph,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId,
+            Deadline deadline
+    ) {
+        StopMatrix matrix = StopRoutes.routeMatrix(route, graph, pickupsByRequestId, deliveryByRequestId);
+        if (matrix == null) {
+            return null;
+        }
+
+        System.out.println("\n🔧 Phase 4: Optimisation 2-opt parallèle (" + (route.size() - 2) + " stops, "
+            + pool.get().getParallelism() + " threads)...");
+        int[] indices = new int[route.size() - 2];
+        for (int i = 1; i < route.size() - 1; i++) {
+            indices[i - 1] = matrix.indexOf(route.get(i));
+        }
+        double initialDistance = StopRoutes.routeDistance(indices, matrix);
+        System.out.println("   📏 Distance initiale: " + String.format("%.2f", initialDistance) + " m");
+
+        ParallelTwoOpt twoOpt = new ParallelTwoOpt(matrix, pool.get(), chunkSize);
+        int[] optimized = twoOpt.optimize(indices, deadline);
+        double finalDistance = StopRoutes.routeDistance(optimized, matrix);
+
+        if (deadline.isExpired()) {
+            System.out.println("   ⏱️  2-opt interrompu par l'échéance");
+        }
+        System.out.println("   ✓ " + twoOpt.getMoves() + " amélioration(s), " + twoOpt.getEvaluations() + " échanges évalués");
+        if (finalDistance < initialDistance) {
+            double gain = initialDistance - finalDistance;
+            System.out.println("   📏 Distance finale: " + String.format("%.2f", finalDistance) + " m");
+            System.out.println("   🎯 Gain total: " + String.format("%.2f", gain) + " m " +
+                             "(" + String.format("%.1f", gain / initialDistance * 100) + "%)");
+            return StopRoutes.toStopRoute(optimized, matrix);
+        }
+        System.out.println("   ✓ Aucune amélioration trouvée (tournée déjà optimale)");
+        return route;
+    }
+}
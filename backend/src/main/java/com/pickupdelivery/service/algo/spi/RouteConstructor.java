@@ -0,0 +1,18 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+
+import java.util.List;
+
+/**
+ * Construction de la tournée globale initiale (un seul parcours de tous les stops)
+ */
+@FunctionalInterface
+public interface RouteConstructor {
+
+    /**
+     * @param problem L'instance à résoudre
+     * @return La tournée, warehouse aux deux extrémités, précédence respectée
+     */
+    List<Stop> build(RoutingProblem problem);
+}
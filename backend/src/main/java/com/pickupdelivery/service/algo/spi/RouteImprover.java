@@ -0,0 +1,59 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.Solution;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Amélioration d'une tournée (tournée globale, puis chaque tournée des coursiers)
+ */
+@FunctionalInterface
+public interface RouteImprover {
+
+    /**
+     * @param route   La tournée, warehouse aux deux extrémités (non modifiée)
+     * @param problem L'instance à laquelle appartient la tournée
+     * @return La tournée améliorée (mêmes stops, précédence respectée), ou la tournée d'origine
+     */
+    List<Stop> improve(List<Stop> route, RoutingProblem problem);
+
+    /**
+     * Améliore chaque tournée d'une solution (modifiée en place) : une tournée n'est remplacée
+     * que si elle est plus courte et reste faisable
+     *
+     * @return Le nombre de tournées raccourcies
+     */
+    default int improveRoutes(Solution solution, RoutingProblem problem) {
+        StopMatrix matrix = solution.getMatrix();
+        int improved = 0;
+        for (int k = 0; k < solution.routeCount() && !problem.deadline().isExpired(); k++) {
+            if (solution.routeLength(k) < 2) {
+                continue;
+            }
+            int[] original = solution.route(k);
+            List<Stop> route = new ArrayList<>(original.length + 2);
+            route.add(matrix.stop(StopMatrix.DEPOT));
+            for (int index : original) {
+                route.add(matrix.stop(index));
+            }
+            route.add(matrix.stop(StopMatrix.DEPOT));
+
+            List<Stop> optimized = improve(route, problem);
+            int[] indices = new int[optimized.size() - 2];
+            for (int i = 1; i < optimized.size() - 1; i++) {
+                indices[i - 1] = matrix.indexOf(optimized.get(i));
+            }
+            double before = solution.routeDistance(k);
+            solution.setRoute(k, indices);
+            if (solution.routeDistance(k) > before || !solution.isRouteFeasible(k, problem.timeLimitSec())) {
+                solution.setRoute(k, original);
+            } else if (solution.routeDistance(k) < before) {
+                improved++;
+            }
+        }
+        return improved;
+    }
+}
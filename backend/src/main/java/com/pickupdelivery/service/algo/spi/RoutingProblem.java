@@ -0,0 +1,38 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.NeighbourLists;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instance transmise aux composants de la chaîne de calcul
+ *
+ * @param graph               Le graphe des trajets entre stops (avec les demandes)
+ * @param warehouse           Le stop entrepôt
+ * @param stops               Les stops à visiter (hors entrepôt)
+ * @param pickupsByRequestId  Les pickups par ID de demande
+ * @param deliveryByRequestId Les deliveries par ID de demande
+ * @param matrix              Vue indexée du graphe, null si le graphe ne s'y prête pas
+ * @param neighbours          Listes de voisins de la matrice, null si désactivées
+ * @param courierCount        Nombre de coursiers disponibles
+ * @param timeLimitSec        Durée maximale d'une tournée en secondes
+ * @param deadline            Échéance du calcul
+ */
+public record RoutingProblem(
+        Graph graph,
+        Stop warehouse,
+        List<Stop> stops,
+        Map<String, List<Stop>> pickupsByRequestId,
+        Map<String, Stop> deliveryByRequestId,
+        StopMatrix matrix,
+        NeighbourLists neighbours,
+        int courierCount,
+        double timeLimitSec,
+        Deadline deadline
+) {
+}
@@ -0,0 +1,23 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.service.algo.CompiledGraph;
+
+/**
+ * Moteur de plus courts chemins sur le graphe compilé de la carte
+ *
+ * Une recherche part d'un nœud source vers plusieurs cibles (indices du graphe compilé).
+ * Implémentation par défaut : {@link DijkstraEngine}. Un bean Spring implémentant cette
+ * interface est sélectionnable par son nom de bean (voir {@link AlgorithmSelection}).
+ */
+@FunctionalInterface
+public interface ShortestPathEngine {
+
+    /**
+     * @param graph   Le graphe compilé
+     * @param source  Indice du nœud de départ
+     * @param targets Indices des nœuds d'arrivée
+     * @return Un résultat par cible, dans l'ordre des cibles (distance +∞ et aucun segment sans chemin)
+     */
+    ShortestPathResult[] search(CompiledGraph graph, int source, int[] targets);
+}
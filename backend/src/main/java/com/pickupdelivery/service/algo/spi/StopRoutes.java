@@ -0,0 +1,436 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.exception.AlgorithmException;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calculs sur une tournée de stops du {@link Graph} : distances, durées, contraintes
+ * (précédence, fenêtres horaires, capacité) et échange 2-opt
+ *
+ * Partagés par les implémentations intégrées des composants et par le service de calcul.
+ */
+public final class StopRoutes {
+
+    /** Vitesse du coursier en m/s (15 km/h = 4.17 m/s) */
+    public static final double COURIER_SPEED_MS = 15.0 / 3.6; // 4.166666... m/s
+
+    /** Limite de temps pour une tournée en secondes (4 heures) */
+    public static final double TIME_LIMIT_SEC = 4 * 3600; // 14400 secondes
+
+    private StopRoutes() {
+    }
+
+    /**
+     * Récupère la distance entre deux stops depuis la matrice d'adjacence du Graph
+     * 
+     * @param a Le stop de départ
+     * @param b Le stop d'arrivée
+     * @param graph Le graphe contenant la matrice de distances
+     * @return La distance entre les deux stops
+     * @throws IllegalArgumentException Si les paramètres sont null ou si la distance n'existe pas
+     */
+    public static double distance(Stop a, Stop b, Graph graph) {
+        if (a == null || b == null || graph == null) {
+            throw new IllegalArgumentException("Les stops et le graph ne peuvent pas être null");
+        }
+
+        // Cas spécial : même stop (ex: warehouse → warehouse si tournée vide)
+        if (a.getIdNode().equals(b.getIdNode())) {
+            return 0.0;
+        }
+
+        Map<Stop, Map<Stop, Trajet>> matrix = graph.getDistancesMatrix();
+        if (matrix == null || !matrix.containsKey(a)) {
+            throw new AlgorithmException(
+                AlgorithmException.ErrorType.STOP_NOT_FOUND,
+                "Stop source introuvable dans le graph: " + a.getIdNode()
+            );
+        }
+
+        Map<Stop, Trajet> destinations = matrix.get(a);
+        if (!destinations.containsKey(b)) {
+            throw new AlgorithmException(
+                AlgorithmException.ErrorType.NO_PATH_FOUND,
+                "Pas de trajet trouvé entre " + a.getIdNode() + " et " + b.getIdNode()
+            );
+        }
+
+        Trajet trajet = destinations.get(b);
+        return trajet.getDistance();
+    }
+
+    /**
+     * Calcule la distance totale d'une tournée (route)
+     * 
+     * @param route Liste ordonnée des stops formant la tournée
+     * @param graph Le graphe contenant les distances entre stops
+     * @return La distance totale de la tournée en mètres
+     * @throws IllegalArgumentException Si les paramètres sont null ou si la route est invalide
+     */
+    public static double computeRouteDistance(List<Stop> route, Graph graph) {
+        if (route == null || graph == null) {
+            throw new IllegalArgumentException("Route et graph ne peuvent pas être null");
+        }
+
+        if (route.size() < 2) {
+            return 0.0; // Une route avec 0 ou 1 stop a une distance de 0
+        }
+
+        double totalDistance = 0.0;
+
+        for (int i = 0; i < route.size() - 1; i++) {
+            Stop current = route.get(i);
+            Stop next = route.get(i + 1);
+            totalDistance += distance(current, next, graph);
+        }
+
+        return totalDistance;
+    }
+
+    /**
+     * Calcule le temps de trajet entre deux stops (temps de déplacement uniquement)
+     * 
+     * @param distance Distance en mètres
+     * @return Temps en secondes
+     * @throws IllegalArgumentException Si la distance est négative
+     */
+    public static double calculateTravelTime(double distance) {
+        if (distance < 0) {
+            throw new IllegalArgumentException("La distance ne peut pas être négative: " + distance);
+        }
+        if (distance == Double.POSITIVE_INFINITY) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return distance / COURIER_SPEED_MS; // temps = distance / vitesse
+    }
+
+    /**
+     * Récupère la demande associée à un stop
+     * 
+     * @param stop Le stop
+     * @param demandMap Map des demandes par ID
+     * @return La demande ou null si le stop est un warehouse
+     */
+    private static Demand getDemandByStop(Stop stop, Map<String, Demand> demandMap) {
+        if (stop.getTypeStop() == Stop.TypeStop.WAREHOUSE) {
+            return null;
+        }
+        return demandMap.get(stop.getIdDemande());
+    }
+
+    /**
+     * Calcule la durée totale d'une tournée (route)
+     * Inclut : temps de déplacement + temps de service (pickup + delivery)
+     * + attente à l'ouverture des fenêtres horaires éventuelles
+     * 
+     * @param route Liste ordonnée des stops formant la tournée
+     * @param graph Le graphe contenant les distances entre stops
+     * @param demandMap Map des demandes par ID pour récupérer les durées de service
+     * @return La durée totale de la tournée en secondes
+     * @throws IllegalArgumentException Si les paramètres sont null ou si la route est invalide
+     */
+    public static double computeRouteDuration(List<Stop> route, Graph graph, Map<String, Demand> demandMap) {
+        if (route == null || graph == null || demandMap == null) {
+            throw new IllegalArgumentException("Route, graph et demandMap ne peuvent pas être null");
+        }
+
+        if (route.size() < 2) {
+            return 0.0; // Une route avec 0 ou 1 stop a une durée de 0
+        }
+
+        double totalTime = 0.0;
+
+        for (int i = 0; i < route.size() - 1; i++) {
+            Stop current = route.get(i);
+            Stop next = route.get(i + 1);
+            
+            // 1. Temps de trajet entre current et next
+            double distance = distance(current, next, graph);
+            totalTime += calculateTravelTime(distance);
+            
+            // 2. Temps de service au stop current (le coursier est déjà reparti : l'attente
+            //    éventuelle à l'arrivée en next est ajoutée après)
+            if (current.getTypeStop() == Stop.TypeStop.PICKUP) {
+                Demand demand = getDemandByStop(current, demandMap);
+                if (demand != null) {
+                    totalTime += demand.getPickupDurationSec();
+                }
+            } else if (current.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                Demand demand = getDemandByStop(current, demandMap);
+                if (demand != null) {
+                    totalTime += demand.getDeliveryDurationSec();
+                }
+            }
+            // Le warehouse n'a pas de temps de service
+            
+            // 3. Attente de l'ouverture de la fenêtre de next (relative à la date de départ)
+            Integer earliest = windowBound(next, demandMap, true);
+            if (earliest != null && totalTime < earliest) {
+                totalTime = earliest;
+            }
+        }
+
+        return totalTime;
+    }
+
+    /**
+     * Vérifie que chaque début de service de la tournée (attentes comprises) respecte
+     * la fin de fenêtre horaire de son stop
+     *
+     * @return true si aucune fenêtre n'est manquée (toujours vrai sans fenêtres)
+     */
+    public static boolean respectsTimeWindows(List<Stop> route, Graph graph, Map<String, Demand> demandMap) {
+        double time = 0.0;
+        for (int i = 1; i < route.size(); i++) {
+            Stop previous = route.get(i - 1);
+            Stop current = route.get(i);
+            Demand previousDemand = getDemandByStop(previous, demandMap);
+            if (previousDemand != null) {
+                time += previous.getTypeStop() == Stop.TypeStop.PICKUP
+                    ? previousDemand.getPickupDurationSec() : previousDemand.getDeliveryDurationSec();
+            }
+            time += calculateTravelTime(distance(previous, current, graph));
+            Integer earliest = windowBound(current, demandMap, true);
+            if (earliest != null && time < earliest) {
+                time = earliest;
+            }
+            Integer latest = windowBound(current, demandMap, false);
+            if (latest != null && time > latest + 1e-6) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vérifie que la charge à bord ne dépasse jamais la capacité du coursier
+     *
+     * @return true si la tournée tient dans la capacité (toujours vrai si elle est illimitée)
+     */
+    public static boolean respectsCapacity(List<Stop> route, Graph graph, Map<String, Demand> demandMap) {
+        Integer capacity = graph.getCourierCapacity();
+        if (capacity == null) {
+            return true;
+        }
+        int load = 0;
+        for (Stop stop : route) {
+            Demand demand = getDemandByStop(stop, demandMap);
+            if (demand == null || demand.getLoad() == null) {
+                continue;
+            }
+            load += stop.getTypeStop() == Stop.TypeStop.PICKUP ? demand.getLoad() : -demand.getLoad();
+            if (load > capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param earliest true : début de fenêtre, false : fin de fenêtre
+     * @return La borne de la fenêtre horaire du stop (secondes après le départ), ou null
+     */
+    private static Integer windowBound(Stop stop, Map<String, Demand> demandMap, boolean earliest) {
+        Demand demand = getDemandByStop(stop, demandMap);
+        if (demand == null) {
+            return null;
+        }
+        if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+            return earliest ? demand.getPickupEarliestSec() : demand.getPickupLatestSec();
+        }
+        return earliest ? demand.getDeliveryEarliestSec() : demand.getDeliveryLatestSec();
+    }
+
+    /**
+     * Vérifie si un stop (en particulier une delivery) peut être visité
+     * Une delivery ne peut être visitée que si tous ses pickups correspondants ont déjà été visités
+     * Les pickups et le warehouse sont toujours faisables
+     * 
+     * @param stop Le stop à vérifier
+     * @param visited Ensemble des stops déjà visités
+     * @param pickupsByRequestId Map des pickups organisés par ID de demande
+     * @return true si le stop peut être visité, false sinon
+     */
+    public static boolean isStopFeasible(
+            Stop stop,
+            Set<Stop> visited,
+            Map<String, List<Stop>> pickupsByRequestId
+    ) {
+        if (stop == null || visited == null || pickupsByRequestId == null) {
+            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
+        }
+
+        // Les pickups et le warehouse sont toujours faisables
+        if (stop.getTypeStop() == Stop.TypeStop.PICKUP || 
+            stop.getTypeStop() == Stop.TypeStop.WAREHOUSE) {
+            return true;
+        }
+
+        // Pour une delivery, vérifier que tous ses pickups ont été visités
+        if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+            String requestId = stop.getIdDemande();
+            List<Stop> requiredPickups = pickupsByRequestId.get(requestId);
+
+            if (requiredPickups == null || requiredPickups.isEmpty()) {
+                // Pas de pickup requis (cas anormal, mais on considère comme faisable)
+                return true;
+            }
+
+            // Tous les pickups de cette demande doivent être dans visited
+            return visited.containsAll(requiredPickups);
+        }
+
+        return false;
+    }
+
+    /**
+     * Vérifie si une tournée respecte les contraintes de précédence
+     * Chaque delivery doit être visitée APRÈS tous les pickups de sa demande
+     * 
+     * @param route Liste ordonnée des stops formant la tournée
+     * @param pickupsByRequestId Map des pickups organisés par ID de demande
+     * @param deliveryByRequestId Map des deliveries organisés par ID de demande
+     * @return true si toutes les contraintes de précédence sont respectées, false sinon
+     */
+    public static boolean respectsPrecedence(
+            List<Stop> route,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId
+    ) {
+        if (route == null || pickupsByRequestId == null || deliveryByRequestId == null) {
+            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
+        }
+
+        Set<Stop> visited = new HashSet<>();
+
+        for (Stop stop : route) {
+            // Vérifier que le stop est faisable avec les stops déjà visités
+            if (!isStopFeasible(stop, visited, pickupsByRequestId)) {
+                return false; // Violation de contrainte : delivery avant son pickup
+            }
+            visited.add(stop);
+        }
+
+        return true;
+    }
+
+    /**
+     * Effectue un swap 2-opt sur une route
+     * Inverse le segment de route entre les indices i et k (inclus)
+     * 
+     * Exemple:
+     *   Route originale: [W, A, B, C, D, E, W]
+     *   twoOptSwap(route, 1, 4) → [W, D, C, B, A, E, W]
+     *   (inverse le segment A→B→C→D)
+     * 
+     * @param route La route originale
+     * @param i Index de début du segment à inverser (inclus)
+     * @param k Index de fin du segment à inverser (inclus)
+     * @return Une nouvelle route avec le segment inversé
+     * @throws IllegalArgumentException Si les indices sont invalides
+     */
+    public static List<Stop> twoOptSwap(List<Stop> route, int i, int k) {
+        if (route == null) {
+            throw new IllegalArgumentException("Route ne peut pas être null");
+        }
+
+        if (i < 0 || k >= route.size() || i >= k) {
+            throw new IllegalArgumentException(
+                "Indices invalides: i=" + i + ", k=" + k + ", taille route=" + route.size() + 
+                " (requis: 0 <= i < k < size)"
+            );
+        }
+
+        List<Stop> newRoute = new ArrayList<>();
+
+        // Segment 1: début → i-1 (inchangé)
+        newRoute.addAll(route.subList(0, i));
+
+        // Segment 2: i → k (inversé)
+        List<Stop> segmentToReverse = new ArrayList<>(route.subList(i, k + 1));
+        Collections.reverse(segmentToReverse);
+        newRoute.addAll(segmentToReverse);
+
+        // Segment 3: k+1 → fin (inchangé)
+        if (k + 1 < route.size()) {
+            newRoute.addAll(route.subList(k + 1, route.size()));
+        }
+
+        return newRoute;
+    }
+
+    /**
+     * Matrice des stops restreinte aux demandes d'une tournée (warehouse aux deux extrémités)
+     *
+     * @return La matrice, ou null si elle ne couvre pas exactement les stops de la tournée
+     */
+    public static StopMatrix routeMatrix(
+            List<Stop> route,
+            Graph graph,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId
+    ) {
+        Map<String, List<Stop>> routePickups = new HashMap<>();
+        Map<String, Stop> routeDeliveries = new HashMap<>();
+        for (int i = 1; i < route.size() - 1; i++) {
+            String requestId = route.get(i).getIdDemande();
+            if (requestId != null && pickupsByRequestId.containsKey(requestId)) {
+                routePickups.put(requestId, pickupsByRequestId.get(requestId));
+                routeDeliveries.put(requestId, deliveryByRequestId.get(requestId));
+            }
+        }
+        StopMatrix matrix = StopMatrix.of(graph, route.get(0), routePickups, routeDeliveries, COURIER_SPEED_MS);
+        return matrix != null && matrix.size() == route.size() - 1 ? matrix : null;
+    }
+
+    /**
+     * @return La séquence étendue des indices de la tournée (entrepôt en 0 et en dernière position)
+     */
+    public static int[] toSequence(List<Stop> route, StopMatrix matrix) {
+        int[] sequence = new int[route.size()];
+        for (int i = 1; i < route.size() - 1; i++) {
+            sequence[i] = matrix.indexOf(route.get(i));
+        }
+        sequence[0] = StopMatrix.DEPOT;
+        sequence[route.size() - 1] = StopMatrix.DEPOT;
+        return sequence;
+    }
+
+    /**
+     * @return La tournée (indices sans l'entrepôt) en stops, warehouse aux deux extrémités
+     */
+    public static List<Stop> toStopRoute(int[] indices, StopMatrix matrix) {
+        List<Stop> route = new ArrayList<>(indices.length + 2);
+        route.add(matrix.stop(StopMatrix.DEPOT));
+        for (int index : indices) {
+            route.add(matrix.stop(index));
+        }
+        route.add(matrix.stop(StopMatrix.DEPOT));
+        return route;
+    }
+
+    /**
+     * @return La distance de la tournée entrepôt → indices → entrepôt
+     */
+    public static double routeDistance(int[] indices, StopMatrix matrix) {
+        double distance = 0.0;
+        int previous = StopMatrix.DEPOT;
+        for (int index : indices) {
+            distance += matrix.distance(previous, index);
+            previous = index;
+        }
+        return distance + matrix.distance(previous, StopMatrix.DEPOT);
+    }
+}
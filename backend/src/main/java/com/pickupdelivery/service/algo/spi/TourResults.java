@@ -0,0 +1,297 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.dto.DistributionWarnings;
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.dto.TourMetrics;
+import com.pickupdelivery.exception.AlgorithmException;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
+import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.service.algo.Solution;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assemblage et validation des tours renvoyés par le calcul (trajets détaillés, durées,
+ * métriques et avertissements)
+ */
+public final class TourResults {
+
+    private TourResults() {
+    }
+
+    /**
+     * Reconstruit une distribution (tours, métriques, warnings) à partir d'une solution indexée
+     * Les coursiers sont renumérotés de 1 à N dans l'ordre des tournées non vides
+     */
+    public static TourDistributionResult toDistributionResult(
+            Solution solution,
+            Graph graph,
+            Stop warehouse,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId
+    ) {
+        StopMatrix matrix = solution.getMatrix();
+        List<Tour> tours = new ArrayList<>();
+        Map<Integer, TourMetrics> metricsByCourier = new HashMap<>();
+        DistributionWarnings warnings = new DistributionWarnings();
+
+        for (int k = 0; k < solution.routeCount(); k++) {
+            if (solution.routeLength(k) == 0) {
+                continue;
+            }
+            List<Stop> route = new ArrayList<>();
+            route.add(warehouse);
+            for (int index : solution.route(k)) {
+                route.add(matrix.stop(index));
+            }
+            route.add(warehouse);
+
+            Tour tour = buildTour(route, StopRoutes.computeRouteDistance(route, graph), graph);
+            tour.setCourierId(tours.size() + 1);
+            tours.add(tour);
+
+            metricsByCourier.put(tour.getCourierId(), new TourMetrics(
+                tour.getCourierId(),
+                tour.getTotalDistance(),
+                tour.getTotalDurationSec(),
+                tour.getRequestCount(),
+                tour.getStopCount(),
+                tour.exceedsTimeLimit()
+            ));
+            if (tour.exceedsTimeLimit()) {
+                warnings.setHasTimeLimitExceeded(true);
+                warnings.addMessage("Coursier " + tour.getCourierId() +
+                    " dépasse la limite de 4h (" +
+                    String.format("%.2f", tour.getTotalDurationHours()) + "h)");
+            }
+        }
+
+        List<String> unassignedDemandIds = new ArrayList<>();
+        List<Demand> unassignedDemands = new ArrayList<>();
+        for (int request : solution.unassignedRequests()) {
+            String demandId = matrix.requestId(request);
+            unassignedDemandIds.add(demandId);
+            unassignedDemands.add(graph.getDemandMap().get(demandId));
+            warnings.setHasUnassignedDemands(true);
+            warnings.addMessage("Demande " + demandId + unassignedReason(matrix, request));
+        }
+
+        validateTourDistribution(tours, pickupsByRequestId, deliveryByRequestId, graph);
+        return new TourDistributionResult(tours, unassignedDemandIds, unassignedDemands, metricsByCourier, warnings);
+    }
+
+    /**
+     * @return La raison pour laquelle une demande reste non assignée (message des warnings)
+     */
+    private static String unassignedReason(StopMatrix matrix, int request) {
+        if (matrix.load(request) > matrix.capacity()) {
+            return " non assignée (dépasse la capacité du coursier)";
+        }
+        if (matrix.aloneDuration(request) > StopRoutes.TIME_LIMIT_SEC) {
+            return " non assignée (dépasse 4h même seule)";
+        }
+        return " non assignée (tous coursiers utilisés)";
+    }
+
+    /**
+     * Construit un objet Tour à partir d'une route et de sa distance
+     * Récupère les trajets détaillés depuis la matrice du Graph
+     * PHASE 1: Calcule également la durée totale de la tournée
+     * 
+     * @param route Liste ordonnée des stops
+     * @param totalDistance Distance totale de la tournée
+     * @param graph Le graphe contenant les trajets détaillés et les demandes
+     * @return Un objet Tour complet avec tous les trajets et la durée
+     */
+    public static Tour buildTour(List<Stop> route, double totalDistance, Graph graph) {
+        if (route == null || graph == null) {
+            throw new IllegalArgumentException("Route et graph ne peuvent pas être null");
+        }
+
+        Tour tour = new Tour();
+        tour.setStops(route);
+        tour.setTotalDistance(totalDistance);
+        
+        // Construire la liste des trajets détaillés entre chaque paire de stops consécutifs
+        List<Trajet> trajets = new ArrayList<>();
+        
+        for (int i = 0; i < route.size() - 1; i++) {
+            Stop from = route.get(i);
+            Stop to = route.get(i + 1);
+            
+            // Récupérer le trajet depuis la matrice du Graph
+            Trajet trajet = graph.getDistancesMatrix().get(from).get(to);
+            
+            if (trajet == null) {
+                throw new AlgorithmException(
+                    AlgorithmException.ErrorType.INVALID_GRAPH,
+                    "Trajet non trouvé dans le graph entre " + from.getIdNode() + " et " + to.getIdNode()
+                );
+            }
+            
+            trajets.add(trajet);
+        }
+        
+        tour.setTrajets(trajets);
+        
+        // PHASE 1: Calculer la durée totale de la tournée
+        if (graph.getDemandMap() != null && !graph.getDemandMap().isEmpty()) {
+            double totalDuration = StopRoutes.computeRouteDuration(route, graph, graph.getDemandMap());
+            tour.setTotalDurationSec(totalDuration);
+        } else {
+            // Si pas de demandes (cas de test), durée = 0
+            tour.setTotalDurationSec(0.0);
+        }
+        
+        return tour;
+    }
+
+    /**
+     * Valide que la distribution des tours respecte toutes les contraintes de précédence
+     * 
+     * VÉRIFICATIONS:
+     * 1. Chaque delivery doit être dans le même tour que son pickup
+     * 2. Chaque delivery doit être APRÈS son pickup dans le tour
+     * 3. Pas de pickup orphelin (sans delivery dans le tour)
+     * 4. Pas de delivery orphelin (sans pickup dans le tour)
+     * 5. Aucune fenêtre horaire manquée (attentes comprises)
+     * 6. Charge à bord jamais supérieure à la capacité du coursier
+     * 
+     * @param tours Liste des tours à valider
+     * @param pickupsByRequestId Map des pickups par ID de demande
+     * @param deliveryByRequestId Map des deliveries par ID de demande
+     * @param graph Le graphe portant les demandes et la capacité
+     * @throws AlgorithmException Si une contrainte est violée
+     */
+    public static void validateTourDistribution(
+            List<Tour> tours,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId,
+            Graph graph
+    ) {
+        validateTourDistribution(tours, pickupsByRequestId, deliveryByRequestId);
+        if (tours == null || graph.getDemandMap() == null) {
+            return;
+        }
+
+        int tourIndex = 0;
+        for (Tour tour : tours) {
+            tourIndex++;
+            List<Stop> stops = tour.getStops();
+            if (stops == null || stops.size() < 2) {
+                continue;
+            }
+            if (!StopRoutes.respectsTimeWindows(stops, graph, graph.getDemandMap())) {
+                throw new AlgorithmException(
+                    AlgorithmException.ErrorType.TIME_WINDOW_VIOLATION,
+                    "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
+                    "une fenêtre horaire est manquée"
+                );
+            }
+            if (!StopRoutes.respectsCapacity(stops, graph, graph.getDemandMap())) {
+                throw new AlgorithmException(
+                    AlgorithmException.ErrorType.CAPACITY_EXCEEDED,
+                    "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
+                    "la charge à bord dépasse la capacité " + graph.getCourierCapacity()
+                );
+            }
+        }
+    }
+
+    /**
+     * Valide la précédence et l'intégrité des paires pickup/delivery de chaque tour
+     * (voir la surcharge avec le graphe pour les fenêtres horaires et la capacité)
+     *
+     * @throws AlgorithmException Si une contrainte est violée
+     */
+    public static void validateTourDistribution(
+            List<Tour> tours,
+            Map<String, List<Stop>> pickupsByRequestId,
+            Map<String, Stop> deliveryByRequestId
+    ) {
+        if (tours == null || tours.isEmpty()) {
+            return; // Rien à valider
+        }
+        
+        int tourIndex = 0;
+        for (Tour tour : tours) {
+            tourIndex++;
+            List<Stop> stops = tour.getStops();
+            
+            if (stops == null || stops.size() < 2) {
+                continue; // Tour vide ou invalide, ignoré
+            }
+            
+            // Pour ce tour, collecter les demandes présentes (pickups et deliveries)
+            Set<String> tourPickupDemands = new HashSet<>();
+            Set<String> tourDeliveryDemands = new HashSet<>();
+            Set<Stop> visitedStops = new HashSet<>();
+            
+            for (Stop stop : stops) {
+                if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                    tourPickupDemands.add(stop.getIdDemande());
+                } else if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                    tourDeliveryDemands.add(stop.getIdDemande());
+                }
+                
+                // Vérifier contrainte de précédence locale (delivery après pickup)
+                if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                    String demandId = stop.getIdDemande();
+                    List<Stop> requiredPickups = pickupsByRequestId.get(demandId);
+                    
+                    if (requiredPickups == null || requiredPickups.isEmpty()) {
+                        throw new AlgorithmException(
+                            AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
+                            "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
+                            "Delivery " + demandId + " sans pickup associé dans pickupsByRequestId"
+                        );
+                    }
+                    
+                    // Vérifier que TOUS les pickups requis ont été visités AVANT ce delivery
+                    if (!visitedStops.containsAll(requiredPickups)) {
+                        throw new AlgorithmException(
+                            AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
+                            "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
+                            "Delivery " + demandId + " placé AVANT son pickup correspondant"
+                        );
+                    }
+                }
+                
+                visitedStops.add(stop);
+            }
+            
+            // Vérifier que chaque pickup a son delivery dans le même tour
+            for (String pickupDemandId : tourPickupDemands) {
+                if (!tourDeliveryDemands.contains(pickupDemandId)) {
+                    throw new AlgorithmException(
+                        AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
+                        "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
+                        "Pickup de la demande " + pickupDemandId + " présent mais delivery absent " +
+                        "(violation de la contrainte de paire indivisible)"
+                    );
+                }
+            }
+            
+            // Vérifier que chaque delivery a son pickup dans le même tour
+            for (String deliveryDemandId : tourDeliveryDemands) {
+                if (!tourPickupDemands.contains(deliveryDemandId)) {
+                    throw new AlgorithmException(
+                        AlgorithmException.ErrorType.PRECEDENCE_VIOLATION,
+                        "Tour " + tourIndex + " (coursier " + tour.getCourierId() + "): " +
+                        "Delivery de la demande " + deliveryDemandId + " présent mais pickup absent " +
+                        "(violation de la contrainte de paire indivisible)"
+                    );
+                }
+            }
+        }
+    }
+}
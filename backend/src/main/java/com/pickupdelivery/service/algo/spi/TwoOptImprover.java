@@ -0,0 +1,104 @@
+package com.pickupdelivery.service.algo.spi;
+
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.GranularTwoOpt;
+import com.pickupdelivery.service.algo.NeighbourLists;
+import com.pickupdelivery.service.algo.Solution;
+import com.pickupdelivery.service.algo.StopMatrix;
+
+import java.util.List;
+
+/**
+ * Amélioration par défaut ("2-opt") : 2-opt granulaire si les listes de voisins sont
+ * activées, 2-opt complet sinon (parallèle sur les longues tournées, voir {@link FullTwoOptImprover})
+ */
+public final class TwoOptImprover implements RouteImprover {
+
+    private final int neighbourCount;
+    private final FullTwoOptImprover fullTwoOpt;
+
+    /**
+     * @param neighbourCount Nombre de voisins candidats par stop, 0 = toutes les paires
+     * @param fullTwoOpt     Le 2-opt complet, utilisé sans listes de voisins
+     */
+    public TwoOptImprover(int neighbourCount, FullTwoOptImprover fullTwoOpt) {
+        this.neighbourCount = neighbourCount;
+        this.fullTwoOpt = fullTwoOpt;
+    }
+
+    @Override
+    public List<Stop> improve(List<Stop> route, RoutingProblem problem) {
+        return problem.neighbours() != null
+            ? optimizeWithGranular2Opt(route, problem.matrix(), problem.neighbours(), problem.deadline())
+            : fullTwoOpt.improve(route, problem);
+    }
+
+    /**
+     * Un passage de 2-opt sur chaque tournée de la solution (modifiée en place)
+     */
+    @Override
+    public int improveRoutes(Solution solution, RoutingProblem problem) {
+        if (neighbourCount <= 0) {
+            return RouteImprover.super.improveRoutes(solution, problem);
+        }
+        StopMatrix matrix = solution.getMatrix();
+        NeighbourLists neighbours = matrix == problem.matrix() && problem.neighbours() != null
+            ? problem.neighbours()
+            : NeighbourLists.of(matrix, neighbourCount);
+        GranularTwoOpt twoOpt = new GranularTwoOpt(matrix, neighbours);
+        int improved = twoOpt.improve(solution, problem.deadline());
+        System.out.println("\n🔧 2-opt granulaire des tournées: " + improved + " tournée(s) raccourcie(s), "
+            + twoOpt.getMoves() + " amélioration(s)");
+        return improved;
+    }
+
+    /**
+     * Variante granulaire du 2-opt (voir {@link GranularTwoOpt}) : seuls les échanges créant
+     * un arc vers l'un des k plus proches voisins sont évalués, chacun en O(1), et les stops
+     * sans amélioration ne sont réexaminés que si l'une de leurs arêtes change
+     *
+     * @param route      La tournée initiale (warehouse aux deux extrémités, stops de la matrice)
+     * @param matrix     Vue indexée du graphe
+     * @param neighbours Listes de voisins de la matrice
+     * @param deadline   Échéance consultée avant chaque stop examiné
+     * @return La tournée optimisée
+     */
+    private List<Stop> optimizeWithGranular2Opt(
+            List<Stop> route,
+            StopMatrix matrix,
+            NeighbourLists neighbours,
+            Deadline deadline
+    ) {
+        if (route == null || route.size() <= 3) {
+            return route;
+        }
+
+        System.out.println("\n🔧 Phase 4: Optimisation 2-opt granulaire (" + neighbours.width() + " voisins par stop)...");
+
+        int[] indices = new int[route.size() - 2];
+        for (int i = 1; i < route.size() - 1; i++) {
+            indices[i - 1] = matrix.indexOf(route.get(i));
+        }
+        double initialDistance = StopRoutes.routeDistance(indices, matrix);
+        System.out.println("   📏 Distance initiale: " + String.format("%.2f", initialDistance) + " m");
+
+        GranularTwoOpt twoOpt = new GranularTwoOpt(matrix, neighbours);
+        int[] optimized = twoOpt.optimize(indices, deadline);
+        double finalDistance = StopRoutes.routeDistance(optimized, matrix);
+
+        if (deadline.isExpired()) {
+            System.out.println("   ⏱️  2-opt interrompu par l'échéance");
+        }
+        System.out.println("   ✓ " + twoOpt.getMoves() + " amélioration(s), " + twoOpt.getEvaluations() + " échanges évalués");
+        if (finalDistance < initialDistance) {
+            double gain = initialDistance - finalDistance;
+            System.out.println("   📏 Distance finale: " + String.format("%.2f", finalDistance) + " m");
+            System.out.println("   🎯 Gain total: " + String.format("%.2f", gain) + " m " +
+                             "(" + String.format("%.1f", gain / initialDistance * 100) + "%)");
+            return StopRoutes.toStopRoute(optimized, matrix);
+        }
+        System.out.println("   ✓ Aucune amélioration trouvée (tournée déjà optimale)");
+        return route;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.Node;
+
+import java.util.List;
+
+/**
+ * Projection équirectangulaire locale (lat/lon → mètres) centrée sur une carte
+ *
+ * À l'échelle d'une ville, l'erreur par rapport à la distance géodésique est négligeable
+ * et les distances euclidiennes deviennent directement comparables en mètres.
+ */
+final class LocalProjection {
+
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+
+    private final double metersPerDegreeLat;
+    private final double metersPerDegreeLon;
+
+    private LocalProjection(double referenceLatitude) {
+        this.metersPerDegreeLat = Math.toRadians(1.0) * EARTH_RADIUS_M;
+        this.metersPerDegreeLon = metersPerDegreeLat * Math.cos(Math.toRadians(referenceLatitude));
+    }
+
+    /**
+     * Crée une projection centrée sur la latitude moyenne des nœuds
+     */
+    static LocalProjection centeredOn(List<Node> nodes) {
+        double sum = 0;
+        int count = 0;
+        if (nodes != null) {
+            for (Node node : nodes) {
+                sum += node.getLatitude();
+                count++;
+            }
+        }
+        return new LocalProjection(count > 0 ? sum / count : 0.0);
+    }
+
+    double x(double longitude) {
+        return longitude * metersPerDegreeLon;
+    }
+
+    double y(double latitude) {
+        return latitude * metersPerDegreeLat;
+    }
+}
@@ -0,0 +1,239 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arbre k-d statique sur les nœuds d'une carte, stocké dans des tableaux primitifs
+ *
+ * L'arbre est implicite : pour une plage [from, to), le nœud pivot est au milieu,
+ * le sous-arbre gauche dans [from, mid) et le droit dans [mid + 1, to). Les axes
+ * alternent X (longitude) / Y (latitude) avec la profondeur. Les coordonnées sont
+ * projetées en mètres, les distances retournées sont donc en mètres.
+ */
+public final class NodeSpatialIndex {
+
+    private final LocalProjection projection;
+    private final double[] xs;
+    private final double[] ys;
+    private final Node[] nodes;
+
+    private NodeSpatialIndex(LocalProjection projection, double[] xs, double[] ys, Node[] nodes) {
+        this.projection = projection;
+        this.xs = xs;
+        this.ys = ys;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Construit l'index des nœuds d'une carte en O(n log n)
+     *
+     * @param cityMap La carte de la ville
+     * @return L'index spatial (vide si la carte n'a pas de nœuds)
+     */
+    public static NodeSpatialIndex build(CityMap cityMap) {
+        List<Node> source = cityMap != null && cityMap.getNodes() != null ? cityMap.getNodes() : List.of();
+        LocalProjection projection = LocalProjection.centeredOn(source);
+
+        int n = source.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            Node node = source.get(i);
+            xs[i] = projection.x(node.getLongitude());
+            ys[i] = projection.y(node.getLatitude());
+            nodes[i] = node;
+        }
+
+        NodeSpatialIndex index = new NodeSpatialIndex(projection, xs, ys, nodes);
+        index.buildRange(0, n, 0);
+        return index;
+    }
+
+    /**
+     * @return Le nombre de nœuds indexés
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Recherche le nœud le plus proche d'une coordonnée
+     *
+     * @return Le nœud le plus proche, ou null si l'index est vide
+     */
+    public Node nearest(double latitude, double longitude) {
+        List<Neighbor> result = nearest(latitude, longitude, 1);
+        return result.isEmpty() ? null : result.get(0).node();
+    }
+
+    /**
+     * Recherche les k nœuds les plus proches d'une coordonnée
+     *
+     * @param latitude  Latitude du point recherché
+     * @param longitude Longitude du point recherché
+     * @param k         Nombre de voisins souhaités (≥ 1)
+     * @return Les voisins triés par distance croissante (au plus k)
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k doit être supérieur ou égal à 1");
+        }
+
+        KnnHeap heap = new KnnHeap(Math.min(k, nodes.length));
+        if (heap.capacity > 0) {
+            search(0, nodes.length, 0, projection.x(longitude), projection.y(latitude), heap);
+        }
+        return heap.toSortedList(nodes);
+    }
+
+    /**
+     * Voisin trouvé par l'index, avec sa distance en mètres
+     */
+    public record Neighbor(Node node, double distanceMeters) {}
+
+    // =========================================================================
+    // CONSTRUCTION ET RECHERCHE
+    // =========================================================================
+
+    private void buildRange(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, (depth & 1) == 0 ? xs : ys);
+        buildRange(from, mid, depth + 1);
+        buildRange(mid + 1, to, depth + 1);
+    }
+
+    private void search(int from, int to, int depth, double qx, double qy, KnnHeap heap) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        double dx = xs[mid] - qx;
+        double dy = ys[mid] - qy;
+        heap.offer(mid, dx * dx + dy * dy);
+
+        // Côté du plan de coupe contenant la requête en premier
+        double delta = (depth & 1) == 0 ? qx - xs[mid] : qy - ys[mid];
+        if (delta < 0) {
+            search(from, mid, depth + 1, qx, qy, heap);
+            if (delta * delta < heap.worst()) {
+                search(mid + 1, to, depth + 1, qx, qy, heap);
+            }
+        } else {
+            search(mid + 1, to, depth + 1, qx, qy, heap);
+            if (delta * delta < heap.worst()) {
+                search(from, mid, depth + 1, qx, qy, heap);
+            }
+        }
+    }
+
+    /**
+     * Quickselect : place le k-ième élément (selon keys) à sa position triée
+     */
+    private void select(int left, int right, int k, double[] keys) {
+        while (right > left) {
+            int pivotIndex = partition(left, right, (left + right) >>> 1, keys);
+            if (k == pivotIndex) {
+                return;
+            } else if (k < pivotIndex) {
+                right = pivotIndex - 1;
+            } else {
+                left = pivotIndex + 1;
+            }
+        }
+    }
+
+    private int partition(int left, int right, int pivotIndex, double[] keys) {
+        double pivot = keys[pivotIndex];
+        swap(pivotIndex, right);
+        int store = left;
+        for (int i = left; i < right; i++) {
+            if (keys[i] < pivot) {
+                swap(i, store++);
+            }
+        }
+        swap(store, right);
+        return store;
+    }
+
+    private void swap(int i, int j) {
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        Node node = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = node;
+    }
+
+    /**
+     * Tas max borné des k meilleurs candidats (distances au carré)
+     */
+    private static final class KnnHeap {
+        private final int capacity;
+        private final int[] items;
+        private final double[] keys;
+        private int size;
+
+        KnnHeap(int capacity) {
+            this.capacity = capacity;
+            this.items = new int[capacity];
+            this.keys = new double[capacity];
+        }
+
+        double worst() {
+            return size < capacity ? Double.POSITIVE_INFINITY : keys[0];
+        }
+
+        void offer(int item, double key) {
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0 && keys[(i - 1) >>> 1] < key) {
+                    int parent = (i - 1) >>> 1;
+                    items[i] = items[parent];
+                    keys[i] = keys[parent];
+                    i = parent;
+                }
+                items[i] = item;
+                keys[i] = key;
+            } else if (key < keys[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && keys[child + 1] > keys[child]) {
+                        child++;
+                    }
+                    if (keys[child] <= key) {
+                        break;
+                    }
+                    items[i] = items[child];
+                    keys[i] = keys[child];
+                    i = child;
+                }
+                items[i] = item;
+                keys[i] = key;
+            }
+        }
+
+        List<Neighbor> toSortedList(Node[] nodes) {
+            List<Neighbor> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(new Neighbor(nodes[items[i]], Math.sqrt(keys[i])));
+            }
+            result.sort((a, b) -> Double.compare(a.distanceMeters(), b.distanceMeters()));
+            return result;
+        }
+    }
+}
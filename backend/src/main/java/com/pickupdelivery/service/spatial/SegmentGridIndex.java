@@ -0,0 +1,263 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.model.Segment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grille uniforme sur les boîtes englobantes des tronçons d'une carte
+ *
+ * Chaque tronçon est référencé dans toutes les cellules que sa boîte recouvre
+ * (stockage CSR : cellStart / cellSegments). Une requête par boîte (viewport,
+ * tuile) ne parcourt que les cellules recouvertes au lieu de toute la carte.
+ *
+ * Chaque tronçon reçoit aussi un zoom minimal d'affichage : les rues sont classées
+ * par longueur totale (toutes portions de même nom), les grands axes restent visibles
+ * à faible zoom et les petites rues n'apparaissent qu'en zoomant.
+ */
+public final class SegmentGridIndex {
+
+    /** Zoom à partir duquel tous les tronçons sont affichés */
+    public static final int FULL_DETAIL_ZOOM = 15;
+
+    /** Part (en nombre de rues) des rues les plus longues, visibles à tous les zooms */
+    private static final double MAJOR_STREET_SHARE = 0.10;
+
+    /** Part des rues visibles dès le zoom FULL_DETAIL_ZOOM - 1 */
+    private static final double MEDIUM_STREET_SHARE = 0.35;
+
+    /** Nombre moyen de tronçons visé par cellule */
+    private static final int TARGET_SEGMENTS_PER_CELL = 8;
+
+    private final Segment[] segments;
+    private final double[] minLat;
+    private final double[] minLon;
+    private final double[] maxLat;
+    private final double[] maxLon;
+    private final int[] minZoom;
+
+    private final double gridMinLat;
+    private final double gridMinLon;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final int rows;
+    private final int cols;
+    private final int[] cellStart;
+    private final int[] cellSegments;
+
+    private final double[] bounds;
+
+    private SegmentGridIndex(Segment[] segments, double[] minLat, double[] minLon, double[] maxLat,
+                             double[] maxLon, int[] minZoom, double gridMinLat, double gridMinLon,
+                             double cellHeight, double cellWidth, int rows, int cols,
+                             int[] cellStart, int[] cellSegments, double[] bounds) {
+        this.segments = segments;
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.maxLat = maxLat;
+        this.maxLon = maxLon;
+        this.minZoom = minZoom;
+        this.gridMinLat = gridMinLat;
+        this.gridMinLon = gridMinLon;
+        this.cellHeight = cellHeight;
+        this.cellWidth = cellWidth;
+        this.rows = rows;
+        this.cols = cols;
+        this.cellStart = cellStart;
+        this.cellSegments = cellSegments;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Construit l'index des tronçons d'une carte
+     * Les tronçons dont une extrémité est inconnue sont ignorés (non affichables)
+     *
+     * @param cityMap La carte de la ville
+     * @return L'index (vide si la carte n'a pas de tronçons)
+     */
+    public static SegmentGridIndex build(CityMap cityMap) {
+        List<Node> nodes = cityMap != null && cityMap.getNodes() != null ? cityMap.getNodes() : List.of();
+        List<Segment> source = cityMap != null && cityMap.getSegments() != null ? cityMap.getSegments() : List.of();
+
+        Map<String, Node> nodesById = new HashMap<>(nodes.size() * 2);
+        for (Node node : nodes) {
+            nodesById.put(node.getId(), node);
+        }
+
+        // 1️⃣ Boîtes englobantes des tronçons affichables
+        List<Segment> kept = new ArrayList<>(source.size());
+        for (Segment segment : source) {
+            if (nodesById.containsKey(segment.getOrigin()) && nodesById.containsKey(segment.getDestination())) {
+                kept.add(segment);
+            }
+        }
+
+        int n = kept.size();
+        Segment[] segments = kept.toArray(new Segment[0]);
+        double[] minLat = new double[n];
+        double[] minLon = new double[n];
+        double[] maxLat = new double[n];
+        double[] maxLon = new double[n];
+        double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                           Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+        for (int i = 0; i < n; i++) {
+            Node a = nodesById.get(segments[i].getOrigin());
+            Node b = nodesById.get(segments[i].getDestination());
+            minLat[i] = Math.min(a.getLatitude(), b.getLatitude());
+            maxLat[i] = Math.max(a.getLatitude(), b.getLatitude());
+            minLon[i] = Math.min(a.getLongitude(), b.getLongitude());
+            maxLon[i] = Math.max(a.getLongitude(), b.getLongitude());
+            bounds[0] = Math.min(bounds[0], minLat[i]);
+            bounds[1] = Math.min(bounds[1], minLon[i]);
+            bounds[2] = Math.max(bounds[2], maxLat[i]);
+            bounds[3] = Math.max(bounds[3], maxLon[i]);
+        }
+
+        int[] minZoom = computeMinZoom(segments);
+
+        // 2️⃣ Dimensionner la grille (≈ TARGET_SEGMENTS_PER_CELL tronçons par cellule)
+        int cellCount = Math.max(1, n / TARGET_SEGMENTS_PER_CELL);
+        int side = Math.max(1, (int) Math.ceil(Math.sqrt(cellCount)));
+        int rows = side;
+        int cols = side;
+        double gridMinLat = n > 0 ? bounds[0] : 0.0;
+        double gridMinLon = n > 0 ? bounds[1] : 0.0;
+        double cellHeight = n > 0 ? Math.max((bounds[2] - bounds[0]) / rows, 1e-9) : 1.0;
+        double cellWidth = n > 0 ? Math.max((bounds[3] - bounds[1]) / cols, 1e-9) : 1.0;
+
+        SegmentGridIndex sizing = new SegmentGridIndex(segments, minLat, minLon, maxLat, maxLon, minZoom,
+                gridMinLat, gridMinLon, cellHeight, cellWidth, rows, cols, null, null, bounds);
+
+        // 3️⃣ Remplissage CSR en deux passes (comptage puis placement)
+        int[] cellStart = new int[rows * cols + 1];
+        for (int i = 0; i < n; i++) {
+            for (int r = sizing.row(minLat[i]); r <= sizing.row(maxLat[i]); r++) {
+                for (int c = sizing.col(minLon[i]); c <= sizing.col(maxLon[i]); c++) {
+                    cellStart[r * cols + c + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < rows * cols; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        int[] cursor = Arrays.copyOf(cellStart, rows * cols);
+        int[] cellSegments = new int[cellStart[rows * cols]];
+        for (int i = 0; i < n; i++) {
+            for (int r = sizing.row(minLat[i]); r <= sizing.row(maxLat[i]); r++) {
+                for (int c = sizing.col(minLon[i]); c <= sizing.col(maxLon[i]); c++) {
+                    cellSegments[cursor[r * cols + c]++] = i;
+                }
+            }
+        }
+
+        return new SegmentGridIndex(segments, minLat, minLon, maxLat, maxLon, minZoom,
+                gridMinLat, gridMinLon, cellHeight, cellWidth, rows, cols, cellStart, cellSegments, bounds);
+    }
+
+    /**
+     * Retourne les tronçons dont la boîte englobante intersecte la zone demandée
+     * et qui sont visibles au niveau de zoom donné
+     *
+     * @param south Latitude minimale
+     * @param west  Longitude minimale
+     * @param north Latitude maximale
+     * @param east  Longitude maximale
+     * @param zoom  Niveau de zoom (≥ FULL_DETAIL_ZOOM : tous les tronçons)
+     * @return Les tronçons visibles, dans l'ordre de la carte
+     */
+    public List<Segment> query(double south, double west, double north, double east, int zoom) {
+        List<Segment> result = new ArrayList<>();
+        if (segments.length == 0 || south > bounds[2] || north < bounds[0] || west > bounds[3] || east < bounds[1]) {
+            return result;
+        }
+
+        int rowFrom = row(Math.max(south, bounds[0]));
+        int rowTo = row(Math.min(north, bounds[2]));
+        int colFrom = col(Math.max(west, bounds[1]));
+        int colTo = col(Math.min(east, bounds[3]));
+
+        // Un tronçon couvrant plusieurs cellules n'est retenu qu'une fois
+        boolean[] seen = new boolean[segments.length];
+        List<Integer> hits = new ArrayList<>();
+        for (int r = rowFrom; r <= rowTo; r++) {
+            for (int c = colFrom; c <= colTo; c++) {
+                int cell = r * cols + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellSegments[k];
+                    if (seen[i] || minZoom[i] > zoom) {
+                        continue;
+                    }
+                    seen[i] = true;
+                    if (maxLat[i] >= south && minLat[i] <= north && maxLon[i] >= west && minLon[i] <= east) {
+                        hits.add(i);
+                    }
+                }
+            }
+        }
+
+        hits.sort(Integer::compare);
+        for (int i : hits) {
+            result.add(segments[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return L'emprise de la carte {south, west, north, east}
+     */
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    private int row(double latitude) {
+        int r = (int) ((latitude - gridMinLat) / cellHeight);
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+
+    private int col(double longitude) {
+        int c = (int) ((longitude - gridMinLon) / cellWidth);
+        return Math.max(0, Math.min(cols - 1, c));
+    }
+
+    /**
+     * Zoom minimal de chaque tronçon selon le rang de sa rue (longueur totale cumulée)
+     * Les tronçons sans nom sont considérés comme des rues secondaires
+     */
+    private static int[] computeMinZoom(Segment[] segments) {
+        Map<String, Double> streetLength = new HashMap<>();
+        for (Segment segment : segments) {
+            String name = segment.getName();
+            if (name != null && !name.isBlank()) {
+                streetLength.merge(name, segment.getLength(), Double::sum);
+            }
+        }
+
+        List<Map.Entry<String, Double>> ranking = new ArrayList<>(streetLength.entrySet());
+        ranking.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        Map<String, Integer> zoomByStreet = new HashMap<>(ranking.size() * 2);
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            double share = (double) rank / ranking.size();
+            int zoom = share < MAJOR_STREET_SHARE ? 0
+                     : share < MEDIUM_STREET_SHARE ? FULL_DETAIL_ZOOM - 1
+                     : FULL_DETAIL_ZOOM;
+            zoomByStreet.put(ranking.get(rank).getKey(), zoom);
+        }
+
+        int[] minZoom = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            minZoom[i] = zoomByStreet.getOrDefault(segments[i].getName(), FULL_DETAIL_ZOOM);
+        }
+        return minZoom;
+    }
+}
@@ -0,0 +1,102 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.model.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Découpage des demandes en secteurs angulaires autour de l'entrepôt ("sweep")
+ *
+ * Chaque demande est repérée par l'angle, vu de l'entrepôt, du milieu de son pickup et de
+ * sa delivery (coordonnées projetées en mètres). Les demandes sont triées par angle, le
+ * balayage commence juste après le plus grand secteur vide (pour ne pas couper un groupe
+ * de demandes voisines en deux), puis la suite est coupée en secteurs de tailles égales.
+ *
+ * Complexité : O(n log n) pour n demandes.
+ */
+public final class SweepClustering {
+
+    private SweepClustering() {
+    }
+
+    /**
+     * @param demands         Les demandes à répartir
+     * @param warehouseNodeId Le nœud de l'entrepôt (centre du balayage)
+     * @param cityMap         La carte (coordonnées des nœuds)
+     * @param clusterCount    Le nombre de secteurs souhaité (borné par le nombre de demandes)
+     * @return Les secteurs dans l'ordre du balayage ; deux secteurs consécutifs sont voisins,
+     *         le dernier touche le premier
+     * @throws IllegalArgumentException Si le nombre de secteurs est inférieur à 1
+     */
+    public static List<List<Demand>> partition(List<Demand> demands, String warehouseNodeId,
+                                               CityMap cityMap, int clusterCount) {
+        if (clusterCount < 1) {
+            throw new IllegalArgumentException("Le nombre de secteurs doit être au moins 1 (reçu: " + clusterCount + ")");
+        }
+        int n = demands.size();
+        List<List<Demand>> clusters = new ArrayList<>();
+        if (n == 0) {
+            return clusters;
+        }
+
+        List<Node> nodes = cityMap != null && cityMap.getNodes() != null ? cityMap.getNodes() : List.of();
+        LocalProjection projection = LocalProjection.centeredOn(nodes);
+        Map<String, Node> nodeById = new HashMap<>(nodes.size() * 2);
+        for (Node node : nodes) {
+            nodeById.put(node.getId(), node);
+        }
+        Node warehouse = nodeById.get(warehouseNodeId);
+        double originX = warehouse != null ? projection.x(warehouse.getLongitude()) : 0.0;
+        double originY = warehouse != null ? projection.y(warehouse.getLatitude()) : 0.0;
+
+        // Angle de chaque demande ; les demandes sans coordonnées sont placées à l'angle 0
+        double[] angles = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Demand demand = demands.get(i);
+            Node pickup = nodeById.get(demand.getPickupNodeId());
+            Node delivery = nodeById.get(demand.getDeliveryNodeId());
+            if (pickup != null && delivery != null) {
+                double x = (projection.x(pickup.getLongitude()) + projection.x(delivery.getLongitude())) / 2 - originX;
+                double y = (projection.y(pickup.getLatitude()) + projection.y(delivery.getLatitude())) / 2 - originY;
+                angles[i] = Math.atan2(y, x);
+            }
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byAngle = Double.compare(angles[a], angles[b]);
+            return byAngle != 0 ? byAngle : Integer.compare(a, b);
+        });
+
+        // Début du balayage : après le plus grand écart angulaire (en tenant compte du tour complet)
+        int start = 0;
+        double largestGap = angles[order[0]] + 2 * Math.PI - angles[order[n - 1]];
+        for (int i = 1; i < n; i++) {
+            double gap = angles[order[i]] - angles[order[i - 1]];
+            if (gap > largestGap) {
+                largestGap = gap;
+                start = i;
+            }
+        }
+
+        // Secteurs de tailles égales (à une demande près)
+        int count = Math.min(clusterCount, n);
+        int assigned = 0;
+        for (int c = 0; c < count; c++) {
+            int size = (n - assigned) / (count - c);
+            List<Demand> cluster = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                cluster.add(demands.get(order[(start + assigned + i) % n]));
+            }
+            assigned += size;
+            clusters.add(cluster);
+        }
+        return clusters;
+    }
+}
@@ -12,6 +12,9 @@ import org.w3c.dom.NodeList;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.InputStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +26,8 @@ import java.util.UUID;
 @Component
 public class DeliveryRequestXmlParser {
 
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("H:m:s");
+
     /**
      * Parse un fichier XML contenant les demandes de livraison
      * @param file Le fichier XML uploadé
@@ -134,10 +139,21 @@ public class DeliveryRequestXmlParser {
                         null // courierId
                     );
                     
+                    // Fenêtres horaires optionnelles (heures "H:m:s", converties en secondes après le départ)
+                    DemandFactory.withTimeWindows(demand,
+                        parseWindowBound(livraisonElement, "debutEnlevement", heureDepart, i),
+                        parseWindowBound(livraisonElement, "finEnlevement", heureDepart, i),
+                        parseWindowBound(livraisonElement, "debutLivraison", heureDepart, i),
+                        parseWindowBound(livraisonElement, "finLivraison", heureDepart, i));
+                    
+                    // Charge optionnelle (encombrement du colis, unités de capacité des coursiers)
+                    String charge = livraisonElement.getAttribute("charge");
+                    DemandFactory.withLoad(demand, charge.isEmpty() ? null : Integer.parseInt(charge));
+                    
                     demands.add(demand);
                 } catch (NumberFormatException e) {
                     throw new IllegalArgumentException(
-                        "❌ Format XML incorrect : les durées de la livraison #" + (i + 1) + 
+                        "❌ Format XML incorrect : les durées et la charge de la livraison #" + (i + 1) + 
                         " doivent être des nombres entiers."
                     );
                 } catch (IllegalArgumentException e) {
@@ -152,6 +168,33 @@ public class DeliveryRequestXmlParser {
         }
     }
 
+    /**
+     * Lit une borne de fenêtre horaire d'une livraison
+     * 
+     * @param element L'élément <livraison>
+     * @param attribute Le nom de l'attribut (ex: "finLivraison")
+     * @param departureTime L'heure de départ de l'entrepôt ("H:m:s")
+     * @param index L'index de la livraison (pour les messages d'erreur)
+     * @return Les secondes écoulées depuis le départ (négatives si avant), ou null si l'attribut est absent
+     * @throws IllegalArgumentException Si l'heure est mal formée
+     */
+    private Integer parseWindowBound(Element element, String attribute, String departureTime, int index) {
+        String value = element.getAttribute(attribute);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            LocalTime time = LocalTime.parse(value, TIME_FORMATTER);
+            LocalTime departure = LocalTime.parse(departureTime, TIME_FORMATTER);
+            return time.toSecondOfDay() - departure.toSecondOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                "❌ Format XML incorrect : l'attribut '" + attribute + "' de la livraison #" + (index + 1) +
+                " doit être une heure au format H:m:s (reçu : " + value + ")."
+            );
+        }
+    }
+
     /**
      * Ancienne méthode maintenue pour compatibilité
      * @deprecated Utiliser parseDeliveryRequestFromXML à la place
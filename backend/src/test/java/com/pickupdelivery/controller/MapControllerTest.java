@@ -2,8 +2,11 @@ package com.pickupdelivery.controller;
 
 import com.pickupdelivery.dto.ApiResponse;
 import com.pickupdelivery.dto.MapUploadResponse;
+import com.pickupdelivery.dto.NearestNodeResponse;
 import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
 import com.pickupdelivery.service.MapService;
+import com.pickupdelivery.service.spatial.NodeSpatialIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -13,8 +16,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -114,4 +121,45 @@ class MapControllerTest {
         assertTrue(response.getBody().isSuccess());
         verify(mapService, times(1)).clearMap();
     }
+
+    @Test
+    void findNearestNodes_WithMapLoaded_ShouldReturnNeighbors() {
+        // Arrange
+        Node node = new Node("N1", 45.75, 4.85);
+        when(mapService.hasMap()).thenReturn(true);
+        when(mapService.findNearestNodes(45.7501, 4.8501, 1))
+            .thenReturn(List.of(new NodeSpatialIndex.Neighbor(node, 13.2)));
+
+        // Act
+        ResponseEntity<ApiResponse<List<NearestNodeResponse>>> response =
+            mapController.findNearestNodes(45.7501, 4.8501, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getData().size());
+        assertEquals("N1", response.getBody().getData().get(0).getNodeId());
+        assertEquals(13.2, response.getBody().getData().get(0).getDistanceMeters());
+    }
+
+    @Test
+    void findNearestNodes_WithoutMap_ShouldReturnNotFound() {
+        when(mapService.hasMap()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<List<NearestNodeResponse>>> response =
+            mapController.findNearestNodes(45.75, 4.85, 1);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(mapService, never()).findNearestNodes(anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void findNearestNodes_WithInvalidK_ShouldReturnBadRequest() {
+        when(mapService.hasMap()).thenReturn(true);
+
+        ResponseEntity<ApiResponse<List<NearestNodeResponse>>> response =
+            mapController.findNearestNodes(45.75, 4.85, 0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertFalse(response.getBody().isSuccess());
+    }
 }
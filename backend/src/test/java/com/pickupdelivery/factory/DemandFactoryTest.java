@@ -129,4 +129,35 @@ class DemandFactoryTest {
         );
         assertNull(demand.getCourierId());
     }
+
+    @Test
+    void testWithTimeWindows_ValidWindows_AreSet() {
+        Demand demand = DemandFactory.createDemand("d1", "n1", "n2", 300, 480, null);
+
+        DemandFactory.withTimeWindows(demand, 0, 3600, null, 7200);
+
+        assertEquals(0, demand.getPickupEarliestSec());
+        assertEquals(3600, demand.getPickupLatestSec());
+        assertNull(demand.getDeliveryEarliestSec());
+        assertEquals(7200, demand.getDeliveryLatestSec());
+    }
+
+    @Test
+    void testWithTimeWindows_WindowEndingBeforeStart_ThrowsException() {
+        Demand demand = DemandFactory.createDemand("d1", "n1", "n2", 300, 480, null);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> DemandFactory.withTimeWindows(demand, null, null, 3600, 1800)
+        );
+        assertTrue(exception.getMessage().contains("delivery"));
+    }
+
+    @Test
+    void testWithLoad_NegativeLoad_ThrowsException() {
+        Demand demand = DemandFactory.createDemand("d1", "n1", "n2", 300, 480, null);
+
+        assertThrows(IllegalArgumentException.class, () -> DemandFactory.withLoad(demand, -1));
+        assertEquals(3, DemandFactory.withLoad(demand, 3).getLoad());
+    }
 }
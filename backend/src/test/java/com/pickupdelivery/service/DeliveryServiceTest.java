@@ -12,9 +12,11 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -32,6 +34,9 @@ class DeliveryServiceTest {
     @Mock
     private MapService mapService;
 
+    @Mock
+    private ServiceAlgo serviceAlgo;
+
     @InjectMocks
     private DeliveryService deliveryService;
 
@@ -441,6 +446,28 @@ class DeliveryServiceTest {
         assertEquals("08:00", result.getWarehouse().getDepartureTime());
     }
 
+    @Test
+    void setWarehouse_WithNewDepartureTime_ShouldKeepTimeWindowsAtTheSameTimeOfDay() throws Exception {
+        // Fenêtres lues avec un départ à 8h : pickup 9h-10h, delivery jusqu'à 11h
+        MockMultipartFile file = new MockMultipartFile("file", "demande.xml", "text/xml", "xml".getBytes());
+        Demand demand = new Demand("D1", "P", "D", 60, 60, null, 3600, 7200, null, 10800, null);
+        when(deliveryRequestXmlParser.parseDeliveryRequestFromXML(any())).thenReturn(
+            new DemandeSet(new Warehouse("W1", "W", "8:0:0"), new ArrayList<>(List.of(demand))));
+        deliveryService.loadDeliveryRequests(file);
+
+        deliveryService.setWarehouse("W", "9:30:0");
+
+        assertEquals(-1800, demand.getPickupEarliestSec());
+        assertEquals(1800, demand.getPickupLatestSec());
+        assertNull(demand.getDeliveryEarliestSec());
+        assertEquals(5400, demand.getDeliveryLatestSec());
+
+        // Sans heure : celle de l'entrepôt précédent est conservée, aucun recalage
+        deliveryService.setWarehouse("W2", null);
+        assertEquals("9:30:0", deliveryService.getCurrentRequestSet().getWarehouse().getDepartureTime());
+        assertEquals(1800, demand.getPickupLatestSec());
+    }
+
     @Test
     void setWarehouse_WithNullNodeId_ShouldThrowException() {
         // Act & Assert
@@ -500,6 +527,30 @@ class DeliveryServiceTest {
         assertEquals(0, result.getDemands().size());
     }
 
+    @Test
+    void addAndRemoveDemand_ShouldKeepTheDistanceMatrixInSync() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "demande.xml", "text/xml", "xml content".getBytes());
+        DemandeSet mockRequestSet = new DemandeSet(new Warehouse("W", "1", "8:0:0"), new ArrayList<>());
+        when(deliveryRequestXmlParser.parseDeliveryRequestFromXML(any())).thenReturn(mockRequestSet);
+
+        DeliveryRequest request = new DeliveryRequest();
+        request.setId("req1");
+        request.setPickupAddress("100");
+        request.setDeliveryAddress("200");
+
+        // Act
+        deliveryService.loadDeliveryRequests(file);
+        deliveryService.addDeliveryRequest(request);
+        Demand added = mockRequestSet.getDemands().get(0);
+        deliveryService.removeDemand("req1");
+
+        // Assert : le DemandeSet chargé est suivi, puis chaque changement est reporté
+        verify(serviceAlgo).trackDemandeSet(mockRequestSet);
+        verify(serviceAlgo).onDemandAdded(added);
+        verify(serviceAlgo).onDemandRemoved(added);
+    }
+
     @Test
     void removeDemand_WithInvalidId_ShouldThrowException() throws Exception {
         // Arrange
@@ -627,4 +678,54 @@ class DeliveryServiceTest {
         assertEquals(1, result.size());
         assertEquals(mockRequests, result);
     }
+
+    // ---------------------------------------------------------
+    // 12. Pré-filtrage des demandes impossibles (limite de 4h)
+    // ---------------------------------------------------------
+    @Test
+    void addDeliveryRequest_WithDemandExceedingTimeLimit_ShouldThrowValidationException() {
+        // Arrange
+        CityMap cityMap = new CityMap(List.of(new Node("W", 45.0, 4.8)), new ArrayList<>());
+        when(mapService.getCurrentMap()).thenReturn(cityMap);
+        when(serviceAlgo.isMapNode("W", cityMap)).thenReturn(true);
+        deliveryService.setWarehouse("W", "08:00");
+
+        Demand farDemand = new Demand("far", "P", "D", 60, 60, null);
+        when(serviceAlgo.findDemandsExceedingTimeLimit(any(), any())).thenReturn(Map.of(farDemand, 5 * 3600.0));
+
+        DeliveryRequest request = new DeliveryRequest();
+        request.setId("far");
+        request.setPickupAddress("P");
+        request.setDeliveryAddress("D");
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            deliveryService.addDeliveryRequest(request);
+        });
+        assertTrue(exception.getMessage().contains("far"));
+        assertTrue(deliveryService.getCurrentRequests().isEmpty(), "La demande ne doit pas être ajoutée");
+        assertTrue(deliveryService.getCurrentRequestSet().getDemands().isEmpty());
+        verify(serviceAlgo).prepareWarehouseTrees("W", cityMap);
+    }
+
+    @Test
+    void loadDeliveryRequests_WithDemandExceedingTimeLimit_ShouldThrowValidationException() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "demande.xml", "text/xml", "xml".getBytes());
+        CityMap cityMap = new CityMap(List.of(new Node("W", 45.0, 4.8)), new ArrayList<>());
+        Demand farDemand = new Demand("far", "P", "D", 60, 60, null);
+        DemandeSet requestSet = new DemandeSet(new Warehouse("W1", "W", "8:0:0"), new ArrayList<>(List.of(farDemand)));
+
+        when(deliveryRequestXmlParser.parseDeliveryRequestFromXML(any())).thenReturn(requestSet);
+        when(mapService.getCurrentMap()).thenReturn(cityMap);
+        when(serviceAlgo.isMapNode("W", cityMap)).thenReturn(true);
+        when(serviceAlgo.findDemandsExceedingTimeLimit(requestSet, cityMap)).thenReturn(Map.of(farDemand, 4.5 * 3600));
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            deliveryService.loadDeliveryRequests(file);
+        });
+        assertTrue(exception.getMessage().contains("Demande far"));
+        assertNull(deliveryService.getCurrentRequestSet(), "Le chargement doit être rejeté");
+    }
 }
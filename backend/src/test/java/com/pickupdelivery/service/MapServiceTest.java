@@ -1,5 +1,6 @@
 package com.pickupdelivery.service;
 
+import com.pickupdelivery.dto.MapViewportResponse;
 import com.pickupdelivery.model.CityMap;
 import com.pickupdelivery.model.Node;
 import com.pickupdelivery.model.Segment;
@@ -186,4 +187,62 @@ System.out.println("InputStream = " + resource.getInputStream());
         assertEquals(308, map.getNodes().size(), "308 noeuds dans petitPlan.xml");
         assertEquals(615, map.getSegments().size(), "615 segments dans petitPlan.xml");
     } */
+
+    @Test
+    void getViewport_ShouldReturnOnlySegmentsInBoundingBox() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.xml", "text/xml", "content".getBytes());
+        CityMap mockMap = new CityMap();
+        mockMap.getNodes().add(new Node("1", 45.750, 4.850));
+        mockMap.getNodes().add(new Node("2", 45.751, 4.851));
+        mockMap.getNodes().add(new Node("3", 45.800, 4.900));
+        mockMap.getNodes().add(new Node("4", 45.801, 4.901));
+        mockMap.getSegments().add(new Segment("1", "2", 140.0, "Rue Proche"));
+        mockMap.getSegments().add(new Segment("3", "4", 140.0, "Rue Loin"));
+        when(mapXmlParser.parseMapFromXML(any())).thenReturn(mockMap);
+        mapService.parseMapFromXML(file);
+
+        // Act
+        MapViewportResponse viewport = mapService.getViewport(45.749, 4.849, 45.752, 4.852, 16);
+
+        // Assert
+        assertEquals(1, viewport.getSegments().size());
+        assertEquals("Rue Proche", viewport.getSegments().get(0).getName());
+        assertEquals(2, viewport.getNodes().size());
+        assertFalse(viewport.isSimplified());
+        assertThrows(IllegalArgumentException.class, () -> mapService.getViewport(46, 4.8, 45, 4.9, 16));
+    }
+
+    @Test
+    void getTile_ShouldBeCachedByMapFingerprint() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.xml", "text/xml", "content".getBytes());
+        CityMap mockMap = new CityMap();
+        mockMap.getNodes().add(new Node("1", 45.750, 4.850));
+        mockMap.getNodes().add(new Node("2", 45.751, 4.851));
+        mockMap.getSegments().add(new Segment("1", "2", 140.0, "Rue Test"));
+        when(mapXmlParser.parseMapFromXML(any())).thenReturn(mockMap);
+        mapService.parseMapFromXML(file);
+
+        // Tuile z16 contenant (45.7505, 4.8505)
+        int z = 16;
+        int x = (int) Math.floor((4.8505 + 180) / 360 * (1 << z));
+        double rad = Math.toRadians(45.7505);
+        int y = (int) Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << z));
+
+        // Act
+        MapViewportResponse tile = mapService.getTile(z, x, y);
+
+        // Assert
+        assertEquals(1, tile.getSegments().size());
+        assertSame(tile, mapService.getTile(z, x, y));
+        assertNotNull(mapService.getMapFingerprint());
+        assertThrows(IllegalArgumentException.class, () -> mapService.getTile(z, -1, y));
+    }
+
+    @Test
+    void getViewport_WhenNoMapIsLoaded_ShouldThrowException() {
+        assertThrows(IllegalStateException.class, () -> mapService.getViewport(45, 4, 46, 5, 16));
+        assertThrows(IllegalStateException.class, () -> mapService.getTile(0, 0, 0));
+    }
 }
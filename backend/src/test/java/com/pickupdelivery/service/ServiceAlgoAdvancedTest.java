@@ -9,6 +9,10 @@ import com.pickupdelivery.model.CityMap;
 import com.pickupdelivery.model.Node;
 import com.pickupdelivery.model.Segment;
 import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.spi.FifoDistributor;
+import com.pickupdelivery.service.algo.spi.FullTwoOptImprover;
+import com.pickupdelivery.service.algo.spi.StopRoutes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -91,7 +95,7 @@ class ServiceAlgoAdvancedTest {
         Map<String, Demand> demandMap = new HashMap<>();
         demandMap.put("D1", demand);
 
-        Method method = ServiceAlgo.class.getDeclaredMethod("computeRouteDuration", List.class, Graph.class, Map.class);
+        Method method = StopRoutes.class.getDeclaredMethod("computeRouteDuration", List.class, Graph.class, Map.class);
         method.setAccessible(true);
 
         List<Stop> route = List.of(warehouse, pickup, delivery, warehouse);
@@ -138,16 +142,14 @@ class ServiceAlgoAdvancedTest {
             "D2", delivery2
         );
 
-        Method routeDistance = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method routeDistance = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         routeDistance.setAccessible(true);
-        Method optimize = ServiceAlgo.class.getDeclaredMethod("optimizeWith2Opt", List.class, Graph.class, Map.class, Map.class);
-        optimize.setAccessible(true);
+        FullTwoOptImprover improver = new FullTwoOptImprover(null, 0);
 
         List<Stop> initialRoute = List.of(warehouse, pickup1, pickup2, delivery1, delivery2, warehouse);
         double initialDistance = (double) routeDistance.invoke(serviceAlgo, initialRoute, graph);
 
-        @SuppressWarnings("unchecked")
-        List<Stop> optimized = (List<Stop>) optimize.invoke(serviceAlgo, initialRoute, graph, pickupsById, deliveriesById);
+        List<Stop> optimized = improver.optimize(initialRoute, graph, pickupsById, deliveriesById);
         double optimizedDistance = (double) routeDistance.invoke(serviceAlgo, optimized, graph);
 
         assertTrue(optimizedDistance < initialDistance, "L'optimisation 2-opt doit réduire la distance totale");
@@ -186,22 +188,18 @@ class ServiceAlgoAdvancedTest {
             "DLONG", longDelivery
         );
 
-        Method distribute = ServiceAlgo.class.getDeclaredMethod(
-            "distributeFIFO",
-            List.class, Graph.class, int.class, Map.class, Map.class, Map.class, Stop.class
-        );
-        distribute.setAccessible(true);
+        FifoDistributor distributor = new FifoDistributor(new FullTwoOptImprover(null, 0));
 
         List<Stop> globalRoute = List.of(warehouse, fastPickup, fastDelivery, longPickup, longDelivery, warehouse);
-        TourDistributionResult result = (TourDistributionResult) distribute.invoke(
-            serviceAlgo,
+        TourDistributionResult result = distributor.distribute(
             globalRoute,
             graph,
             1,
             pickupsById,
             deliveriesById,
             demandMap,
-            warehouse
+            warehouse,
+            Deadline.none()
         );
 
         assertEquals(List.of("DLONG"), result.getUnassignedDemandIds(), "La demande trop longue doit être non assignée");
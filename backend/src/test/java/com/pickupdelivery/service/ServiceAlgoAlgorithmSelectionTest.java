@@ -0,0 +1,221 @@
+package com.pickupdelivery.service;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
+import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.model.DemandeSet;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.model.Warehouse;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.spi.AlgorithmSelection;
+import com.pickupdelivery.service.algo.spi.DijkstraEngine;
+import com.pickupdelivery.service.algo.spi.RouteImprover;
+import com.pickupdelivery.service.algo.spi.ShortestPathEngine;
+import com.pickupdelivery.xmlparser.MapXmlParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des composants interchangeables de la chaîne de calcul (carte grandPlan)
+ */
+class ServiceAlgoAlgorithmSelectionTest {
+
+    private static CityMap grandPlan;
+
+    @BeforeAll
+    static void loadMap() throws Exception {
+        ClassPathResource resource = new ClassPathResource("grandPlan.xml");
+        MockMultipartFile file = new MockMultipartFile("file", "grandPlan.xml", "text/xml", resource.getInputStream());
+        grandPlan = new MapXmlParser().parseMapFromXML(file);
+    }
+
+    @Test
+    void resolveAlgorithms_ShouldApplyOverridesAndRejectUnknownNames() {
+        ServiceAlgo serviceAlgo = new ServiceAlgo();
+
+        AlgorithmSelection defaults = serviceAlgo.resolveAlgorithms(null);
+        assertEquals("shortest-path=dijkstra,matrix-builder=one-to-many,route-constructor=nearest-neighbour,"
+            + "route-improver=2-opt,fleet-distributor=split-savings", defaults.toString());
+
+        AlgorithmSelection selection = serviceAlgo.resolveAlgorithms(" Route-Improver = none , fleet-distributor=fifo");
+        assertEquals("none", selection.routeImprover());
+        assertEquals("fifo", selection.fleetDistributor());
+        assertEquals(defaults.routeConstructor(), selection.routeConstructor());
+        assertEquals(selection, serviceAlgo.resolveAlgorithms(selection.toString()));
+
+        assertThrows(IllegalArgumentException.class, () -> serviceAlgo.resolveAlgorithms("route-improver=3-opt"));
+        assertThrows(IllegalArgumentException.class, () -> serviceAlgo.resolveAlgorithms("solver=exact"));
+        assertThrows(IllegalArgumentException.class, () -> serviceAlgo.resolveAlgorithms("fifo"));
+    }
+
+    @Test
+    void buildGraph_ShouldGiveTheSameDistancesWithEveryMatrixBuilder() {
+        DemandeSet demandeSet = randomDemandeSet(6, 3);
+        ServiceAlgo oneToMany = new ServiceAlgo();
+        ServiceAlgo pairwise = new ServiceAlgo(); // Caches distincts : chaque matrice est recalculée
+
+        Graph expected = oneToMany.buildGraph(oneToMany.getStopSet(demandeSet), grandPlan,
+            oneToMany.resolveAlgorithms("matrix-builder=one-to-many"));
+        Graph actual = pairwise.buildGraph(pairwise.getStopSet(demandeSet), grandPlan,
+            pairwise.resolveAlgorithms("matrix-builder=pairwise"));
+
+        for (Stop from : expected.getDistancesMatrix().keySet()) {
+            for (Map.Entry<Stop, Trajet> entry : expected.getDistancesMatrix().get(from).entrySet()) {
+                Trajet trajet = actual.getDistancesMatrix().get(from).get(entry.getKey());
+                assertEquals(entry.getValue().getDistance(), trajet.getDistance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void buildGraph_ShouldNotReusePathsCachedForAnotherEngine() throws Exception {
+        ServiceAlgo serviceAlgo = new ServiceAlgo();
+        DijkstraEngine dijkstra = new DijkstraEngine();
+        ShortestPathEngine doubling = (graph, source, targets) -> {
+            ShortestPathResult[] results = dijkstra.search(graph, source, targets);
+            for (int i = 0; i < results.length; i++) {
+                results[i] = new ShortestPathResult(results[i].getDistance() * 2, results[i].getSegments());
+            }
+            return results;
+        };
+        Field beans = ServiceAlgo.class.getDeclaredField("customShortestPathEngines");
+        beans.setAccessible(true);
+        beans.set(serviceAlgo, Map.of("doubling", doubling));
+        DemandeSet demandeSet = randomDemandeSet(4, 9);
+
+        // Même service, même cache : le second calcul ne doit pas reprendre les chemins de Dijkstra
+        Graph expected = serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        Graph actual = serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan,
+            serviceAlgo.resolveAlgorithms("shortest-path=doubling"));
+
+        for (Stop from : expected.getDistancesMatrix().keySet()) {
+            for (Map.Entry<Stop, Trajet> entry : expected.getDistancesMatrix().get(from).entrySet()) {
+                Trajet trajet = actual.getDistancesMatrix().get(from).get(entry.getKey());
+                assertEquals(entry.getValue().getDistance() * 2, trajet.getDistance(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void calculateOptimalTours_ShouldServeDemandsWithEveryBuiltInCombination() {
+        ServiceAlgo serviceAlgo = new ServiceAlgo();
+        DemandeSet demandeSet = randomDemandeSet(12, 5);
+        Graph graph = graphOf(serviceAlgo, demandeSet);
+        Map<String, List<String>> available = serviceAlgo.getAvailableAlgorithms();
+
+        for (String constructor : available.get(AlgorithmSelection.ROUTE_CONSTRUCTOR)) {
+            for (String improver : available.get(AlgorithmSelection.ROUTE_IMPROVER)) {
+                for (String distributor : available.get(AlgorithmSelection.FLEET_DISTRIBUTOR)) {
+                    AlgorithmSelection selection = serviceAlgo.resolveAlgorithms("route-constructor=" + constructor
+                        + ",route-improver=" + improver + ",fleet-distributor=" + distributor);
+
+                    TourDistributionResult result = serviceAlgo.calculateOptimalTours(
+                        graph, 3, "fast", Deadline.none(), selection);
+
+                    assertEquals(selection.toString(), result.getAlgorithms());
+                    assertServedOnce(result, 12, selection.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void calculateOptimalTours_ShouldUseAnImproverProvidedAsBean() throws Exception {
+        ServiceAlgo serviceAlgo = new ServiceAlgo();
+        AtomicInteger calls = new AtomicInteger();
+        RouteImprover counting = (route, problem) -> {
+            calls.incrementAndGet();
+            return route;
+        };
+        Field beans = ServiceAlgo.class.getDeclaredField("customRouteImprovers");
+        beans.setAccessible(true);
+        beans.set(serviceAlgo, Map.of("countingImprover", counting));
+
+        assertTrue(serviceAlgo.getAvailableAlgorithms().get(AlgorithmSelection.ROUTE_IMPROVER).contains("countingImprover"));
+
+        DemandeSet demandeSet = randomDemandeSet(8, 11);
+        TourDistributionResult result = serviceAlgo.calculateOptimalTours(graphOf(serviceAlgo, demandeSet), 2, "fast",
+            Deadline.none(), serviceAlgo.resolveAlgorithms("route-improver=countingImprover"));
+
+        assertTrue(calls.get() > 0);
+        assertServedOnce(result, 8, "countingImprover");
+    }
+
+    private static Graph graphOf(ServiceAlgo serviceAlgo, DemandeSet demandeSet) {
+        Graph graph = serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        Map<String, Demand> demandMap = new HashMap<>();
+        for (Demand demand : demandeSet.getDemands()) {
+            demandMap.put(demand.getId(), demand);
+        }
+        graph.setDemandMap(demandMap);
+        return graph;
+    }
+
+    /**
+     * Chaque demande est servie au plus une fois, pickup avant delivery, en moins de 4h,
+     * ou signalée non assignée
+     */
+    private static void assertServedOnce(TourDistributionResult result, int demandCount, String label) {
+        Set<String> served = new HashSet<>();
+        for (Tour tour : result.getTours()) {
+            assertFalse(tour.exceedsTimeLimit(), "Tournée de plus de 4h (" + label + ")");
+            Set<String> picked = new HashSet<>();
+            for (Stop stop : tour.getStops()) {
+                if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                    assertTrue(served.add(stop.getIdDemande()), "Demande servie deux fois (" + label + ")");
+                    picked.add(stop.getIdDemande());
+                } else if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                    assertTrue(picked.contains(stop.getIdDemande()), "Delivery avant son pickup (" + label + ")");
+                }
+            }
+        }
+        for (String id : result.getUnassignedDemandIds()) {
+            assertTrue(served.add(id), "Demande à la fois servie et non assignée (" + label + ")");
+        }
+        assertEquals(demandCount, served.size(), label);
+    }
+
+    /**
+     * Demandes entre nœuds tirés parmi les extrémités de segments (nœuds reliés au réseau)
+     */
+    private static DemandeSet randomDemandeSet(int count, long seed) {
+        List<String> connected = new ArrayList<>();
+        Set<String> origins = new HashSet<>();
+        for (Segment segment : grandPlan.getSegments()) {
+            origins.add(segment.getOrigin());
+        }
+        for (Segment segment : grandPlan.getSegments()) {
+            if (origins.contains(segment.getDestination()) && !connected.contains(segment.getDestination())) {
+                connected.add(segment.getDestination());
+            }
+        }
+        Random random = new Random(seed);
+        List<Demand> demands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String pickup = connected.get(random.nextInt(connected.size()));
+            String delivery = connected.get(random.nextInt(connected.size()));
+            demands.add(new Demand("R" + i, pickup, delivery, 60, 60, null));
+        }
+        Warehouse warehouse = new Warehouse("W", connected.get(random.nextInt(connected.size())), "8:0:0");
+        return new DemandeSet(warehouse, demands);
+    }
+}
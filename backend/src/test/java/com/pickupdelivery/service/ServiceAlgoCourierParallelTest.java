@@ -0,0 +1,151 @@
+package com.pickupdelivery.service;
+
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.model.DemandeSet;
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.model.Warehouse;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des recalculs par coursier en parallèle (exécuteur borné, fusion dans l'ordre)
+ */
+class ServiceAlgoCourierParallelTest {
+
+    private ServiceAlgo serviceAlgo;
+    private Graph globalGraph;
+    private List<Demand> demands;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serviceAlgo = new ServiceAlgo();
+
+        // Ligne N0 -- N1 -- ... -- N9, 100 m entre voisins, entrepôt en N0
+        List<Node> nodes = new ArrayList<>();
+        List<Segment> segments = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            nodes.add(new Node("N" + i, 45.0, 4.8 + i * 0.001));
+            if (i > 0) {
+                segments.add(new Segment("N" + (i - 1), "N" + i, 100.0, "Rue " + i));
+                segments.add(new Segment("N" + i, "N" + (i - 1), 100.0, "Rue " + i));
+            }
+        }
+        demands = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            demands.add(new Demand("D" + i, "N" + (2 * i + 1), "N" + (2 * i + 2), 60, 60, null));
+        }
+        DemandeSet demandeSet = new DemandeSet(new Warehouse("W", "N0", "8:0:0"), demands);
+        globalGraph = serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), new CityMap(nodes, segments));
+    }
+
+    @Test
+    void testCalculateIndependentTours_ShouldRunConcurrentlyAndKeepGraphOrder() throws Exception {
+        setCourierThreads(4);
+        List<Graph> graphs = courierGraphs();
+        CountDownLatch allStarted = new CountDownLatch(graphs.size());
+
+        // Chaque calcul attend les autres : il faut 4 calculs simultanés pour terminer
+        List<TourDistributionResult> results = serviceAlgo.calculateIndependentTours(graphs, graph -> {
+            allStarted.countDown();
+            try {
+                assertTrue(allStarted.await(10, TimeUnit.SECONDS), "Calculs non simultanés");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return serviceAlgo.calculateOptimalTours(graph, 1);
+        });
+
+        assertEquals(graphs.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Tour tour = results.get(i).getTours().get(0);
+            for (Stop stop : tour.getStops()) {
+                assertTrue(stop.getIdDemande() == null || stop.getIdDemande().equals("D" + i),
+                    "Résultat " + i + " hors de son coursier: " + stop.getIdDemande());
+            }
+        }
+    }
+
+    @Test
+    void testCalculateIndependentTours_ShouldNotExceedConfiguredThreads() throws Exception {
+        setCourierThreads(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        serviceAlgo.calculateIndependentTours(courierGraphs(), graph -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return serviceAlgo.calculateOptimalTours(graph, 1);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertTrue(maxRunning.get() <= 2, "Plus de 2 calculs simultanés: " + maxRunning.get());
+    }
+
+    @Test
+    void testCalculateIndependentTours_ShouldPropagateSolverErrors() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> serviceAlgo.calculateIndependentTours(courierGraphs(), graph -> {
+                throw new IllegalStateException("échec coursier");
+            }));
+        assertEquals("échec coursier", error.getMessage());
+        assertTrue(serviceAlgo.calculateIndependentTours(List.of(), graph -> null).isEmpty());
+    }
+
+    @Test
+    void testShutdownPools_ShouldStopTheExecutorAndRecreateItOnNextUse() throws Exception {
+        serviceAlgo.calculateIndependentTours(courierGraphs(), graph -> serviceAlgo.calculateOptimalTours(graph, 1));
+        Field field = ServiceAlgo.class.getDeclaredField("courierExecutor");
+        field.setAccessible(true);
+        ExecutorService executor = (ExecutorService) field.get(serviceAlgo);
+        assertNotNull(executor);
+
+        serviceAlgo.shutdownPools();
+        assertTrue(executor.isShutdown());
+        assertNull(field.get(serviceAlgo));
+
+        assertEquals(demands.size(), serviceAlgo.calculateIndependentTours(courierGraphs(),
+            graph -> serviceAlgo.calculateOptimalTours(graph, 1)).size());
+        serviceAlgo.shutdownPools();
+    }
+
+    /**
+     * Un graphe découpé par demande (un coursier par demande)
+     */
+    private List<Graph> courierGraphs() {
+        List<Graph> graphs = new ArrayList<>();
+        for (Demand demand : demands) {
+            Graph graph = serviceAlgo.sliceGraph(globalGraph, List.of(demand));
+            graph.setDemandMap(Map.of(demand.getId(), demand));
+            graphs.add(graph);
+        }
+        return graphs;
+    }
+
+    private void setCourierThreads(int threads) throws Exception {
+        Field field = ServiceAlgo.class.getDeclaredField("courierThreads");
+        field.setAccessible(true);
+        field.set(serviceAlgo, threads);
+    }
+}
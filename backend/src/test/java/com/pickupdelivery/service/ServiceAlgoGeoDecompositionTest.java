@@ -0,0 +1,151 @@
+package com.pickupdelivery.service;
+
+import com.pickupdelivery.dto.TourDistributionResult;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.model.DemandeSet;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.model.Warehouse;
+import com.pickupdelivery.service.algo.Deadline;
+import com.pickupdelivery.service.algo.SolverStrategy;
+import com.pickupdelivery.xmlparser.MapXmlParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la décomposition géographique des très grandes instances (carte grandPlan)
+ */
+class ServiceAlgoGeoDecompositionTest {
+
+    private static CityMap grandPlan;
+
+    private ServiceAlgo serviceAlgo;
+
+    @BeforeAll
+    static void loadMap() throws Exception {
+        ClassPathResource resource = new ClassPathResource("grandPlan.xml");
+        MockMultipartFile file = new MockMultipartFile("file", "grandPlan.xml", "text/xml", resource.getInputStream());
+        grandPlan = new MapXmlParser().parseMapFromXML(file);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serviceAlgo = new ServiceAlgo();
+        Field clusterSize = ServiceAlgo.class.getDeclaredField("geoDecompositionClusterSize");
+        clusterSize.setAccessible(true);
+        clusterSize.set(serviceAlgo, 20);
+    }
+
+    @Test
+    void calculateDecomposedTours_ShouldServeEachDemandAtMostOnceWithinFourHours() {
+        DemandeSet demandeSet = randomDemandeSet(80, 7);
+
+        TourDistributionResult result = serviceAlgo.calculateDecomposedTours(
+            demandeSet, grandPlan, 6, "fast", Deadline.none());
+
+        assertEquals(SolverStrategy.GEOGRAPHIC.name(), result.getStrategy());
+        assertTrue(result.getTours().size() <= 6);
+
+        Set<String> served = new HashSet<>();
+        Set<Integer> courierIds = new HashSet<>();
+        for (Tour tour : result.getTours()) {
+            assertTrue(courierIds.add(tour.getCourierId()), "Identifiant de coursier en double");
+            assertFalse(tour.exceedsTimeLimit(), "Tournée de plus de 4h");
+            Set<String> picked = new HashSet<>();
+            for (Stop stop : tour.getStops()) {
+                if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                    assertTrue(served.add(stop.getIdDemande()), "Demande servie deux fois: " + stop.getIdDemande());
+                    picked.add(stop.getIdDemande());
+                } else if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                    assertTrue(picked.contains(stop.getIdDemande()), "Delivery avant son pickup");
+                }
+            }
+        }
+        for (String id : result.getUnassignedDemandIds()) {
+            assertTrue(served.add(id), "Demande à la fois servie et non assignée: " + id);
+        }
+        assertEquals(80, served.size());
+    }
+
+    @Test
+    void calculateDecomposedTours_WithFewCouriers_ShouldKeepSectorsBoundedByDemandCount() {
+        DemandeSet demandeSet = randomDemandeSet(80, 3);
+
+        // 80 demandes, secteurs de 20 : 4 secteurs quel que soit le nombre de coursiers
+        TourDistributionResult result = serviceAlgo.calculateDecomposedTours(
+            demandeSet, grandPlan, 2, "fast", Deadline.none());
+
+        assertTrue(result.getTours().size() <= 2);
+        assertTrue(result.getWarnings().getMessages().stream()
+            .anyMatch(message -> message.contains("2 secteur(s) sans coursier")), result.getWarnings().getMessages().toString());
+        Set<String> served = new HashSet<>();
+        for (Tour tour : result.getTours()) {
+            assertFalse(tour.exceedsTimeLimit(), "Tournée de plus de 4h");
+            for (Stop stop : tour.getStops()) {
+                if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                    assertTrue(served.add(stop.getIdDemande()), "Demande servie deux fois: " + stop.getIdDemande());
+                }
+            }
+        }
+        assertTrue(served.size() <= 40, "Plus de demandes servies que les 2 secteurs pourvus: " + served.size());
+        for (String id : result.getUnassignedDemandIds()) {
+            assertTrue(served.add(id), "Demande à la fois servie et non assignée: " + id);
+        }
+        assertEquals(80, served.size());
+    }
+
+    @Test
+    void shouldDecomposeGeographically_ShouldFollowTheConfiguredThreshold() {
+        assertFalse(serviceAlgo.shouldDecomposeGeographically(50));
+        assertTrue(serviceAlgo.shouldDecomposeGeographically(300));
+    }
+
+    @Test
+    void calculateDecomposedTours_ShouldRejectInvalidParameters() {
+        DemandeSet demandeSet = randomDemandeSet(5, 1);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> serviceAlgo.calculateDecomposedTours(demandeSet, grandPlan, 0, null, Deadline.none()));
+        assertThrows(IllegalArgumentException.class,
+            () -> serviceAlgo.calculateDecomposedTours(demandeSet, grandPlan, 2, null, null));
+    }
+
+    /**
+     * Demandes entre nœuds tirés parmi les extrémités de segments (nœuds reliés au réseau)
+     */
+    private static DemandeSet randomDemandeSet(int count, long seed) {
+        List<String> connected = new ArrayList<>();
+        Set<String> origins = new HashSet<>();
+        for (Segment segment : grandPlan.getSegments()) {
+            origins.add(segment.getOrigin());
+        }
+        for (Segment segment : grandPlan.getSegments()) {
+            if (origins.contains(segment.getDestination()) && !connected.contains(segment.getDestination())) {
+                connected.add(segment.getDestination());
+            }
+        }
+        Random random = new Random(seed);
+        List<Demand> demands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String pickup = connected.get(random.nextInt(connected.size()));
+            String delivery = connected.get(random.nextInt(connected.size()));
+            demands.add(new Demand("R" + i, pickup, delivery, 60, 60, null));
+        }
+        Warehouse warehouse = new Warehouse("W", connected.get(random.nextInt(connected.size())), "8:0:0");
+        return new DemandeSet(warehouse, demands);
+    }
+}
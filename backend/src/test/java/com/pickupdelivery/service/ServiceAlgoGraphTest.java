@@ -4,6 +4,7 @@ import com.pickupdelivery.model.*;
 import com.pickupdelivery.model.AlgorithmModel.Graph;
 import com.pickupdelivery.model.AlgorithmModel.Stop;
 import com.pickupdelivery.model.AlgorithmModel.StopSet;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
 import com.pickupdelivery.model.AlgorithmModel.Trajet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -245,4 +246,95 @@ class ServiceAlgoGraphTest {
         // Le temps devrait être raisonnable (< 5 secondes pour une petite carte)
         assertTrue(duration < 5000, "La construction du graph ne devrait pas prendre plus de 5 secondes");
     }
+
+    @Test
+    void testBuildGraph_shouldShareNodeForCoLocatedStops() {
+        // GIVEN : Pickup à l'entrepôt (N5) et deux demandes livrées au même nœud (N9)
+        Warehouse warehouse = new Warehouse("W1", "N5", "8:0:0");
+        List<Demand> demands = new ArrayList<>();
+        demands.add(new Demand("D1", "N5", "N9", 60, 60, null));
+        demands.add(new Demand("D2", "N1", "N9", 60, 60, null));
+        StopSet stopSet = serviceAlgo.getStopSet(new DemandeSet(warehouse, demands));
+
+        // WHEN : On construit le Graph
+        Graph graph = serviceAlgo.buildGraph(stopSet, cityMap);
+
+        // THEN : 5 stops mais seulement 3 nœuds distincts (N5, N9, N1)
+        assertEquals(5, graph.getDistancesMatrix().size());
+        assertNotNull(graph.getNodeMatrix());
+        assertEquals(3, graph.getNodeMatrix().size());
+
+        Stop warehouseStop = stopSet.getStops().get(0);
+        Stop pickupAtWarehouse = stopSet.getStops().get(1);
+        Stop delivery1 = stopSet.getStops().get(2);
+        Stop delivery2 = stopSet.getStops().get(4);
+
+        // Trajets entre stops co-localisés : 0 m, aucun segment
+        Trajet sameNode = graph.getDistancesMatrix().get(warehouseStop).get(pickupAtWarehouse);
+        assertEquals(0.0, sameNode.getDistance(), 0.001);
+        assertEquals(0.0, sameNode.getDurationSec(), 0.001);
+        assertTrue(sameNode.getSegments().isEmpty());
+        assertEquals(0.0, graph.getDistancesMatrix().get(delivery1).get(delivery2).getDistance(), 0.001);
+
+        // Les stops d'un même nœud partagent la même distance vers les autres
+        assertEquals(200.0, graph.getDistancesMatrix().get(warehouseStop).get(delivery1).getDistance(), 0.001);
+        assertEquals(200.0, graph.getDistancesMatrix().get(pickupAtWarehouse).get(delivery2).getDistance(), 0.001);
+    }
+
+    @Test
+    void testSliceGraph_shouldExposeOnlyCourierStopsWithoutNewSearches() {
+        // GIVEN : Le graphe global (entrepôt + 2 demandes)
+        Graph global = serviceAlgo.buildGraph(serviceAlgo.getStopSet(DemandeSet), cityMap);
+        Demand demand2 = DemandeSet.getDemands().get(1);
+
+        // WHEN : On le découpe pour un coursier qui ne sert que D2
+        Graph slice = serviceAlgo.sliceGraph(global, List.of(demand2));
+
+        // THEN : 3 stops (entrepôt, pickup et delivery de D2), trajets partagés avec le global
+        Map<Stop, Map<Stop, Trajet>> matrix = slice.getDistancesMatrix();
+        assertEquals(3, matrix.size());
+        assertEquals(global.getStopDepart(), slice.getStopDepart());
+        assertSame(global.getNodeMatrix(), slice.getNodeMatrix());
+        for (Stop source : matrix.keySet()) {
+            assertTrue(source.getIdDemande() == null || source.getIdDemande().equals("D2"));
+            assertEquals(2, matrix.get(source).size());
+            assertFalse(matrix.get(source).containsKey(source));
+            for (Map.Entry<Stop, Trajet> trajet : matrix.get(source).entrySet()) {
+                assertSame(global.getDistancesMatrix().get(source).get(trajet.getKey()), trajet.getValue());
+            }
+        }
+        Stop pickup1 = new Stop("N1", "D1", Stop.TypeStop.PICKUP);
+        assertFalse(matrix.containsKey(pickup1));
+        assertNull(matrix.get(global.getStopDepart()).get(pickup1));
+        assertThrows(UnsupportedOperationException.class, () -> matrix.put(pickup1, Map.of()));
+    }
+
+    @Test
+    void testSliceGraph_shouldGiveTheSameTourAsADedicatedGraph() {
+        // GIVEN : Un coursier affecté à D1 parmi les deux demandes
+        Demand demand1 = DemandeSet.getDemands().get(0);
+        Graph slice = serviceAlgo.sliceGraph(
+                serviceAlgo.buildGraph(serviceAlgo.getStopSet(DemandeSet), cityMap), List.of(demand1));
+        Graph dedicated = serviceAlgo.buildGraph(
+                serviceAlgo.getStopSet(new DemandeSet(DemandeSet.getWarehouse(), List.of(demand1))), cityMap);
+        slice.setDemandMap(Map.of("D1", demand1));
+        dedicated.setDemandMap(Map.of("D1", demand1));
+
+        // WHEN : On calcule la tournée sur les deux graphes
+        Tour fromSlice = serviceAlgo.calculateOptimalTours(slice, 1).getTours().get(0);
+        Tour fromDedicated = serviceAlgo.calculateOptimalTours(dedicated, 1).getTours().get(0);
+
+        // THEN : Même tournée
+        assertEquals(fromDedicated.getStops(), fromSlice.getStops());
+        assertEquals(fromDedicated.getTotalDistance(), fromSlice.getTotalDistance(), 0.001);
+    }
+
+    @Test
+    void testSliceGraph_shouldRejectDemandsOutsideTheGlobalGraph() {
+        Graph global = serviceAlgo.buildGraph(serviceAlgo.getStopSet(DemandeSet), cityMap);
+        Demand unknown = new Demand("D3", "N2", "N8", 60, 60, null);
+
+        assertThrows(IllegalArgumentException.class, () -> serviceAlgo.sliceGraph(global, List.of(unknown)));
+        assertThrows(IllegalArgumentException.class, () -> serviceAlgo.sliceGraph(null, List.of(unknown)));
+    }
 }
@@ -0,0 +1,235 @@
+package com.pickupdelivery.service;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.AlgorithmModel.VersionedNodeMatrix;
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.model.DemandeSet;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.model.Warehouse;
+import com.pickupdelivery.service.algo.spi.DijkstraEngine;
+import com.pickupdelivery.service.algo.spi.MatrixBuilder;
+import com.pickupdelivery.service.algo.spi.OneToManyMatrixBuilder;
+import com.pickupdelivery.service.algo.spi.ShortestPathEngine;
+import com.pickupdelivery.xmlparser.MapXmlParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la matrice des nœuds maintenue au fil des ajouts/suppressions de demandes (carte grandPlan)
+ */
+class ServiceAlgoIncrementalMatrixTest {
+
+    private static CityMap grandPlan;
+    private static List<String> connected;
+
+    private ServiceAlgo serviceAlgo;
+    private AtomicInteger searches;
+    private Random random;
+
+    @BeforeAll
+    static void loadMap() throws Exception {
+        ClassPathResource resource = new ClassPathResource("grandPlan.xml");
+        MockMultipartFile file = new MockMultipartFile("file", "grandPlan.xml", "text/xml", resource.getInputStream());
+        grandPlan = new MapXmlParser().parseMapFromXML(file);
+
+        // Nœuds reliés au réseau (extrémités de segments dans les deux sens)
+        Set<String> origins = new HashSet<>();
+        for (Segment segment : grandPlan.getSegments()) {
+            origins.add(segment.getOrigin());
+        }
+        Set<String> seen = new HashSet<>();
+        connected = new ArrayList<>();
+        for (Segment segment : grandPlan.getSegments()) {
+            if (origins.contains(segment.getDestination()) && seen.add(segment.getDestination())) {
+                connected.add(segment.getDestination());
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serviceAlgo = new ServiceAlgo();
+        searches = new AtomicInteger();
+        random = new Random(17);
+
+        // Moteur Dijkstra qui compte ses recherches
+        DijkstraEngine dijkstra = new DijkstraEngine();
+        ShortestPathEngine counting = (graph, source, targets) -> {
+            searches.incrementAndGet();
+            return dijkstra.search(graph, source, targets);
+        };
+        setField("customShortestPathEngines", Map.of("counting", counting));
+        setField("defaultShortestPath", "counting");
+    }
+
+    @Test
+    void testAddDemand_ShouldSearchOnlyFromNewNodesAndMatchAFullRebuild() throws Exception {
+        DemandeSet demandeSet = randomDemandeSet(3);
+        serviceAlgo.trackDemandeSet(demandeSet);
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan); // Matrice reprise de ce graphe
+        VersionedNodeMatrix live = liveMatrix();
+        assertNotNull(live);
+        assertEquals(0, live.getVersion());
+
+        // 6 ajouts : la capacité initiale (8 nœuds) est dépassée
+        for (int i = 0; i < 6; i++) {
+            Demand demand = randomDemand("A" + i);
+            demandeSet.getDemands().add(demand);
+            searches.set(0);
+            serviceAlgo.onDemandAdded(demand);
+            assertTrue(searches.get() <= 2, "Au plus une recherche par nouveau nœud: " + searches.get());
+        }
+        assertEquals(6, live.getVersion());
+
+        searches.set(0);
+        Graph incremental = serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        assertEquals(0, searches.get(), "Le graphe doit être construit sans recherche");
+        assertSameDistances(new ServiceAlgo().buildGraph(new ServiceAlgo().getStopSet(demandeSet), grandPlan), incremental);
+    }
+
+    @Test
+    void testRemoveDemand_ShouldDropUnusedNodesWithoutSearching() throws Exception {
+        DemandeSet demandeSet = randomDemandeSet(6);
+        Demand shared = new Demand("S", demandeSet.getDemands().get(0).getPickupNodeId(),
+            demandeSet.getDemands().get(1).getDeliveryNodeId(), 60, 60, null);
+        demandeSet.getDemands().add(shared);
+        serviceAlgo.trackDemandeSet(demandeSet);
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        VersionedNodeMatrix live = liveMatrix();
+        int sizeBefore = live.size();
+
+        // Les nœuds de "S" sont aussi utilisés par d'autres demandes : rien n'est retiré
+        demandeSet.getDemands().remove(shared);
+        serviceAlgo.onDemandRemoved(shared);
+        assertEquals(sizeBefore, live.size());
+
+        searches.set(0);
+        Demand removed = demandeSet.getDemands().remove(2);
+        serviceAlgo.onDemandRemoved(removed);
+        assertEquals(0, searches.get());
+        for (String nodeId : live.nodeIds()) {
+            assertTrue(usedBy(demandeSet, nodeId), "Nœud inutilisé encore dans la matrice: " + nodeId);
+        }
+
+        // Ré-ajout après suppression : l'emplacement libéré est réutilisé
+        Demand added = randomDemand("B");
+        demandeSet.getDemands().add(added);
+        serviceAlgo.onDemandAdded(added);
+
+        searches.set(0);
+        Graph incremental = serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        assertEquals(0, searches.get());
+        assertSameDistances(new ServiceAlgo().buildGraph(new ServiceAlgo().getStopSet(demandeSet), grandPlan), incremental);
+    }
+
+    @Test
+    void testTrackDemandeSet_ShouldOnlySeedFromAFullGraph() throws Exception {
+        DemandeSet demandeSet = randomDemandeSet(4);
+        serviceAlgo.trackDemandeSet(demandeSet);
+
+        // Sous-ensemble (recalcul d'un coursier, secteur) : pas de matrice reprise
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(
+            new DemandeSet(demandeSet.getWarehouse(), demandeSet.getDemands().subList(0, 2))), grandPlan);
+        assertNull(liveMatrix());
+
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        assertNotNull(liveMatrix());
+
+        // Nouveau DemandeSet (chargement, entrepôt modifié) : la matrice est abandonnée
+        serviceAlgo.trackDemandeSet(randomDemandeSet(2));
+        assertNull(liveMatrix());
+    }
+
+    @Test
+    void testBuildGraph_WithAnOverriddenMatrixBuilder_ShouldNeitherSeedNorReuseTheLiveMatrix() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        OneToManyMatrixBuilder oneToMany = new OneToManyMatrixBuilder();
+        MatrixBuilder counting = (nodeIds, compiled, engine, cache) -> {
+            builds.incrementAndGet();
+            return oneToMany.build(nodeIds, compiled, engine, cache);
+        };
+        setField("customMatrixBuilders", Map.of("countingBuilder", counting));
+        DemandeSet demandeSet = randomDemandeSet(4);
+        serviceAlgo.trackDemandeSet(demandeSet);
+
+        // Matrice d'un autre composant : pas reprise comme matrice courante
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan,
+            serviceAlgo.resolveAlgorithms("matrix-builder=countingBuilder"));
+        assertEquals(1, builds.get());
+        assertNull(liveMatrix());
+
+        // Matrice courante reprise avec les composants par défaut, ignorée par la surcharge
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan);
+        assertNotNull(liveMatrix());
+        serviceAlgo.buildGraph(serviceAlgo.getStopSet(demandeSet), grandPlan,
+            serviceAlgo.resolveAlgorithms("matrix-builder=countingBuilder"));
+        assertEquals(2, builds.get());
+    }
+
+    private void assertSameDistances(Graph expected, Graph actual) {
+        assertEquals(expected.getDistancesMatrix().size(), actual.getDistancesMatrix().size());
+        for (Stop from : expected.getDistancesMatrix().keySet()) {
+            for (Map.Entry<Stop, Trajet> entry : expected.getDistancesMatrix().get(from).entrySet()) {
+                Trajet trajet = actual.getDistancesMatrix().get(from).get(entry.getKey());
+                assertEquals(entry.getValue().getDistance(), trajet.getDistance(), 1e-6);
+                List<Segment> path = trajet.getSegments();
+                if (!path.isEmpty()) {
+                    // Chemin continu de la source à la destination (colonnes miroirs comprises)
+                    assertEquals(from.getIdNode(), path.get(0).getOrigin());
+                    assertEquals(entry.getKey().getIdNode(), path.get(path.size() - 1).getDestination());
+                    assertEquals(trajet.getDistance(), path.stream().mapToDouble(Segment::getLength).sum(), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static boolean usedBy(DemandeSet demandeSet, String nodeId) {
+        return nodeId.equals(demandeSet.getWarehouse().getNodeId()) || demandeSet.getDemands().stream()
+            .anyMatch(d -> nodeId.equals(d.getPickupNodeId()) || nodeId.equals(d.getDeliveryNodeId()));
+    }
+
+    private DemandeSet randomDemandeSet(int count) {
+        List<Demand> demands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            demands.add(randomDemand("R" + i));
+        }
+        return new DemandeSet(new Warehouse("W", randomNode(), "8:0:0"), demands);
+    }
+
+    private Demand randomDemand(String id) {
+        return new Demand(id, randomNode(), randomNode(), 60, 60, null);
+    }
+
+    private String randomNode() {
+        return connected.get(random.nextInt(connected.size()));
+    }
+
+    private VersionedNodeMatrix liveMatrix() throws Exception {
+        Field field = ServiceAlgo.class.getDeclaredField("liveMatrix");
+        field.setAccessible(true);
+        return (VersionedNodeMatrix) field.get(serviceAlgo);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = ServiceAlgo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(serviceAlgo, value);
+    }
+}
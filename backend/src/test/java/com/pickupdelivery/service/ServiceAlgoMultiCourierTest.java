@@ -8,6 +8,7 @@ import com.pickupdelivery.model.AlgorithmModel.Trajet;
 import com.pickupdelivery.model.Demand;
 import com.pickupdelivery.model.DemandeSet;
 import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.service.algo.Deadline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -104,21 +105,20 @@ public class ServiceAlgoMultiCourierTest {
             () -> serviceAlgo.calculateOptimalTours(testGraph, 0)
         );
         
-        assertTrue(exception.getMessage().contains("entre 1 et 10"),
+        assertTrue(exception.getMessage().contains("au moins 1"),
             "Le message d'erreur doit mentionner la plage valide");
     }
 
     @Test
-    @DisplayName("Validation: courierCount = 11 doit lever une exception")
-    void testCalculateOptimalTours_InvalidCourierCount_Eleven() {
-        // When & Then
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
-            () -> serviceAlgo.calculateOptimalTours(testGraph, 11)
-        );
-        
-        assertTrue(exception.getMessage().contains("entre 1 et 10"),
-            "Le message d'erreur doit mentionner la plage valide");
+    @DisplayName("Validation: plus de 10 coursiers sont acceptés")
+    void testCalculateOptimalTours_MoreThanTenCouriers_Accepted() {
+        // When
+        com.pickupdelivery.dto.TourDistributionResult result = serviceAlgo.calculateOptimalTours(testGraph, 11);
+
+        // Then
+        assertNotNull(result);
+        assertTrue(result.getTours().size() <= 11);
+        assertTrue(result.getUnassignedDemandIds().isEmpty());
     }
 
     @Test
@@ -131,6 +131,57 @@ public class ServiceAlgoMultiCourierTest {
         );
     }
 
+    @Test
+    @DisplayName("Validation: un profil inconnu doit lever une exception")
+    void testCalculateOptimalTours_UnknownProfile() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> serviceAlgo.calculateOptimalTours(testGraph, 2, "turbo", Deadline.none())
+        );
+
+        assertTrue(exception.getMessage().contains("fast, balanced, quality"));
+    }
+
+    // =========================================================================
+    // TESTS DE SÉLECTION DE STRATÉGIE
+    // =========================================================================
+
+    @Test
+    @DisplayName("Stratégie: le profil et la stratégie retenus sont reportés dans le résultat")
+    void testCalculateOptimalTours_RecordsStrategyAndProfile() {
+        com.pickupdelivery.dto.TourDistributionResult result = serviceAlgo.calculateOptimalTours(testGraph, 2);
+
+        assertEquals("balanced", result.getProfile());
+        assertNotNull(result.getStrategy());
+    }
+
+    @Test
+    @DisplayName("Échéance: un calcul déjà expiré renvoie des tournées valides marquées timeLimited")
+    void testCalculateOptimalTours_ExpiredDeadlineReturnsValidTours() {
+        com.pickupdelivery.dto.TourDistributionResult result =
+            serviceAlgo.calculateOptimalTours(testGraph, 2, "FAST", Deadline.in(0));
+
+        assertEquals("fast", result.getProfile());
+        // Solveur exact (instance minuscule, non interrompu entre deux points de contrôle) ou construction seule
+        assertTrue(result.getStrategy().equals("EXACT") || result.getStrategy().equals("LOCAL_SEARCH"));
+        assertTrue(result.isTimeLimited());
+        assertFalse(result.getTours().isEmpty());
+        assertEquals(3, result.getTotalAssignedRequests() + result.getUnassignedDemandIds().size());
+    }
+
+    @Test
+    @DisplayName("Échéance: un calcul annulé est marqué timeLimited avec un avertissement")
+    void testCalculateOptimalTours_CancelledDeadline() {
+        Deadline deadline = Deadline.none();
+        deadline.cancel();
+
+        com.pickupdelivery.dto.TourDistributionResult result =
+            serviceAlgo.calculateOptimalTours(testGraph, 2, null, deadline);
+
+        assertTrue(result.isTimeLimited());
+        assertTrue(result.getWarnings().getMessages().stream().anyMatch(m -> m.contains("annulé")));
+    }
+
     // =========================================================================
     // TESTS DE COMPATIBILITÉ MONO-COURSIER
     // =========================================================================
@@ -4,6 +4,7 @@ import com.pickupdelivery.model.*;
 import com.pickupdelivery.model.AlgorithmModel.Graph;
 import com.pickupdelivery.model.AlgorithmModel.Stop;
 import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.service.algo.spi.StopRoutes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -114,7 +115,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testDistance_Success() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
         method.setAccessible(true);
 
         // Test distance warehouse → pickupD1
@@ -132,7 +133,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testDistance_ThrowsException_WhenStopsNull() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
         method.setAccessible(true);
 
         Exception exception = assertThrows(Exception.class, () -> {
@@ -144,7 +145,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testDistance_ThrowsException_WhenGraphNull() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
         method.setAccessible(true);
 
         Exception exception = assertThrows(Exception.class, () -> {
@@ -160,7 +161,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testComputeRouteDistance_SimpleRoute() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         method.setAccessible(true);
 
         // Route: W → P1 → D1 → W
@@ -174,7 +175,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testComputeRouteDistance_ComplexRoute() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         method.setAccessible(true);
 
         // Route: W → P2 → D2 → P1 → D1 → W
@@ -194,7 +195,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testComputeRouteDistance_EmptyRoute() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         method.setAccessible(true);
 
         List<Stop> emptyRoute = new ArrayList<>();
@@ -205,7 +206,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testComputeRouteDistance_SingleStop() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method method = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         method.setAccessible(true);
 
         List<Stop> singleStop = Arrays.asList(warehouse);
@@ -220,7 +221,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testIsStopFeasible_Warehouse_AlwaysFeasible() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "isStopFeasible", Stop.class, Set.class, Map.class);
         method.setAccessible(true);
 
@@ -234,7 +235,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testIsStopFeasible_Pickup_AlwaysFeasible() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "isStopFeasible", Stop.class, Set.class, Map.class);
         method.setAccessible(true);
 
@@ -248,7 +249,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testIsStopFeasible_Delivery_FeasibleWhenPickupVisited() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "isStopFeasible", Stop.class, Set.class, Map.class);
         method.setAccessible(true);
 
@@ -262,7 +263,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testIsStopFeasible_Delivery_NotFeasibleWhenPickupNotVisited() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "isStopFeasible", Stop.class, Set.class, Map.class);
         method.setAccessible(true);
 
@@ -280,7 +281,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testRespectsPrecedence_ValidRoute() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "respectsPrecedence", List.class, Map.class, Map.class);
         method.setAccessible(true);
 
@@ -297,7 +298,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testRespectsPrecedence_InvalidRoute_DeliveryBeforePickup() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "respectsPrecedence", List.class, Map.class, Map.class);
         method.setAccessible(true);
 
@@ -314,7 +315,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testRespectsPrecedence_ValidRoute_MultipleRequests() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "respectsPrecedence", List.class, Map.class, Map.class);
         method.setAccessible(true);
 
@@ -338,7 +339,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testRespectsPrecedence_InvalidRoute_OneDeliveryBeforePickup() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = StopRoutes.class.getDeclaredMethod(
                 "respectsPrecedence", List.class, Map.class, Map.class);
         method.setAccessible(true);
 
@@ -366,7 +367,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testTwoOptSwap_BasicSwap() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
+        Method method = StopRoutes.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
         method.setAccessible(true);
 
         // Route originale: [W, P1, P2, D1, D2, W]
@@ -390,7 +391,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testTwoOptSwap_SwapTwoElements() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
+        Method method = StopRoutes.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
         method.setAccessible(true);
 
         // Route: [W, P1, P2, W]
@@ -409,7 +410,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testTwoOptSwap_SwapAtBeginning() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
+        Method method = StopRoutes.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
         method.setAccessible(true);
 
         // Route: [W, P1, P2, D1, W]
@@ -429,7 +430,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testTwoOptSwap_SwapAtEnd() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
+        Method method = StopRoutes.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
         method.setAccessible(true);
 
         // Route: [W, P1, P2, D1, D2]
@@ -449,7 +450,7 @@ class ServiceAlgoPhase2Test {
 
     @Test
     void testTwoOptSwap_ThrowsException_InvalidIndices() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
+        Method method = StopRoutes.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
         method.setAccessible(true);
 
         List<Stop> route = Arrays.asList(warehouse, pickupD1, pickupD2, warehouse);
@@ -480,16 +481,16 @@ class ServiceAlgoPhase2Test {
     @Test
     void testPhase2Integration_FullWorkflow() throws Exception {
         // Préparer les méthodes
-        Method distanceMethod = ServiceAlgo.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
+        Method distanceMethod = StopRoutes.class.getDeclaredMethod("distance", Stop.class, Stop.class, Graph.class);
         distanceMethod.setAccessible(true);
 
-        Method routeDistanceMethod = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method routeDistanceMethod = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         routeDistanceMethod.setAccessible(true);
 
-        Method precedenceMethod = ServiceAlgo.class.getDeclaredMethod("respectsPrecedence", List.class, Map.class, Map.class);
+        Method precedenceMethod = StopRoutes.class.getDeclaredMethod("respectsPrecedence", List.class, Map.class, Map.class);
         precedenceMethod.setAccessible(true);
 
-        Method swapMethod = ServiceAlgo.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
+        Method swapMethod = StopRoutes.class.getDeclaredMethod("twoOptSwap", List.class, int.class, int.class);
         swapMethod.setAccessible(true);
 
         // Créer une route valide
@@ -4,6 +4,8 @@ import com.pickupdelivery.model.*;
 import com.pickupdelivery.model.AlgorithmModel.Graph;
 import com.pickupdelivery.model.AlgorithmModel.Stop;
 import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.service.algo.spi.NearestNeighbourConstructor;
+import com.pickupdelivery.service.algo.spi.StopRoutes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -126,7 +128,7 @@ class ServiceAlgoPhase3Test {
 
     @Test
     void testBuildInitialRoute_SingleRequest() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         method.setAccessible(true);
 
@@ -152,7 +154,7 @@ class ServiceAlgoPhase3Test {
 
     @Test
     void testBuildInitialRoute_TwoRequests() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         method.setAccessible(true);
 
@@ -194,7 +196,7 @@ class ServiceAlgoPhase3Test {
 
     @Test
     void testBuildInitialRoute_GreedyChoosesClosest() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         method.setAccessible(true);
 
@@ -222,7 +224,7 @@ class ServiceAlgoPhase3Test {
 
     @Test
     void testBuildInitialRoute_EmptyStops() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         method.setAccessible(true);
 
@@ -244,7 +246,7 @@ class ServiceAlgoPhase3Test {
 
     @Test
     void testBuildInitialRoute_ThrowsException_WhenParametersNull() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         method.setAccessible(true);
 
@@ -279,11 +281,11 @@ class ServiceAlgoPhase3Test {
     @Test
     void testBuildInitialRoute_RespectsPrecedenceConstraints() throws Exception {
         // Préparer les méthodes nécessaires
-        Method buildRouteMethod = ServiceAlgo.class.getDeclaredMethod(
+        Method buildRouteMethod = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         buildRouteMethod.setAccessible(true);
 
-        Method precedenceMethod = ServiceAlgo.class.getDeclaredMethod(
+        Method precedenceMethod = StopRoutes.class.getDeclaredMethod(
                 "respectsPrecedence", List.class, Map.class, Map.class);
         precedenceMethod.setAccessible(true);
 
@@ -314,11 +316,11 @@ class ServiceAlgoPhase3Test {
     @Test
     void testBuildInitialRoute_CalculateDistance() throws Exception {
         // Préparer les méthodes
-        Method buildRouteMethod = ServiceAlgo.class.getDeclaredMethod(
+        Method buildRouteMethod = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         buildRouteMethod.setAccessible(true);
 
-        Method distanceMethod = ServiceAlgo.class.getDeclaredMethod(
+        Method distanceMethod = StopRoutes.class.getDeclaredMethod(
                 "computeRouteDistance", List.class, Graph.class);
         distanceMethod.setAccessible(true);
 
@@ -348,7 +350,7 @@ class ServiceAlgoPhase3Test {
 
     @Test
     void testBuildInitialRoute_ThreeRequests() throws Exception {
-        Method method = ServiceAlgo.class.getDeclaredMethod(
+        Method method = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         method.setAccessible(true);
 
@@ -448,14 +450,14 @@ class ServiceAlgoPhase3Test {
         Method buildDeliveriesMethod = ServiceAlgo.class.getDeclaredMethod("buildDeliveryByRequestId", List.class);
         buildDeliveriesMethod.setAccessible(true);
 
-        Method buildRouteMethod = ServiceAlgo.class.getDeclaredMethod(
+        Method buildRouteMethod = NearestNeighbourConstructor.class.getDeclaredMethod(
                 "buildInitialRoute", Graph.class, Stop.class, List.class, Map.class);
         buildRouteMethod.setAccessible(true);
 
-        Method distanceMethod = ServiceAlgo.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
+        Method distanceMethod = StopRoutes.class.getDeclaredMethod("computeRouteDistance", List.class, Graph.class);
         distanceMethod.setAccessible(true);
 
-        Method precedenceMethod = ServiceAlgo.class.getDeclaredMethod(
+        Method precedenceMethod = StopRoutes.class.getDeclaredMethod(
                 "respectsPrecedence", List.class, Map.class, Map.class);
         precedenceMethod.setAccessible(true);
 
@@ -0,0 +1,95 @@
+package com.pickupdelivery.service;
+
+import com.pickupdelivery.model.*;
+import com.pickupdelivery.service.algo.WarehouseTrees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du pré-filtrage des demandes par les arbres de plus courts chemins de l'entrepôt
+ */
+class ServiceAlgoPreScreeningTest {
+
+    private ServiceAlgo serviceAlgo;
+    private CityMap cityMap;
+
+    @BeforeEach
+    void setUp() {
+        serviceAlgo = new ServiceAlgo();
+        cityMap = createLineCityMap();
+    }
+
+    /**
+     * Carte linéaire : W -- A -- B -- FAR
+     * W-A: 1 km, A-B: 1 km, B-FAR: 30 km (FAR est à 2h de vélo de W à 15 km/h)
+     * ISOLE n'est relié à rien
+     */
+    private CityMap createLineCityMap() {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node("W", 45.00, 4.80));
+        nodes.add(new Node("A", 45.01, 4.80));
+        nodes.add(new Node("B", 45.02, 4.80));
+        nodes.add(new Node("FAR", 45.30, 4.80));
+        nodes.add(new Node("ISOLE", 46.00, 5.00));
+
+        List<Segment> segments = new ArrayList<>();
+        segments.add(new Segment("W", "A", 1000.0, "Rue 1"));
+        segments.add(new Segment("A", "B", 1000.0, "Rue 2"));
+        segments.add(new Segment("B", "FAR", 30000.0, "Route longue"));
+        return new CityMap(nodes, segments);
+    }
+
+    @Test
+    void prepareWarehouseTrees_ShouldGiveDistancesInBothDirections() {
+        WarehouseTrees trees = serviceAlgo.prepareWarehouseTrees("W", cityMap);
+
+        assertEquals(0.0, trees.distanceFromWarehouse("W"), 0.001);
+        assertEquals(2000.0, trees.distanceFromWarehouse("B"), 0.001);
+        assertEquals(2000.0, trees.distanceToWarehouse("B"), 0.001);
+        assertEquals(32000.0, trees.distanceToWarehouse("FAR"), 0.001);
+        assertTrue(Double.isInfinite(trees.distanceFromWarehouse("ISOLE")));
+
+        // Réutilisation tant que la carte et l'entrepôt ne changent pas
+        assertSame(trees, serviceAlgo.prepareWarehouseTrees("W", cityMap));
+        assertNotSame(trees, serviceAlgo.prepareWarehouseTrees("A", cityMap));
+    }
+
+    @Test
+    void isMapNode_ShouldUseTheCompiledIndex() {
+        assertTrue(serviceAlgo.isMapNode("W", cityMap));
+        assertTrue(serviceAlgo.isMapNode("ISOLE", cityMap)); // déclaré même sans segment
+        assertFalse(serviceAlgo.isMapNode("INCONNU", cityMap));
+        assertFalse(serviceAlgo.isMapNode(null, cityMap));
+    }
+
+    @Test
+    void estimateDemandMinimumDuration_ShouldSumRoundTripAndServiceTimes() {
+        Demand demand = new Demand("D1", "A", "B", 300, 600, null);
+
+        double minimum = serviceAlgo.estimateDemandMinimumDurationSec(demand, "W", cityMap);
+
+        // W→A (1 km) + A→B (1 km) + B→W (2 km) = 4 km à 15 km/h = 960 s, + 900 s de service
+        assertEquals(960.0 + 900.0, minimum, 0.01);
+    }
+
+    @Test
+    void findDemandsExceedingTimeLimit_ShouldFlagOnlyImpossibleDemands() {
+        Demand ok = new Demand("OK", "A", "B", 60, 60, null);
+        Demand far = new Demand("FAR", "A", "FAR", 60, 60, null);        // 64 km aller-retour > 4h
+        Demand isolated = new Demand("ISOLE", "A", "ISOLE", 60, 60, null); // aucun chemin
+        DemandeSet demandeSet = new DemandeSet(new Warehouse("W1", "W", "8:0:0"), List.of(ok, far, isolated));
+
+        Map<Demand, Double> infeasible = serviceAlgo.findDemandsExceedingTimeLimit(demandeSet, cityMap);
+
+        assertEquals(2, infeasible.size());
+        assertFalse(infeasible.containsKey(ok));
+        assertTrue(infeasible.get(far) > 4 * 3600);
+        assertTrue(Double.isInfinite(infeasible.get(isolated)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la séparation et évaluation
+ */
+class BranchAndBoundSolverTest {
+
+    @Test
+    void solve_ShouldMatchTheDynamicProgrammingOptimum() {
+        for (long seed = 1; seed <= 4; seed++) {
+            StopMatrix matrix = randomMatrix(6, seed);
+            Solution exact = new Solution(matrix, 1);
+            exact.setRoute(0, new ExactPdpSolver(matrix).solve(Double.POSITIVE_INFINITY));
+
+            BranchAndBoundSolver solver = new BranchAndBoundSolver(matrix, all(6));
+            int[] route = solver.solve(Double.POSITIVE_INFINITY, Deadline.none());
+
+            Solution solution = new Solution(matrix, 1);
+            solution.setRoute(0, route);
+            assertValid(solution);
+            assertTrue(solver.isProvenOptimal());
+            assertEquals(exact.totalDistance(), solution.totalDistance(), 1e-6, "Instance " + seed);
+            assertEquals(solution.totalDistance(), solver.getBestDistance(), 1e-6);
+        }
+    }
+
+    @Test
+    void solve_ShouldReturnNullWhenTheBoundIsOptimal() {
+        StopMatrix matrix = randomMatrix(5, 11);
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(matrix, all(5));
+        solver.solve(Double.POSITIVE_INFINITY, Deadline.none());
+        double optimum = solver.getBestDistance();
+
+        assertNull(solver.solve(optimum, Deadline.none()));
+        assertTrue(solver.isProvenOptimal());
+    }
+
+    @Test
+    void solve_ShouldStopAtTheDeadline() {
+        StopMatrix matrix = randomMatrix(30, 5);
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(matrix, all(30));
+
+        solver.solve(Double.POSITIVE_INFINITY, Deadline.in(20));
+
+        assertFalse(solver.isProvenOptimal());
+    }
+
+    @Test
+    void lnsTarget_ShouldStopTheSearchEarly() {
+        StopMatrix matrix = randomMatrix(6, 9);
+        LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42);
+        optimizer.setTargetObjective(Double.POSITIVE_INFINITY);
+
+        optimizer.optimize(sequentialSolution(matrix, 2, 6), Deadline.none(), 1000);
+
+        assertEquals(0, optimizer.getIterations());
+    }
+
+    private static boolean[] all(int requestCount) {
+        boolean[] included = new boolean[requestCount];
+        Arrays.fill(included, true);
+        return included;
+    }
+}
@@ -0,0 +1,129 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.Demand;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.pickupdelivery.service.algo.TestInstances.TIME_LIMIT_SEC;
+import static com.pickupdelivery.service.algo.TestInstances.assertValid;
+import static com.pickupdelivery.service.algo.TestInstances.buildGraph;
+import static com.pickupdelivery.service.algo.TestInstances.matrixOf;
+import static com.pickupdelivery.service.algo.TestInstances.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests de la capacité des coursiers : charges cumulées de la solution, vérification
+ * d'insertion et respect de la capacité par les optimiseurs
+ */
+class CapacityTest {
+
+    /**
+     * Instance aléatoire : charges de 1 à 4, capacité de 6
+     */
+    private static StopMatrix loadedMatrix(int requestCount, long seed) {
+        Graph graph = randomGraph(requestCount, seed);
+        Random random = new Random(seed);
+        for (Demand demand : graph.getDemandMap().values()) {
+            demand.setLoad(1 + random.nextInt(4));
+        }
+        graph.setCourierCapacity(6);
+        return matrixOf(graph);
+    }
+
+    @Test
+    void testLoadsFollowPickupsAndDeliveries() {
+        Graph graph = buildGraph(new double[][] {{1000, 0}, {2000, 0}, {500, 0}},
+            new double[][] {{3000, 0}, {4000, 0}, {600, 0}}, 60);
+        graph.getDemandMap().get("R00").setLoad(3);
+        graph.getDemandMap().get("R01").setLoad(4);
+        graph.getDemandMap().get("R02").setLoad(2);
+        graph.setCourierCapacity(5);
+        StopMatrix matrix = matrixOf(graph);
+
+        Solution nested = new Solution(matrix, 1);
+        nested.setRoute(0, new int[] {1, 3, 2, 4});
+        assertEquals(7, nested.loadAt(0, 2));
+        assertFalse(nested.isFeasible(TIME_LIMIT_SEC));
+
+        // Charges à l'arrivée : 0, 3, 0, 4, 0
+        Solution sequential = new Solution(matrix, 1);
+        sequential.setRoute(0, new int[] {1, 2, 3, 4});
+        assertEquals(0, sequential.loadAt(0, 4));
+        assertTrue(sequential.isFeasible(TIME_LIMIT_SEC));
+        assertTrue(sequential.isLoadFeasible(2, 0, 0, 1));
+        assertTrue(sequential.isLoadFeasible(2, 0, 2, 2));
+        assertFalse(sequential.isLoadFeasible(2, 0, 2, 3));
+        assertFalse(sequential.isLoadFeasible(2, 0, 3, 3));
+        assertTrue(sequential.isLoadFeasible(2, 0, 4, 4));
+    }
+
+    @Test
+    void testRequestHeavierThanCapacityIsNotServable() {
+        Graph graph = buildGraph(new double[][] {{1000, 0}}, new double[][] {{2000, 0}}, 60);
+        graph.getDemandMap().get("R00").setLoad(8);
+        graph.setCourierCapacity(5);
+        StopMatrix matrix = matrixOf(graph);
+
+        assertFalse(matrix.isServableAlone(0, TIME_LIMIT_SEC));
+        Solution solution = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 1).optimize(new Solution(matrix, 2), Deadline.none(), 20);
+        assertEquals(1, solution.unassignedCount());
+    }
+
+    @Test
+    void testLoadCheckMatchesSimulation() {
+        StopMatrix matrix = loadedMatrix(12, 4);
+        Random random = new Random(8);
+        for (int trial = 0; trial < 20; trial++) {
+            Solution solution = new Solution(matrix, 1);
+            for (int request = 0; request < 7; request++) {
+                int length = solution.routeLength(0);
+                int i = random.nextInt(length + 1);
+                int j = i + random.nextInt(length - i + 1);
+                if (solution.isInsertionFeasible(request, 0, i, j, TIME_LIMIT_SEC)) {
+                    solution.insertRequest(request, 0, i, j);
+                }
+            }
+            for (int request = 7; request < matrix.requestCount(); request++) {
+                int length = solution.routeLength(0);
+                for (int i = 0; i <= length; i++) {
+                    for (int j = i; j <= length; j++) {
+                        Solution inserted = solution.copy();
+                        inserted.insertRequest(request, 0, i, j);
+                        int[] route = inserted.route(0);
+                        assertEquals(matrix.peakLoad(route, 0, route.length) <= matrix.capacity(),
+                            solution.isLoadFeasible(request, 0, i, j),
+                            "Insertion de la demande " + request + " en (" + i + ", " + j + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testOptimizersRespectCapacity() {
+        StopMatrix matrix = loadedMatrix(24, 6);
+
+        LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42);
+        optimizer.setNeighbours(NeighbourLists.of(matrix, 4));
+        Solution lns = optimizer.optimize(new Solution(matrix, 4), Deadline.none(), 300);
+        assertValid(lns);
+        assertEquals(0, lns.unassignedCount());
+
+        int[] giantTour = new int[2 * matrix.requestCount()];
+        for (int r = 0; r < matrix.requestCount(); r++) {
+            giantTour[2 * r] = StopMatrix.pickupOf(r);
+            giantTour[2 * r + 1] = StopMatrix.deliveryOf(r);
+        }
+        assertValid(new OptimalSplit(matrix, TIME_LIMIT_SEC).split(giantTour, 4));
+
+        Solution savings = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(4);
+        assertValid(savings);
+        new GranularTwoOpt(matrix, NeighbourLists.of(matrix, 5)).improve(savings, Deadline.none());
+        assertValid(savings);
+        assertValid(new InterRouteSearch(matrix, TIME_LIMIT_SEC, 0.0).optimize(savings, Deadline.none(), 10));
+    }
+}
@@ -0,0 +1,160 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.dto.ShortestPathResult;
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.service.algo.spi.DijkstraEngine;
+import com.pickupdelivery.xmlparser.MapXmlParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du graphe compilé (CSR) et benchmark de la renumérotation de Hilbert
+ */
+class CompiledGraphTest {
+
+    private static final int BENCHMARK_SOURCES = 50;
+    private static final int BENCHMARK_ROUNDS = 20;
+
+    private CityMap loadMap(String fileName) throws Exception {
+        ClassPathResource resource = new ClassPathResource(fileName);
+        MockMultipartFile file = new MockMultipartFile("file", fileName, "text/xml", resource.getInputStream());
+        return new MapXmlParser().parseMapFromXML(file);
+    }
+
+    @Test
+    void compile_ShouldKeepEveryNodeAndTwoArcsPerSegment() throws Exception {
+        CityMap map = loadMap("petitPlan.xml");
+
+        CompiledGraph graph = CompiledGraph.compile(map);
+
+        assertEquals(308, graph.nodeCount());
+        assertEquals(2 * 616, graph.arcCount());
+        assertEquals(CompiledGraph.NodeOrdering.HILBERT, graph.getOrdering());
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            assertEquals(i, graph.indexOf(graph.nodeId(i)));
+            assertTrue(graph.isDeclared(graph.nodeId(i)));
+        }
+        assertEquals(-1, graph.indexOf("inconnu"));
+        assertTrue(graph.isCompiledFrom(map));
+    }
+
+    @Test
+    void hilbertOrdering_ShouldGiveSameDistancesAsInputOrdering() throws Exception {
+        CityMap map = loadMap("petitPlan.xml");
+        CompiledGraph input = CompiledGraph.compile(map, CompiledGraph.NodeOrdering.INPUT);
+        CompiledGraph hilbert = CompiledGraph.compile(map, CompiledGraph.NodeOrdering.HILBERT);
+        DijkstraSearch inputSearch = input.newSearch();
+        DijkstraSearch hilbertSearch = hilbert.newSearch();
+
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            String sourceId = map.getNodes().get(random.nextInt(map.getNodes().size())).getId();
+            inputSearch.run(input.indexOf(sourceId));
+            hilbertSearch.run(hilbert.indexOf(sourceId));
+
+            for (int i = 0; i < input.nodeCount(); i++) {
+                String targetId = input.nodeId(i);
+                assertEquals(inputSearch.distanceTo(i), hilbertSearch.distanceTo(hilbert.indexOf(targetId)), 1e-6,
+                        "Distance différente pour " + sourceId + " → " + targetId);
+            }
+        }
+    }
+
+    @Test
+    void pathTo_ShouldChainSegmentsFromSourceToTarget() throws Exception {
+        CityMap map = loadMap("petitPlan.xml");
+        CompiledGraph graph = CompiledGraph.compile(map);
+        DijkstraSearch search = graph.newSearch();
+
+        int source = graph.indexOf(map.getNodes().get(0).getId());
+        int target = graph.indexOf(map.getNodes().get(map.getNodes().size() - 1).getId());
+        search.run(source, new int[] {target});
+
+        List<Segment> path = search.pathTo(target);
+        assertFalse(path.isEmpty());
+        assertEquals(graph.nodeId(source), path.get(0).getOrigin());
+        assertEquals(graph.nodeId(target), path.get(path.size() - 1).getDestination());
+
+        double length = 0;
+        for (int i = 0; i < path.size(); i++) {
+            if (i > 0) {
+                assertEquals(path.get(i - 1).getDestination(), path.get(i).getOrigin());
+            }
+            length += path.get(i).getLength();
+        }
+        assertEquals(search.distanceTo(target), length, 1e-6);
+    }
+
+    @Test
+    void dijkstraEngine_ShouldReuseItsWorkspaceWithoutMixingSearchesOrGraphs() throws Exception {
+        CityMap map = loadMap("petitPlan.xml");
+        CompiledGraph input = CompiledGraph.compile(map, CompiledGraph.NodeOrdering.INPUT);
+        CompiledGraph hilbert = CompiledGraph.compile(map, CompiledGraph.NodeOrdering.HILBERT);
+        DijkstraEngine engine = new DijkstraEngine();
+
+        // Recherches successives sur un même thread, en alternant les graphes compilés
+        Random random = new Random(3);
+        for (int round = 0; round < 10; round++) {
+            String sourceId = map.getNodes().get(random.nextInt(map.getNodes().size())).getId();
+            String targetId = map.getNodes().get(random.nextInt(map.getNodes().size())).getId();
+            for (CompiledGraph graph : new CompiledGraph[] {input, hilbert}) {
+                DijkstraSearch fresh = graph.newSearch();
+                fresh.run(graph.indexOf(sourceId));
+
+                ShortestPathResult result = engine.search(graph, graph.indexOf(sourceId),
+                        new int[] {graph.indexOf(targetId)})[0];
+                assertEquals(fresh.distanceTo(graph.indexOf(targetId)), result.getDistance(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void benchmark_SearchThroughput_InputVersusHilbert() throws Exception {
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║     BENCHMARK: Dijkstra complet, ordre XML vs Hilbert          ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+
+        for (String fileName : new String[] {"petitPlan.xml", "grandPlan.xml"}) {
+            CityMap map = loadMap(fileName);
+            CompiledGraph input = CompiledGraph.compile(map, CompiledGraph.NodeOrdering.INPUT);
+            CompiledGraph hilbert = CompiledGraph.compile(map, CompiledGraph.NodeOrdering.HILBERT);
+
+            Random random = new Random(7);
+            String[] sources = new String[BENCHMARK_SOURCES];
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = map.getNodes().get(random.nextInt(map.getNodes().size())).getId();
+            }
+
+            // Échauffement JIT puis mesure
+            measure(input, sources);
+            measure(hilbert, sources);
+            double inputRate = measure(input, sources);
+            double hilbertRate = measure(hilbert, sources);
+
+            System.out.printf("   • %-14s %5d nœuds | XML: %8.0f recherches/s | Hilbert: %8.0f recherches/s | x%.2f%n",
+                    fileName, input.nodeCount(), inputRate, hilbertRate, hilbertRate / inputRate);
+
+            assertTrue(inputRate > 0 && hilbertRate > 0);
+        }
+    }
+
+    private double measure(CompiledGraph graph, String[] sources) {
+        DijkstraSearch search = graph.newSearch();
+        long start = System.nanoTime();
+        int runs = 0;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            for (String sourceId : sources) {
+                search.run(graph.indexOf(sourceId));
+                runs++;
+            }
+        }
+        return runs / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,50 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des échéances et de leur annulation
+ */
+class DeadlineTest {
+
+    @Test
+    void cancel_ShouldExpireTheDeadlineAndItsPhases() {
+        Deadline request = Deadline.none();
+        Deadline phase = request.within(60_000);
+        assertFalse(phase.isExpired());
+
+        request.cancel();
+
+        assertTrue(request.isExpired());
+        assertTrue(phase.isExpired());
+        assertTrue(phase.isCancelled());
+        assertEquals(0, phase.remainingMillis());
+    }
+
+    @Test
+    void within_ShouldNeverOutliveItsParent() {
+        Deadline request = Deadline.in(0);
+        Deadline phase = request.within(60_000);
+
+        assertTrue(phase.isExpired());
+        assertFalse(phase.isCancelled());
+    }
+
+    @Test
+    void cancellingAPhase_ShouldNotCancelTheRequest() {
+        Deadline request = Deadline.none();
+        request.within(1_000).cancel();
+
+        assertFalse(request.isExpired());
+    }
+
+    @Test
+    void exactSolver_ShouldStopOnAnExpiredDeadline() {
+        ExactPdpSolver solver = new ExactPdpSolver(TestInstances.randomMatrix(8, 3));
+
+        assertNull(solver.solve(Double.POSITIVE_INFINITY, Deadline.in(0)));
+        assertTrue(solver.isInterrupted());
+    }
+}
@@ -0,0 +1,137 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.pickupdelivery.service.algo.TestInstances.randomMatrix;
+import static com.pickupdelivery.service.algo.TestInstances.sequentialSolution;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests du calcul par lots des surcoûts d'insertion : noyau vectoriel identique au noyau
+ * scalaire
+ */
+class DetourKernelTest {
+
+    private static final int BENCHMARK_BATCHES = 200_000;
+
+    @Test
+    void testVectorKernelIsLoadedWithIncubatorModule() {
+        // Les tests sont lancés avec --add-modules jdk.incubator.vector (voir pom.xml)
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertTrue(DetourKernel.vector().name().startsWith("vectoriel"), DetourKernel.vector().name());
+    }
+
+    @Test
+    void testPreferredKernelMatchesScalarBitForBit() {
+        Random random = new Random(7);
+        for (int count = 0; count <= 37; count++) {
+            double[] toStop = randomValues(random, count);
+            double[] fromStop = randomValues(random, count);
+            double[] direct = randomValues(random, count);
+            if (count > 3) {
+                toStop[1] = Double.POSITIVE_INFINITY; // Trajet manquant
+                direct[2] = Double.POSITIVE_INFINITY;
+            }
+            double[] expected = new double[count];
+            double[] actual = new double[count];
+
+            DetourKernel.scalar().detours(toStop, fromStop, direct, expected, count);
+            for (DetourKernel kernel : new DetourKernel[] {DetourKernel.preferred(), DetourKernel.vector()}) {
+                if (kernel == null) {
+                    continue;
+                }
+                kernel.detours(toStop, fromStop, direct, actual, count);
+                for (int p = 0; p < count; p++) {
+                    assertEquals(Double.doubleToLongBits(expected[p]), Double.doubleToLongBits(actual[p]),
+                        kernel.name() + ", intervalle " + p + " sur " + count);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGatheredDetoursMatchMatrix() {
+        StopMatrix matrix = randomMatrix(12, 3);
+        Solution solution = sequentialSolution(matrix, 2, 10);
+        int stop = StopMatrix.pickupOf(5);
+        double[] toStop = new double[matrix.size()];
+        double[] fromStop = new double[matrix.size()];
+        double[] direct = new double[matrix.size()];
+        double[] detours = new double[matrix.size()];
+
+        for (int route = 0; route < solution.routeCount(); route++) {
+            int gaps = DetourKernel.gather(solution, route, stop, toStop, fromStop, direct);
+            DetourKernel.preferred().detours(toStop, fromStop, direct, detours, gaps);
+
+            assertEquals(solution.routeLength(route) + 1, gaps);
+            for (int gap = 0; gap < gaps; gap++) {
+                int previous = gap == 0 ? StopMatrix.DEPOT : solution.stopAt(route, gap - 1);
+                int next = gap == solution.routeLength(route) ? StopMatrix.DEPOT : solution.stopAt(route, gap);
+                double expected = matrix.distance(previous, stop) + matrix.distance(stop, next)
+                    - matrix.distance(previous, next);
+                assertEquals(expected, detours[gap], 0.0);
+            }
+        }
+    }
+
+    @Test
+    void benchmark_DetourThroughput_ScalarVersusVector() {
+        assumeTrue(DetourKernel.vector() != null);
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║     BENCHMARK: surcoûts d'insertion, scalaire vs vectoriel     ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+
+        Random random = new Random(7);
+        int[] counts = {8, 32, 128, 512};
+        double[][][] batches = new double[counts.length][][];
+        for (int c = 0; c < counts.length; c++) {
+            batches[c] = new double[][] {randomValues(random, counts[c]), randomValues(random, counts[c]),
+                randomValues(random, counts[c]), new double[counts[c]]};
+        }
+
+        // Échauffement JIT sur toutes les tailles puis mesure
+        for (double[][] batch : batches) {
+            measure(DetourKernel.scalar(), batch);
+            measure(DetourKernel.vector(), batch);
+        }
+        for (int c = 0; c < counts.length; c++) {
+            double scalarRate = measure(DetourKernel.scalar(), batches[c]);
+            double vectorRate = measure(DetourKernel.vector(), batches[c]);
+
+            System.out.printf("   • %4d intervalles | scalaire: %6.0f M/s | %s: %6.0f M/s | x%.2f%n",
+                    counts[c], scalarRate / 1e6, DetourKernel.vector().name(), vectorRate / 1e6, vectorRate / scalarRate);
+
+            assertTrue(scalarRate > 0 && vectorRate > 0);
+        }
+    }
+
+    /**
+     * @param batch toStop, fromStop, direct et out d'un même lot
+     * @return Le débit du noyau en surcoûts calculés par seconde
+     */
+    private static double measure(DetourKernel kernel, double[][] batch) {
+        double[] out = batch[3];
+        int count = out.length;
+        double checksum = 0.0;
+        long start = System.nanoTime();
+        for (int round = 0; round < BENCHMARK_BATCHES; round++) {
+            kernel.detours(batch[0], batch[1], batch[2], out, count);
+            checksum += out[round % count];
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertTrue(checksum == checksum); // Empêche l'élimination de la boucle
+        return (double) BENCHMARK_BATCHES * count / seconds;
+    }
+
+    private static double[] randomValues(Random random, int count) {
+        double[] values = new double[count];
+        for (int p = 0; p < count; p++) {
+            values[p] = random.nextDouble() * 5000;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,79 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du solveur exact par programmation dynamique
+ */
+class ExactPdpSolverTest {
+
+    @Test
+    void solve_ShouldMatchBruteForceEnumeration() {
+        for (long seed = 1; seed <= 5; seed++) {
+            StopMatrix matrix = randomMatrix(4, seed);
+
+            int[] route = new ExactPdpSolver(matrix).solve(Double.POSITIVE_INFINITY);
+
+            Solution solution = new Solution(matrix, 1);
+            solution.setRoute(0, route);
+            assertValid(solution);
+            assertEquals(bruteForce(matrix), solution.totalDistance(), 1e-6, "Instance " + seed);
+        }
+    }
+
+    @Test
+    void solve_ShouldNeverBeBeatenByTheLns() {
+        StopMatrix matrix = randomMatrix(7, 13);
+        Solution exact = new Solution(matrix, 1);
+        exact.setRoute(0, new ExactPdpSolver(matrix).solve(Double.POSITIVE_INFINITY));
+
+        Solution lns = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42)
+                .optimize(sequentialSolution(matrix, 1, 7), Deadline.none(), 1000);
+
+        assertTrue(exact.totalDistance() <= lns.totalDistance() + 1e-6);
+    }
+
+    @Test
+    void solve_ShouldReturnNullWhenNoTourBeatsTheBound() {
+        StopMatrix matrix = randomMatrix(3, 2);
+        int[] route = new ExactPdpSolver(matrix).solve(Double.POSITIVE_INFINITY);
+        Solution optimal = new Solution(matrix, 1);
+        optimal.setRoute(0, route);
+
+        assertNull(new ExactPdpSolver(matrix).solve(optimal.totalDistance() - 1.0));
+        assertNotNull(new ExactPdpSolver(matrix).solve(optimal.totalDistance() + 1.0));
+    }
+
+    @Test
+    void constructor_ShouldRejectTooLargeInstances() {
+        StopMatrix matrix = randomMatrix(ExactPdpSolver.MAX_REQUESTS + 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> new ExactPdpSolver(matrix));
+    }
+
+    /**
+     * Distance minimale par énumération de toutes les séquences respectant la précédence
+     */
+    private double bruteForce(StopMatrix matrix) {
+        return explore(matrix, new boolean[matrix.size()], StopMatrix.DEPOT, 0, 0.0);
+    }
+
+    private double explore(StopMatrix matrix, boolean[] visited, int last, int depth, double distance) {
+        if (depth == matrix.size() - 1) {
+            return distance + matrix.distance(last, StopMatrix.DEPOT);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int stop = 1; stop < matrix.size(); stop++) {
+            boolean isDelivery = stop % 2 == 0;
+            if (visited[stop] || (isDelivery && !visited[stop - 1])) {
+                continue;
+            }
+            visited[stop] = true;
+            best = Math.min(best, explore(matrix, visited, stop, depth + 1, distance + matrix.distance(last, stop)));
+            visited[stop] = false;
+        }
+        return best;
+    }
+}
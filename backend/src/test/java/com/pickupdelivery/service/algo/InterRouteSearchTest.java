@@ -0,0 +1,82 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la recherche locale entre tournées
+ */
+class InterRouteSearchTest {
+
+    @Test
+    void optimize_ShouldNotWorsenTheCostAndKeepEveryRequest() {
+        for (long seed = 1; seed <= 4; seed++) {
+            StopMatrix matrix = randomMatrix(30, seed);
+            Solution initial = roundRobin(matrix, 4);
+            InterRouteSearch search = new InterRouteSearch(matrix, TIME_LIMIT_SEC, 100);
+
+            Solution improved = search.optimize(initial, Deadline.none(), 50);
+
+            assertValid(improved);
+            assertEquals(initial.assignedRequests(), improved.assignedRequests());
+            assertTrue(search.cost(improved) < search.cost(initial), "Instance " + seed);
+        }
+    }
+
+    @Test
+    void optimize_WithoutBalance_ShouldLowerTheTotalDistance() {
+        StopMatrix matrix = randomMatrix(25, 7);
+        Solution initial = roundRobin(matrix, 3);
+        InterRouteSearch search = new InterRouteSearch(matrix, TIME_LIMIT_SEC, 0);
+
+        Solution improved = search.optimize(initial, Deadline.none(), 50);
+
+        assertValid(improved);
+        assertTrue(improved.totalDistance() < initial.totalDistance());
+        assertTrue(search.getRelocations() + search.getSwaps() + search.getCrossExchanges() > 0);
+    }
+
+    @Test
+    void optimize_ShouldMoveWorkToAnIdleCourier() {
+        // Toutes les demandes sur le coursier 0, le coursier 1 inoccupé
+        StopMatrix matrix = randomMatrix(40, 3);
+        Solution initial = sequentialSolution(matrix, 2, 40);
+        assertTrue(initial.routeDuration(0) > 3 * 3600, "Instance de test trop légère");
+        InterRouteSearch search = new InterRouteSearch(matrix, TIME_LIMIT_SEC, 1000);
+
+        Solution balanced = search.optimize(initial, Deadline.none(), 50);
+
+        assertValid(balanced);
+        assertTrue(balanced.routeLength(1) > 0);
+        double spreadBefore = Math.abs(initial.routeDuration(0) - initial.routeDuration(1));
+        double spreadAfter = Math.abs(balanced.routeDuration(0) - balanced.routeDuration(1));
+        assertTrue(spreadAfter < spreadBefore);
+    }
+
+    @Test
+    void optimize_ShouldReturnAnUnchangedCopyAtAnExpiredDeadline() {
+        StopMatrix matrix = randomMatrix(10, 2);
+        Solution initial = roundRobin(matrix, 2);
+        InterRouteSearch search = new InterRouteSearch(matrix, TIME_LIMIT_SEC, 100);
+
+        Solution result = search.optimize(initial, Deadline.in(0), 50);
+
+        assertNotSame(initial, result);
+        assertEquals(initial.totalDistance(), result.totalDistance(), 1e-9);
+    }
+
+    /**
+     * Les demandes distribuées à tour de rôle entre les coursiers (mauvais regroupement)
+     */
+    private static Solution roundRobin(StopMatrix matrix, int routeCount) {
+        Solution solution = new Solution(matrix, routeCount);
+        for (int r = 0; r < matrix.requestCount(); r++) {
+            int route = r % routeCount;
+            int length = solution.routeLength(route);
+            solution.insertRequest(r, route, length, length);
+        }
+        return solution;
+    }
+}
@@ -0,0 +1,62 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la recherche multi-départs parallèle en îles
+ */
+class IslandSearchTest {
+
+    @Test
+    void optimize_ShouldReturnAValidSolutionNoWorseThanTheInitialOne() {
+        StopMatrix matrix = randomMatrix(15, 21);
+        Solution initial = sequentialSolution(matrix, 2, 15);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            IslandSearch search = new IslandSearch(matrix, TIME_LIMIT_SEC, 42, 4, pool);
+            Solution best = search.optimize(initial, Deadline.none(), 400, 100);
+
+            assertValid(best);
+            assertEquals(0, best.unassignedCount());
+            assertTrue(best.totalDistance() < initial.totalDistance());
+            assertEquals(4, search.getEpochs());
+            assertEquals(4 * 400, search.getTotalIterations());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void optimize_ShouldBeReproducibleWhateverThePoolParallelism() {
+        StopMatrix matrix = randomMatrix(12, 8);
+        Solution initial = sequentialSolution(matrix, 3, 12);
+        ForkJoinPool sequential = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            Solution first = new IslandSearch(matrix, TIME_LIMIT_SEC, 99, 4, sequential)
+                    .optimize(initial, Deadline.none(), 300, 50);
+            Solution second = new IslandSearch(matrix, TIME_LIMIT_SEC, 99, 4, parallel)
+                    .optimize(initial, Deadline.none(), 300, 50);
+
+            assertEquals(first.objective(), second.objective(), 1e-9);
+            for (int k = 0; k < first.routeCount(); k++) {
+                assertArrayEquals(first.route(k), second.route(k));
+            }
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectZeroIslands() {
+        StopMatrix matrix = randomMatrix(2, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new IslandSearch(matrix, TIME_LIMIT_SEC, 1, 0, ForkJoinPool.commonPool()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la recherche à grand voisinage (LNS)
+ */
+class LnsOptimizerTest {
+
+    @Test
+    void optimize_ShouldShortenAPoorInitialTour() {
+        StopMatrix matrix = randomMatrix(12, 3);
+        Solution initial = sequentialSolution(matrix, 1, 12);
+        assertValid(initial);
+
+        LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42);
+        Solution best = optimizer.optimize(initial, Deadline.none(), 2000);
+
+        assertValid(best);
+        assertEquals(0, best.unassignedCount());
+        assertTrue(best.totalDistance() < initial.totalDistance(),
+                "La LNS doit raccourcir la tournée naïve (" + initial.totalDistance() + " → " + best.totalDistance() + ")");
+        assertEquals(2000, optimizer.getIterations());
+    }
+
+    @Test
+    void optimize_ShouldInsertLeftOverRequestsWhenACourierHasRoom() {
+        StopMatrix matrix = randomMatrix(6, 11);
+        Solution initial = sequentialSolution(matrix, 2, 4);
+        assertEquals(2, initial.unassignedCount());
+
+        Solution best = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42).optimize(initial, Deadline.none(), 200);
+
+        assertValid(best);
+        assertEquals(0, best.unassignedCount());
+        assertEquals(2, initial.unassignedCount(), "La solution initiale ne doit pas être modifiée");
+    }
+
+    @Test
+    void optimize_ShouldLeaveARequestTooLongEvenAloneUnassigned() {
+        StopMatrix matrix = buildMatrix(
+                new double[][] {{500, 0}, {70_000, 0}},
+                new double[][] {{800, 0}, {70_500, 0}}, 60);
+        assertTrue(matrix.aloneDuration(1) > TIME_LIMIT_SEC);
+        Solution initial = sequentialSolution(matrix, 2, 1);
+
+        Solution best = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42).optimize(initial, Deadline.none(), 100);
+
+        assertValid(best);
+        assertFalse(best.isAssigned(1));
+        assertTrue(best.isAssigned(0));
+    }
+
+    @Test
+    void optimize_ShouldBeReproducibleForAGivenSeed() {
+        StopMatrix matrix = randomMatrix(10, 5);
+        Solution initial = sequentialSolution(matrix, 3, 10);
+
+        Solution first = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 7).optimize(initial, Deadline.none(), 500);
+        Solution second = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 7).optimize(initial, Deadline.none(), 500);
+
+        assertEquals(first.objective(), second.objective(), 1e-9);
+        for (int k = 0; k < first.routeCount(); k++) {
+            assertArrayEquals(first.route(k), second.route(k));
+        }
+    }
+
+    @Test
+    void resume_InSlices_ShouldMatchASingleRunWithTheSameSeed() {
+        StopMatrix matrix = randomMatrix(10, 5);
+        Solution initial = sequentialSolution(matrix, 3, 10);
+
+        Solution single = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 7).optimize(initial, Deadline.none(), 500);
+
+        // Même recuit découpé en tranches : ni réchauffe ni nouvelle réparation entre deux tranches
+        LnsOptimizer sliced = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 7);
+        sliced.start(initial, 500);
+        Solution best = null;
+        for (int slice = 0; slice < 5; slice++) {
+            best = sliced.resume(Deadline.none(), 100);
+        }
+
+        assertEquals(500, sliced.getIterations());
+        assertEquals(single.objective(), best.objective(), 1e-9);
+        for (int k = 0; k < single.routeCount(); k++) {
+            assertArrayEquals(single.route(k), best.route(k));
+        }
+    }
+
+    @Test
+    void optimize_WithExpiredDeadline_ShouldReturnTheInitialSolution() {
+        StopMatrix matrix = randomMatrix(8, 9);
+        Solution initial = sequentialSolution(matrix, 1, 8);
+
+        LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42);
+        Solution best = optimizer.optimize(initial, Deadline.in(0), 1000);
+
+        assertEquals(0, optimizer.getIterations());
+        assertEquals(initial.objective(), best.objective(), 1e-9);
+        assertValid(best);
+    }
+
+    @Test
+    void bestInsertion_WithNeighbours_ShouldOnlyEvaluateCandidatePositions() {
+        StopMatrix matrix = randomMatrix(30, 11);
+        Solution solution = sequentialSolution(matrix, 1, 12);
+        LnsOptimizer exhaustive = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 1);
+        LnsOptimizer granular = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 1);
+        granular.setNeighbours(NeighbourLists.of(matrix, 5));
+
+        LnsOptimizer.Insertion best = exhaustive.bestInsertion(solution, 29, 0);
+        LnsOptimizer.Insertion candidate = granular.bestInsertion(solution, 29, 0);
+
+        assertNotNull(candidate);
+        assertTrue(candidate.cost() >= best.cost() - 1e-9);
+        solution.insertRequest(29, 0, candidate.pickupPosition(), candidate.deliveryGap());
+        assertValid(solution);
+    }
+
+    @Test
+    void optimize_WithNeighbours_ShouldStillShortenAPoorInitialTour() {
+        StopMatrix matrix = randomMatrix(40, 4);
+        Solution initial = sequentialSolution(matrix, 2, 12);
+        LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42);
+        optimizer.setNeighbours(NeighbourLists.of(matrix, 6));
+
+        Solution best = optimizer.optimize(initial, Deadline.none(), 300);
+
+        assertValid(best);
+        assertTrue(best.objective() < initial.objective());
+    }
+}
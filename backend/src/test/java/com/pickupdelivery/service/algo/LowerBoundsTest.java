@@ -0,0 +1,60 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des bornes inférieures
+ */
+class LowerBoundsTest {
+
+    @Test
+    void compute_ShouldNeverExceedTheOptimalTour() {
+        for (long seed = 1; seed <= 5; seed++) {
+            StopMatrix matrix = randomMatrix(6, seed);
+            double optimum = optimalDistance(matrix);
+
+            double assignment = LowerBounds.assignmentBound(matrix, all(6));
+            double oneTree = LowerBounds.oneTreeBound(matrix, all(6), optimum);
+
+            assertTrue(assignment > 0 && assignment <= optimum + 1e-6, "Affectation, instance " + seed);
+            assertTrue(oneTree > 0 && oneTree <= optimum + 1e-6, "1-arbre, instance " + seed);
+            assertEquals(Math.max(assignment, oneTree), LowerBounds.compute(matrix, all(6), optimum), 1e-9);
+        }
+    }
+
+    @Test
+    void compute_ShouldBoundAMultiRouteSolution() {
+        StopMatrix matrix = randomMatrix(8, 3);
+        Solution solution = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42)
+                .optimize(sequentialSolution(matrix, 3, 8), Deadline.none(), 300);
+
+        assertTrue(LowerBounds.compute(matrix, all(8), solution.totalDistance()) <= solution.totalDistance() + 1e-6);
+    }
+
+    @Test
+    void compute_ShouldIgnoreExcludedRequests() {
+        StopMatrix matrix = randomMatrix(5, 7);
+        boolean[] none = new boolean[5];
+
+        assertEquals(0.0, LowerBounds.compute(matrix, none, Double.POSITIVE_INFINITY));
+        assertTrue(LowerBounds.compute(matrix, new boolean[]{true, true, false, false, false}, Double.POSITIVE_INFINITY)
+                <= LowerBounds.compute(matrix, all(5), Double.POSITIVE_INFINITY) + 1e-6);
+    }
+
+    private static boolean[] all(int requestCount) {
+        boolean[] included = new boolean[requestCount];
+        Arrays.fill(included, true);
+        return included;
+    }
+
+    private static double optimalDistance(StopMatrix matrix) {
+        Solution optimal = new Solution(matrix, 1);
+        optimal.setRoute(0, new ExactPdpSolver(matrix).solve(Double.POSITIVE_INFINITY));
+        return optimal.totalDistance();
+    }
+}
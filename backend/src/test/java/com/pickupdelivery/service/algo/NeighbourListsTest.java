@@ -0,0 +1,120 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des listes de voisins granulaires, de la construction et du 2-opt qui les consultent
+ */
+class NeighbourListsTest {
+
+    @Test
+    void of_ShouldKeepTheKNearestStopsSortedByDistance() {
+        StopMatrix matrix = randomMatrix(15, 5);
+        NeighbourLists neighbours = NeighbourLists.of(matrix, 6);
+
+        assertEquals(6, neighbours.width());
+        for (int stop = 0; stop < matrix.size(); stop++) {
+            int from = stop;
+            List<Integer> expected = new ArrayList<>();
+            for (int other = 1; other < matrix.size(); other++) {
+                if (other != from) {
+                    expected.add(other);
+                }
+            }
+            expected.sort(Comparator.<Integer>comparingDouble(other -> matrix.distance(from, other))
+                .thenComparingInt(other -> other));
+
+            assertEquals(6, neighbours.count(stop));
+            for (int rank = 0; rank < 6; rank++) {
+                assertEquals(expected.get(rank), neighbours.neighbour(stop, rank),
+                    "Voisin de rang " + rank + " du stop " + stop);
+            }
+        }
+    }
+
+    @Test
+    void of_ShouldBoundTheWidthAndRejectAnEmptyList() {
+        StopMatrix matrix = randomMatrix(3, 1);
+
+        NeighbourLists neighbours = NeighbourLists.of(matrix, 50);
+        assertEquals(5, neighbours.width());
+        assertEquals(5, neighbours.count(StopMatrix.DEPOT));
+        assertEquals(5, neighbours.count(1));
+
+        assertThrows(IllegalArgumentException.class, () -> NeighbourLists.of(matrix, 0));
+    }
+
+    @Test
+    void nearestNeighbourConstruction_ShouldVisitEveryStopOnceInPrecedenceOrder() {
+        for (long seed = 1; seed <= 5; seed++) {
+            StopMatrix matrix = randomMatrix(40, seed);
+            // Listes courtes : le parcours complet de repli doit aussi être exercé
+            int[] tour = NearestNeighbourConstruction.build(matrix, NeighbourLists.of(matrix, 2));
+
+            Solution solution = new Solution(matrix, 1);
+            solution.setRoute(0, tour);
+            assertEquals(0, solution.unassignedCount());
+            assertValid(solution);
+        }
+    }
+
+    @Test
+    void granularTwoOpt_ShouldUncrossARouteWithoutBreakingPrecedence() {
+        // Quatre demandes sur un carré, visitées dans un ordre qui croise la tournée
+        StopMatrix matrix = buildMatrix(
+                new double[][] {{1000, 0}, {1000, 1000}, {0, 1000}, {500, 0}},
+                new double[][] {{1000, 500}, {500, 1000}, {0, 500}, {900, 0}}, 60);
+        int[] crossing = {1, 5, 3, 6, 7, 8, 4, 2};
+        Solution solution = new Solution(matrix, 1);
+        solution.setRoute(0, crossing);
+        double before = solution.routeDistance(0);
+
+        GranularTwoOpt twoOpt = new GranularTwoOpt(matrix, NeighbourLists.of(matrix, 4));
+        assertEquals(1, twoOpt.improve(solution, Deadline.none()));
+
+        assertValid(solution);
+        assertTrue(solution.routeDistance(0) < before - 1.0);
+        assertTrue(twoOpt.getMoves() > 0);
+    }
+
+    @Test
+    void granularTwoOpt_ShouldNeverLengthenARouteAndEvaluateFewMoves() {
+        StopMatrix matrix = randomMatrix(150, 7);
+        NeighbourLists neighbours = NeighbourLists.of(matrix, 8);
+        Solution solution = sequentialSolution(matrix, 1, 150);
+        double before = solution.routeDistance(0);
+
+        GranularTwoOpt twoOpt = new GranularTwoOpt(matrix, neighbours);
+        int[] optimized = twoOpt.optimize(solution.route(0), Deadline.none());
+        Solution result = new Solution(matrix, 1);
+        result.setRoute(0, optimized);
+
+        assertEquals(0, result.unassignedCount());
+        for (int r = 0; r < 150; r++) {
+            assertTrue(result.indexInRoute(0, StopMatrix.pickupOf(r)) < result.indexInRoute(0, StopMatrix.deliveryOf(r)));
+        }
+        assertTrue(result.routeDistance(0) < before);
+        // Au plus 2k évaluations par stop examiné : les 301 stops, puis 4 par mouvement appliqué
+        // (un 2-opt exhaustif évalue ~n²/2 = 45 000 paires à chaque passage)
+        assertTrue(twoOpt.getEvaluations() <= 2L * 8 * (301 + 4L * twoOpt.getMoves()),
+            twoOpt.getEvaluations() + " évaluations pour " + twoOpt.getMoves() + " mouvements");
+    }
+
+    @Test
+    void granularTwoOpt_WithExpiredDeadline_ShouldReturnTheRouteUnchanged() {
+        StopMatrix matrix = randomMatrix(10, 2);
+        int[] route = sequentialSolution(matrix, 1, 10).route(0);
+
+        Deadline deadline = Deadline.in(0);
+        int[] optimized = new GranularTwoOpt(matrix, NeighbourLists.of(matrix, 5)).optimize(route, deadline);
+
+        assertArrayEquals(route, optimized);
+    }
+}
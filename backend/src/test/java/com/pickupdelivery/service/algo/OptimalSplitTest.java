@@ -0,0 +1,157 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du découpage optimal de la tournée géante
+ */
+class OptimalSplitTest {
+
+    @Test
+    void split_ShouldMatchTheBestContiguousPartition() {
+        for (long seed = 1; seed <= 4; seed++) {
+            StopMatrix matrix = randomMatrix(7, seed);
+            int[] giantTour = sequentialTour(7);
+
+            for (int maxRoutes = 1; maxRoutes <= 3; maxRoutes++) {
+                Solution solution = new OptimalSplit(matrix, TIME_LIMIT_SEC).split(giantTour, maxRoutes);
+
+                assertValid(solution);
+                assertEquals(bruteForce(matrix, 7, maxRoutes), solution.objective(), 1e-6,
+                    "Instance " + seed + ", " + maxRoutes + " tournée(s)");
+            }
+        }
+    }
+
+    @Test
+    void split_ShouldRespectTheTimeLimit() {
+        // Demandes à 6 km de l'entrepôt : une tournée de 4h n'en sert que quelques-unes
+        int n = 8;
+        double[][] pickups = new double[n][];
+        double[][] deliveries = new double[n][];
+        for (int r = 0; r < n; r++) {
+            double angle = 2 * Math.PI * r / n;
+            pickups[r] = new double[] {6000 * Math.cos(angle), 6000 * Math.sin(angle)};
+            deliveries[r] = new double[] {6500 * Math.cos(angle), 6500 * Math.sin(angle)};
+        }
+        StopMatrix matrix = buildMatrix(pickups, deliveries, 300);
+
+        Solution solution = new OptimalSplit(matrix, TIME_LIMIT_SEC).split(sequentialTour(n), 4);
+
+        assertValid(solution);
+        assertTrue(solution.isFeasible(TIME_LIMIT_SEC));
+        for (int k = 0; k < solution.routeCount(); k++) {
+            assertTrue(solution.routeDuration(k) <= TIME_LIMIT_SEC);
+        }
+    }
+
+    @Test
+    void split_ShouldDropRequestsWhenCouriersAreMissing() {
+        // Trois demandes éloignées, chacune remplit presque une tournée de 4h
+        double[][] pickups = {{25000, 0}, {0, 25000}, {-25000, 0}};
+        double[][] deliveries = {{25500, 0}, {0, 25500}, {-25500, 0}};
+        StopMatrix matrix = buildMatrix(pickups, deliveries, 300);
+
+        Solution solution = new OptimalSplit(matrix, TIME_LIMIT_SEC).split(sequentialTour(3), 2);
+
+        assertValid(solution);
+        assertEquals(1, solution.unassignedCount());
+        assertEquals(2, solution.assignedRequests().size());
+    }
+
+    @Test
+    void split_ShouldNotBeWorseThanAGreedyCut() {
+        StopMatrix matrix = randomMatrix(20, 3);
+        int[] giantTour = sequentialTour(20);
+
+        Solution split = new OptimalSplit(matrix, TIME_LIMIT_SEC).split(giantTour, 3);
+
+        // Coupe gloutonne : on ferme la tournée dès que la demande suivante ne tient plus
+        Solution greedy = new Solution(matrix, 3);
+        int route = 0;
+        List<Integer> current = new ArrayList<>();
+        for (int r = 0; r < 20 && route < 3; r++) {
+            current.add(r);
+            greedy.setRoute(route, stopsOf(current));
+            if (greedy.routeDuration(route) > TIME_LIMIT_SEC) {
+                current.remove(current.size() - 1);
+                greedy.setRoute(route, stopsOf(current));
+                route++;
+                current = new ArrayList<>(List.of(r));
+                if (route < 3) {
+                    greedy.setRoute(route, stopsOf(current));
+                }
+            }
+        }
+
+        assertValid(split);
+        assertTrue(split.objective() <= greedy.objective() + 1e-6);
+    }
+
+    @Test
+    void split_ShouldRejectAnIncompleteGiantTour() {
+        StopMatrix matrix = randomMatrix(3, 1);
+        OptimalSplit split = new OptimalSplit(matrix, TIME_LIMIT_SEC);
+
+        assertThrows(IllegalArgumentException.class, () -> split.split(new int[] {1, 2, 3, 4}, 2));
+    }
+
+    // =========================================================================
+    // OUTILS
+    // =========================================================================
+
+    private static int[] sequentialTour(int requestCount) {
+        int[] tour = new int[2 * requestCount];
+        for (int r = 0; r < requestCount; r++) {
+            tour[2 * r] = StopMatrix.pickupOf(r);
+            tour[2 * r + 1] = StopMatrix.deliveryOf(r);
+        }
+        return tour;
+    }
+
+    private static int[] stopsOf(List<Integer> requests) {
+        int[] stops = new int[2 * requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            stops[2 * i] = StopMatrix.pickupOf(requests.get(i));
+            stops[2 * i + 1] = StopMatrix.deliveryOf(requests.get(i));
+        }
+        return stops;
+    }
+
+    /**
+     * Énumère, le long de la séquence, toutes les affectations : abandon, tournée courante ou nouvelle tournée
+     */
+    private static double bruteForce(StopMatrix matrix, int requestCount, int maxRoutes) {
+        return enumerate(matrix, 0, requestCount, maxRoutes, new ArrayList<>());
+    }
+
+    private static double enumerate(StopMatrix matrix, int request, int requestCount, int maxRoutes,
+                                    List<List<Integer>> routes) {
+        if (request == requestCount) {
+            Solution solution = new Solution(matrix, maxRoutes);
+            for (int k = 0; k < routes.size(); k++) {
+                solution.setRoute(k, stopsOf(routes.get(k)));
+            }
+            return solution.isFeasible(TIME_LIMIT_SEC) ? solution.objective() : Double.POSITIVE_INFINITY;
+        }
+        double best = enumerate(matrix, request + 1, requestCount, maxRoutes, routes);
+        if (!routes.isEmpty()) {
+            routes.get(routes.size() - 1).add(request);
+            best = Math.min(best, enumerate(matrix, request + 1, requestCount, maxRoutes, routes));
+            List<Integer> last = routes.get(routes.size() - 1);
+            last.remove(last.size() - 1);
+        }
+        if (routes.size() < maxRoutes) {
+            routes.add(new ArrayList<>(List.of(request)));
+            best = Math.min(best, enumerate(matrix, request + 1, requestCount, maxRoutes, routes));
+            routes.remove(routes.size() - 1);
+        }
+        return best;
+    }
+}
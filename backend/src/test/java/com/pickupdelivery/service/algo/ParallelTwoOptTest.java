@@ -0,0 +1,67 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du 2-opt parallèle : tournée valide, plus courte et indépendante du découpage
+ */
+class ParallelTwoOptTest {
+
+    private static int[] sequentialRoute(StopMatrix matrix) {
+        int[] route = new int[2 * matrix.requestCount()];
+        for (int r = 0; r < matrix.requestCount(); r++) {
+            route[2 * r] = StopMatrix.pickupOf(r);
+            route[2 * r + 1] = StopMatrix.deliveryOf(r);
+        }
+        return route;
+    }
+
+    @Test
+    void optimize_ShouldShortenTheRouteAndKeepPrecedence() {
+        StopMatrix matrix = randomMatrix(80, 3);
+        int[] route = sequentialRoute(matrix);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTwoOpt twoOpt = new ParallelTwoOpt(matrix, pool, 8);
+            int[] optimized = twoOpt.optimize(route, Deadline.none());
+
+            Solution before = new Solution(matrix, 1);
+            before.setRoute(0, route);
+            Solution after = new Solution(matrix, 1);
+            after.setRoute(0, optimized); // Lève une exception si la précédence est violée
+
+            assertTrue(twoOpt.getMoves() > 0);
+            assertTrue(after.totalDistance() < before.totalDistance());
+            assertTrue(twoOpt.getEvaluations() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void optimize_ShouldNotDependOnThreadsOrChunkSize() {
+        StopMatrix matrix = randomMatrix(90, 11);
+        int[] route = sequentialRoute(matrix);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            int[] reference = new ParallelTwoOpt(matrix, single, 1000).optimize(route, Deadline.none());
+            assertArrayEquals(reference, new ParallelTwoOpt(matrix, parallel, 1).optimize(route, Deadline.none()));
+            assertArrayEquals(reference, new ParallelTwoOpt(matrix, parallel, 7).optimize(route, Deadline.none()));
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectAnEmptyChunk() {
+        StopMatrix matrix = randomMatrix(3, 1);
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTwoOpt(matrix, ForkJoinPool.commonPool(), 0));
+    }
+}
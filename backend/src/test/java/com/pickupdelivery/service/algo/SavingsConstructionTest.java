@@ -0,0 +1,87 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la construction multi-coursiers par économies
+ */
+class SavingsConstructionTest {
+
+    @Test
+    void build_ShouldMergeRequestsIntoFewValidRoutes() {
+        StopMatrix matrix = randomMatrix(30, 4);
+
+        Solution solution = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(30);
+
+        assertValid(solution);
+        assertEquals(0, solution.unassignedCount());
+        long usedRoutes = countUsedRoutes(solution);
+        assertTrue(usedRoutes < 30, "Les fusions doivent réduire le nombre de tournées (" + usedRoutes + ")");
+    }
+
+    @Test
+    void build_ShouldBeatOneRoutePerRequest() {
+        StopMatrix matrix = randomMatrix(20, 8);
+
+        Solution solution = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(20);
+
+        double separate = 0.0;
+        for (int r = 0; r < 20; r++) {
+            separate += matrix.distance(StopMatrix.DEPOT, StopMatrix.pickupOf(r))
+                + matrix.distance(StopMatrix.pickupOf(r), StopMatrix.deliveryOf(r))
+                + matrix.distance(StopMatrix.deliveryOf(r), StopMatrix.DEPOT);
+        }
+        assertTrue(solution.totalDistance() < separate);
+    }
+
+    @Test
+    void build_ShouldScaleToManyCouriers() {
+        // 300 demandes : au moins 36 000 s de service, donc plusieurs tournées de 4h
+        StopMatrix matrix = randomMatrix(300, 12);
+
+        Solution solution = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(150);
+
+        assertValid(solution);
+        assertEquals(0, solution.unassignedCount());
+        assertTrue(countUsedRoutes(solution) >= 3);
+    }
+
+    @Test
+    void build_ShouldKeepTheLargestRoutesWhenCouriersAreMissing() {
+        // Trois demandes éloignées, chacune remplit presque une tournée de 4h
+        double[][] pickups = {{25000, 0}, {0, 25000}, {-25000, 0}};
+        double[][] deliveries = {{25500, 0}, {0, 25500}, {-25500, 0}};
+        StopMatrix matrix = buildMatrix(pickups, deliveries, 300);
+
+        Solution solution = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(2);
+
+        assertValid(solution);
+        assertEquals(2, solution.assignedRequests().size());
+        assertEquals(1, solution.unassignedCount());
+    }
+
+    @Test
+    void build_ShouldBeDeterministic() {
+        StopMatrix matrix = randomMatrix(40, 21);
+
+        Solution first = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(5);
+        Solution second = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(5);
+
+        for (int k = 0; k < 5; k++) {
+            assertArrayEquals(first.route(k), second.route(k));
+        }
+    }
+
+    private static long countUsedRoutes(Solution solution) {
+        long used = 0;
+        for (int k = 0; k < solution.routeCount(); k++) {
+            if (solution.routeLength(k) > 0) {
+                used++;
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,78 @@
+package com.pickupdelivery.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la solution indexée (tableaux cumulés, variations en O(1))
+ */
+class SolutionTest {
+
+    @Test
+    void insertAndRemove_ShouldKeepDistanceAndDurationUpToDate() {
+        StopMatrix matrix = buildMatrix(
+                new double[][] {{1000, 0}, {0, 1000}},
+                new double[][] {{2000, 0}, {0, 2000}}, 120);
+        Solution solution = new Solution(matrix, 1);
+
+        solution.insertRequest(0, 0, 0, 0);
+        assertEquals(4000.0, solution.routeDistance(0), 1e-6);
+        assertEquals(4000.0 / SPEED_MS + 240, solution.routeDuration(0), 1e-6);
+
+        // Pickup de R01 en tête, delivery en fin de tournée : P1 P0 D0 D1
+        solution.insertRequest(1, 0, 0, 2);
+        assertArrayEquals(new int[] {3, 1, 2, 4}, solution.route(0));
+        assertValid(solution);
+
+        solution.removeRequest(0);
+        assertArrayEquals(new int[] {3, 4}, solution.route(0));
+        assertEquals(4000.0, solution.routeDistance(0), 1e-6);
+        assertEquals(1, solution.unassignedCount());
+    }
+
+    @Test
+    void cumulativeArrays_ShouldStayConsistentThroughInsertionsAndRemovals() {
+        StopMatrix matrix = randomMatrix(10, 8);
+        Solution solution = new Solution(matrix, 2);
+        Random random = new Random(3);
+
+        for (int step = 0; step < 60; step++) {
+            int request = random.nextInt(10);
+            if (solution.isAssigned(request)) {
+                int route = solution.routeOf(request);
+                double expectedDistance = solution.routeDistance(route) + solution.removalDistanceDelta(request);
+                double expected = solution.routeDuration(route) + solution.removalDurationDelta(request);
+                solution.removeRequest(request);
+                assertEquals(expectedDistance, solution.routeDistance(route), 1e-6);
+                assertEquals(expected, solution.routeDuration(route), 1e-6);
+            } else {
+                int route = random.nextInt(2);
+                int pickupPosition = random.nextInt(solution.routeLength(route) + 1);
+                int deliveryGap = pickupPosition + random.nextInt(solution.routeLength(route) - pickupPosition + 1);
+                double expected = solution.routeDuration(route)
+                    + solution.insertionDurationDelta(request, route, pickupPosition, deliveryGap);
+                solution.insertRequest(request, route, pickupPosition, deliveryGap);
+                assertEquals(expected, solution.routeDuration(route), 1e-6);
+            }
+
+            for (int k = 0; k < 2; k++) {
+                double arrival = 0.0;
+                int previous = StopMatrix.DEPOT;
+                for (int p = 0; p < solution.routeLength(k); p++) {
+                    int stop = solution.stopAt(k, p);
+                    arrival += matrix.travelTime(previous, stop);
+                    assertEquals(arrival, solution.arrivalAt(k, p), 1e-6);
+                    assertEquals(p, solution.indexInRoute(k, stop));
+                    arrival += matrix.serviceSec(stop);
+                    previous = stop;
+                }
+                assertEquals(solution.routeDuration(k), solution.arrivalAt(k, solution.routeLength(k)), 1e-6);
+            }
+        }
+        assertValid(solution);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.pickupdelivery.service.algo.TestInstances.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du sélecteur de stratégie et de la décomposition par coursier
+ */
+class StrategySelectorTest {
+
+    private static final SolverProfile BALANCED = new SolverProfile(SolverProfile.BALANCED, 200, 5000, 8);
+
+    private final StrategySelector selector = new StrategySelector(true, 40);
+
+    @Test
+    void select_ShouldUseTheExactSolverForSmallInstances() {
+        assertEquals(SolverStrategy.EXACT, selector.select(8, 3, BALANCED, 200));
+        assertEquals(SolverStrategy.METAHEURISTIC, selector.select(9, 3, BALANCED, 200));
+    }
+
+    @Test
+    void select_ShouldNeverExceedTheExactSolverCapacity() {
+        SolverProfile greedy = new SolverProfile("custom", 200, 5000, 50);
+
+        assertEquals(SolverStrategy.EXACT, selector.select(ExactPdpSolver.MAX_REQUESTS, 1, greedy, 200));
+        assertNotEquals(SolverStrategy.EXACT, selector.select(ExactPdpSolver.MAX_REQUESTS + 1, 1, greedy, 200));
+    }
+
+    @Test
+    void select_ShouldSkipTheSearchWhenTheBudgetIsTooShort() {
+        assertEquals(SolverStrategy.LOCAL_SEARCH,
+                selector.select(20, 2, BALANCED, StrategySelector.MIN_SEARCH_BUDGET_MS - 1));
+        assertEquals(SolverStrategy.LOCAL_SEARCH,
+                new StrategySelector(false, 40).select(20, 2, BALANCED, 200));
+    }
+
+    @Test
+    void select_ShouldDecomposeLargeMultiCourierInstances() {
+        assertEquals(SolverStrategy.DECOMPOSITION, selector.select(40, 4, BALANCED, 200));
+        assertEquals(SolverStrategy.METAHEURISTIC, selector.select(40, 1, BALANCED, 200));
+        assertEquals(SolverStrategy.METAHEURISTIC, selector.select(39, 4, BALANCED, 200));
+    }
+
+    @Test
+    void decomposition_ShouldKeepTheAssignmentAndShortenEachRoute() {
+        Graph graph = randomGraph(12, 4);
+        StopMatrix matrix = matrixOf(graph);
+        Solution initial = new Solution(matrix, 2);
+        initial.setRoute(0, new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        initial.setRoute(1, new int[] {13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+
+        RouteDecomposition decomposition = new RouteDecomposition(graph, TIME_LIMIT_SEC, 42, ForkJoinPool.commonPool());
+        Solution result = decomposition.optimize(initial, Deadline.none(), 400);
+
+        assertValid(result);
+        assertEquals(2, decomposition.getSubproblems());
+        assertTrue(result.totalDistance() < initial.totalDistance());
+        for (int request = 0; request < 12; request++) {
+            assertEquals(initial.routeOf(request), result.routeOf(request));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Trajet;
+import com.pickupdelivery.model.Demand;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Instances euclidiennes partagées par les tests des optimiseurs
+ */
+final class TestInstances {
+
+    static final double SPEED_MS = 15.0 / 3.6;
+    static final double TIME_LIMIT_SEC = 4 * 3600;
+
+    private TestInstances() {
+    }
+
+    /**
+     * Construit la matrice d'un graphe euclidien : entrepôt en (0, 0), une demande par couple de points
+     */
+    static StopMatrix buildMatrix(double[][] pickups, double[][] deliveries, int serviceSec) {
+        return matrixOf(buildGraph(pickups, deliveries, serviceSec));
+    }
+
+    /**
+     * Construit un graphe euclidien : entrepôt en (0, 0), une demande par couple de points
+     */
+    static Graph buildGraph(double[][] pickups, double[][] deliveries, int serviceSec) {
+        Stop warehouse = new Stop("W", null, Stop.TypeStop.WAREHOUSE);
+        Map<Stop, double[]> positions = new HashMap<>();
+        positions.put(warehouse, new double[] {0, 0});
+        Map<String, Demand> demandMap = new HashMap<>();
+
+        for (int r = 0; r < pickups.length; r++) {
+            String id = String.format("R%02d", r);
+            Stop pickup = new Stop("P" + r, id, Stop.TypeStop.PICKUP);
+            Stop delivery = new Stop("D" + r, id, Stop.TypeStop.DELIVERY);
+            positions.put(pickup, pickups[r]);
+            positions.put(delivery, deliveries[r]);
+            demandMap.put(id, new Demand(id, "P" + r, "D" + r, serviceSec, serviceSec, null));
+        }
+
+        Map<Stop, Map<Stop, Trajet>> matrix = new HashMap<>();
+        for (Map.Entry<Stop, double[]> from : positions.entrySet()) {
+            Map<Stop, Trajet> row = new HashMap<>();
+            for (Map.Entry<Stop, double[]> to : positions.entrySet()) {
+                if (from.getKey() != to.getKey()) {
+                    double distance = Math.hypot(from.getValue()[0] - to.getValue()[0], from.getValue()[1] - to.getValue()[1]);
+                    row.put(to.getKey(), new Trajet(new ArrayList<>(), from.getKey(), to.getKey(), distance, distance / SPEED_MS));
+                }
+            }
+            matrix.put(from.getKey(), row);
+        }
+
+        Graph graph = new Graph();
+        graph.setStopDepart(warehouse);
+        graph.setDistancesMatrix(matrix);
+        graph.setDemandMap(demandMap);
+        return graph;
+    }
+
+    /**
+     * Matrice des stops de toutes les demandes d'un graphe construit par {@link #buildGraph}
+     */
+    static StopMatrix matrixOf(Graph graph) {
+        Map<String, List<Stop>> pickupsByRequestId = new HashMap<>();
+        Map<String, Stop> deliveryByRequestId = new HashMap<>();
+        for (Stop stop : graph.getDistancesMatrix().keySet()) {
+            if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                pickupsByRequestId.put(stop.getIdDemande(), List.of(stop));
+            } else if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                deliveryByRequestId.put(stop.getIdDemande(), stop);
+            }
+        }
+        return StopMatrix.of(graph, graph.getStopDepart(), pickupsByRequestId, deliveryByRequestId, SPEED_MS);
+    }
+
+    /**
+     * Demandes tirées uniformément dans un carré de 3 km centré sur l'entrepôt
+     */
+    static StopMatrix randomMatrix(int requestCount, long seed) {
+        return matrixOf(randomGraph(requestCount, seed));
+    }
+
+    static Graph randomGraph(int requestCount, long seed) {
+        Random random = new Random(seed);
+        double[][] pickups = new double[requestCount][];
+        double[][] deliveries = new double[requestCount][];
+        for (int r = 0; r < requestCount; r++) {
+            pickups[r] = new double[] {random.nextDouble() * 3000 - 1500, random.nextDouble() * 3000 - 1500};
+            deliveries[r] = new double[] {random.nextDouble() * 3000 - 1500, random.nextDouble() * 3000 - 1500};
+        }
+        return buildGraph(pickups, deliveries, 60);
+    }
+
+    /**
+     * Solution naïve : les premières demandes servies d'un bloc (pickup puis delivery)
+     * sur la tournée 0, dans l'ordre des indices ; les autres restent non assignées
+     */
+    static Solution sequentialSolution(StopMatrix matrix, int routeCount, int assignedRequests) {
+        Solution solution = new Solution(matrix, routeCount);
+        int[] route = new int[2 * assignedRequests];
+        for (int r = 0; r < assignedRequests; r++) {
+            route[2 * r] = StopMatrix.pickupOf(r);
+            route[2 * r + 1] = StopMatrix.deliveryOf(r);
+        }
+        solution.setRoute(0, route);
+        return solution;
+    }
+
+    /**
+     * Vérifie limite de durée, appartenance et précédence de chaque demande assignée
+     */
+    static void assertValid(Solution solution) {
+        assertTrue(solution.isFeasible(TIME_LIMIT_SEC), "Chaque tournée doit respecter la limite de 4h");
+        for (int k = 0; k < solution.routeCount(); k++) {
+            for (int i = 0; i < solution.routeLength(k); i++) {
+                int stop = solution.stopAt(k, i);
+                int request = StopMatrix.requestOf(stop);
+                assertEquals(k, solution.routeOf(request));
+                assertTrue(solution.indexInRoute(k, StopMatrix.pickupOf(request))
+                        < solution.indexInRoute(k, StopMatrix.deliveryOf(request)),
+                        "Le pickup doit précéder la delivery");
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.pickupdelivery.service.algo;
+
+import com.pickupdelivery.exception.AlgorithmException;
+import com.pickupdelivery.model.AlgorithmModel.Graph;
+import com.pickupdelivery.model.AlgorithmModel.Stop;
+import com.pickupdelivery.model.AlgorithmModel.Tour;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.service.algo.spi.TourResults;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.pickupdelivery.service.algo.TestInstances.SPEED_MS;
+import static com.pickupdelivery.service.algo.TestInstances.TIME_LIMIT_SEC;
+import static com.pickupdelivery.service.algo.TestInstances.assertValid;
+import static com.pickupdelivery.service.algo.TestInstances.buildGraph;
+import static com.pickupdelivery.service.algo.TestInstances.matrixOf;
+import static com.pickupdelivery.service.algo.TestInstances.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests des fenêtres horaires : planning de la solution, vérification d'insertion en O(1)
+ * et respect des fenêtres par les optimiseurs
+ */
+class TimeWindowsTest {
+
+    /**
+     * Instance aléatoire où une demande sur deux a une fenêtre de pickup et de delivery
+     */
+    private static StopMatrix windowedMatrix(int requestCount, long seed) {
+        Graph graph = randomGraph(requestCount, seed);
+        Random random = new Random(seed);
+        for (Demand demand : graph.getDemandMap().values()) {
+            if (random.nextBoolean()) {
+                int open = random.nextInt(5400);
+                demand.setPickupEarliestSec(open);
+                demand.setPickupLatestSec(open + 1800);
+                demand.setDeliveryLatestSec(open + 3600 + random.nextInt(3600));
+            }
+        }
+        return matrixOf(graph);
+    }
+
+    /**
+     * Tournée faisable construite par insertions aléatoires des premières demandes
+     */
+    private static Solution feasibleRoute(StopMatrix matrix, int requestCount, Random random) {
+        Solution solution = new Solution(matrix, 1);
+        for (int request = 0; request < requestCount; request++) {
+            int length = solution.routeLength(0);
+            int i = random.nextInt(length + 1);
+            int j = i + random.nextInt(length - i + 1);
+            if (solution.isInsertionFeasible(request, 0, i, j, TIME_LIMIT_SEC)) {
+                solution.insertRequest(request, 0, i, j);
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * @return L'heure de retour d'une séquence étendue, ou +inf si une fenêtre est manquée
+     */
+    private static double returnIfOnTime(StopMatrix matrix, int[] sequence) {
+        double time = 0.0;
+        for (int p = 1; p < sequence.length; p++) {
+            int previous = sequence[p - 1];
+            time += matrix.serviceSec(previous) + matrix.travelTime(previous, sequence[p]);
+            if (p < sequence.length - 1) {
+                time = Math.max(time, matrix.earliestSec(sequence[p]));
+                if (time > matrix.latestSec(sequence[p]) + 1e-6) {
+                    return Double.POSITIVE_INFINITY;
+                }
+            }
+        }
+        return time;
+    }
+
+    @Test
+    void testWaitingForWindowIsPartOfRouteDuration() {
+        Graph graph = buildGraph(new double[][] {{1000, 0}}, new double[][] {{2000, 0}}, 60);
+        graph.getDemandMap().get("R00").setPickupEarliestSec(3600);
+        StopMatrix matrix = matrixOf(graph);
+
+        Solution solution = new Solution(matrix, 1);
+        solution.setRoute(0, new int[] {1, 2});
+
+        assertTrue(matrix.hasTimeWindows());
+        double expected = 3600 + 60 + 1000 / SPEED_MS + 60 + 2000 / SPEED_MS;
+        assertEquals(expected, solution.routeDuration(0), 1e-6);
+        assertEquals(expected, matrix.returnTime(new int[] {1, 2}, 0, 2), 1e-6);
+        assertEquals(3600 + 60 + 1000 / SPEED_MS, solution.arrivalAt(0, 1), 1e-6);
+        assertTrue(solution.isFeasible(TIME_LIMIT_SEC));
+    }
+
+    @Test
+    void testMissedWindowMakesRouteInfeasible() {
+        Graph graph = buildGraph(new double[][] {{1000, 0}, {-1000, 0}}, new double[][] {{2000, 0}, {-2000, 0}}, 60);
+        graph.getDemandMap().get("R01").setDeliveryLatestSec(600);
+        StopMatrix matrix = matrixOf(graph);
+
+        Solution late = new Solution(matrix, 1);
+        late.setRoute(0, new int[] {1, 2, 3, 4});
+        assertFalse(late.isFeasible(TIME_LIMIT_SEC));
+
+        Solution onTime = new Solution(matrix, 1);
+        onTime.setRoute(0, new int[] {3, 4, 1, 2});
+        assertTrue(onTime.isFeasible(TIME_LIMIT_SEC));
+    }
+
+    @Test
+    void testInsertionCheckMatchesSimulation() {
+        StopMatrix matrix = windowedMatrix(14, 11);
+        Random random = new Random(3);
+        int checked = 0;
+        for (int trial = 0; trial < 20; trial++) {
+            // Tournée partielle faisable construite par insertions aléatoires
+            Solution solution = new Solution(matrix, 1);
+            for (int request = 0; request < 8; request++) {
+                int length = solution.routeLength(0);
+                int i = random.nextInt(length + 1);
+                int j = i + random.nextInt(length - i + 1);
+                if (solution.isInsertionFeasible(request, 0, i, j, TIME_LIMIT_SEC)) {
+                    solution.insertRequest(request, 0, i, j);
+                }
+            }
+            assertTrue(solution.isFeasible(TIME_LIMIT_SEC));
+
+            for (int request = 8; request < matrix.requestCount(); request++) {
+                int length = solution.routeLength(0);
+                for (int i = 0; i <= length; i++) {
+                    for (int j = i; j <= length; j++) {
+                        Solution inserted = solution.copy();
+                        inserted.insertRequest(request, 0, i, j);
+                        assertEquals(inserted.isFeasible(TIME_LIMIT_SEC),
+                            solution.isInsertionFeasible(request, 0, i, j, TIME_LIMIT_SEC),
+                            "Insertion de la demande " + request + " en (" + i + ", " + j + ")");
+                        checked++;
+                    }
+                }
+            }
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    void testLnsRespectsEveryWindow() {
+        StopMatrix matrix = windowedMatrix(24, 5);
+        LnsOptimizer optimizer = new LnsOptimizer(matrix, TIME_LIMIT_SEC, 42);
+        optimizer.setNeighbours(NeighbourLists.of(matrix, 4));
+
+        Solution best = optimizer.optimize(new Solution(matrix, 3), Deadline.none(), 300);
+
+        assertValid(best);
+        assertTrue(best.unassignedCount() < matrix.requestCount());
+    }
+
+    @Test
+    void testConstructionsAndLocalSearchRespectWindows() {
+        StopMatrix matrix = windowedMatrix(20, 9);
+        int[] giantTour = new int[2 * matrix.requestCount()];
+        for (int r = 0; r < matrix.requestCount(); r++) {
+            giantTour[2 * r] = StopMatrix.pickupOf(r);
+            giantTour[2 * r + 1] = StopMatrix.deliveryOf(r);
+        }
+
+        Solution split = new OptimalSplit(matrix, TIME_LIMIT_SEC).split(giantTour, 4);
+        assertValid(split);
+
+        Solution savings = new SavingsConstruction(matrix, TIME_LIMIT_SEC).build(4);
+        assertValid(savings);
+
+        new GranularTwoOpt(matrix, NeighbourLists.of(matrix, 5)).improve(savings, Deadline.none());
+        assertValid(savings);
+
+        Solution exchanged = new InterRouteSearch(matrix, TIME_LIMIT_SEC, 0.0).optimize(savings, Deadline.none(), 10);
+        assertValid(exchanged);
+        assertEquals(savings.unassignedCount(), exchanged.unassignedCount());
+    }
+
+    @Test
+    void testTwoOptCheckMatchesSimulation() {
+        StopMatrix matrix = windowedMatrix(14, 17);
+        Random random = new Random(5);
+        int rejected = 0;
+        for (int trial = 0; trial < 20; trial++) {
+            int[] route = feasibleRoute(matrix, matrix.requestCount(), random).route(0);
+            int[] sequence = new int[route.length + 2];
+            System.arraycopy(route, 0, sequence, 1, route.length);
+            TwoOptConstraints constraints = new TwoOptConstraints(matrix, sequence.length);
+            constraints.refresh(sequence);
+            double currentReturn = returnIfOnTime(matrix, sequence);
+
+            for (int i = 1; i < sequence.length - 2; i++) {
+                for (int k = i + 1; k < sequence.length - 1; k++) {
+                    int[] reversed = sequence.clone();
+                    TwoOptSequence.reverse(reversed, i, k);
+                    boolean expected = returnIfOnTime(matrix, reversed) <= currentReturn + 1e-6;
+                    assertEquals(expected, constraints.allows(sequence, i, k), "Inversion de [" + i + ", " + k + "]");
+                    rejected += expected ? 0 : 1;
+                }
+            }
+        }
+        assertTrue(rejected > 0);
+    }
+
+    @Test
+    void testParallelTwoOptRespectsWindows() {
+        StopMatrix matrix = windowedMatrix(30, 23);
+        Solution start = feasibleRoute(matrix, matrix.requestCount(), new Random(8));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] optimized = new ParallelTwoOpt(matrix, pool, 8).optimize(start.route(0), Deadline.none());
+
+            Solution after = new Solution(matrix, 1);
+            after.setRoute(0, optimized);
+            assertValid(after);
+            assertTrue(after.totalDistance() <= start.totalDistance() + 1e-6);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testTourValidationRejectsMissedWindow() {
+        Graph graph = buildGraph(new double[][] {{1000, 0}, {-1000, 0}}, new double[][] {{2000, 0}, {-2000, 0}}, 60);
+        graph.getDemandMap().get("R01").setDeliveryLatestSec(600);
+        Map<String, Stop> byNode = new HashMap<>();
+        Map<String, List<Stop>> pickupsByRequestId = new HashMap<>();
+        Map<String, Stop> deliveryByRequestId = new HashMap<>();
+        for (Stop stop : graph.getDistancesMatrix().keySet()) {
+            byNode.put(stop.getIdNode(), stop);
+            if (stop.getTypeStop() == Stop.TypeStop.PICKUP) {
+                pickupsByRequestId.put(stop.getIdDemande(), List.of(stop));
+            } else if (stop.getTypeStop() == Stop.TypeStop.DELIVERY) {
+                deliveryByRequestId.put(stop.getIdDemande(), stop);
+            }
+        }
+
+        Tour late = new Tour();
+        late.setCourierId(1);
+        late.setStops(new ArrayList<>(List.of(byNode.get("W"), byNode.get("P0"), byNode.get("D0"),
+            byNode.get("P1"), byNode.get("D1"), byNode.get("W"))));
+        AlgorithmException exception = assertThrows(AlgorithmException.class,
+            () -> TourResults.validateTourDistribution(List.of(late), pickupsByRequestId, deliveryByRequestId, graph));
+        assertEquals(AlgorithmException.ErrorType.TIME_WINDOW_VIOLATION, exception.getErrorType());
+
+        Tour onTime = new Tour();
+        onTime.setCourierId(1);
+        onTime.setStops(new ArrayList<>(List.of(byNode.get("W"), byNode.get("P1"), byNode.get("D1"),
+            byNode.get("P0"), byNode.get("D0"), byNode.get("W"))));
+        assertDoesNotThrow(
+            () -> TourResults.validateTourDistribution(List.of(onTime), pickupsByRequestId, deliveryByRequestId, graph));
+    }
+}
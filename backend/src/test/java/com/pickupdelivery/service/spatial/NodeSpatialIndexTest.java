@@ -0,0 +1,109 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.xmlparser.MapXmlParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'arbre k-d des nœuds : résultats identiques au parcours linéaire, latence
+ */
+class NodeSpatialIndexTest {
+
+    private static CityMap grandPlan;
+    private static NodeSpatialIndex index;
+
+    @BeforeAll
+    static void loadMap() throws Exception {
+        ClassPathResource resource = new ClassPathResource("grandPlan.xml");
+        MockMultipartFile file = new MockMultipartFile("file", "grandPlan.xml", "text/xml", resource.getInputStream());
+        grandPlan = new MapXmlParser().parseMapFromXML(file);
+        index = NodeSpatialIndex.build(grandPlan);
+    }
+
+    @Test
+    void nearest_ShouldMatchLinearScan() {
+        Random random = new Random(1);
+        LocalProjection projection = LocalProjection.centeredOn(grandPlan.getNodes());
+
+        for (int i = 0; i < 500; i++) {
+            Node reference = grandPlan.getNodes().get(random.nextInt(grandPlan.getNodes().size()));
+            double lat = reference.getLatitude() + (random.nextDouble() - 0.5) * 0.01;
+            double lon = reference.getLongitude() + (random.nextDouble() - 0.5) * 0.01;
+
+            List<Node> expected = new ArrayList<>(grandPlan.getNodes());
+            expected.sort(Comparator.comparingDouble(n -> squaredDistance(projection, n, lat, lon)));
+
+            List<NodeSpatialIndex.Neighbor> knn = index.nearest(lat, lon, 5);
+            assertEquals(5, knn.size());
+            for (int k = 0; k < 5; k++) {
+                assertEquals(Math.sqrt(squaredDistance(projection, expected.get(k), lat, lon)),
+                        knn.get(k).distanceMeters(), 1e-6);
+            }
+            assertEquals(knn.get(0).node().getId(), index.nearest(lat, lon).getId());
+        }
+    }
+
+    @Test
+    void nearest_OnExactNode_ShouldReturnThatNodeAtZeroDistance() {
+        Node node = grandPlan.getNodes().get(42);
+
+        List<NodeSpatialIndex.Neighbor> result = index.nearest(node.getLatitude(), node.getLongitude(), 1);
+
+        assertEquals(0.0, result.get(0).distanceMeters(), 1e-9);
+        assertEquals(node.getLatitude(), result.get(0).node().getLatitude());
+        assertEquals(node.getLongitude(), result.get(0).node().getLongitude());
+    }
+
+    @Test
+    void nearest_WithEmptyMapOrLargeK_ShouldNotFail() {
+        NodeSpatialIndex empty = NodeSpatialIndex.build(new CityMap());
+        assertNull(empty.nearest(45.0, 4.8));
+        assertTrue(empty.nearest(45.0, 4.8, 3).isEmpty());
+
+        assertEquals(grandPlan.getNodes().size(), index.nearest(45.75, 4.85, 100_000).size());
+        assertThrows(IllegalArgumentException.class, () -> index.nearest(45.75, 4.85, 0));
+    }
+
+    @Test
+    void nearest_OnGrandPlan_ShouldAnswerInUnderAMillisecond() {
+        Random random = new Random(3);
+        int queries = 20_000;
+        double[] lats = new double[queries];
+        double[] lons = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            lats[i] = 45.73 + random.nextDouble() * 0.06;
+            lons[i] = 4.83 + random.nextDouble() * 0.08;
+        }
+
+        // Échauffement JIT
+        for (int i = 0; i < queries; i++) {
+            index.nearest(lats[i], lons[i], 5);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            index.nearest(lats[i], lons[i], 5);
+        }
+        double averageMicros = (System.nanoTime() - start) / 1000.0 / queries;
+
+        System.out.printf("⏱️  k-d tree grandPlan (%d nœuds): %.2f µs par requête k=5%n", index.size(), averageMicros);
+        assertTrue(averageMicros < 1000, "Une requête doit prendre moins d'une milliseconde");
+    }
+
+    private static double squaredDistance(LocalProjection projection, Node node, double lat, double lon) {
+        double dx = projection.x(node.getLongitude()) - projection.x(lon);
+        double dy = projection.y(node.getLatitude()) - projection.y(lat);
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,91 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Node;
+import com.pickupdelivery.model.Segment;
+import com.pickupdelivery.xmlparser.MapXmlParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la grille des tronçons : requêtes par zone et niveaux de détail
+ */
+class SegmentGridIndexTest {
+
+    private static CityMap grandPlan;
+    private static SegmentGridIndex index;
+    private static Map<String, Node> nodesById;
+
+    @BeforeAll
+    static void loadMap() throws Exception {
+        ClassPathResource resource = new ClassPathResource("grandPlan.xml");
+        MockMultipartFile file = new MockMultipartFile("file", "grandPlan.xml", "text/xml", resource.getInputStream());
+        grandPlan = new MapXmlParser().parseMapFromXML(file);
+        index = SegmentGridIndex.build(grandPlan);
+        nodesById = new HashMap<>();
+        for (Node node : grandPlan.getNodes()) {
+            nodesById.put(node.getId(), node);
+        }
+    }
+
+    @Test
+    void query_AtFullDetail_ShouldMatchLinearFilter() {
+        double[] bounds = index.getBounds();
+        Random random = new Random(5);
+
+        for (int i = 0; i < 50; i++) {
+            double south = bounds[0] + random.nextDouble() * (bounds[2] - bounds[0]);
+            double west = bounds[1] + random.nextDouble() * (bounds[3] - bounds[1]);
+            double north = south + random.nextDouble() * 0.01;
+            double east = west + random.nextDouble() * 0.01;
+
+            List<Segment> expected = grandPlan.getSegments().stream()
+                    .filter(s -> intersects(s, south, west, north, east))
+                    .collect(Collectors.toList());
+
+            List<Segment> actual = index.query(south, west, north, east, SegmentGridIndex.FULL_DETAIL_ZOOM);
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void query_WholeMap_ShouldReturnEverySegmentOnlyAtFullDetail() {
+        double[] bounds = index.getBounds();
+
+        List<Segment> full = index.query(bounds[0], bounds[1], bounds[2], bounds[3], 18);
+        List<Segment> medium = index.query(bounds[0], bounds[1], bounds[2], bounds[3], 14);
+        List<Segment> overview = index.query(bounds[0], bounds[1], bounds[2], bounds[3], 11);
+
+        assertEquals(grandPlan.getSegments().size(), full.size());
+        assertTrue(medium.size() < full.size(), "Les petites rues doivent être masquées au zoom 14");
+        assertTrue(overview.size() < medium.size(), "Seuls les grands axes restent au zoom 11");
+        assertFalse(overview.isEmpty());
+        assertTrue(full.containsAll(medium) && medium.containsAll(overview));
+    }
+
+    @Test
+    void query_OutsideMap_ShouldReturnNothing() {
+        assertTrue(index.query(10.0, 10.0, 11.0, 11.0, 18).isEmpty());
+        assertTrue(SegmentGridIndex.build(new CityMap()).query(45.0, 4.0, 46.0, 5.0, 18).isEmpty());
+    }
+
+    private static boolean intersects(Segment segment, double south, double west, double north, double east) {
+        Node a = nodesById.get(segment.getOrigin());
+        Node b = nodesById.get(segment.getDestination());
+        return Math.max(a.getLatitude(), b.getLatitude()) >= south
+                && Math.min(a.getLatitude(), b.getLatitude()) <= north
+                && Math.max(a.getLongitude(), b.getLongitude()) >= west
+                && Math.min(a.getLongitude(), b.getLongitude()) <= east;
+    }
+}
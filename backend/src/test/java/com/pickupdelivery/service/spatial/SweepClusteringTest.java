@@ -0,0 +1,85 @@
+package com.pickupdelivery.service.spatial;
+
+import com.pickupdelivery.model.CityMap;
+import com.pickupdelivery.model.Demand;
+import com.pickupdelivery.model.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du découpage des demandes en secteurs angulaires autour de l'entrepôt
+ */
+class SweepClusteringTest {
+
+    @Test
+    void partition_ShouldGroupDemandsByQuadrant() {
+        // Entrepôt au centre, 5 demandes dans chacun des 4 quadrants
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node("W", 45.75, 4.85));
+        List<Demand> demands = new ArrayList<>();
+        double[][] quadrants = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+        for (int q = 0; q < 4; q++) {
+            for (int i = 0; i < 5; i++) {
+                double lat = 45.75 + quadrants[q][1] * (0.01 + 0.001 * i);
+                double lon = 4.85 + quadrants[q][0] * (0.01 + 0.001 * i);
+                nodes.add(new Node("P" + q + i, lat, lon));
+                nodes.add(new Node("D" + q + i, lat + 0.0005 * quadrants[q][1], lon + 0.0005 * quadrants[q][0]));
+                demands.add(new Demand("Q" + q + "-" + i, "P" + q + i, "D" + q + i, 60, 60, null));
+            }
+        }
+
+        List<List<Demand>> clusters = SweepClustering.partition(demands, "W", new CityMap(nodes, List.of()), 4);
+
+        assertEquals(4, clusters.size());
+        for (List<Demand> cluster : clusters) {
+            assertEquals(5, cluster.size());
+            String quadrant = cluster.get(0).getId().substring(0, 2);
+            assertTrue(cluster.stream().allMatch(d -> d.getId().startsWith(quadrant)),
+                "Un secteur ne doit contenir qu'un quadrant: " + cluster);
+        }
+    }
+
+    @Test
+    void partition_ShouldCoverEveryDemandOnceWithBalancedSizes() {
+        Random random = new Random(3);
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node("W", 45.75, 4.85));
+        List<Demand> demands = new ArrayList<>();
+        for (int i = 0; i < 103; i++) {
+            nodes.add(new Node("P" + i, 45.70 + random.nextDouble() * 0.1, 4.80 + random.nextDouble() * 0.1));
+            nodes.add(new Node("D" + i, 45.70 + random.nextDouble() * 0.1, 4.80 + random.nextDouble() * 0.1));
+            demands.add(new Demand("R" + i, "P" + i, "D" + i, 60, 60, null));
+        }
+
+        List<List<Demand>> clusters = SweepClustering.partition(demands, "W", new CityMap(nodes, List.of()), 7);
+
+        assertEquals(7, clusters.size());
+        Set<String> seen = new HashSet<>();
+        for (List<Demand> cluster : clusters) {
+            assertTrue(cluster.size() == 14 || cluster.size() == 15, "Taille déséquilibrée: " + cluster.size());
+            for (Demand demand : cluster) {
+                assertTrue(seen.add(demand.getId()));
+            }
+        }
+        assertEquals(103, seen.size());
+    }
+
+    @Test
+    void partition_ShouldNotCreateMoreClustersThanDemands() {
+        List<Node> nodes = List.of(new Node("W", 45.75, 4.85), new Node("A", 45.76, 4.86), new Node("B", 45.74, 4.84));
+        List<Demand> demands = List.of(new Demand("R1", "A", "B", 60, 60, null), new Demand("R2", "B", "A", 60, 60, null));
+
+        List<List<Demand>> clusters = SweepClustering.partition(demands, "W", new CityMap(nodes, List.of()), 5);
+
+        assertEquals(2, clusters.size());
+        assertThrows(IllegalArgumentException.class,
+            () -> SweepClustering.partition(demands, "W", new CityMap(nodes, List.of()), 0));
+    }
+}
@@ -351,4 +351,55 @@ class DeliveryRequestXmlParserTest {
         assertEquals("4", result.getDemands().get(1).getPickupNodeId());
         assertEquals("6", result.getDemands().get(2).getPickupNodeId());
     }
+
+    @Test
+    void parseDeliveryRequestFromXML_WithTimeWindowsAndLoad_ShouldConvertToSecondsAfterDeparture() throws Exception {
+        // Arrange - Fenêtres optionnelles, exprimées en heures d'horloge
+        String xml = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <demandeDeLivraisons>
+                <entrepot adresse="1" heureDepart="8:0:0"/>
+                <livraison adresseEnlevement="2" adresseLivraison="3" dureeEnlevement="180" dureeLivraison="240"
+                           debutEnlevement="8:30:0" finEnlevement="9:0:0" finLivraison="10:15:30" charge="4"/>
+                <livraison adresseEnlevement="4" adresseLivraison="5" dureeEnlevement="300" dureeLivraison="180"/>
+            </demandeDeLivraisons>
+            """;
+
+        MockMultipartFile file = new MockMultipartFile("file", "demande.xml", "text/xml", xml.getBytes());
+
+        // Act
+        DemandeSet result = parser.parseDeliveryRequestFromXML(file);
+
+        // Assert
+        Demand windowed = result.getDemands().get(0);
+        assertEquals(1800, windowed.getPickupEarliestSec());
+        assertEquals(3600, windowed.getPickupLatestSec());
+        assertNull(windowed.getDeliveryEarliestSec());
+        assertEquals(8130, windowed.getDeliveryLatestSec());
+        assertEquals(4, windowed.getLoad());
+
+        Demand free = result.getDemands().get(1);
+        assertNull(free.getPickupEarliestSec());
+        assertNull(free.getDeliveryLatestSec());
+        assertNull(free.getLoad());
+    }
+
+    @Test
+    void parseDeliveryRequestFromXML_WithMalformedTimeWindow_ShouldThrowException() {
+        // Arrange - Heure invalide
+        String xml = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <demandeDeLivraisons>
+                <entrepot adresse="1" heureDepart="8:0:0"/>
+                <livraison adresseEnlevement="2" adresseLivraison="3" dureeEnlevement="180" dureeLivraison="240"
+                           finLivraison="midi"/>
+            </demandeDeLivraisons>
+            """;
+
+        MockMultipartFile file = new MockMultipartFile("file", "demande.xml", "text/xml", xml.getBytes());
+
+        // Act & Assert
+        Exception exception = assertThrows(Exception.class, () -> parser.parseDeliveryRequestFromXML(file));
+        assertTrue(exception.getMessage().contains("finLivraison"));
+    }
 }
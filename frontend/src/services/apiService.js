@@ -42,6 +42,40 @@ class ApiService {
     return response.json();
   }
 
+  /**
+   * Récupère uniquement la portion de carte visible (tronçons de la zone + extrémités)
+   * @param {Object} bounds - { minLat, minLon, maxLat, maxLon }
+   * @param {number} zoom - Niveau de zoom (les rues secondaires sont masquées aux zooms faibles)
+   * @returns {Promise} La portion de carte visible
+   */
+  async getMapViewport({ minLat, minLon, maxLat, maxLon }, zoom) {
+    const params = new URLSearchParams({ minLat, minLon, maxLat, maxLon, zoom });
+    const response = await fetch(`${API_BASE_URL}/maps/viewport?${params}`);
+
+    if (!response.ok) {
+      throw new Error('Erreur lors de la récupération de la zone de carte');
+    }
+
+    return response.json();
+  }
+
+  /**
+   * Récupère une tuile de la carte (schéma z/x/y), mise en cache côté serveur
+   * @param {number} z - Niveau de zoom
+   * @param {number} x - Colonne de la tuile
+   * @param {number} y - Ligne de la tuile
+   * @returns {Promise} Les tronçons de la tuile
+   */
+  async getMapTile(z, x, y) {
+    const response = await fetch(`${API_BASE_URL}/maps/tiles/${z}/${x}/${y}`);
+
+    if (!response.ok) {
+      throw new Error('Erreur lors de la récupération de la tuile');
+    }
+
+    return response.json();
+  }
+
   /**
    * Vérifie si une carte est chargée
    * @returns {Promise} Le statut de la carte